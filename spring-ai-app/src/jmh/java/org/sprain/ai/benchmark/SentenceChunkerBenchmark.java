@@ -0,0 +1,72 @@
+package org.sprain.ai.benchmark;
+
+import com.knuddels.jtokkit.Encodings;
+import com.knuddels.jtokkit.api.EncodingType;
+import org.openjdk.jmh.annotations.*;
+import org.sprain.ai.global.helper.ingest.SentenceChunker;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.transformer.splitter.TokenTextSplitter;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 텍스트 문서 청킹 처리량 비교 (chars/sec)
+ * <p>
+ * tokenTextSplitter: 기존 splitDocument 방식 (호출마다 TokenTextSplitter 생성, 단일 스레드)
+ *                    maxNumChunks는 잘림이 없도록 Integer.MAX_VALUE로 맞춤
+ * sentenceChunker: SentenceChunker 빈 재사용 (문장 단위 토큰 계산, 큰 문서는 세그먼트 병렬 처리)
+ * <p>
+ * 결과의 chars 보조 카운터가 초당 처리 문자 수다.
+ * <pre>
+ * ./gradlew :spring-ai-app:jmh -Pjmh.includes=SentenceChunkerBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"-Xms512m", "-Xmx2g"})
+public class SentenceChunkerBenchmark {
+
+    private static final String SAMPLE = """
+        연차 신청은 사내 포털의 근태 메뉴에서 할 수 있습니다. 신청 후 팀장 승인이 필요합니다.
+        반차는 오전(09:00~13:00)과 오후(14:00~18:00)로 나뉩니다! 남은 연차는 3.5일인가요?
+        Annual leave requests are submitted through the HR portal and approved by the team lead.
+
+        """;
+
+    @Param({"64", "1024", "8192"})
+    public int sizeKb;
+
+    private String text;
+    private SentenceChunker sentenceChunker;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        text = SAMPLE.repeat(Math.max(1, sizeKb * 1024 / SAMPLE.length()));
+        sentenceChunker = new SentenceChunker(
+            Encodings.newLazyEncodingRegistry().getEncoding(EncodingType.CL100K_BASE),
+            500, 50, 64_000);
+    }
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Chars {
+        public long chars;
+    }
+
+    @Benchmark
+    public int tokenTextSplitter(Chars counter) {
+        TokenTextSplitter splitter = new TokenTextSplitter(500, 100, 5, Integer.MAX_VALUE, true);
+        List<Document> chunks = splitter.split(new Document(text));
+        counter.chars += text.length();
+        return chunks.size();
+    }
+
+    @Benchmark
+    public int sentenceChunker(Chars counter) {
+        List<SentenceChunker.Chunk> chunks = sentenceChunker.split(text);
+        counter.chars += text.length();
+        return chunks.size();
+    }
+}
@@ -0,0 +1,124 @@
+package org.sprain.ai.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.Blackhole;
+import org.sprain.ai.global.helper.ingest.StreamingTextChunker;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 파일 크기에 따른 업로드 청킹 메모리 사용량 비교
+ * <p>
+ * streaming: StreamingTextChunker로 Reader를 바로 청킹 (현재 업로드 경로)
+ * wholeFile: 파일 전체를 String으로 만든 뒤 청킹 (기존 getBytes() 경로)
+ * <p>
+ * 각 iteration 종료 시 힙 피크 사용량과 청커 윈도우 크기를 출력한다.
+ * streaming은 파일 크기가 커져도 윈도우와 힙 피크가 일정하게 유지된다.
+ * <pre>
+ * ./gradlew :spring-ai-app:jmh -Pjmh.includes=StreamingChunkerBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"-Xms256m", "-Xmx2g"})
+public class StreamingChunkerBenchmark {
+
+    private static final String SAMPLE = """
+        연차 신청은 사내 포털의 근태 메뉴에서 할 수 있습니다. 신청 후 팀장 승인이 필요합니다.
+        Annual leave requests are submitted through the HR portal and approved by the team lead.
+        """;
+
+    @Param({"1", "16", "64"})
+    public int fileSizeMb;
+
+    private StreamingTextChunker chunker;
+    private int streamingPeakWindow;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        chunker = new StreamingTextChunker(1000, 100);
+    }
+
+    @Setup(Level.Iteration)
+    public void resetPeak() {
+        System.gc();
+        heapPools().forEach(MemoryPoolMXBean::resetPeakUsage);
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportPeak(BenchmarkParams params) {
+        long peakBytes = heapPools().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+        System.out.printf("%n[%s] fileSizeMb=%d peakHeapMb=%d peakWindowChars=%d%n",
+            params.getBenchmark().substring(params.getBenchmark().lastIndexOf('.') + 1),
+            fileSizeMb, peakBytes / (1024 * 1024), streamingPeakWindow);
+    }
+
+    @Benchmark
+    public int streaming(Blackhole blackhole) throws IOException {
+        try (Reader reader = new RepeatingReader(SAMPLE, fileSizeMb * 1024L * 1024L)) {
+            StreamingTextChunker.ChunkStats stats = chunker.chunk(reader, blackhole::consume);
+            streamingPeakWindow = stats.peakWindowChars();
+            return stats.chunkCount();
+        }
+    }
+
+    @Benchmark
+    public int wholeFile(Blackhole blackhole) throws IOException {
+        StringBuilder content = new StringBuilder();
+        try (Reader reader = new RepeatingReader(SAMPLE, fileSizeMb * 1024L * 1024L)) {
+            char[] buffer = new char[8192];
+            int read;
+            while ((read = reader.read(buffer)) > 0) {
+                content.append(buffer, 0, read);
+            }
+        }
+        String text = content.toString();
+        StreamingTextChunker.ChunkStats stats = chunker.chunk(new StringReader(text), blackhole::consume);
+        streamingPeakWindow = stats.peakWindowChars();
+        return stats.chunkCount();
+    }
+
+    private static java.util.stream.Stream<MemoryPoolMXBean> heapPools() {
+        return ManagementFactory.getMemoryPoolMXBeans().stream()
+            .filter(pool -> pool.getType() == MemoryType.HEAP);
+    }
+
+    /**
+     * 샘플 문장을 반복해 지정한 길이만큼 만들어내는 Reader (메모리에 전체를 만들지 않음)
+     */
+    static final class RepeatingReader extends Reader {
+        private final String sample;
+        private final long length;
+        private long position;
+
+        RepeatingReader(String sample, long length) {
+            this.sample = sample;
+            this.length = length;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) {
+            if (position >= length) {
+                return -1;
+            }
+            int count = (int) Math.min(len, length - position);
+            for (int i = 0; i < count; i++) {
+                cbuf[off + i] = sample.charAt((int) ((position + i) % sample.length()));
+            }
+            position += count;
+            return count;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package org.sprain.ai.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.sprain.ai.global.helper.vector.HnswIndex;
+import org.sprain.ai.global.helper.vector.MappedVectorFile;
+import org.sprain.ai.global.helper.vector.VectorMath;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * top-K 벡터 검색 지연 시간/재현율 비교 (HNSW 인메모리 vs pgvector)
+ * <p>
+ * 군집 형태의 합성 벡터 count개를 만들어 같은 데이터로 비교한다.
+ * <ul>
+ *     <li>hnsw: HnswIndex.search (efSearch별)</li>
+ *     <li>exact: 전수 검색 (재현율 기준값)</li>
+ *     <li>pgvector: PgVectorStore와 같은 SQL (ORDER BY embedding &lt;=&gt; ? LIMIT k)
+ *         - -Pjdbc.url=jdbc:postgresql://localhost:5432/db?user=..&amp;password=.. 를 줬을 때만 실행</li>
+ * </ul>
+ * HNSW 재현율(recall@k, 전수 검색 대비)은 setup에서 계산해 출력한다.
+ * pgvector HNSW 인덱스는 2000차원까지만 지원하므로 dimensions가 더 크면 인덱스 없이 (전수 검색) 비교된다.
+ * <pre>
+ * ./gradlew :spring-ai-app:jmh -Pjmh.includes='VectorSearchBenchmark.(hnsw|exact)'
+ * ./gradlew :spring-ai-app:jmh -Pjmh.includes=VectorSearchBenchmark -Pjdbc.url='jdbc:postgresql://localhost:5432/sprain?user=..&amp;password=..'
+ * </pre>
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx4g"})
+public class VectorSearchBenchmark {
+
+    private static final int CLUSTERS = 64;
+    private static final int QUERIES = 256;
+    private static final int TOP_K = 5;
+
+    @Param({"1024"})
+    public int dimensions;
+
+    @Param({"20000"})
+    public int count;
+
+    @Param({"32", "64", "128"})
+    public int efSearch;
+
+    private Path directory;
+    private MappedVectorFile vectors;
+    private HnswIndex index;
+    private float[][] queries;
+    private int next;
+
+    private Connection connection;
+    private PreparedStatement pgQuery;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        SplittableRandom random = new SplittableRandom(7);
+        float[][] centroids = new float[CLUSTERS][];
+        for (int c = 0; c < CLUSTERS; c++) {
+            centroids[c] = gaussian(random, null, 1.0f);
+        }
+
+        directory = Files.createTempDirectory("hnsw-bench");
+        vectors = new MappedVectorFile(directory.resolve("vectors.bin"), dimensions);
+        index = new HnswIndex(vectors, 16, 100);
+        List<float[]> data = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            float[] v = gaussian(random, centroids[random.nextInt(CLUSTERS)], 0.6f);
+            data.add(v);
+            index.insert(vectors.append(v));
+        }
+
+        queries = new float[QUERIES][];
+        for (int q = 0; q < QUERIES; q++) {
+            queries[q] = VectorMath.normalize(gaussian(random, centroids[random.nextInt(CLUSTERS)], 0.6f));
+        }
+
+        String jdbcUrl = System.getProperty("jdbc.url");
+        if (jdbcUrl != null) {
+            setUpPgvector(jdbcUrl, data);
+        }
+
+        // 재현율: 전수 검색 top-K 대비 (pgvector id는 SERIAL이므로 node + 1)
+        double hnswHits = 0;
+        double pgHits = 0;
+        for (float[] query : queries) {
+            Set<Integer> expected = new HashSet<>();
+            index.exactSearch(query, TOP_K, null).forEach(s -> expected.add(s.node()));
+            for (HnswIndex.Scored s : index.search(query, TOP_K, efSearch, null)) {
+                if (expected.contains(s.node())) {
+                    hnswHits++;
+                }
+            }
+            if (pgQuery != null) {
+                pgQuery.setString(1, toPgVector(query));
+                try (ResultSet rs = pgQuery.executeQuery()) {
+                    while (rs.next()) {
+                        if (expected.contains(rs.getInt("id") - 1)) {
+                            pgHits++;
+                        }
+                    }
+                }
+            }
+        }
+        System.out.printf("%n[HNSW] count=%d, dims=%d, efSearch=%d → recall@%d = %.4f%n",
+            count, dimensions, efSearch, TOP_K, hnswHits / (QUERIES * TOP_K));
+        if (pgQuery != null) {
+            System.out.printf("[pgvector] recall@%d = %.4f%n", TOP_K, pgHits / (QUERIES * TOP_K));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException, SQLException {
+        vectors.close();
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(directory);
+        if (connection != null) {
+            try (Statement st = connection.createStatement()) {
+                st.execute("DROP TABLE IF EXISTS bench_vector_store");
+            }
+            connection.close();
+        }
+    }
+
+    @Benchmark
+    public List<HnswIndex.Scored> hnsw() {
+        return index.search(nextQuery(), TOP_K, efSearch, null);
+    }
+
+    @Benchmark
+    public List<HnswIndex.Scored> exact() {
+        return index.exactSearch(nextQuery(), TOP_K, null);
+    }
+
+    @Benchmark
+    public int pgvector() throws SQLException {
+        if (pgQuery == null) {
+            throw new IllegalStateException("-Pjdbc.url이 없어 pgvector 비교를 건너뜁니다");
+        }
+        pgQuery.setString(1, toPgVector(nextQuery()));
+        int rows = 0;
+        try (ResultSet rs = pgQuery.executeQuery()) {
+            while (rs.next()) {
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private float[] nextQuery() {
+        return queries[next++ & (QUERIES - 1)];
+    }
+
+    private void setUpPgvector(String jdbcUrl, List<float[]> data) throws SQLException {
+        connection = DriverManager.getConnection(jdbcUrl);
+        try (Statement st = connection.createStatement()) {
+            st.execute("DROP TABLE IF EXISTS bench_vector_store");
+            st.execute("CREATE TABLE bench_vector_store (id SERIAL PRIMARY KEY, embedding vector(" + dimensions + "))");
+        }
+        try (PreparedStatement insert = connection.prepareStatement(
+            "INSERT INTO bench_vector_store (embedding) VALUES (?::vector)")) {
+            for (int i = 0; i < data.size(); i++) {
+                insert.setString(1, toPgVector(data.get(i)));
+                insert.addBatch();
+                if (i % 500 == 499) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        try (Statement st = connection.createStatement()) {
+            if (dimensions <= 2000) {
+                st.execute("CREATE INDEX ON bench_vector_store USING hnsw (embedding vector_cosine_ops)");
+                st.execute("SET hnsw.ef_search = " + efSearch);
+            }
+            st.execute("ANALYZE bench_vector_store");
+        }
+        pgQuery = connection.prepareStatement(
+            "SELECT id, embedding <=> ?::vector AS distance FROM bench_vector_store ORDER BY distance LIMIT " + TOP_K);
+    }
+
+    private float[] gaussian(SplittableRandom random, float[] center, float sigma) {
+        float[] v = new float[dimensions];
+        for (int i = 0; i < dimensions; i++) {
+            // Box-Muller
+            double g = Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+            v[i] = (center == null ? 0f : center[i]) + (float) g * sigma;
+        }
+        return v;
+    }
+
+    private static String toPgVector(float[] v) {
+        StringBuilder sb = new StringBuilder(v.length * 10).append('[');
+        for (int i = 0; i < v.length; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(v[i]);
+        }
+        return sb.append(']').toString();
+    }
+}
@@ -0,0 +1,180 @@
+package org.sprain.ai.config;
+
+import com.knuddels.jtokkit.Encodings;
+import com.knuddels.jtokkit.api.Encoding;
+import com.knuddels.jtokkit.api.EncodingType;
+import lombok.Getter;
+import lombok.Setter;
+import org.sprain.ai.global.helper.ingest.HierarchicalChunker;
+import org.sprain.ai.global.helper.ingest.SentenceChunker;
+import org.sprain.ai.global.helper.ingest.StreamingSentenceChunker;
+import org.sprain.ai.global.helper.ingest.StreamingTextChunker;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 문서 수집(Ingestion) 설정
+ * application.yml의 sprain.ingestion.* 값을 바인딩
+ */
+@Configuration
+@ConfigurationProperties(prefix = "sprain.ingestion")
+@Getter
+@Setter
+public class IngestionConfig {
+
+    /**
+     * 청크 최대 크기 (문자 단위, StreamingTextChunker - 문자 기준으로 청킹된 이전 문서용)
+     */
+    private int chunkSize = 1000;
+
+    /**
+     * 인접 청크 간 겹치는 문자 수
+     */
+    private int chunkOverlap = 100;
+
+    /**
+     * 청크 최대 토큰 수 (SentenceChunker, 부모/자식 청킹을 쓰지 않을 때)
+     */
+    private int chunkTokens = 500;
+
+    /**
+     * 인접 청크 간 겹치는 최대 토큰 수 (문장 단위)
+     */
+    private int chunkOverlapTokens = 50;
+
+    /**
+     * 이 길이(문자)를 넘는 문서는 세그먼트로 나눠 병렬 청킹
+     */
+    private int chunkSegmentChars = 64_000;
+
+    /**
+     * 문서를 부모(절)/자식 2단계로 청킹 (자식을 임베딩, 검색 시 부모 구간으로 확장)
+     * 텍스트 추가와 파일 업로드/일괄 수집에 모두 적용
+     */
+    private boolean hierarchicalChunking = true;
+
+    /**
+     * 부모 구간 최대 토큰 수 (LLM에 전달되는 단위)
+     */
+    private int parentChunkTokens = 1500;
+
+    /**
+     * 자식 청크 최대 토큰 수 (임베딩 단위)
+     */
+    private int childChunkTokens = 200;
+
+    /**
+     * 인접 자식 청크 간 겹치는 최대 토큰 수 (같은 부모 안에서만)
+     */
+    private int childChunkOverlapTokens = 20;
+
+    /**
+     * Vector Store에 한 번에 전달할 청크 수
+     */
+    private int batchSize = 32;
+
+    /**
+     * 동시에 진행할 임베딩 배치 수 (전체 업로드 공용, Ollama 보호용)
+     */
+    private int embeddingConcurrency = 4;
+
+    /**
+     * 배치당 최대 시도 횟수
+     */
+    private int maxAttempts = 3;
+
+    /**
+     * 첫 재시도 대기 시간 (이후 2배씩 증가)
+     */
+    private Duration retryBackoff = Duration.ofMillis(500);
+
+    /**
+     * 업로드 원본을 임시 저장할 디렉터리 (작업 완료 시 삭제)
+     */
+    private String spoolDir = System.getProperty("java.io.tmpdir") + "/sprain-ingestion";
+
+    /**
+     * 동시에 실행할 수집 작업 수 (전역 상한)
+     */
+    private int maxConcurrentJobs = 2;
+
+    /**
+     * 일괄 수집 시 동시에 처리할 파일 수 (임베딩 동시성은 embeddingConcurrency로 별도 제한)
+     */
+    private int bulkConcurrency = 4;
+
+    /**
+     * API로 일괄 수집할 수 있는 서버 디렉터리 루트 (비어 있으면 디렉터리 수집 API 비활성)
+     */
+    private String bulkRoot;
+
+    /**
+     * 일괄 수집 대상 확장자 (그 외 파일은 건너뜀)
+     */
+    private List<String> bulkExtensions = List.of("txt", "md", "markdown", "csv", "json", "html", "xml", "log");
+
+    /**
+     * 일괄 수집 시 파일 하나의 최대 크기 (ZIP 압축 해제 포함)
+     */
+    private DataSize bulkMaxFileSize = DataSize.ofMegabytes(256);
+
+    /**
+     * 끝난 일괄 수집 보고서 보관 시간 (이후 조회 불가)
+     */
+    private Duration bulkRunRetention = Duration.ofHours(1);
+
+    /**
+     * 보관하는 일괄 수집 실행 최대 수 (넘으면 오래전에 끝난 실행부터 제거, 진행 중인 실행은 유지)
+     */
+    private int bulkMaxRuns = 100;
+
+    @Bean
+    public StreamingTextChunker streamingTextChunker() {
+        return new StreamingTextChunker(chunkSize, chunkOverlap);
+    }
+
+    /**
+     * 문장/토큰 기준 청커 (cl100k_base 토크나이저, 스레드 안전)
+     */
+    @Bean
+    public SentenceChunker sentenceChunker() {
+        Encoding encoding = Encodings.newLazyEncodingRegistry().getEncoding(EncodingType.CL100K_BASE);
+        return new SentenceChunker(encoding, chunkTokens, chunkOverlapTokens, chunkSegmentChars);
+    }
+
+    /**
+     * 부모/자식 2단계 청커 (small-to-big, 스레드 안전)
+     */
+    @Bean
+    public HierarchicalChunker hierarchicalChunker() {
+        Encoding encoding = Encodings.newLazyEncodingRegistry().getEncoding(EncodingType.CL100K_BASE);
+        return new HierarchicalChunker(encoding, parentChunkTokens, childChunkTokens, childChunkOverlapTokens,
+            chunkSegmentChars);
+    }
+
+    /**
+     * 파일 수집용 스트리밍 문장/토큰 청커 (세그먼트 단위로 읽어 sentenceChunker/hierarchicalChunker와 같은 결과)
+     */
+    @Bean
+    public StreamingSentenceChunker streamingSentenceChunker(SentenceChunker sentenceChunker,
+                                                             HierarchicalChunker hierarchicalChunker) {
+        return new StreamingSentenceChunker(sentenceChunker, hierarchicalChunker, chunkSegmentChars);
+    }
+
+    /**
+     * 수집 작업 실행기
+     * 스레드 수 = 동시 실행 작업 상한, 나머지 작업은 큐에서 대기
+     */
+    @Bean(name = "ingestionJobExecutor", destroyMethod = "shutdown")
+    public ExecutorService ingestionJobExecutor() {
+        return Executors.newFixedThreadPool(maxConcurrentJobs,
+            Thread.ofPlatform().name("ingestion-job-", 0).factory());
+    }
+}
@@ -21,8 +21,30 @@ public class RagConfig {
 
     private String filterExpression;
 
+    /**
+     * 재순위 후보 수 (topK보다 크고 Reranker가 주어졌을 때만 이만큼 검색 후 topK로 재순위)
+     */
     @Builder.Default
-    private String systemPromptTemplate = """
+    private int rerankCandidates = 0;
+
+    /**
+     * MMR 후보 수 (topK보다 크고 MmrSelector가 주어졌을 때만 이만큼 검색 후 MMR로 topK 선택)
+     */
+    @Builder.Default
+    private int mmrCandidates = 0;
+
+    /**
+     * MMR 관련도 가중치 (1이면 유사도 순, 작을수록 다양성 우선)
+     */
+    @Builder.Default
+    private double mmrLambda = 0.5;
+
+    /**
+     * 검색 문서({context})와 질문({query})을 담을 사용자 메시지 템플릿
+     * (질문마다 바뀌므로 시스템 프롬프트가 아닌 사용자 턴에 넣어 프롬프트 캐시 접두사를 유지)
+     */
+    @Builder.Default
+    private String userPromptTemplate = """
         다음은 검색된 관련 문서들입니다. 이 문서들을 참고하여 질문에 답변해주세요.
         
         **중요 규칙:**
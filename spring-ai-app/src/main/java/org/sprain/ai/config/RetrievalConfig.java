@@ -0,0 +1,427 @@
+package org.sprain.ai.config;
+
+import com.knuddels.jtokkit.Encodings;
+import com.knuddels.jtokkit.api.Encoding;
+import com.knuddels.jtokkit.api.EncodingType;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.sprain.ai.global.helper.embedding.QueryEmbeddingCache;
+import org.sprain.ai.global.helper.keyword.KeywordSearchIndex;
+import org.sprain.ai.global.helper.rag.ContextAssembler;
+import org.sprain.ai.global.helper.rag.MmrSelector;
+import org.sprain.ai.global.helper.rag.MultiQueryRetriever;
+import org.sprain.ai.global.helper.rag.ParentChunkStore;
+import org.sprain.ai.global.helper.rag.SearchResultCache;
+import org.sprain.ai.global.helper.rag.SemanticAnswerCache;
+import org.sprain.ai.global.helper.rag.SmallToBigExpander;
+import org.sprain.ai.global.helper.rerank.CrossEncoderRerankScorer;
+import org.sprain.ai.global.helper.rerank.LexicalRerankScorer;
+import org.sprain.ai.global.helper.rerank.RerankScorer;
+import org.sprain.ai.global.helper.rerank.Reranker;
+import org.sprain.ai.global.helper.vector.HnswVectorStore;
+import org.sprain.ai.global.helper.vector.SearchProfile;
+import org.sprain.ai.global.helper.vector.SearchProfiles;
+import org.sprain.ai.repository.ChunkParentRepository;
+import org.sprain.ai.repository.DocumentContentRepository;
+import org.sprain.ai.repository.VectorStoreChunkRepository;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 검색(Retrieval) 설정
+ * application.yml의 sprain.retrieval.* 값을 바인딩
+ */
+@Configuration
+@ConfigurationProperties(prefix = "sprain.retrieval")
+@Getter
+@Setter
+public class RetrievalConfig {
+
+    /**
+     * 질의 임베딩 캐시 최대 항목 수
+     */
+    private int queryCacheMaxSize = 10_000;
+
+    /**
+     * 질의 임베딩 캐시 유효 시간
+     */
+    private Duration queryCacheTtl = Duration.ofMinutes(30);
+
+    /**
+     * 의미 기반 답변 캐시 사용 여부
+     */
+    private boolean answerCacheEnabled = true;
+
+    /**
+     * 이전 질의의 답변을 재사용할 최소 코사인 유사도
+     */
+    private double answerCacheThreshold = 0.95;
+
+    /**
+     * 의미 기반 답변 캐시 최대 항목 수 (조회 시 선형 탐색하므로 수천 개 이내로 유지)
+     */
+    private int answerCacheMaxSize = 1_000;
+
+    /**
+     * 의미 기반 답변 캐시 유효 시간
+     */
+    private Duration answerCacheTtl = Duration.ofHours(1);
+
+    /**
+     * 검색 결과(top-K) 캐시 사용 여부
+     */
+    private boolean searchCacheEnabled = true;
+
+    /**
+     * 검색 결과 캐시 최대 항목 수 (질의 + topK + threshold + 필터 조합 수)
+     */
+    private int searchCacheMaxSize = 5_000;
+
+    /**
+     * 검색 결과 캐시가 보관하는 청크 본문 최대 수 (결과끼리 공유)
+     */
+    private int searchCacheMaxChunks = 20_000;
+
+    /**
+     * 검색 결과 캐시 유효 시간 (문서 변경은 이벤트로 즉시 무효화되므로 안전망 용도)
+     */
+    private Duration searchCacheTtl = Duration.ofMinutes(10);
+
+    /**
+     * 검색 백엔드: pgvector(기본) | hnsw(JVM 내 HNSW 인덱스, vector_store를 원본으로 동기화)
+     */
+    private String vectorStore = "pgvector";
+
+    /**
+     * HNSW 인덱스 파일 디렉터리 (vectors.bin, index.bin)
+     */
+    private String hnswDirectory = "data/hnsw";
+
+    /**
+     * HNSW 노드당 이웃 수 (레벨 0은 2배)
+     */
+    private int hnswM = 16;
+
+    /**
+     * HNSW 삽입 시 탐색 후보 수 (클수록 정확도↑, 색인 속도↓)
+     */
+    private int hnswEfConstruction = 100;
+
+    /**
+     * HNSW 검색 시 탐색 후보 수 (topK보다 작으면 topK 사용)
+     */
+    private int hnswEfSearch = 64;
+
+    /**
+     * 필터 조건에 맞는 청크가 이 수 이하면 그래프 대신 전수 검색
+     */
+    private int hnswExactScanLimit = 2_000;
+
+    /**
+     * vector_store와 전체 정합성 점검 주기
+     */
+    private Duration hnswReconcileInterval = Duration.ofMinutes(10);
+
+    /**
+     * pgvector 후보 검색 양자화: none(기본) | halfvec | binary
+     * halfvec/binary는 식 인덱스로 후보를 뽑고 원본 벡터로 재채점 (pgvector 0.7+)
+     */
+    private String quantization = "none";
+
+    /**
+     * 양자화 후보 수 = topK x 이 값 (binary는 8 이상 권장)
+     */
+    private int rescoreOversample = 4;
+
+    /**
+     * 임베딩을 단위 벡터로 정규화해 저장/질의 (양자화 인덱스가 코사인 대신 내적을 사용)
+     * 켜면 시작 시 기존 vector_store 행도 정규화한다.
+     */
+    private boolean normalizeEmbeddings = false;
+
+    /**
+     * 검색 프로필 → ANN 탐색 파라미터 (pgvector 검색마다 hnsw.ef_search, ivfflat.probes로 SET LOCAL)
+     */
+    private Map<String, SearchProfileProperties> searchProfiles = defaultSearchProfiles();
+
+    /**
+     * 프로필을 지정하지 않은 검색에 쓰는 프로필
+     */
+    private String defaultSearchProfile = "balanced";
+
+    /**
+     * BM25 키워드 색인 사용 여부 (켜면 시작 시 vector_store 전체를 읽어 메모리에 색인하고 하이브리드 RAG(POST /api/rag/ask-hybrid)를 등록)
+     */
+    private boolean keywordSearchEnabled = false;
+
+    /**
+     * BM25 빈도 포화 계수 k1
+     */
+    private double keywordK1 = 1.2;
+
+    /**
+     * BM25 길이 정규화 계수 b (0이면 길이 무시)
+     */
+    private double keywordB = 0.75;
+
+    /**
+     * 재순위 점수기 → 가중치 (lexical | cross-encoder, 가중치 0이면 제외, 모두 제외하면 재순위 안 함)
+     */
+    private Map<String, Double> rerankScorers = new LinkedHashMap<>(Map.of(LexicalRerankScorer.NAME, 1.0));
+
+    /**
+     * 재순위 시간 예산 (넘기면 검색 순서 사용)
+     */
+    private Duration rerankLatencyBudget = Duration.ofMillis(300);
+
+    /**
+     * cross-encoder 재순위 서버 주소 (Cohere 호환 /v1/rerank)
+     */
+    private String rerankCrossEncoderUrl = "http://localhost:8082";
+
+    /**
+     * cross-encoder 재순위 모델 이름
+     */
+    private String rerankCrossEncoderModel = "bge-reranker-v2-m3";
+
+    /**
+     * 다중 질의 검색의 재작성 질의 수 (원 질의 제외)
+     */
+    private int multiQueryRewrites = 3;
+
+    /**
+     * 다중 질의 검색 제한 시간 (재작성 + 검색, 넘긴 검색은 결합에서 제외)
+     */
+    private Duration multiQueryTimeout = Duration.ofSeconds(5);
+
+    /**
+     * 프롬프트 컨텍스트 최대 토큰 (cl100k_base 기준)
+     */
+    private int contextTokenBudget = 3000;
+
+    /**
+     * 점수 절벽 기준: 이웃 결과 간 점수 하락이 최고 점수의 이 비율을 넘으면 이후 결과 제외 (0이면 사용 안 함)
+     */
+    private double contextCliffRatio = 0.25;
+
+    /**
+     * 중복 결과로 볼 색인어 Jaccard 유사도
+     */
+    private double contextDuplicateThreshold = 0.9;
+
+    /**
+     * MMR 후보 배수: RagService 검색에서 topK x 이 값만큼 후보를 가져와 MMR로 topK 선택 (1 이하면 사용 안 함)
+     */
+    private int mmrCandidateFactor = 3;
+
+    /**
+     * MMR 관련도 가중치 (1이면 유사도 순, 작을수록 다양성 우선)
+     */
+    private double mmrLambda = 0.5;
+
+    /**
+     * 자식 청크 검색 결과를 부모 구간으로 확장 (같은 부모에 적중한 형제는 병합)
+     */
+    private boolean parentExpansion = true;
+
+    /**
+     * 부모 구간 본문 로컬 캐시 최대 항목 수
+     */
+    private int parentCacheMaxSize = 2_000;
+
+    /**
+     * 스트리밍 RAG 검색 스레드 수 (임베딩 + 벡터 검색)
+     */
+    private int streamRetrievalThreads = 16;
+
+    /**
+     * 스트리밍 RAG 검색 대기열 크기 (넘치면 요청 거절)
+     */
+    private int streamRetrievalQueueSize = 256;
+
+    /**
+     * 질의별로 고를 수 있는 검색 속도/재현율 프로필
+     */
+    @Bean
+    public SearchProfiles searchProfiles() {
+        Map<String, SearchProfile> profiles = new LinkedHashMap<>();
+        searchProfiles.forEach((name, properties) -> {
+            String key = name.toLowerCase(Locale.ROOT);
+            profiles.put(key, new SearchProfile(key, properties.getEfSearch(), properties.getProbes()));
+        });
+        return new SearchProfiles(profiles, defaultSearchProfile.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * 모든 검색 경로(RagService, RAG Advisor)가 공유하는 질의 임베딩 캐시
+     */
+    @Bean
+    public QueryEmbeddingCache queryEmbeddingCache(MeterRegistry meterRegistry) {
+        return new QueryEmbeddingCache(queryCacheMaxSize, queryCacheTtl, meterRegistry);
+    }
+
+    /**
+     * RagService와 RAG Advisor가 공유하는 의미 기반 답변 캐시 (문서 변경 이벤트로 무효화)
+     */
+    @Bean
+    public SemanticAnswerCache semanticAnswerCache(MeterRegistry meterRegistry) {
+        return new SemanticAnswerCache(answerCacheEnabled, answerCacheThreshold,
+            answerCacheMaxSize, answerCacheTtl, meterRegistry);
+    }
+
+    /**
+     * VectorStore 앞단의 검색 결과 캐시 (청크 추가/삭제와 문서 변경 이벤트로 무효화)
+     */
+    @Bean
+    public SearchResultCache searchResultCache(MeterRegistry meterRegistry) {
+        return new SearchResultCache(searchCacheEnabled, searchCacheMaxSize,
+            searchCacheMaxChunks, searchCacheTtl, meterRegistry);
+    }
+
+    /**
+     * 하이브리드 검색의 BM25 키워드 색인 (vector_store에서 구축, 문서 변경 이벤트로 갱신)
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "sprain.retrieval", name = "keyword-search-enabled", havingValue = "true")
+    public KeywordSearchIndex keywordSearchIndex(VectorStoreChunkRepository vectorStoreChunkRepository,
+                                                 MeterRegistry meterRegistry) {
+        return new KeywordSearchIndex(vectorStoreChunkRepository, keywordK1, keywordB, meterRegistry);
+    }
+
+    /**
+     * 검색 후보 재순위 단계 (RagService, AdvancedRagAdvisor 공용)
+     */
+    @Bean
+    public Reranker reranker(RestClient.Builder restClientBuilder, MeterRegistry meterRegistry) {
+        Map<RerankScorer, Double> scorers = new LinkedHashMap<>();
+        rerankScorers.forEach((name, weight) -> {
+            if (weight == null || weight <= 0) {
+                return;
+            }
+            RerankScorer scorer = switch (name) {
+                case LexicalRerankScorer.NAME -> new LexicalRerankScorer();
+                case CrossEncoderRerankScorer.NAME -> {
+                    JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory();
+                    requestFactory.setReadTimeout(rerankLatencyBudget);
+                    yield new CrossEncoderRerankScorer(restClientBuilder.clone()
+                        .baseUrl(rerankCrossEncoderUrl)
+                        .requestFactory(requestFactory)
+                        .build(), rerankCrossEncoderModel);
+                }
+                default -> throw new IllegalStateException("알 수 없는 재순위 점수기: " + name);
+            };
+            scorers.put(scorer, weight);
+        });
+        return new Reranker(scorers, rerankLatencyBudget, meterRegistry);
+    }
+
+    /**
+     * 다중 질의 검색 (재작성 + 병렬 검색 + RRF 결합)
+     */
+    @Bean
+    public MultiQueryRetriever multiQueryRetriever(VectorStore vectorStore,
+                                                   @Qualifier("queryRewriteChatClient") ChatClient chatClient,
+                                                   SearchProfiles searchProfiles,
+                                                   MeterRegistry meterRegistry) {
+        return new MultiQueryRetriever(vectorStore, chatClient, searchProfiles, multiQueryRewrites,
+            multiQueryTimeout, meterRegistry);
+    }
+
+    /**
+     * 검색 결과를 토큰 예산 안의 컨텍스트로 조립 (RagService, RAG Advisor 공용)
+     */
+    @Bean
+    public ContextAssembler contextAssembler(MeterRegistry meterRegistry) {
+        Encoding encoding = Encodings.newLazyEncodingRegistry().getEncoding(EncodingType.CL100K_BASE);
+        return new ContextAssembler(encoding::countTokens, contextTokenBudget, contextCliffRatio,
+            contextDuplicateThreshold, meterRegistry);
+    }
+
+    /**
+     * MMR 다양성 선택 (후보 임베딩은 HNSW 백엔드면 메모리에서, 아니면 vector_store 일괄 조회)
+     */
+    @Bean
+    public MmrSelector mmrSelector(@Qualifier("cachingEmbeddingModel") EmbeddingModel embeddingModel,
+                                   ObjectProvider<HnswVectorStore> hnswVectorStore,
+                                   VectorStoreChunkRepository vectorStoreChunkRepository,
+                                   MeterRegistry meterRegistry) {
+        HnswVectorStore hnsw = hnswVectorStore.getIfAvailable();
+        return new MmrSelector(embeddingModel,
+            hnsw != null ? hnsw::embeddings : vectorStoreChunkRepository::findEmbeddings,
+            mmrCandidateFactor, mmrLambda, meterRegistry);
+    }
+
+    /**
+     * 부모 구간 본문 로컬 캐시 (문서 변경 이벤트로 무효화)
+     */
+    @Bean
+    public ParentChunkStore parentChunkStore(ChunkParentRepository chunkParentRepository,
+                                             DocumentContentRepository documentContentRepository,
+                                             MeterRegistry meterRegistry) {
+        return new ParentChunkStore(chunkParentRepository, documentContentRepository, parentCacheMaxSize,
+            meterRegistry);
+    }
+
+    /**
+     * small-to-big 확장 (RagService, AdvancedRagAdvisor 공용)
+     */
+    @Bean
+    public SmallToBigExpander smallToBigExpander(ParentChunkStore parentChunkStore, MeterRegistry meterRegistry) {
+        return new SmallToBigExpander(parentChunkStore, parentExpansion, meterRegistry);
+    }
+
+    /**
+     * 스트리밍 RAG의 blocking 검색 단계를 실행할 bounded 스케줄러 (요청/이벤트 루프 스레드를 막지 않음)
+     */
+    @Bean(name = "ragRetrievalScheduler", destroyMethod = "dispose")
+    public Scheduler ragRetrievalScheduler() {
+        return Schedulers.newBoundedElastic(streamRetrievalThreads, streamRetrievalQueueSize, "rag-retrieval");
+    }
+
+    private static Map<String, SearchProfileProperties> defaultSearchProfiles() {
+        Map<String, SearchProfileProperties> profiles = new LinkedHashMap<>();
+        profiles.put("fast", new SearchProfileProperties(40, 1));
+        profiles.put("balanced", new SearchProfileProperties(100, 10));
+        profiles.put("accurate", new SearchProfileProperties(400, 40));
+        return profiles;
+    }
+
+    /**
+     * 검색 프로필 설정값
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SearchProfileProperties {
+
+        /**
+         * HNSW 탐색 후보 수 (1~1000, topK보다 작으면 topK 사용)
+         */
+        private int efSearch;
+
+        /**
+         * IVFFlat 탐색 리스트 수 (lists의 제곱근 정도부터)
+         */
+        private int probes;
+    }
+}
@@ -7,9 +7,14 @@ import lombok.extern.slf4j.Slf4j;
 import org.sprain.ai.config.RagConfig;
 import org.sprain.ai.global.advisor.AdvancedRagAdvisor;
 import org.sprain.ai.global.advisor.McpPromptAdvisor;
+import org.sprain.ai.global.helper.rag.ContextAssembler;
+import org.sprain.ai.global.helper.rag.MmrSelector;
+import org.sprain.ai.global.helper.rag.SmallToBigExpander;
 import org.springframework.ai.anthropic.AnthropicChatModel;
 import org.springframework.ai.anthropic.AnthropicChatOptions;
 import org.springframework.ai.anthropic.api.AnthropicApi;
+import org.springframework.ai.anthropic.api.AnthropicCacheOptions;
+import org.springframework.ai.anthropic.api.AnthropicCacheStrategy;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.client.advisor.SimpleLoggerAdvisor;
 import org.springframework.ai.chat.client.advisor.api.Advisor;
@@ -86,6 +91,12 @@ public class AnthropicConfig {
                         당신은 친절하고 도움이 되는 AI 어시스턴트입니다.
                         사용자의 질문에 정확하고 이해하기 쉽게 답변해주세요.
                         """)
+                // 매 호출마다 같은 시스템 프롬프트와 MCP Tool 스키마를 캐시 (cache_control)
+                .defaultOptions(AnthropicChatOptions.builder()
+                        .cacheOptions(AnthropicCacheOptions.builder()
+                                .strategy(AnthropicCacheStrategy.SYSTEM_AND_TOOLS)
+                                .build())
+                        .build())
                 .defaultAdvisors(advisorFactory.values().toArray(new Advisor[0]))
                 .defaultToolCallbacks(
                         SyncMcpToolCallbackProvider.builder()
@@ -97,23 +108,41 @@ public class AnthropicConfig {
     @Bean(name = "claudeChatClient")
     public ChatClient anthropicChatClient(
             ChatClient.Builder chatClientBuilder,
-            VectorStore vectorStore) {
+            VectorStore vectorStore,
+            ContextAssembler contextAssembler,
+            MmrSelector mmrSelector,
+            SmallToBigExpander smallToBigExpander) {
 
         AnthropicChatOptions options = AnthropicChatOptions.builder()
                 .temperature(0.7)
                 .maxTokens(4096)
                 .toolCallbacks(List.of())
+                // 고정 시스템 프롬프트에만 캐시 지점을 둔다 (cache_control)
+                // 질문마다 바뀌는 RAG 컨텍스트는 사용자 턴에 들어가므로, 대화 이력까지 캐시하면
+                // 지점이 매번 새 내용 뒤에 찍혀 기록만 하고 읽지 못한다. (단발 질의 클라이언트)
+                // Anthropic은 최소 길이(Sonnet 1024 토큰) 미만 블록은 캐시하지 않으므로, 지금의 짧은
+                // 시스템 프롬프트로는 cacheRead가 0이고 시스템 프롬프트가 그보다 길어져야 효과가 난다.
+                .cacheOptions(AnthropicCacheOptions.builder()
+                        .strategy(AnthropicCacheStrategy.SYSTEM_ONLY)
+                        .build())
                 .build();
 
         RagConfig config = RagConfig.builder()
                 .topK(10)
+                .mmrCandidates(30)
                 .similarityThreshold(0.75)
                 .requireDocuments(false)
                 .appendSources(true)
                 .build();
 
         return chatClientBuilder
-                .defaultAdvisors(new AdvancedRagAdvisor(vectorStore, config))
+                .defaultAdvisors(AdvancedRagAdvisor.builder()
+                        .vectorStore(vectorStore)
+                        .config(config)
+                        .contextAssembler(contextAssembler)
+                        .mmrSelector(mmrSelector)
+                        .smallToBigExpander(smallToBigExpander)
+                        .build())
                 .defaultOptions(options)
                 .defaultSystem("""
                         당신은 친절하고 도움이 되는 AI 어시스턴트입니다.
@@ -122,4 +151,20 @@ public class AnthropicConfig {
                 .build();
     }
 
+    /**
+     * 질의 재작성 전용 ChatClient (MultiQueryRetriever)
+     * RAG Advisor가 붙은 claudeChatClient를 쓰면 재작성 호출마다 검색 + 컨텍스트 조립이 한 번 더 일어나
+     * 병렬 검색 앞에 직렬 검색이 끼고 재작성 프롬프트도 커지므로 Advisor 없이 따로 만든다.
+     */
+    @Bean(name = "queryRewriteChatClient")
+    public ChatClient queryRewriteChatClient(ChatClient.Builder chatClientBuilder) {
+        return chatClientBuilder
+                .defaultOptions(AnthropicChatOptions.builder()
+                        .temperature(0.3)
+                        .maxTokens(512)
+                        .toolCallbacks(List.of())
+                        .build())
+                .build();
+    }
+
 }
\ No newline at end of file
@@ -24,6 +24,11 @@ import java.util.List;
 @ConfigurationProperties(prefix = "spring.ai.ollama")
 @Setter
 public class OllamaConfig {
+    /**
+     * 임베딩 모델 이름 (임베딩 캐시 키에도 사용)
+     */
+    public static final String EMBEDDING_MODEL = "qwen2.5:3b";
+
     private VectorStore vectorStore;
 
     private String baseUrl;
@@ -91,7 +96,7 @@ public class OllamaConfig {
         return OllamaEmbeddingModel.builder()
             .ollamaApi(ollamaApi)
             .defaultOptions(OllamaEmbeddingOptions.builder()
-                .model("qwen2.5:3b")
+                .model(EMBEDDING_MODEL)
                 .build())
             .build();
     }
@@ -1,30 +1,142 @@
 package org.sprain.ai.config.model;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.sprain.ai.config.RetrievalConfig;
+import org.sprain.ai.global.helper.embedding.CachingEmbeddingModel;
+import org.sprain.ai.global.helper.embedding.NormalizingEmbeddingModel;
+import org.sprain.ai.global.helper.embedding.QueryEmbeddingCache;
+import org.sprain.ai.global.helper.rag.CachingVectorStore;
+import org.sprain.ai.global.helper.rag.SearchResultCache;
+import org.sprain.ai.global.helper.vector.AnnTuningVectorStore;
+import org.sprain.ai.global.helper.vector.HnswVectorStore;
+import org.sprain.ai.global.helper.vector.Quantization;
+import org.sprain.ai.global.helper.vector.QuantizedPgVectorStore;
+import org.sprain.ai.global.helper.vector.SearchProfiles;
+import org.sprain.ai.repository.EmbeddingCacheRepository;
 import org.springframework.ai.embedding.EmbeddingModel;
 import org.springframework.ai.vectorstore.VectorStore;
 import org.springframework.ai.vectorstore.pgvector.PgVectorStore;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import javax.sql.DataSource;
+import java.nio.file.Path;
 
 @Configuration
 @ConfigurationProperties(prefix = "spring.ai.vectorstore")
 public class VectorStoreConfig {
 
+    public static final int EMBEDDING_DIMENSIONS = 2048;
+
+    /**
+     * 임베딩 캐시를 앞에 둔 EmbeddingModel
+     * 같은 청크/질문은 embedding_cache 테이블에서 재사용, 질의는 메모리 캐시를 먼저 확인
+     * sprain.retrieval.normalize-embeddings=true면 단위 벡터로 정규화하고, 캐시 키(모델 ID)를 분리해
+     * 정규화 전 벡터와 섞이지 않게 한다.
+     */
+    @Bean(name = "cachingEmbeddingModel")
+    public CachingEmbeddingModel cachingEmbeddingModel(
+        @Qualifier("customOllamaEmbedding") EmbeddingModel embeddingModel,
+        EmbeddingCacheRepository embeddingCacheRepository,
+        QueryEmbeddingCache queryEmbeddingCache,
+        RetrievalConfig retrievalConfig,
+        MeterRegistry meterRegistry) {
+        if (retrievalConfig.isNormalizeEmbeddings()) {
+            return new CachingEmbeddingModel(new NormalizingEmbeddingModel(embeddingModel),
+                OllamaConfig.EMBEDDING_MODEL + "+l2", embeddingCacheRepository, queryEmbeddingCache, meterRegistry);
+        }
+        return new CachingEmbeddingModel(embeddingModel, OllamaConfig.EMBEDDING_MODEL,
+            embeddingCacheRepository, queryEmbeddingCache, meterRegistry);
+    }
+
+    /**
+     * 애플리케이션이 주입받는 VectorStore: 검색 결과 캐시 + (HNSW | 양자화 pgvector | pgvector)
+     * sprain.retrieval.vector-store=hnsw면 hnswVectorStore,
+     * sprain.retrieval.quantization이 none이 아니면 quantizedPgVectorStore, 아니면 pgVectorStore를 사용
+     * pgvector 검색은 질의마다 검색 프로필의 ef_search/probes를 SET LOCAL로 적용한다.
+     */
     @Bean
+    @Primary
     public VectorStore vectorStore(
+        @Qualifier("pgVectorStore") VectorStore pgVectorStore,
+        ObjectProvider<HnswVectorStore> hnswVectorStore,
+        ObjectProvider<QuantizedPgVectorStore> quantizedPgVectorStore,
+        DataSource dataSource,
+        TransactionTemplate transactionTemplate,
+        SearchResultCache searchResultCache,
+        SearchProfiles searchProfiles,
+        @Qualifier("cachingEmbeddingModel") EmbeddingModel embeddingModel) {
+        VectorStore backend = hnswVectorStore.getIfAvailable(
+            () -> quantizedPgVectorStore.getIfAvailable(
+                () -> new AnnTuningVectorStore(pgVectorStore, embeddingModel, new JdbcTemplate(dataSource),
+                    transactionTemplate, searchProfiles)));
+        return new CachingVectorStore(backend, searchResultCache, searchProfiles);
+    }
+
+    /**
+     * 양자화 식 인덱스로 후보를 뽑고 원본 벡터로 재채점하는 pgvector 검색
+     * (인덱스는 VectorQuantizationMigration이 시작 시 만든다)
+     */
+    @Bean
+    @ConditionalOnExpression("'${sprain.retrieval.quantization:none}'.toLowerCase() != 'none'")
+    public QuantizedPgVectorStore quantizedPgVectorStore(
+        @Qualifier("pgVectorStore") VectorStore pgVectorStore,
+        DataSource dataSource,
+        TransactionTemplate transactionTemplate,
+        @Qualifier("cachingEmbeddingModel") EmbeddingModel embeddingModel,
+        ObjectMapper objectMapper,
+        RetrievalConfig retrievalConfig,
+        SearchProfiles searchProfiles,
+        MeterRegistry meterRegistry) {
+        return new QuantizedPgVectorStore(pgVectorStore, new JdbcTemplate(dataSource), transactionTemplate,
+            embeddingModel, objectMapper, Quantization.from(retrievalConfig.getQuantization()),
+            EMBEDDING_DIMENSIONS, retrievalConfig.isNormalizeEmbeddings(),
+            retrievalConfig.getRescoreOversample(), searchProfiles, meterRegistry);
+    }
+
+    /**
+     * JVM 내 HNSW 인덱스 (쓰기는 pgVectorStore에 먼저 반영하고, vector_store를 원본으로 동기화)
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "sprain.retrieval", name = "vector-store", havingValue = "hnsw")
+    public HnswVectorStore hnswVectorStore(
+        @Qualifier("pgVectorStore") VectorStore pgVectorStore,
+        DataSource dataSource,
+        @Qualifier("cachingEmbeddingModel") EmbeddingModel embeddingModel,
+        ObjectMapper objectMapper,
+        RetrievalConfig retrievalConfig,
+        MeterRegistry meterRegistry) {
+        HnswVectorStore.Options options = new HnswVectorStore.Options(
+            Path.of(retrievalConfig.getHnswDirectory()),
+            EMBEDDING_DIMENSIONS,
+            retrievalConfig.getHnswM(),
+            retrievalConfig.getHnswEfConstruction(),
+            retrievalConfig.getHnswEfSearch(),
+            retrievalConfig.getHnswExactScanLimit(),
+            retrievalConfig.getHnswReconcileInterval());
+        return new HnswVectorStore(pgVectorStore, new JdbcTemplate(dataSource), embeddingModel,
+            objectMapper, options, meterRegistry);
+    }
+
+    @Bean
+    public PgVectorStore pgVectorStore(
         DataSource dataSource,
-        @Qualifier("customOllamaEmbedding") EmbeddingModel embeddingModel) {
+        @Qualifier("cachingEmbeddingModel") EmbeddingModel embeddingModel) {
 
         JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
 
         // 명시적으로 스키마 초기화
         return PgVectorStore.builder(jdbcTemplate, embeddingModel)
-            .dimensions(2048)
+            .dimensions(EMBEDDING_DIMENSIONS)
             .distanceType(PgVectorStore.PgDistanceType.COSINE_DISTANCE)
             .indexType(PgVectorStore.PgIndexType.HNSW)
             .initializeSchema(false)  // 스키마 초기화 강제
@@ -1,20 +1,35 @@
 package org.sprain.ai.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.sprain.ai.dto.BulkIngestionReport;
+import org.sprain.ai.dto.DocumentCursor;
+import org.sprain.ai.dto.DocumentUpdateResult;
+import org.sprain.ai.dto.IngestionJobProgress;
+import org.sprain.ai.dto.IngestionJobStatus;
 import org.sprain.ai.entity.DocumentEntity;
+import org.sprain.ai.entity.IngestionJob;
+import org.sprain.ai.service.BulkIngestionService;
 import org.sprain.ai.service.DocumentService;
+import org.sprain.ai.service.IngestionJobService;
 import org.springframework.ai.document.Document;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.UUID;
 
 @Slf4j
 @RestController
@@ -23,23 +38,95 @@ import java.util.List;
 public class DocumentController {
 
     private final DocumentService documentService;
+    private final IngestionJobService ingestionJobService;
+    private final BulkIngestionService bulkIngestionService;
+    private final ObjectMapper objectMapper;
+
+    private static final int MAX_PAGE_SIZE = 1000;
 
     /**
-     * 파일 업로드 및 벡터화
+     * 파일 업로드 (비동기 수집)
      * POST /api/documents/upload
+     * 원본을 저장하고 바로 202 Accepted + 작업 ID 반환, 청킹/임베딩은 백그라운드에서 진행
      */
     @PostMapping(value = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public ResponseEntity<DocumentUploadResponse> uploadDocument(
+    public ResponseEntity<IngestionJobResponse> uploadDocument(
         @RequestPart("file") MultipartFile file) throws IOException {
         log.info("문서 업로드 요청: {}", file.getOriginalFilename());
 
-        DocumentEntity document = documentService.uploadDocument(file);
-        return ResponseEntity.ok(new DocumentUploadResponse(
-            document.getId().toString(),
-            document.getFilename(),
-            document.getChunkCount(),
-            "문서가 성공적으로 업로드되었습니다."
-        ));
+        IngestionJob job = ingestionJobService.submit(file);
+        return ResponseEntity.accepted()
+            .location(URI.create("/api/documents/jobs/" + job.getId()))
+            .body(new IngestionJobResponse(
+                job.getId().toString(),
+                job.getDocumentId().toString(),
+                job.getFilename(),
+                job.getStatus(),
+                job.getStatus() == IngestionJobStatus.DUPLICATE
+                    ? "동일한 문서가 이미 등록되어 있습니다."
+                    : "문서 수집 작업이 등록되었습니다."
+            ));
+    }
+
+    /**
+     * 수집 작업 진행 상황 조회
+     * GET /api/documents/jobs/{jobId}
+     */
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<IngestionJobProgress> getIngestionJob(@PathVariable UUID jobId) {
+        return ingestionJobService.getProgress(jobId)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * ZIP 일괄 수집
+     * POST /api/documents/bulk
+     * 202 Accepted + 실행 ID 반환, 진행 상황/보고서는 GET /api/documents/bulk/{runId}
+     */
+    @PostMapping(value = "/bulk", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<BulkIngestionResponse> bulkUploadZip(
+        @RequestPart("file") MultipartFile file) throws IOException {
+        log.info("ZIP 일괄 수집 요청: {}", file.getOriginalFilename());
+
+        BulkIngestionService.BulkRun run = bulkIngestionService.submitZip(file);
+        return bulkAccepted(run, "ZIP 일괄 수집이 시작되었습니다.");
+    }
+
+    /**
+     * 서버 디렉터리 일괄 수집 (sprain.ingestion.bulk-root 하위만 허용)
+     * POST /api/documents/bulk/directory
+     */
+    @PostMapping("/bulk/directory")
+    public ResponseEntity<BulkIngestionResponse> bulkIngestDirectory(
+        @RequestBody BulkDirectoryRequest request) {
+        try {
+            log.info("디렉터리 일괄 수집 요청: {}", request.path());
+
+            BulkIngestionService.BulkRun run = bulkIngestionService.submitDirectory(request.path());
+            return bulkAccepted(run, "디렉터리 일괄 수집이 시작되었습니다.");
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            log.error("디렉터리 일괄 수집 거부: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                .body(new BulkIngestionResponse(null, e.getMessage()));
+        }
+    }
+
+    /**
+     * 일괄 수집 보고서 조회 (진행 중이면 현재까지의 결과)
+     * GET /api/documents/bulk/{runId}
+     */
+    @GetMapping("/bulk/{runId}")
+    public ResponseEntity<BulkIngestionReport> getBulkIngestionReport(@PathVariable UUID runId) {
+        return bulkIngestionService.getReport(runId)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+
+    private ResponseEntity<BulkIngestionResponse> bulkAccepted(BulkIngestionService.BulkRun run, String message) {
+        return ResponseEntity.accepted()
+            .location(URI.create("/api/documents/bulk/" + run.getId()))
+            .body(new BulkIngestionResponse(run.getId().toString(), message));
     }
 
     /**
@@ -71,27 +158,52 @@ public class DocumentController {
     }
 
     /**
-     * 모든 문서 조회
-     * GET /api/documents
+     * 문서 목록 조회 (키셋 페이지네이션)
+     * GET /api/documents?size=50&cursor=...
+     * content 컬럼 없이 요약만 조회하고, DB 커서에서 읽는 대로 JSON으로 스트리밍한다.
+     * 응답: {"items": [...], "nextCursor": "..."} (마지막 페이지면 nextCursor = null)
      */
     @GetMapping
-    public ResponseEntity<List<DocumentSummary>> getAllDocuments() {
-        log.info("전체 문서 목록 조회 요청");
+    public ResponseEntity<StreamingResponseBody> getDocuments(
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "50") int size) {
+        log.info("문서 목록 조회 요청: cursor={}, size={}", cursor, size);
 
-        List<DocumentEntity> documents = documentService.getAllDocuments();
+        DocumentCursor after;
+        try {
+            after = cursor == null || cursor.isBlank() ? null : DocumentCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        int pageSize = Math.clamp(size, 1, MAX_PAGE_SIZE);
 
-        List<DocumentSummary> summaries = documents.stream()
-            .map(doc -> new DocumentSummary(
-                doc.getId().toString(),
-                doc.getFilename(),
-                doc.getContentType(),
-                doc.getChunkCount(),
-                doc.getUploadedAt(),
-                doc.getContent().length()
-            ))
-            .toList();
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+                json.writeStartObject();
+                json.writeArrayFieldStart("items");
+                DocumentCursor next = documentService.streamDocumentSummaries(after, pageSize, doc -> {
+                    try {
+                        json.writeObject(new DocumentSummary(
+                            doc.id().toString(),
+                            doc.filename(),
+                            doc.contentType(),
+                            doc.chunkCount(),
+                            doc.uploadedAt(),
+                            doc.contentLength() == null ? 0 : doc.contentLength()
+                        ));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                json.writeEndArray();
+                json.writeStringField("nextCursor", next == null ? null : next.encode());
+                json.writeEndObject();
+            }
+        };
 
-        return ResponseEntity.ok(summaries);
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(body);
     }
 
     /**
@@ -99,16 +211,60 @@ public class DocumentController {
      * GET /api/documents/{documentId}
      */
     @GetMapping("/{documentId}")
-    public ResponseEntity<DocumentEntity> getDocument(@PathVariable String documentId) {
+    public ResponseEntity<DocumentEntity> getDocument(@PathVariable UUID documentId) {
         log.info("문서 조회 요청: {}", documentId);
 
-        return documentService.getAllDocuments().stream()
-            .filter(doc -> doc.getId().equals(documentId))
-            .findFirst()
+        return documentService.getDocument(documentId)
             .map(ResponseEntity::ok)
             .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * 문서 원본 조회 (압축 해제 후 스트리밍)
+     * GET /api/documents/{documentId}/content
+     */
+    @GetMapping("/{documentId}/content")
+    public ResponseEntity<StreamingResponseBody> getDocumentContent(@PathVariable UUID documentId) {
+        log.info("문서 원본 조회 요청: {}", documentId);
+
+        if (documentService.getDocument(documentId).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        StreamingResponseBody body = out -> documentService.copyContent(documentId, out);
+        return ResponseEntity.ok()
+            .contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8))
+            .body(body);
+    }
+
+    /**
+     * 문서 내용 갱신 (변경된 청크만 재임베딩)
+     * PUT /api/documents/{documentId}
+     */
+    @PutMapping(value = "/{documentId}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<DocumentUpdateResponse> updateDocument(
+        @PathVariable UUID documentId,
+        @RequestPart("file") MultipartFile file) {
+        try {
+            log.info("문서 갱신 요청: {} ({})", documentId, file.getOriginalFilename());
+
+            DocumentUpdateResult result = documentService.updateDocument(documentId, file);
+
+            return ResponseEntity.ok(new DocumentUpdateResponse(
+                result,
+                result.unchanged() ? "변경된 내용이 없습니다." : "문서가 성공적으로 갱신되었습니다."
+            ));
+        } catch (IllegalArgumentException e) {
+            log.error("문서 갱신 실패: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(new DocumentUpdateResponse(null, e.getMessage()));
+        } catch (Exception e) {
+            log.error("문서 갱신 중 오류: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new DocumentUpdateResponse(null, "문서 갱신 실패: " + e.getMessage()));
+        }
+    }
+
     /**
      * 문서 삭제
      * DELETE /api/documents/{documentId}
@@ -183,6 +339,35 @@ public class DocumentController {
     ) {
     }
 
+    /**
+     * 수집 작업 등록 응답
+     */
+    public record IngestionJobResponse(
+        String jobId,
+        String documentId,
+        String filename,
+        IngestionJobStatus status,
+        String message
+    ) {
+    }
+
+    /**
+     * 일괄 수집 시작 응답
+     */
+    public record BulkIngestionResponse(
+        String runId,
+        String message
+    ) {
+    }
+
+    /**
+     * 디렉터리 일괄 수집 요청 (bulk-root 기준 상대 경로)
+     */
+    public record BulkDirectoryRequest(
+        String path
+    ) {
+    }
+
     /**
      * 텍스트 문서 추가 요청
      */
@@ -201,7 +386,16 @@ public class DocumentController {
         String contentType,
         int chunkCount,
         LocalDateTime createdAt,
-        int contentLength
+        long contentLength
+    ) {
+    }
+
+    /**
+     * 문서 갱신 응답
+     */
+    public record DocumentUpdateResponse(
+        DocumentUpdateResult result,
+        String message
     ) {
     }
 
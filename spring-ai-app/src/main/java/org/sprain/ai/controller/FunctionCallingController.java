@@ -2,8 +2,10 @@ package org.sprain.ai.controller;
 
 import lombok.RequiredArgsConstructor;
 import org.sprain.ai.service.FunctionCallingService;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 
 import java.util.Map;
 
@@ -28,4 +30,13 @@ public class FunctionCallingController {
             "response", response
         ));
     }
+
+    /**
+     * Function Calling 스트리밍 (SSE, 연결이 끊기면 LLM 스트림도 중단)
+     * POST /api/function/stream
+     */
+    @PostMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<String> stream(@RequestBody Map<String, String> request) {
+        return functionCallingService.chatStream(request.get("message"));
+    }
 }
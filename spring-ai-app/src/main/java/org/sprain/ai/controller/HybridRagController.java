@@ -0,0 +1,49 @@
+package org.sprain.ai.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.sprain.ai.controller.RagController.AnswerResponse;
+import org.sprain.ai.controller.RagController.QuestionRequest;
+import org.sprain.ai.service.HybridRagService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 하이브리드 검색 RAG (sprain.retrieval.keyword-search-enabled=true일 때만 등록)
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/rag")
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "sprain.retrieval", name = "keyword-search-enabled", havingValue = "true")
+public class HybridRagController {
+
+    private final HybridRagService hybridRagService;
+
+    /**
+     * Vector + BM25 키워드 검색을 RRF로 결합한 RAG
+     * POST /api/rag/ask-hybrid
+     */
+    @PostMapping("/ask-hybrid")
+    public ResponseEntity<AnswerResponse> askHybrid(@RequestBody QuestionRequest request) {
+        try {
+            log.info("RAG (하이브리드) 질문 요청: {}", request.question());
+
+            String answer = hybridRagService.ask(request.question());
+
+            return ResponseEntity.ok(new AnswerResponse(answer, "success"));
+        } catch (Exception e) {
+            log.error("RAG 하이브리드 질문 처리 실패: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new AnswerResponse(
+                    "질문 처리 중 오류가 발생했습니다: " + e.getMessage(),
+                    "error"
+                ));
+        }
+    }
+}
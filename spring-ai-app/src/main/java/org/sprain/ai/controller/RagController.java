@@ -8,6 +8,7 @@ import org.springframework.ai.document.Document;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 
@@ -70,19 +71,28 @@ public class RagController {
     }
 
     /**
-     * 스트리밍 RAG 응답
+     * 스트리밍 RAG 응답 (SSE)
      * GET /api/rag/ask-stream?question=...
+     * <p>
+     * 연결 직후 주석 이벤트로 헤더를 바로 내보내고, retrieval_done → sources → token... → done 순으로 전송
      */
     @GetMapping(value = "/ask-stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-    public Flux<String> askStream(@RequestParam String question) {
+    public Flux<ServerSentEvent<Object>> askStream(@RequestParam String question) {
         log.info("RAG 스트리밍 질문 요청: {}", question);
 
-        return Flux.create(sink -> {
-            ragService.askStream(question, chunk -> {
-                sink.next(chunk);
+        Flux<ServerSentEvent<Object>> events = ragService.askStream(question)
+            .map(event -> ServerSentEvent.builder(event.data())
+                .event(event.type())
+                .build())
+            .onErrorResume(e -> {
+                log.error("RAG 스트리밍 실패: {}", e.getMessage());
+                return Flux.just(ServerSentEvent.builder()
+                    .event("error")
+                    .data(Map.of("error", "답변 생성 중 오류가 발생했습니다: " + e.getMessage()))
+                    .build());
             });
-            sink.complete();
-        });
+
+        return Flux.concat(Flux.just(ServerSentEvent.builder().comment("connected").build()), events);
     }
 
     /**
@@ -154,18 +164,46 @@ public class RagController {
         }
     }
 
+    /**
+     * 다중 질의 RAG (질문 재작성 + 병렬 검색 + RRF 결합)
+     * POST /api/rag/ask-with-multi-query
+     */
+    @PostMapping("/ask-with-multi-query")
+    public ResponseEntity<RagResponse> askWithMultiQuery(@RequestBody MultiQueryRequest request) {
+        try {
+            log.info("RAG (다중 질의) 질문 요청: {}", request.question());
+
+            RagResponse response = ragService.askWithMultiQuery(request.question(),
+                request.documentIds() == null ? List.of() : request.documentIds());
+
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(new RagResponse("잘못된 문서 ID입니다: " + e.getMessage(), List.of()));
+        } catch (Exception e) {
+            log.error("RAG 다중 질의 처리 실패: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new RagResponse(
+                    "질문 처리 중 오류가 발생했습니다: " + e.getMessage(),
+                    List.of()
+                ));
+        }
+    }
+
     /**
      * 문서 검색 (답변 생성 없이)
-     * GET /api/rag/search?query=...&topK=5
+     * GET /api/rag/search?query=...&topK=5&profile=accurate
+     * profile: 검색 속도/재현율 프로필 (fast | balanced | accurate, 생략 시 기본 프로필)
      */
     @GetMapping("/search")
     public ResponseEntity<SearchDocumentsResponse> searchDocuments(
         @RequestParam String query,
-        @RequestParam(defaultValue = "5") int topK) {
+        @RequestParam(defaultValue = "5") int topK,
+        @RequestParam(required = false) String profile) {
         try {
-            log.info("문서 검색 요청: query={}, topK={}", query, topK);
+            log.info("문서 검색 요청: query={}, topK={}, profile={}", query, topK, profile);
 
-            List<Document> documents = ragService.searchDocuments(query, topK);
+            List<Document> documents = ragService.searchDocuments(query, topK, profile);
 
             List<DocumentInfo> documentInfos = documents.stream()
                 .map(doc -> new DocumentInfo(
@@ -180,6 +218,10 @@ public class RagController {
                 documents.size(),
                 documentInfos
             ));
+        } catch (IllegalArgumentException e) {
+            log.warn("검색 프로필 오류: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                .body(new SearchDocumentsResponse(query, 0, List.of()));
         } catch (Exception e) {
             log.error("문서 검색 실패: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -189,18 +231,19 @@ public class RagController {
 
     /**
      * 유사도 점수와 함께 검색
-     * GET /api/rag/search-with-score?query=...&topK=5&threshold=0.7
+     * GET /api/rag/search-with-score?query=...&topK=5&threshold=0.7&profile=fast
      */
     @GetMapping("/search-with-score")
     public ResponseEntity<SearchDocumentsResponse> searchWithScore(
         @RequestParam String query,
         @RequestParam(defaultValue = "5") int topK,
-        @RequestParam(defaultValue = "0.7") double threshold) {
+        @RequestParam(defaultValue = "0.7") double threshold,
+        @RequestParam(required = false) String profile) {
         try {
-            log.info("유사도 검색 요청: query={}, topK={}, threshold={}",
-                query, topK, threshold);
+            log.info("유사도 검색 요청: query={}, topK={}, threshold={}, profile={}",
+                query, topK, threshold, profile);
 
-            List<Document> documents = ragService.searchWithScore(query, topK, threshold);
+            List<Document> documents = ragService.searchWithScore(query, topK, threshold, profile);
 
             List<DocumentInfo> documentInfos = documents.stream()
                 .map(doc -> new DocumentInfo(
@@ -215,6 +258,10 @@ public class RagController {
                 documents.size(),
                 documentInfos
             ));
+        } catch (IllegalArgumentException e) {
+            log.warn("검색 프로필 오류: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                .body(new SearchDocumentsResponse(query, 0, List.of()));
         } catch (Exception e) {
             log.error("유사도 검색 실패: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -283,6 +330,11 @@ public class RagController {
      */
     public record QuestionRequest(String question) {}
 
+    /**
+     * 다중 질의 요청 (documentIds가 있으면 문서별로 나눠 검색)
+     */
+    public record MultiQueryRequest(String question, List<String> documentIds) {}
+
     /**
      * 답변 응답
      */
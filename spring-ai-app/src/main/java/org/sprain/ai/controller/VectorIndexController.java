@@ -0,0 +1,112 @@
+package org.sprain.ai.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.sprain.ai.dto.MmrReport;
+import org.sprain.ai.dto.QuantizationReport;
+import org.sprain.ai.dto.VectorIndexBuildRequest;
+import org.sprain.ai.dto.VectorIndexBuildResult;
+import org.sprain.ai.dto.VectorIndexStatus;
+import org.sprain.ai.service.VectorIndexService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/vector-index")
+@RequiredArgsConstructor
+public class VectorIndexController {
+
+    private static final int MAX_SAMPLE = 500;
+    private static final int MAX_K = 100;
+
+    private final VectorIndexService vectorIndexService;
+
+    /**
+     * 양자화 방식별 recall@k / 메모리 절감 보고서
+     * GET /api/vector-index/quantization-report?sample=50&k=10
+     */
+    @GetMapping("/quantization-report")
+    public ResponseEntity<QuantizationReport> quantizationReport(
+        @RequestParam(defaultValue = "50") int sample,
+        @RequestParam(defaultValue = "10") int k) {
+        if (sample < 1 || sample > MAX_SAMPLE || k < 1 || k > MAX_K) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            log.info("양자화 보고서 요청: sample={}, k={}", sample, k);
+            return ResponseEntity.ok(vectorIndexService.quantizationReport(sample, k));
+        } catch (Exception e) {
+            log.error("양자화 보고서 생성 실패: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * MMR λ별 recall@k / 중복 토큰 보고서
+     * GET /api/vector-index/mmr-report?sample=30&k=5&candidates=20&lambda=1.0,0.7,0.5,0.3
+     */
+    @GetMapping("/mmr-report")
+    public ResponseEntity<MmrReport> mmrReport(
+        @RequestParam(defaultValue = "30") int sample,
+        @RequestParam(defaultValue = "5") int k,
+        @RequestParam(defaultValue = "20") int candidates,
+        @RequestParam(defaultValue = "1.0,0.7,0.5,0.3") List<Double> lambda) {
+        if (sample < 1 || sample > MAX_SAMPLE || k < 1 || k > MAX_K || candidates < k || candidates > MAX_K
+            || lambda.isEmpty() || lambda.stream().anyMatch(l -> l == null || l < 0 || l > 1)) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            log.info("MMR 보고서 요청: sample={}, k={}, candidates={}, lambda={}", sample, k, candidates, lambda);
+            return ResponseEntity.ok(vectorIndexService.mmrReport(sample, k, candidates, lambda));
+        } catch (Exception e) {
+            log.error("MMR 보고서 생성 실패: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * ANN 인덱스 현황 (인덱스별 크기/유효 여부, 현재 검색이 실제로 쓰는 인덱스, 검색 프로필)
+     * GET /api/vector-index/indexes
+     */
+    @GetMapping("/indexes")
+    public ResponseEntity<VectorIndexStatus> indexes() {
+        try {
+            return ResponseEntity.ok(vectorIndexService.indexStatus());
+        } catch (Exception e) {
+            log.error("벡터 인덱스 현황 조회 실패: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * ANN 인덱스 구축/재구축 (CREATE INDEX CONCURRENTLY, 끝날 때까지 응답 대기)
+     * POST /api/vector-index/indexes
+     * {"method": "hnsw", "target": "halfvec", "m": 16, "efConstruction": 64}
+     * {"method": "ivfflat", "target": "halfvec", "lists": 100}
+     */
+    @PostMapping("/indexes")
+    public ResponseEntity<VectorIndexBuildResult> buildIndex(@RequestBody VectorIndexBuildRequest request) {
+        try {
+            log.info("벡터 인덱스 구축 요청: {}", request);
+            return ResponseEntity.ok(vectorIndexService.buildIndex(request));
+        } catch (IllegalArgumentException e) {
+            log.warn("벡터 인덱스 구축 거부: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            log.warn("벡터 인덱스 구축 거부: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (Exception e) {
+            log.error("벡터 인덱스 구축 실패: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+}
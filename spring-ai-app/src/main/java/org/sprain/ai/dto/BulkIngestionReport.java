@@ -0,0 +1,45 @@
+package org.sprain.ai.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 일괄 수집 결과 요약 (진행 중이면 현재까지의 스냅샷)
+ */
+public record BulkIngestionReport(
+        String runId,
+        String source,
+        boolean finished,
+        int totalFiles,
+        int succeeded,
+        int duplicates,
+        int skipped,
+        int failed,
+        long totalBytes,
+        long totalChunks,
+        long elapsedMillis,
+        double chunksPerSecond,
+        double megabytesPerSecond,
+        LocalDateTime startedAt,
+        LocalDateTime completedAt,
+        List<FileResult> files
+) {
+
+    public enum FileStatus {
+        COMPLETED, DUPLICATE, SKIPPED, FAILED
+    }
+
+    /**
+     * 파일별 처리 결과
+     */
+    public record FileResult(
+            String path,
+            String documentId,
+            FileStatus status,
+            long bytes,
+            int chunks,
+            long millis,
+            String errorMessage
+    ) {
+    }
+}
@@ -0,0 +1,7 @@
+package org.sprain.ai.dto;
+
+public enum ChunkingStrategy {
+    CHARACTER,     // 문자 수 기준 (StreamingTextChunker, 이전 파일 수집)
+    SENTENCE,      // 문장 경계 + 토큰 수 기준 (SentenceChunker)
+    HIERARCHICAL   // 부모(절)/자식 2단계 (HierarchicalChunker, chunk_parents 사용)
+}
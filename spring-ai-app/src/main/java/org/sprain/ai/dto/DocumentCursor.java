@@ -0,0 +1,37 @@
+package org.sprain.ai.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * 문서 목록 키셋 페이지네이션 커서 (uploaded_at DESC, id DESC 기준 마지막 행)
+ * 클라이언트에는 불투명한 Base64 문자열로 전달한다.
+ */
+public record DocumentCursor(LocalDateTime uploadedAt, UUID id) {
+
+    public static DocumentCursor of(DocumentSummaryView last) {
+        return new DocumentCursor(last.uploadedAt(), last.id());
+    }
+
+    public String encode() {
+        String raw = uploadedAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException 형식이 잘못된 커서
+     */
+    public static DocumentCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return new DocumentCursor(
+                LocalDateTime.parse(raw.substring(0, separator)),
+                UUID.fromString(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("잘못된 커서입니다: " + cursor, e);
+        }
+    }
+}
@@ -1,4 +1,17 @@
 package org.sprain.ai.dto;
 
+import org.springframework.ai.document.Document;
+
 public record DocumentSource(String filename, String documentId, String preview) {
+
+    /**
+     * 검색된 청크의 메타데이터로 출처 생성 (미리보기는 앞 200자)
+     */
+    public static DocumentSource from(Document doc) {
+        return new DocumentSource(
+            (String) doc.getMetadata().get("filename"),
+            (String) doc.getMetadata().get("document_id"),
+            doc.getText().substring(0, Math.min(200, doc.getText().length()))
+        );
+    }
 }
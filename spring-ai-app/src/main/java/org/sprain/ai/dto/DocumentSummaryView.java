@@ -0,0 +1,17 @@
+package org.sprain.ai.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * 문서 목록용 프로젝션 (content 컬럼은 조회하지 않음)
+ */
+public record DocumentSummaryView(
+        UUID id,
+        String filename,
+        String contentType,
+        Integer chunkCount,
+        LocalDateTime uploadedAt,
+        Long contentLength
+) {
+}
@@ -0,0 +1,19 @@
+package org.sprain.ai.dto;
+
+/**
+ * 증분 재수집 결과
+ *
+ * @param embedded 새로 임베딩한 청크 수 (추가/변경)
+ * @param reused   임베딩을 재사용한 청크 수
+ * @param removed  vector_store에서 삭제한 청크 수
+ */
+public record DocumentUpdateResult(
+        String documentId,
+        String filename,
+        int chunkCount,
+        int embedded,
+        int reused,
+        int removed,
+        boolean unchanged
+) {
+}
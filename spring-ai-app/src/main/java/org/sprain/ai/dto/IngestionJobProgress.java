@@ -0,0 +1,21 @@
+package org.sprain.ai.dto;
+
+import java.time.LocalDateTime;
+
+public record IngestionJobProgress(
+        String jobId,
+        String documentId,
+        String filename,
+        IngestionJobStatus status,
+        long totalBytes,
+        long bytesProcessed,
+        double percent,
+        int chunksEmbedded,
+        double chunksPerSecond,
+        Long etaSeconds,
+        String errorMessage,
+        LocalDateTime createdAt,
+        LocalDateTime startedAt,
+        LocalDateTime completedAt
+) {
+}
@@ -0,0 +1,9 @@
+package org.sprain.ai.dto;
+
+public enum IngestionJobStatus {
+    PENDING,    // 대기 중
+    RUNNING,    // 청킹/임베딩 진행 중
+    COMPLETED,  // 완료
+    DUPLICATE,  // 동일한 문서가 이미 있어 수집 생략
+    FAILED      // 실패
+}
@@ -0,0 +1,37 @@
+package org.sprain.ai.dto;
+
+import java.util.List;
+
+/**
+ * MMR λ별 재현율/중복 토큰 비교 보고서
+ * <p>
+ * 재현율(recall@k)은 전수 검색 top-k 대비 비율이고, 토큰은 표본 평균(cl100k_base)이다.
+ */
+public record MmrReport(
+        int sampleSize,
+        int k,
+        int candidates,
+        List<LambdaResult> results
+) {
+
+    /**
+     * λ별 결과
+     *
+     * @param recallAtK          유사도 순 top-k 중 선택된 비율
+     * @param meanPairSimilarity 선택된 청크끼리의 평균 코사인 유사도 (낮을수록 다양)
+     * @param rawTokens          선택된 청크를 그대로 이었을 때 토큰 수
+     * @param contextTokens      ContextAssembler로 중복/겹침을 제거한 뒤 토큰 수
+     * @param redundantTokens    rawTokens - contextTokens (그대로 보내면 낭비되는 토큰)
+     * @param tokensSaved        유사도 순 top-k(λ=1) 대비 줄어든 중복 토큰
+     */
+    public record LambdaResult(
+            double lambda,
+            double recallAtK,
+            double meanPairSimilarity,
+            double rawTokens,
+            double contextTokens,
+            double redundantTokens,
+            double tokensSaved
+    ) {
+    }
+}
@@ -0,0 +1,38 @@
+package org.sprain.ai.dto;
+
+import java.util.List;
+
+/**
+ * 양자화 방식별 재현율/메모리 비교 보고서
+ * <p>
+ * 재현율(recall@k)은 전수 검색(원본 벡터, 인덱스 미사용) top-k 대비 비율이다.
+ */
+public record QuantizationReport(
+        int sampleSize,
+        int k,
+        int oversample,
+        boolean normalized,
+        long vectorCount,
+        long fullPrecisionBytes,
+        List<ModeResult> modes
+) {
+
+    /**
+     * 양자화 방식별 결과
+     *
+     * @param recallWithoutRescore 양자화 거리 top-k 그대로 사용했을 때
+     * @param recallWithRescore    topK x oversample 후보를 원본 벡터로 재채점했을 때
+     * @param estimatedBytes       양자화 벡터 저장 크기 추정치 (vectorCount x 벡터당 크기)
+     * @param memorySaved          원본 벡터 대비 절감 비율 (0~1)
+     * @param indexBytes           식 인덱스 실제 크기 (인덱스가 없으면 null)
+     */
+    public record ModeResult(
+            String quantization,
+            double recallWithoutRescore,
+            double recallWithRescore,
+            long estimatedBytes,
+            double memorySaved,
+            Long indexBytes
+    ) {
+    }
+}
@@ -0,0 +1,44 @@
+package org.sprain.ai.dto;
+
+import java.util.List;
+
+/**
+ * 스트리밍 RAG 응답 이벤트 (SSE event 이름 = type)
+ * <ul>
+ *     <li>retrieval_done: 검색 완료 (data: RetrievalDone)</li>
+ *     <li>sources: 컨텍스트에 들어간 출처 목록 (data: List&lt;DocumentSource&gt;)</li>
+ *     <li>token: 답변 조각 (data: String)</li>
+ *     <li>done: 답변 완료</li>
+ * </ul>
+ */
+public record RagStreamEvent(String type, Object data) {
+
+    public static final String RETRIEVAL_DONE = "retrieval_done";
+    public static final String SOURCES = "sources";
+    public static final String TOKEN = "token";
+    public static final String DONE = "done";
+
+    public static RagStreamEvent retrievalDone(int documents, long elapsedMillis, boolean cached) {
+        return new RagStreamEvent(RETRIEVAL_DONE, new RetrievalDone(documents, elapsedMillis, cached));
+    }
+
+    public static RagStreamEvent sources(List<DocumentSource> sources) {
+        return new RagStreamEvent(SOURCES, sources);
+    }
+
+    public static RagStreamEvent token(String token) {
+        return new RagStreamEvent(TOKEN, token);
+    }
+
+    public static RagStreamEvent done() {
+        return new RagStreamEvent(DONE, "");
+    }
+
+    /**
+     * @param documents     검색된 청크 수
+     * @param elapsedMillis 요청 시작부터 검색 완료까지 걸린 시간
+     * @param cached        의미 캐시 적중 여부 (적중 시 답변 전체가 token 이벤트 하나로 전달됨)
+     */
+    public record RetrievalDone(int documents, long elapsedMillis, boolean cached) {
+    }
+}
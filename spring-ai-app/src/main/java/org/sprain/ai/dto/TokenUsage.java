@@ -1,8 +1,19 @@
 package org.sprain.ai.dto;
 
+/**
+ * 토큰 사용량
+ *
+ * @param cacheCreationInputTokens 프롬프트 캐시에 새로 기록한 입력 토큰 (캐시를 보고하지 않는 모델은 null)
+ * @param cacheReadInputTokens     프롬프트 캐시에서 읽은 입력 토큰 (캐시를 보고하지 않는 모델은 null)
+ */
 public record TokenUsage(
         Integer promptTokens,
         Integer completionTokens,
-        Integer totalTokens
+        Integer totalTokens,
+        Integer cacheCreationInputTokens,
+        Integer cacheReadInputTokens
 ) {
+    public TokenUsage(Integer promptTokens, Integer completionTokens, Integer totalTokens) {
+        this(promptTokens, completionTokens, totalTokens, null, null);
+    }
 }
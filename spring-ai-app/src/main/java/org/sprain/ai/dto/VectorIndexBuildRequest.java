@@ -0,0 +1,19 @@
+package org.sprain.ai.dto;
+
+/**
+ * vector_store ANN 인덱스 (재)구축 요청 (값이 없으면 기본값 사용)
+ *
+ * @param method         hnsw(기본) | ivfflat
+ * @param target         none(embedding 컬럼) | halfvec | binary, 생략 시 현재 sprain.retrieval.quantization
+ * @param m              HNSW 노드당 이웃 수 (기본 16)
+ * @param efConstruction HNSW 구축 탐색 후보 수 (기본 64)
+ * @param lists          IVFFlat 리스트 수 (기본 행 수 / 1000, 최소 1)
+ */
+public record VectorIndexBuildRequest(
+        String method,
+        String target,
+        Integer m,
+        Integer efConstruction,
+        Integer lists
+) {
+}
@@ -0,0 +1,19 @@
+package org.sprain.ai.dto;
+
+/**
+ * vector_store ANN 인덱스 구축 결과
+ *
+ * @param buildMillis CREATE INDEX CONCURRENTLY 소요 시간
+ * @param sizeBytes   구축된 인덱스 크기
+ * @param replaced    같은 이름의 기존 인덱스를 교체했는지
+ */
+public record VectorIndexBuildResult(
+        String name,
+        String method,
+        String target,
+        String definition,
+        long buildMillis,
+        long sizeBytes,
+        boolean replaced
+) {
+}
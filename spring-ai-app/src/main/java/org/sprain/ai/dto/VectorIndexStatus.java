@@ -0,0 +1,39 @@
+package org.sprain.ai.dto;
+
+import org.sprain.ai.global.helper.vector.SearchProfile;
+
+import java.util.List;
+
+/**
+ * vector_store ANN 인덱스 현황
+ * <p>
+ * activeIndex는 현재 검색 경로의 정렬식을 EXPLAIN해서 실제로 선택되는 인덱스다. (없으면 전수 검색)
+ *
+ * @param vectorStore  검색 백엔드 (pgvector | hnsw, hnsw는 JVM 인덱스라 pgvector 인덱스를 쓰지 않음)
+ * @param quantization 후보 검색 양자화 (none | halfvec | binary)
+ * @param plan         EXPLAIN 결과 (저장된 임베딩이 없으면 비어 있음)
+ */
+public record VectorIndexStatus(
+        String vectorStore,
+        String quantization,
+        String activeIndex,
+        List<String> plan,
+        List<IndexInfo> indexes,
+        String defaultProfile,
+        List<SearchProfile> profiles
+) {
+
+    /**
+     * vector_store의 ANN 인덱스
+     *
+     * @param valid false면 CONCURRENTLY 구축이 실패해 남은 인덱스 (검색에 쓰이지 않음)
+     */
+    public record IndexInfo(
+            String name,
+            String method,
+            String definition,
+            long sizeBytes,
+            boolean valid
+    ) {
+    }
+}
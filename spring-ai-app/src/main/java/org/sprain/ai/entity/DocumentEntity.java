@@ -3,6 +3,7 @@ package org.sprain.ai.entity;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.sprain.ai.dto.ChunkingStrategy;
 import org.springframework.data.domain.Persistable;
 
 import java.time.LocalDateTime;
@@ -24,8 +25,7 @@ public class DocumentEntity implements Persistable<UUID> {
     @Column(nullable = false)
     private String filename;
 
-    @Column(nullable = false, columnDefinition = "TEXT")
-    private String content;
+    private Long contentLength;  // 원본 문자 수 (원본은 document_contents에 압축 저장)
 
     @Column(nullable = false)
     private String contentType;  // PDF, DOCX, TXT
@@ -39,6 +39,13 @@ public class DocumentEntity implements Persistable<UUID> {
     @Column(columnDefinition = "TEXT")
     private String metadata;  // JSON 형태의 메타데이터
 
+    @Column(length = 64)
+    private String contentHash;  // 원본 SHA-256 (중복 업로드 판별)
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private ChunkingStrategy chunking;  // 청킹 방식 (갱신 시 같은 방식으로 다시 나눠 청크/임베딩 재사용)
+
     @Transient
     @Builder.Default
     private boolean isNew = true;
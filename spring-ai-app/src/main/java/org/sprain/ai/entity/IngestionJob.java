@@ -0,0 +1,66 @@
+package org.sprain.ai.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.sprain.ai.dto.IngestionJobStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "ingestion_jobs")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IngestionJob {
+
+    @Id
+    @Column(name = "id", columnDefinition = "UUID")
+    private UUID id;
+
+    @Column(nullable = false, columnDefinition = "UUID")
+    private UUID documentId;  // 완료 시 생성될 문서 ID
+
+    @Column(nullable = false)
+    private String filename;
+
+    private String contentType;
+
+    @Column(nullable = false)
+    private String spoolPath;  // 업로드 원본 임시 저장 경로
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private IngestionJobStatus status;
+
+    @Column(nullable = false)
+    private Long totalBytes;
+
+    @Column(length = 64)
+    private String contentHash;  // 원본 SHA-256
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Long bytesProcessed = 0L;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Integer checkpoint = 0;  // 앞에서부터 연속으로 저장 완료된 청크 수 (재개 지점)
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Integer resumedFrom = 0;  // 현재 실행이 시작된 체크포인트 (처리량 계산용)
+
+    @Column(columnDefinition = "TEXT")
+    private String errorMessage;
+
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime completedAt;
+}
@@ -1,7 +1,13 @@
 package org.sprain.ai.global.advisor;
 
+import lombok.Builder;
 import lombok.extern.slf4j.Slf4j;
 import org.sprain.ai.config.RagConfig;
+import org.sprain.ai.dto.TokenUsage;
+import org.sprain.ai.global.helper.rag.ContextAssembler;
+import org.sprain.ai.global.helper.rag.MmrSelector;
+import org.sprain.ai.global.helper.rag.SmallToBigExpander;
+import org.sprain.ai.global.helper.rerank.Reranker;
 import org.springframework.ai.chat.client.ChatClientRequest;
 import org.springframework.ai.chat.client.ChatClientResponse;
 import org.springframework.ai.chat.client.advisor.api.AdvisorChain;
@@ -20,20 +26,46 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
+/**
+ * 벡터 검색 결과를 사용자 턴에 주입하는 RAG Advisor
+ * <p>
+ * 선택 협력 객체는 빌더로 지정하고, 지정하지 않으면 해당 단계를 건너뛴다.
+ * <pre>{@code
+ * AdvancedRagAdvisor.builder()
+ *     .vectorStore(vectorStore)
+ *     .config(config)
+ *     .reranker(reranker)
+ *     .build();
+ * }</pre>
+ */
 @Slf4j
+@Builder
 public class AdvancedRagAdvisor implements BaseAdvisor {
 
     private final VectorStore vectorStore;
-    private final RagConfig config;
 
-    public AdvancedRagAdvisor(VectorStore vectorStore) {
-        this(vectorStore, RagConfig.builder().build());
-    }
+    @Builder.Default
+    private final RagConfig config = RagConfig.builder().build();
 
-    public AdvancedRagAdvisor(VectorStore vectorStore, RagConfig config) {
-        this.vectorStore = vectorStore;
-        this.config = config;
-    }
+    /**
+     * null이면 재순위 없이 검색 순서 사용
+     */
+    private final Reranker reranker;
+
+    /**
+     * null이면 검색 결과를 그대로 컨텍스트에 사용
+     */
+    private final ContextAssembler contextAssembler;
+
+    /**
+     * null이면 MMR 다양성 선택 없이 사용 (config.mmrCandidates도 topK보다 커야 적용)
+     */
+    private final MmrSelector mmrSelector;
+
+    /**
+     * null이면 자식 청크를 부모 구간으로 확장하지 않음
+     */
+    private final SmallToBigExpander smallToBigExpander;
 
     @Override
     public String getName() {
@@ -65,9 +97,12 @@ public class AdvancedRagAdvisor implements BaseAdvisor {
                         "죄송하지만 관련 문서를 찾을 수 없어 답변드릴 수 없습니다."
                 );
 
+                // 고정 시스템 프롬프트 뒤에 붙여 캐시 접두사 유지
+                List<Message> instructions = chatClientRequest.prompt().getInstructions();
                 List<Message> messages = new ArrayList<>();
+                instructions.stream().filter(SystemMessage.class::isInstance).forEach(messages::add);
                 messages.add(noDocsMessage);
-                messages.addAll(chatClientRequest.prompt().getInstructions());
+                instructions.stream().filter(m -> !(m instanceof SystemMessage)).forEach(messages::add);
 
                 return ChatClientRequest.builder()
                         .prompt(new Prompt(messages, chatClientRequest.prompt().getOptions()))
@@ -80,20 +115,26 @@ public class AdvancedRagAdvisor implements BaseAdvisor {
 
         log.info("검색된 문서: {} 개", relevantDocs.size());
 
+        // 토큰 예산 안으로 조립 (중복 제거, 점수 절벽 이후 제외)
+        if (contextAssembler != null) {
+            relevantDocs = contextAssembler.assemble(relevantDocs).passages();
+        }
+
         // 컨텍스트 생성
         String context = buildEnhancedContext(relevantDocs);
 
-        // 시스템 프롬프트 생성
-        String systemPrompt = config.getSystemPromptTemplate()
+        // 사용자 프롬프트 생성 (검색 문서 + 질문)
+        String userPrompt = config.getUserPromptTemplate()
                 .replace("{context}", context)
                 .replace("{query}", userQuery);
 
-        SystemMessage systemMessage = new SystemMessage(systemPrompt);
-
-        // 메시지 구성
-        List<Message> messages = new ArrayList<>();
-        messages.add(systemMessage);
-        messages.addAll(chatClientRequest.prompt().getInstructions());
+        // 메시지 구성: RAG 컨텍스트는 마지막 사용자 메시지에 넣는다.
+        // Anthropic은 시스템 메시지를 하나의 system 블록으로 합치므로, 질문마다 바뀌는 내용을
+        // 시스템 메시지로 넣으면 캐시 접두사가 매번 달라져 캐시 기록만 하고 읽지 못한다.
+        List<Message> instructions = chatClientRequest.prompt().getInstructions();
+        int last = lastUserMessageIndex(instructions);
+        List<Message> messages = new ArrayList<>(instructions);
+        messages.set(last, ((UserMessage) instructions.get(last)).mutate().text(userPrompt).build());
 
         Prompt enrichedPrompt = new Prompt(
                 messages,
@@ -112,6 +153,8 @@ public class AdvancedRagAdvisor implements BaseAdvisor {
 
     @Override
     public ChatClientResponse after(ChatClientResponse chatClientResponse, AdvisorChain advisorChain) {
+        logCacheUsage(chatClientResponse.chatResponse());
+
         if (!config.isAppendSources()) {
             return chatClientResponse;
         }
@@ -139,11 +182,25 @@ public class AdvancedRagAdvisor implements BaseAdvisor {
 
     /**
      * 문서 검색
+     * 재순위 설정 시 rerankCandidates개, MMR 설정 시 mmrCandidates개(둘 중 큰 값)를 검색해
+     * 재순위 → MMR 순으로 topK까지 줄인다.
      */
     private List<Document> searchDocuments(String query) {
+        boolean rerank = reranker != null && reranker.isEnabled()
+                && config.getRerankCandidates() > config.getTopK();
+        boolean mmr = mmrSelector != null && config.getMmrCandidates() > config.getTopK();
+
+        int candidates = config.getTopK();
+        if (rerank) {
+            candidates = Math.max(candidates, config.getRerankCandidates());
+        }
+        if (mmr) {
+            candidates = Math.max(candidates, config.getMmrCandidates());
+        }
+
         SearchRequest.Builder searchBuilder = SearchRequest.builder()
                 .query(query)
-                .topK(config.getTopK())
+                .topK(candidates)
                 .similarityThreshold(config.getSimilarityThreshold());
 
         // 필터 적용
@@ -151,7 +208,17 @@ public class AdvancedRagAdvisor implements BaseAdvisor {
             searchBuilder.filterExpression(config.getFilterExpression());
         }
 
-        return vectorStore.similaritySearch(searchBuilder.build());
+        List<Document> documents = vectorStore.similaritySearch(searchBuilder.build());
+        if (rerank) {
+            documents = reranker.rerank(query, documents, mmr ? documents.size() : config.getTopK());
+        }
+        if (mmr) {
+            documents = mmrSelector.select(query, documents, config.getTopK(), config.getMmrLambda());
+        }
+        if (smallToBigExpander != null) {
+            documents = smallToBigExpander.expand(documents);
+        }
+        return documents;
     }
 
     /**
@@ -208,14 +275,40 @@ public class AdvancedRagAdvisor implements BaseAdvisor {
     }
 
     /**
-     * 사용자 질문 추출
+     * 프롬프트 캐시 사용량 기록 (같은 시스템 프롬프트로 두 번째 질문부터 cacheRead가 0보다 커야 캐시가 동작하는 것)
+     */
+    private void logCacheUsage(ChatResponse chatResponse) {
+        if (chatResponse == null || chatResponse.getMetadata() == null) {
+            return;
+        }
+        TokenUsage usage = UsageLoggingAdvisor.toTokenUsage(chatResponse.getMetadata().getUsage());
+        if (usage == null || usage.cacheReadInputTokens() == null) {
+            return;
+        }
+        if (usage.cacheReadInputTokens() > 0) {
+            log.info("RAG 프롬프트 캐시 적중: read={}, write={}, input={}",
+                    usage.cacheReadInputTokens(), usage.cacheCreationInputTokens(), usage.promptTokens());
+        } else {
+            log.debug("RAG 프롬프트 캐시 미적중: write={}, input={}",
+                    usage.cacheCreationInputTokens(), usage.promptTokens());
+        }
+    }
+
+    /**
+     * 사용자 질문 추출 (대화 이력이 있으면 마지막 사용자 메시지가 현재 질문)
      */
     private String extractUserQuery(ChatClientRequest request) {
-        for (Message message : request.prompt().getInstructions()) {
-            if (message instanceof UserMessage) {
-                return message.getText();
+        List<Message> instructions = request.prompt().getInstructions();
+        int last = lastUserMessageIndex(instructions);
+        return last < 0 ? null : instructions.get(last).getText();
+    }
+
+    private static int lastUserMessageIndex(List<Message> messages) {
+        for (int i = messages.size() - 1; i >= 0; i--) {
+            if (messages.get(i) instanceof UserMessage) {
+                return i;
             }
         }
-        return null;
+        return -1;
     }
 }
@@ -13,22 +13,42 @@ import org.springframework.ai.chat.prompt.Prompt;
 import org.springframework.ai.document.Document;
 import org.springframework.ai.vectorstore.SearchRequest;
 import org.springframework.ai.vectorstore.VectorStore;
-import org.sprain.ai.entity.DocumentEntity;
-import org.sprain.ai.repository.DocumentRepository;
-
-import java.util.*;
-import java.util.stream.Collectors;
-
+import org.sprain.ai.config.RagConfig;
+import org.sprain.ai.global.helper.keyword.KeywordSearchIndex;
+import org.sprain.ai.global.helper.rag.MmrSelector;
+import org.sprain.ai.global.helper.rag.ReciprocalRankFusion;
+import org.sprain.ai.global.helper.rerank.Reranker;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Vector 검색 + BM25 키워드 검색을 RRF로 결합해 청크(passage)를 주입하는 Advisor
+ * <p>
+ * 두 검색에서 각각 topK x CANDIDATE_FACTOR개(MMR 설정 시 mmrCandidates 중 큰 값) 후보를 뽑아 순위로 결합하고
+ * 선택적으로 재순위 → MMR 순으로 상위 topK 청크만 넣으므로 주입되는 토큰은 청크 크기 x topK로 제한된다.
+ * RagConfig에서는 topK, mmrCandidates, mmrLambda만 사용한다. (키워드 검색에는 유사도/필터 조건이 없음)
+ * <p>
+ * KeywordSearchIndex 빈은 sprain.retrieval.keyword-search-enabled=true일 때만 등록된다. (HybridRagService에서 사용)
+ */
 @Slf4j
 @RequiredArgsConstructor
 public class HybridRagAdvisor implements BaseAdvisor {
 
+    private static final int CANDIDATE_FACTOR = 2;
+
     private final VectorStore vectorStore;
-    private final DocumentRepository documentRepository;
-    private final int topK;
+    private final KeywordSearchIndex keywordSearchIndex;
+    private final Reranker reranker;
+    private final MmrSelector mmrSelector;
+    private final RagConfig config;
+
+    public HybridRagAdvisor(VectorStore vectorStore, KeywordSearchIndex keywordSearchIndex) {
+        this(vectorStore, keywordSearchIndex, 5);
+    }
 
-    public HybridRagAdvisor(VectorStore vectorStore, DocumentRepository documentRepository) {
-        this(vectorStore, documentRepository, 5);
+    public HybridRagAdvisor(VectorStore vectorStore, KeywordSearchIndex keywordSearchIndex, int topK) {
+        this(vectorStore, keywordSearchIndex, null, null, RagConfig.builder().topK(topK).build());
     }
 
     @Override
@@ -49,38 +69,30 @@ public class HybridRagAdvisor implements BaseAdvisor {
             return chatClientRequest;
         }
 
+        int topK = config.getTopK();
+        boolean rerank = reranker != null && reranker.isEnabled();
+        boolean mmr = mmrSelector != null && config.getMmrCandidates() > topK;
+        int candidates = Math.max(topK * CANDIDATE_FACTOR, mmr ? config.getMmrCandidates() : 0);
+
         // 1. Vector 검색
         List<Document> vectorDocs = vectorStore.similaritySearch(
             SearchRequest.builder()
                 .query(userQuery)
-                .topK(topK)
+                .topK(candidates)
                 .build()
         );
 
-        // 2. 키워드 검색
-        List<DocumentEntity> keywordDocs = documentRepository.findByContentContaining(userQuery);
-
-        // 3. 결과 병합
-        Set<String> vectorDocIds = vectorDocs.stream()
-            .map(doc -> (String) doc.getMetadata().get("document_id"))
-            .filter(Objects::nonNull)
-            .collect(Collectors.toSet());
-
-        List<Document> hybridDocs = new ArrayList<>(vectorDocs);
-
-        // 키워드 검색에서 추가 문서 추가
-        for (DocumentEntity keywordDoc : keywordDocs) {
-            if (!vectorDocIds.contains(keywordDoc.getId()) && hybridDocs.size() < topK * 2) {
-                Document doc = new Document(
-                    keywordDoc.getContent(),
-                    Map.of(
-                        "document_id", keywordDoc.getId(),
-                        "filename", keywordDoc.getFilename(),
-                        "source", "keyword_search"
-                    )
-                );
-                hybridDocs.add(doc);
-            }
+        // 2. 키워드 검색 (BM25 역색인, 청크 단위)
+        List<Document> keywordDocs = keywordSearchIndex.search(userQuery, candidates);
+
+        // 3. 순위 결합 (RRF), Reranker/MMR이 있으면 결합 후보 전체를 재순위 → MMR로 topK 선택
+        List<Document> hybridDocs = ReciprocalRankFusion.fuse(
+            List.of(vectorDocs, keywordDocs), ReciprocalRankFusion.DEFAULT_K, rerank || mmr ? candidates : topK);
+        if (rerank) {
+            hybridDocs = reranker.rerank(userQuery, hybridDocs, mmr ? hybridDocs.size() : topK);
+        }
+        if (mmr) {
+            hybridDocs = mmrSelector.select(userQuery, hybridDocs, topK, config.getMmrLambda());
         }
 
         if (hybridDocs.isEmpty()) {
@@ -88,9 +100,10 @@ public class HybridRagAdvisor implements BaseAdvisor {
             return chatClientRequest;
         }
 
-        log.info("하이브리드 검색 결과: Vector({}) + Keyword({})",
+        log.info("하이브리드 검색 결과: Vector({}) + Keyword({}) → {}",
             vectorDocs.size(),
-            hybridDocs.size() - vectorDocs.size()
+            keywordDocs.size(),
+            hybridDocs.size()
         );
 
         // 컨텍스트 생성
@@ -134,7 +147,8 @@ public class HybridRagAdvisor implements BaseAdvisor {
         StringBuilder context = new StringBuilder();
         for (int i = 0; i < documents.size(); i++) {
             Document doc = documents.get(i);
-            context.append(String.format("[문서 %d]\n%s\n\n---\n\n", i + 1, doc.getText()));
+            context.append(String.format("[문서 %d] %s\n%s\n\n---\n\n",
+                i + 1, doc.getMetadata().getOrDefault("filename", ""), doc.getText()));
         }
         return context.toString();
     }
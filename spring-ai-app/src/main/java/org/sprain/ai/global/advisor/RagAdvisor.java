@@ -1,6 +1,9 @@
 package org.sprain.ai.global.advisor;
 
 import lombok.extern.slf4j.Slf4j;
+import org.sprain.ai.config.RagConfig;
+import org.sprain.ai.global.helper.rag.ContextAssembler;
+import org.sprain.ai.global.helper.rag.MmrSelector;
 import org.springframework.ai.chat.client.ChatClientRequest;
 import org.springframework.ai.chat.client.ChatClientResponse;
 import org.springframework.ai.chat.client.advisor.api.AdvisorChain;
@@ -20,9 +23,10 @@ import java.util.List;
 public class RagAdvisor implements BaseAdvisor {
 
     private final VectorStore vectorStore;
-    private final int topK;
-    private final double similarityThreshold;
+    private final RagConfig config;
     private final String systemPromptTemplate;
+    private final ContextAssembler contextAssembler;
+    private final MmrSelector mmrSelector;
 
     public RagAdvisor(VectorStore vectorStore) {
         this(vectorStore, 5, 0.7, DEFAULT_SYSTEM_PROMPT);
@@ -33,10 +37,30 @@ public class RagAdvisor implements BaseAdvisor {
     }
 
     public RagAdvisor(VectorStore vectorStore, int topK, double similarityThreshold, String systemPromptTemplate) {
+        this(vectorStore, topK, similarityThreshold, systemPromptTemplate, null);
+    }
+
+    /**
+     * @param contextAssembler null이면 검색 결과를 그대로 컨텍스트에 사용
+     */
+    public RagAdvisor(VectorStore vectorStore, int topK, double similarityThreshold, String systemPromptTemplate,
+                      ContextAssembler contextAssembler) {
+        this(vectorStore, RagConfig.builder().topK(topK).similarityThreshold(similarityThreshold).build(),
+            systemPromptTemplate, contextAssembler, null);
+    }
+
+    /**
+     * @param config           topK, similarityThreshold, filterExpression, mmrCandidates, mmrLambda 사용
+     * @param contextAssembler null이면 검색 결과를 그대로 컨텍스트에 사용
+     * @param mmrSelector      null이면 MMR 다양성 선택 없이 사용 (config.mmrCandidates도 topK보다 커야 적용)
+     */
+    public RagAdvisor(VectorStore vectorStore, RagConfig config, String systemPromptTemplate,
+                      ContextAssembler contextAssembler, MmrSelector mmrSelector) {
         this.vectorStore = vectorStore;
-        this.topK = topK;
-        this.similarityThreshold = similarityThreshold;
+        this.config = config;
         this.systemPromptTemplate = systemPromptTemplate;
+        this.contextAssembler = contextAssembler;
+        this.mmrSelector = mmrSelector;
     }
 
     private static final String DEFAULT_SYSTEM_PROMPT = """
@@ -72,13 +96,7 @@ public class RagAdvisor implements BaseAdvisor {
         }
 
         // Vector Store에서 관련 문서 검색
-        List<Document> relevantDocs = vectorStore.similaritySearch(
-            SearchRequest.builder()
-                .query(userQuery)
-                .topK(topK)
-                .similarityThreshold(similarityThreshold)
-                .build()
-        );
+        List<Document> relevantDocs = searchDocuments(userQuery);
 
         if (relevantDocs.isEmpty()) {
             log.info("관련 문서를 찾을 수 없습니다: {}", userQuery);
@@ -87,6 +105,11 @@ public class RagAdvisor implements BaseAdvisor {
 
         log.info("검색된 문서: {} 개", relevantDocs.size());
 
+        // 토큰 예산 안으로 조립 (중복 제거, 점수 절벽 이후 제외)
+        if (contextAssembler != null) {
+            relevantDocs = contextAssembler.assemble(relevantDocs).passages();
+        }
+
         // 문서 컨텍스트 생성
         String context = buildContext(relevantDocs);
 
@@ -118,6 +141,27 @@ public class RagAdvisor implements BaseAdvisor {
         return chatClientResponse;
     }
 
+    /**
+     * 문서 검색 (MMR 설정 시 mmrCandidates개를 검색해 겹치는 이웃 청크를 뒤로 밀고 topK 선택)
+     */
+    private List<Document> searchDocuments(String query) {
+        boolean mmr = mmrSelector != null && config.getMmrCandidates() > config.getTopK();
+
+        SearchRequest.Builder searchBuilder = SearchRequest.builder()
+            .query(query)
+            .topK(mmr ? config.getMmrCandidates() : config.getTopK())
+            .similarityThreshold(config.getSimilarityThreshold());
+        if (config.getFilterExpression() != null) {
+            searchBuilder.filterExpression(config.getFilterExpression());
+        }
+
+        List<Document> documents = vectorStore.similaritySearch(searchBuilder.build());
+        if (mmr) {
+            documents = mmrSelector.select(query, documents, config.getTopK(), config.getMmrLambda());
+        }
+        return documents;
+    }
+
     /**
      * 사용자 질문 추출
      */
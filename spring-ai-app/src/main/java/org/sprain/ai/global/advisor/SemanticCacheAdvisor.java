@@ -0,0 +1,94 @@
+package org.sprain.ai.global.advisor;
+
+import lombok.extern.slf4j.Slf4j;
+import org.sprain.ai.dto.DocumentSource;
+import org.sprain.ai.global.helper.rag.SemanticAnswerCache;
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisor;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisorChain;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 의미 기반 답변 캐시 Advisor
+ * <p>
+ * RAG Advisor(order 0)보다 먼저 실행되어, 유사한 질문의 답변이 캐시에 있으면
+ * 검색과 LLM 호출 없이 바로 응답한다. 미스면 체인을 실행한 뒤
+ * RAG Advisor가 context에 남긴 rag_documents를 출처로 답변을 저장한다.
+ * (출처가 없는 답변은 저장하지 않음)
+ */
+@Slf4j
+public class SemanticCacheAdvisor implements CallAdvisor {
+
+    private final EmbeddingModel embeddingModel;
+    private final SemanticAnswerCache answerCache;
+    private final String scope;
+
+    /**
+     * @param scope 캐시 구분 키 (RAG 설정이 다른 ChatClient끼리 답변이 섞이지 않도록 구분)
+     */
+    public SemanticCacheAdvisor(EmbeddingModel embeddingModel, SemanticAnswerCache answerCache, String scope) {
+        this.embeddingModel = embeddingModel;
+        this.answerCache = answerCache;
+        this.scope = scope;
+    }
+
+    @Override
+    public String getName() {
+        return "SemanticCacheAdvisor";
+    }
+
+    @Override
+    public int getOrder() {
+        return -100;
+    }
+
+    @Override
+    public ChatClientResponse adviseCall(ChatClientRequest chatClientRequest, CallAdvisorChain callAdvisorChain) {
+        UserMessage userMessage = chatClientRequest.prompt().getUserMessage();
+        String userQuery = userMessage != null ? userMessage.getText() : null;
+        if (!answerCache.isEnabled() || userQuery == null || userQuery.isBlank()) {
+            return callAdvisorChain.nextCall(chatClientRequest);
+        }
+
+        float[] queryVector = embeddingModel.embed(userQuery);
+        long generation = answerCache.generation();
+
+        Optional<SemanticAnswerCache.CachedAnswer> cached = answerCache.lookup(scope, queryVector);
+        if (cached.isPresent()) {
+            log.info("의미 캐시 적중 ({}): similarity={}", scope, String.format("%.4f", cached.get().similarity()));
+            ChatResponse chatResponse = ChatResponse.builder()
+                .generations(List.of(new Generation(new AssistantMessage(cached.get().answer()))))
+                .build();
+            return ChatClientResponse.builder()
+                .chatResponse(chatResponse)
+                .context(chatClientRequest.context())
+                .context("semantic_cache_hit", true)
+                .context("semantic_cache_sources", cached.get().sources())
+                .build();
+        }
+
+        ChatClientResponse response = callAdvisorChain.nextCall(chatClientRequest);
+
+        ChatResponse chatResponse = response.chatResponse();
+        if (chatResponse != null && chatResponse.getResult() != null) {
+            @SuppressWarnings("unchecked")
+            List<Document> documents = (List<Document>) response.context().get("rag_documents");
+            if (documents != null) {
+                answerCache.put(scope, queryVector, userQuery,
+                    chatResponse.getResult().getOutput().getText(),
+                    documents.stream().map(DocumentSource::from).toList(),
+                    generation);
+            }
+        }
+        return response;
+    }
+}
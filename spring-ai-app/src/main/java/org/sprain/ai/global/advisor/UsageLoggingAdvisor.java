@@ -1,6 +1,8 @@
 package org.sprain.ai.global.advisor;
 
 import lombok.extern.slf4j.Slf4j;
+import org.sprain.ai.dto.TokenUsage;
+import org.springframework.ai.anthropic.api.AnthropicApi;
 import org.springframework.ai.chat.client.ChatClientRequest;
 import org.springframework.ai.chat.client.ChatClientResponse;
 import org.springframework.ai.chat.client.advisor.api.AdvisorChain;
@@ -44,6 +46,7 @@ public class UsageLoggingAdvisor implements BaseAdvisor {
         startTime.remove();
 
         Usage usage = chatClientResponse.chatResponse().getMetadata().getUsage();
+        TokenUsage tokenUsage = toTokenUsage(usage);
 
         log.info("===== LLM Response =====");
         log.info("Duration: {}ms", duration);
@@ -51,16 +54,44 @@ public class UsageLoggingAdvisor implements BaseAdvisor {
         log.info("Prompt Tokens: {}", usage.getPromptTokens());
         log.info("Completion Tokens: {}", usage.getCompletionTokens());
         log.info("Total Tokens: {}", usage.getTotalTokens());
-        log.info("Estimated Cost: ${}", calculateCost(usage));
+        log.info("Cache Write Tokens: {}", tokenUsage.cacheCreationInputTokens());
+        log.info("Cache Read Tokens: {}", tokenUsage.cacheReadInputTokens());
+        if (orZero(tokenUsage.cacheReadInputTokens()) > 0) {
+            // 같은 접두사로 반복 호출하면 두 번째 호출부터 여기로 와야 캐시가 동작하는 것
+            log.info("Prompt Cache Hit: {} / {} input tokens", tokenUsage.cacheReadInputTokens(),
+                    tokenUsage.promptTokens());
+        }
+        log.info("Estimated Cost: ${}", calculateCost(tokenUsage));
         log.info("========================");
 
         return chatClientResponse;
     }
 
-    private double calculateCost(Usage usage) {
-        // Claude Sonnet 4.5 가격
-        double inputCost = usage.getPromptTokens() / 1_000_000.0 * 3.0;
-        double outputCost = usage.getCompletionTokens() / 1_000_000.0 * 15.0;
-        return inputCost + outputCost;
+    /**
+     * 응답 메타데이터의 Usage를 TokenUsage로 변환
+     * 캐시 토큰은 Anthropic 원본 Usage에만 있으므로 그 외 모델은 null로 둔다.
+     */
+    public static TokenUsage toTokenUsage(Usage usage) {
+        if (usage == null) {
+            return null;
+        }
+        if (usage.getNativeUsage() instanceof AnthropicApi.Usage anthropicUsage) {
+            return new TokenUsage(usage.getPromptTokens(), usage.getCompletionTokens(), usage.getTotalTokens(),
+                    anthropicUsage.cacheCreationInputTokens(), anthropicUsage.cacheReadInputTokens());
+        }
+        return new TokenUsage(usage.getPromptTokens(), usage.getCompletionTokens(), usage.getTotalTokens());
+    }
+
+    private double calculateCost(TokenUsage usage) {
+        // Claude Sonnet 4.5 가격 (캐시 쓰기 1.25배, 캐시 읽기 0.1배)
+        double inputCost = usage.promptTokens() / 1_000_000.0 * 3.0;
+        double cacheWriteCost = orZero(usage.cacheCreationInputTokens()) / 1_000_000.0 * 3.75;
+        double cacheReadCost = orZero(usage.cacheReadInputTokens()) / 1_000_000.0 * 0.3;
+        double outputCost = usage.completionTokens() / 1_000_000.0 * 15.0;
+        return inputCost + cacheWriteCost + cacheReadCost + outputCost;
+    }
+
+    private static int orZero(Integer tokens) {
+        return tokens == null ? 0 : tokens;
     }
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package org.sprain.ai.global.event;
+
+import java.util.UUID;
+
+/**
+ * 문서 추가/갱신/삭제 이벤트 (DocumentService에서 발행)
+ * 문서 내용에 의존하는 캐시가 구독해서 무효화한다.
+ */
+public record DocumentChangedEvent(UUID documentId, String filename, ChangeType type) {
+
+    public enum ChangeType {
+        ADDED,
+        UPDATED,
+        DELETED
+    }
+}
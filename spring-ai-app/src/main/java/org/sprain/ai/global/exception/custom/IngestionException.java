@@ -0,0 +1,10 @@
+package org.sprain.ai.global.exception.custom;
+
+public class IngestionException extends RuntimeException {
+    public IngestionException(String message) {
+        super(message);
+    }
+    public IngestionException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
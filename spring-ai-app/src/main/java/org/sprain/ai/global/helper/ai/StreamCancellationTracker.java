@@ -0,0 +1,97 @@
+package org.sprain.ai.global.helper.ai;
+
+import com.knuddels.jtokkit.Encodings;
+import com.knuddels.jtokkit.api.Encoding;
+import com.knuddels.jtokkit.api.EncodingType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * LLM 스트리밍 응답의 클라이언트 취소 추적
+ * <p>
+ * SSE 연결이 끊기면 구독 취소가 상위 스트림(ChatClient → Anthropic/Ollama HTTP 연결)까지 전달되어 생성이 중단된다.
+ * 이때 절감한 출력 토큰을 "같은 경로에서 끝까지 받은 응답의 평균 토큰 수 - 취소 전까지 받은 토큰 수"로 추정해 기록한다.
+ * <ul>
+ *     <li>sprain.stream.cancelled{path}: 취소된 스트림 수</li>
+ *     <li>sprain.stream.tokens.saved{path}: 취소로 절감한 출력 토큰 추정치</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class StreamCancellationTracker {
+
+    /**
+     * 완료 응답 평균의 가중치 (지수 이동 평균)
+     */
+    private static final double AVERAGE_WEIGHT = 0.1;
+
+    private final Encoding encoding = Encodings.newLazyEncodingRegistry().getEncoding(EncodingType.CL100K_BASE);
+    private final MeterRegistry meterRegistry;
+    private final Map<String, PathStats> stats = new ConcurrentHashMap<>();
+
+    public StreamCancellationTracker(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * 토큰 스트림에 취소 추적 연결 (구독마다 따로 집계)
+     *
+     * @param path 호출 경로 (메트릭 태그)
+     */
+    public Flux<String> track(String path, Flux<String> tokens) {
+        PathStats pathStats = stats.computeIfAbsent(path, this::register);
+        return Flux.defer(() -> {
+            AtomicInteger emitted = new AtomicInteger();
+            return tokens
+                .doOnNext(token -> emitted.addAndGet(encoding.countTokens(token)))
+                .doOnComplete(() -> pathStats.completed(emitted.get()))
+                .doOnCancel(() -> {
+                    int saved = pathStats.cancelled(emitted.get());
+                    log.info("스트리밍 취소 ({}): 받은 토큰 {}, 절감 추정 {}", path, emitted.get(), saved);
+                });
+        });
+    }
+
+    private PathStats register(String path) {
+        return new PathStats(
+            Counter.builder("sprain.stream.cancelled")
+                .description("클라이언트 연결 종료로 취소된 LLM 스트림 수")
+                .tag("path", path)
+                .register(meterRegistry),
+            DistributionSummary.builder("sprain.stream.tokens.saved")
+                .description("스트림 취소로 생성하지 않은 출력 토큰 추정치")
+                .tag("path", path)
+                .register(meterRegistry));
+    }
+
+    private static final class PathStats {
+
+        private final Counter cancelledCounter;
+        private final DistributionSummary savedTokens;
+        private volatile double averageTokens;
+
+        PathStats(Counter cancelledCounter, DistributionSummary savedTokens) {
+            this.cancelledCounter = cancelledCounter;
+            this.savedTokens = savedTokens;
+        }
+
+        synchronized void completed(int tokens) {
+            averageTokens = averageTokens == 0 ? tokens : averageTokens + AVERAGE_WEIGHT * (tokens - averageTokens);
+        }
+
+        int cancelled(int emitted) {
+            int saved = (int) Math.max(0, Math.round(averageTokens) - emitted);
+            cancelledCounter.increment();
+            savedTokens.record(saved);
+            return saved;
+        }
+    }
+}
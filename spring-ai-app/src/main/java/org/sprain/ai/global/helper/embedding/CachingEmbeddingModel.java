@@ -0,0 +1,162 @@
+package org.sprain.ai.global.helper.embedding;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.sprain.ai.repository.EmbeddingCacheRepository;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * 내용 주소 기반(content-addressed) 임베딩 캐시
+ * <p>
+ * SHA-256(모델 ID + 정규화된 텍스트)을 키로 embedding_cache 테이블에 벡터를 저장해
+ * 같은 텍스트는 Ollama를 다시 호출하지 않는다. DB에 저장되므로 재시작 후에도 유지된다.
+ * VectorStore의 add/similaritySearch 모두 call()을 거치므로 이 클래스 하나로 모든 경로에 적용된다.
+ * <p>
+ * 검색 질의(embed(String))는 메모리 캐시(QueryEmbeddingCache)만 사용하고 embedding_cache에는 저장하지 않는다.
+ * (질의는 매번 달라 재사용이 적고, 저장하면 제거 수단 없이 테이블이 계속 커진다)
+ */
+@Slf4j
+public class CachingEmbeddingModel implements EmbeddingModel {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final EmbeddingModel delegate;
+    private final String modelId;
+    private final EmbeddingCacheRepository cacheRepository;
+    private final QueryEmbeddingCache queryCache;
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    public CachingEmbeddingModel(EmbeddingModel delegate, String modelId,
+                                 EmbeddingCacheRepository cacheRepository, QueryEmbeddingCache queryCache,
+                                 MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.modelId = modelId;
+        this.cacheRepository = cacheRepository;
+        this.queryCache = queryCache;
+
+        this.hitCounter = Counter.builder("sprain.embedding.cache.hits")
+            .description("임베딩 캐시 적중 수")
+            .tag("model", modelId)
+            .register(meterRegistry);
+        this.missCounter = Counter.builder("sprain.embedding.cache.misses")
+            .description("임베딩 캐시 미스 수 (Ollama 호출)")
+            .tag("model", modelId)
+            .register(meterRegistry);
+        Gauge.builder("sprain.embedding.cache.hit.ratio", this, CachingEmbeddingModel::hitRatio)
+            .description("임베딩 캐시 적중률")
+            .tag("model", modelId)
+            .register(meterRegistry);
+    }
+
+    @Override
+    public EmbeddingResponse call(EmbeddingRequest request) {
+        List<String> texts = request.getInstructions();
+
+        // 1. 텍스트별 해시 계산 (순서 유지)
+        List<String> hashes = texts.stream().map(this::contentHash).toList();
+        Map<String, float[]> cached = cacheRepository.findAll(hashes);
+
+        // 2. 캐시에 없는 텍스트만 모델 호출 (중복 텍스트는 한 번만)
+        Map<String, String> missing = new LinkedHashMap<>();
+        for (int i = 0; i < texts.size(); i++) {
+            if (!cached.containsKey(hashes.get(i))) {
+                missing.putIfAbsent(hashes.get(i), texts.get(i));
+            }
+        }
+
+        Map<String, float[]> computed = new LinkedHashMap<>();
+        if (!missing.isEmpty()) {
+            EmbeddingResponse response = delegate.call(
+                new EmbeddingRequest(List.copyOf(missing.values()), request.getOptions()));
+            List<String> missingHashes = List.copyOf(missing.keySet());
+            for (int i = 0; i < missingHashes.size(); i++) {
+                computed.put(missingHashes.get(i), response.getResults().get(i).getOutput());
+            }
+            cacheRepository.saveAll(modelId, computed);
+        }
+
+        hitCounter.increment(texts.size() - missing.size());
+        missCounter.increment(missing.size());
+        if (log.isDebugEnabled()) {
+            log.debug("임베딩 캐시: {} 요청, {} 적중, {} 계산", texts.size(), texts.size() - missing.size(), missing.size());
+        }
+
+        // 3. 원래 순서대로 결과 조립
+        List<Embedding> embeddings = new ArrayList<>(texts.size());
+        for (int i = 0; i < texts.size(); i++) {
+            float[] vector = cached.get(hashes.get(i));
+            if (vector == null) {
+                vector = computed.get(hashes.get(i));
+            }
+            embeddings.add(new Embedding(vector, i));
+        }
+        return new EmbeddingResponse(embeddings);
+    }
+
+    /**
+     * 단건 임베딩 (VectorStore.similaritySearch의 질의 경로)
+     * 미스 시 call()을 거치지 않고 모델을 직접 호출해 결과는 메모리 캐시에만 둔다.
+     */
+    @Override
+    public float[] embed(String text) {
+        return queryCache.get(modelId + '\u0000' + normalize(text), () -> delegate.embed(text));
+    }
+
+    @Override
+    public float[] embed(Document document) {
+        return embed(document.getText());
+    }
+
+    @Override
+    public int dimensions() {
+        return delegate.dimensions();
+    }
+
+    public double hitRatio() {
+        double hits = hitCounter.count();
+        double total = hits + missCounter.count();
+        return total == 0 ? 0.0 : hits / total;
+    }
+
+    /**
+     * 캐시 키: SHA-256(모델 ID + NUL + 정규화된 텍스트)
+     * 정규화: NFC + 연속 공백 하나로 + 앞뒤 공백 제거
+     */
+    String contentHash(String text) {
+        return sha256(modelId + '\u0000' + normalize(text));
+    }
+
+    public static String normalize(String text) {
+        return WHITESPACE.matcher(Normalizer.normalize(text, Normalizer.Form.NFC))
+            .replaceAll(" ")
+            .strip();
+    }
+
+    public static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256을 사용할 수 없습니다", e);
+        }
+    }
+}
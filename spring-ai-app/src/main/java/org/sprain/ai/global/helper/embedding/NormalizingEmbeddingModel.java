@@ -0,0 +1,44 @@
+package org.sprain.ai.global.helper.embedding;
+
+import org.sprain.ai.global.helper.vector.VectorMath;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+
+import java.util.List;
+
+/**
+ * 임베딩을 단위 벡터(L2 정규화)로 바꿔 주는 EmbeddingModel
+ * <p>
+ * 저장/질의 벡터가 모두 단위 벡터면 내적(&lt;#&gt;)이 코사인 유사도와 같은 순서를 내므로
+ * 양자화 인덱스(halfvec_ip_ops)를 코사인 대신 내적으로 만들 수 있다.
+ */
+public class NormalizingEmbeddingModel implements EmbeddingModel {
+
+    private final EmbeddingModel delegate;
+
+    public NormalizingEmbeddingModel(EmbeddingModel delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public EmbeddingResponse call(EmbeddingRequest request) {
+        EmbeddingResponse response = delegate.call(request);
+        List<Embedding> normalized = response.getResults().stream()
+            .map(e -> new Embedding(VectorMath.normalize(e.getOutput()), e.getIndex(), e.getMetadata()))
+            .toList();
+        return new EmbeddingResponse(normalized, response.getMetadata());
+    }
+
+    @Override
+    public float[] embed(Document document) {
+        return VectorMath.normalize(delegate.embed(document));
+    }
+
+    @Override
+    public int dimensions() {
+        return delegate.dimensions();
+    }
+}
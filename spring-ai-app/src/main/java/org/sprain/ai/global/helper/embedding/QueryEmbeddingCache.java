@@ -0,0 +1,111 @@
+package org.sprain.ai.global.helper.embedding;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * 질의 임베딩 메모리 캐시 (LRU + TTL)
+ * <p>
+ * 키: 모델 ID + 정규화된 질의, 값: float[] 그대로 보관 (박싱 없음)
+ * maxSize를 넘으면 가장 오래 사용하지 않은 항목부터, TTL이 지난 항목은 조회 시점에 제거한다.
+ * 같은 키를 동시에 놓친 경우 양쪽 모두 계산할 수 있지만 결과는 동일하므로 허용한다.
+ */
+public class QueryEmbeddingCache {
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LinkedHashMap<String, Entry> entries;
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter sizeEvictionCounter;
+    private final Counter expiredEvictionCounter;
+
+    public QueryEmbeddingCache(int maxSize, Duration ttl, MeterRegistry meterRegistry) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(Math.min(maxSize, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > QueryEmbeddingCache.this.maxSize) {
+                    sizeEvictionCounter.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        this.hitCounter = Counter.builder("sprain.embedding.query.cache.hits")
+            .description("질의 임베딩 캐시 적중 수")
+            .register(meterRegistry);
+        this.missCounter = Counter.builder("sprain.embedding.query.cache.misses")
+            .description("질의 임베딩 캐시 미스 수")
+            .register(meterRegistry);
+        this.sizeEvictionCounter = Counter.builder("sprain.embedding.query.cache.evictions")
+            .description("질의 임베딩 캐시 제거 수")
+            .tag("cause", "size")
+            .register(meterRegistry);
+        this.expiredEvictionCounter = Counter.builder("sprain.embedding.query.cache.evictions")
+            .description("질의 임베딩 캐시 제거 수")
+            .tag("cause", "expired")
+            .register(meterRegistry);
+        Gauge.builder("sprain.embedding.query.cache.size", this, QueryEmbeddingCache::size)
+            .description("질의 임베딩 캐시 항목 수")
+            .register(meterRegistry);
+    }
+
+    /**
+     * 캐시에 있으면 반환, 없으면 계산 후 저장
+     * 호출자가 배열을 수정해도 캐시가 오염되지 않도록 복사본을 반환한다.
+     */
+    public float[] get(String key, Supplier<float[]> loader) {
+        float[] cached = lookup(key);
+        if (cached != null) {
+            hitCounter.increment();
+            return cached.clone();
+        }
+
+        missCounter.increment();
+        float[] computed = loader.get();
+        synchronized (entries) {
+            entries.put(key, new Entry(computed.clone(), System.nanoTime() + ttlNanos));
+        }
+        return computed;
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private float[] lookup(String key) {
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (System.nanoTime() - entry.expiresAt > 0) {
+                entries.remove(key);
+                expiredEvictionCounter.increment();
+                return null;
+            }
+            return entry.vector;
+        }
+    }
+
+    private record Entry(float[] vector, long expiresAt) {
+    }
+}
@@ -0,0 +1,286 @@
+package org.sprain.ai.global.helper.ingest;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.sprain.ai.config.IngestionConfig;
+import org.sprain.ai.global.exception.custom.IngestionException;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntConsumer;
+
+/**
+ * 청크 임베딩 + Vector Store 저장 파이프라인
+ * <p>
+ * - 청크 배치를 가상 스레드에서 병렬로 vectorStore.add() 호출
+ * - 전역 세마포어로 Ollama 동시 요청 수를 제한 (permit이 없으면 submit()이 블로킹 → 생산자 backpressure)
+ * - 실패한 배치는 지수 백오프로 재시도
+ * - 처리량은 Micrometer 지표(sprain.ingestion.*)로 노출
+ */
+@Slf4j
+@Component
+public class EmbeddingPipeline {
+
+    private final VectorStore vectorStore;
+    private final IngestionConfig config;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore permits;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final Counter chunkCounter;
+    private final Counter retryCounter;
+    private final Counter failedBatchCounter;
+    private final Timer batchTimer;
+    private final DistributionSummary throughput;
+
+    public EmbeddingPipeline(VectorStore vectorStore, IngestionConfig config, MeterRegistry meterRegistry) {
+        this.vectorStore = vectorStore;
+        this.config = config;
+        this.permits = new Semaphore(config.getEmbeddingConcurrency());
+
+        this.chunkCounter = Counter.builder("sprain.ingestion.chunks")
+            .description("임베딩 후 Vector Store에 저장된 청크 수")
+            .register(meterRegistry);
+        this.retryCounter = Counter.builder("sprain.ingestion.retries")
+            .description("임베딩 배치 재시도 횟수")
+            .register(meterRegistry);
+        this.failedBatchCounter = Counter.builder("sprain.ingestion.failed.batches")
+            .description("재시도 후에도 실패한 배치 수")
+            .register(meterRegistry);
+        this.batchTimer = Timer.builder("sprain.ingestion.batch")
+            .description("배치 하나의 임베딩 + 저장 시간")
+            .register(meterRegistry);
+        this.throughput = DistributionSummary.builder("sprain.ingestion.throughput")
+            .description("문서 단위 수집 처리량")
+            .baseUnit("chunks/s")
+            .register(meterRegistry);
+        meterRegistry.gauge("sprain.ingestion.inflight.batches", inFlight);
+    }
+
+    /**
+     * 문서 하나에 대한 수집 세션 시작
+     */
+    public Session open(String documentId) {
+        return open(documentId, 0, checkpoint -> {
+        });
+    }
+
+    /**
+     * 재개 가능한 수집 세션 시작
+     *
+     * @param resumeFrom         이미 저장이 끝난 앞쪽 청크 수
+     * @param checkpointListener 앞에서부터 연속으로 저장 완료된 청크 수가 늘어날 때마다 호출
+     */
+    public Session open(String documentId, int resumeFrom, IntConsumer checkpointListener) {
+        return new Session(documentId, resumeFrom, checkpointListener);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * 문서 단위 수집 세션
+     * submit()으로 배치를 넣고 awaitCompletion()으로 전체 완료를 기다린다.
+     * 실패 시에는 저장된 청크를 정리하기 전에 abort()로 남은 배치를 멈추고 끝날 때까지 기다린다.
+     */
+    public class Session {
+
+        private final String documentId;
+        private final long startedAt = System.nanoTime();
+        private final ConcurrentLinkedQueue<CompletableFuture<Void>> futures = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger chunksEmbedded = new AtomicInteger();
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private volatile boolean aborted;
+
+        // 배치는 순서와 무관하게 끝나므로, 연속 구간만 체크포인트로 인정
+        private final IntConsumer checkpointListener;
+        private final TreeMap<Integer, Integer> completedBatches = new TreeMap<>();
+        private int nextSequence;
+        private int nextToCommit;
+        private int checkpoint;
+
+        // 리스너는 락 밖에서 한 번에 한 스레드만 호출 (publishing을 가진 스레드가 published 갱신)
+        private final AtomicBoolean publishing = new AtomicBoolean();
+        private volatile int published;
+
+        private Session(String documentId, int resumeFrom, IntConsumer checkpointListener) {
+            this.documentId = documentId;
+            this.checkpoint = resumeFrom;
+            this.published = resumeFrom;
+            this.checkpointListener = checkpointListener;
+        }
+
+        /**
+         * 배치 제출
+         * 동시 처리 한도에 도달하면 permit이 반환될 때까지 호출 스레드를 블로킹한다.
+         */
+        public void submit(List<Document> batch) {
+            throwIfFailed();
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IngestionException("임베딩 대기 중 인터럽트: " + documentId, e);
+            }
+
+            int sequence = nextSequence++;
+            inFlight.incrementAndGet();
+            futures.add(CompletableFuture.runAsync(() -> {
+                try {
+                    if (aborted) {
+                        return;  // 중단된 세션의 아직 시작하지 않은 배치
+                    }
+                    batchTimer.record(() -> addWithRetry(batch));
+                    chunksEmbedded.addAndGet(batch.size());
+                    chunkCounter.increment(batch.size());
+                    commit(sequence, batch.size());
+                } catch (RuntimeException e) {
+                    failedBatchCounter.increment();
+                    failure.compareAndSet(null, e);
+                    throw e;
+                } finally {
+                    inFlight.decrementAndGet();
+                    permits.release();
+                }
+            }, executor));
+        }
+
+        /**
+         * 제출한 모든 배치 완료 대기
+         *
+         * @return 저장된 청크 수
+         */
+        public int awaitCompletion() {
+            try {
+                CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IngestionException("임베딩 완료 대기 중 인터럽트: " + documentId, e);
+            } catch (ExecutionException e) {
+                throw new IngestionException("임베딩 배치 실패: " + documentId, e.getCause());
+            }
+
+            double seconds = Math.max((System.nanoTime() - startedAt) / 1_000_000_000.0, 0.001);
+            int total = chunksEmbedded.get();
+            throughput.record(total / seconds);
+            log.info("임베딩 완료: {} ({} chunks, {} chunks/s)", documentId, total, String.format("%.1f", total / seconds));
+            return total;
+        }
+
+        /**
+         * 세션 중단: 아직 시작하지 않은 배치는 건너뛰고(재시도도 중단), 실행 중인 배치가 모두 끝날 때까지 대기
+         * 실패 후 청크를 정리하기 전에 호출해야 한다.
+         * (대기하지 않으면 정리 뒤에 끝난 배치가 저장한 청크가 vector_store에 고아로 남아 검색된다)
+         */
+        public void abort() {
+            aborted = true;
+            for (CompletableFuture<Void> future : futures) {
+                try {
+                    future.join();
+                } catch (CompletionException | CancellationException e) {
+                    // 실패 원인은 이미 호출자에게 전달됨
+                }
+            }
+        }
+
+        public int getChunksEmbedded() {
+            return chunksEmbedded.get();
+        }
+
+        public synchronized int getCheckpoint() {
+            return checkpoint;
+        }
+
+        /**
+         * 완료된 배치를 반영해 연속 구간의 체크포인트를 계산하고(락 안), 리스너에 넘긴다(락 밖).
+         */
+        private void commit(int sequence, int size) {
+            synchronized (this) {
+                completedBatches.put(sequence, size);
+                while (completedBatches.containsKey(nextToCommit)) {
+                    checkpoint += completedBatches.remove(nextToCommit++);
+                }
+            }
+            publishCheckpoint();
+        }
+
+        /**
+         * 체크포인트 리스너 호출 (단일 기록자)
+         * 리스너는 DB에 진행 상황을 기록하므로 락 안에서 부르면 다른 배치의 commit이 그 왕복을 기다린다.
+         * 플래그를 얻은 스레드만 최신 체크포인트를 기록하고, 기록 중에 늘어난 값도 이어서 기록하므로
+         * 체크포인트는 역순으로 기록되지 않는다. (중간 값은 건너뛸 수 있음)
+         */
+        private void publishCheckpoint() {
+            while (getCheckpoint() > published && publishing.compareAndSet(false, true)) {
+                try {
+                    int latest;
+                    while ((latest = getCheckpoint()) > published) {
+                        checkpointListener.accept(latest);
+                        published = latest;
+                    }
+                } finally {
+                    publishing.set(false);
+                }
+            }
+        }
+
+        private void throwIfFailed() {
+            Throwable cause = failure.get();
+            if (cause != null) {
+                throw new IngestionException("임베딩 배치 실패: " + documentId, cause);
+            }
+        }
+
+        private void addWithRetry(List<Document> batch) {
+            long backoff = config.getRetryBackoff().toMillis();
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    vectorStore.add(batch);
+                    return;
+                } catch (RuntimeException e) {
+                    if (attempt >= config.getMaxAttempts() || aborted) {
+                        log.error("임베딩 배치 최종 실패: {} ({}회 시도) - {}", documentId, attempt, e.getMessage());
+                        throw e;
+                    }
+                    retryCounter.increment();
+                    log.warn("임베딩 배치 재시도 {}/{}: {} - {}", attempt, config.getMaxAttempts(), documentId, e.getMessage());
+                    sleep(backoff);
+                    backoff *= 2;
+                }
+            }
+        }
+
+        private void sleep(long millis) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IngestionException("재시도 대기 중 인터럽트: " + documentId, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package org.sprain.ai.global.helper.ingest;
+
+import com.knuddels.jtokkit.api.Encoding;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 부모/자식 2단계 청커 (small-to-big 검색용)
+ * <p>
+ * 1. 원문을 parentTokens 이하의 부모 구간(절)으로 나눈다. (겹침 없음, 문장 경계)
+ * 2. 부모 구간마다 childTokens 이하의 자식 청크로 다시 나눈다. 자식은 부모를 넘지 않는다.
+ * <p>
+ * 자식은 임베딩해서 정밀하게 매칭하고, LLM에는 자식이 속한 부모 구간을 전달한다.
+ * 모든 위치는 원문(split에 넘긴 텍스트) 기준 문자 위치다.
+ */
+public class HierarchicalChunker {
+
+    private final SentenceChunker parentChunker;
+    private final SentenceChunker childChunker;
+
+    public HierarchicalChunker(Encoding encoding, int parentTokens, int childTokens, int childOverlapTokens,
+                               int segmentChars) {
+        this(new SentenceChunker(encoding, parentTokens, 0, segmentChars),
+            new SentenceChunker(encoding, childTokens, childOverlapTokens, segmentChars));
+        if (childTokens >= parentTokens) {
+            throw new IllegalArgumentException(
+                "childTokens는 parentTokens보다 작아야 합니다: " + childTokens + " >= " + parentTokens);
+        }
+    }
+
+    HierarchicalChunker(SentenceChunker parentChunker, SentenceChunker childChunker) {
+        this.parentChunker = parentChunker;
+        this.childChunker = childChunker;
+    }
+
+    /**
+     * 텍스트를 부모 구간 + 자식 청크로 분할 (원문 순서 유지)
+     */
+    public List<Section> split(String text) {
+        List<SentenceChunker.Chunk> parents = parentChunker.split(text);
+
+        List<Section> sections = new ArrayList<>(parents.size());
+        for (SentenceChunker.Chunk parent : parents) {
+            List<SentenceChunker.Chunk> children = childChunker.split(parent.text());
+            List<SentenceChunker.Chunk> shifted = new ArrayList<>(children.size());
+            for (SentenceChunker.Chunk child : children) {
+                shifted.add(new SentenceChunker.Chunk(child.text(), child.tokenCount(),
+                    parent.start() + child.start(), parent.start() + child.end()));
+            }
+            if (!shifted.isEmpty()) {
+                sections.add(new Section(parent, shifted));
+            }
+        }
+        return sections;
+    }
+
+    /**
+     * 부모 구간과 그 안의 자식 청크
+     */
+    public record Section(SentenceChunker.Chunk parent, List<SentenceChunker.Chunk> children) {
+    }
+}
@@ -0,0 +1,17 @@
+package org.sprain.ai.global.helper.ingest;
+
+/**
+ * 수집 진행 상황 콜백
+ */
+@FunctionalInterface
+public interface IngestionProgressListener {
+
+    IngestionProgressListener NONE = (checkpoint, bytesProcessed) -> {
+    };
+
+    /**
+     * @param checkpoint     앞에서부터 연속으로 저장 완료된 청크 수
+     * @param bytesProcessed 원본에서 읽은 바이트 수
+     */
+    void onProgress(int checkpoint, long bytesProcessed);
+}
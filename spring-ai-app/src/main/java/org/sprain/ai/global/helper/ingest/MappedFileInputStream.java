@@ -0,0 +1,76 @@
+package org.sprain.ai.global.helper.ingest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 메모리 매핑(mmap)으로 파일을 순차적으로 읽는 InputStream
+ * <p>
+ * 파일을 REGION_SIZE 단위로 매핑하며 읽으므로 읽기 시스템 콜과 힙 복사 없이
+ * 페이지 캐시에서 바로 읽는다. 한 번에 매핑되는 영역은 하나뿐이다.
+ */
+public class MappedFileInputStream extends InputStream {
+
+    private static final long REGION_SIZE = 64L * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final long size;
+    private long regionStart;
+    private MappedByteBuffer region;
+
+    public MappedFileInputStream(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.size = channel.size();
+    }
+
+    @Override
+    public int read() throws IOException {
+        return nextRegion() ? region.get() & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!nextRegion()) {
+            return -1;
+        }
+        int count = Math.min(len, region.remaining());
+        region.get(b, off, count);
+        return count;
+    }
+
+    @Override
+    public int available() {
+        return region == null ? 0 : region.remaining();
+    }
+
+    @Override
+    public void close() throws IOException {
+        region = null;
+        channel.close();
+    }
+
+    /**
+     * 현재 영역을 다 읽었으면 다음 영역 매핑
+     *
+     * @return 더 읽을 데이터가 있으면 true
+     */
+    private boolean nextRegion() throws IOException {
+        if (region != null && region.hasRemaining()) {
+            return true;
+        }
+        long next = region == null ? 0 : regionStart + region.capacity();
+        if (next >= size) {
+            return false;
+        }
+        regionStart = next;
+        region = channel.map(FileChannel.MapMode.READ_ONLY, next, Math.min(REGION_SIZE, size - next));
+        return true;
+    }
+}
@@ -0,0 +1,258 @@
+package org.sprain.ai.global.helper.ingest;
+
+import com.knuddels.jtokkit.api.Encoding;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * 문장 + 토큰 수 기준 청커
+ * <p>
+ * 1. 문장 경계(. ? ! 。 … 뒤 공백, 줄바꿈)로 나누고 문장별 토큰 수를 센다.
+ *    "다.", "요." 같은 한국어 종결어미 뒤 닫는 따옴표/괄호는 문장에 포함하고,
+ *    "3.14"처럼 마침표 뒤에 공백이 없으면 경계로 보지 않는다.
+ * 2. 문장을 maxTokens 이하로 채워서 청크를 만들고, 다음 청크 앞에 overlapTokens 이하의 끝 문장을 겹쳐 넣는다.
+ *    maxTokens를 넘는 긴 문장은 어절(공백) 단위로 나눈다.
+ * 3. segmentChars보다 긴 문서는 문단 경계에서 세그먼트로 나눠 병렬로 처리한다. (청크는 세그먼트를 넘지 않음)
+ *    파일처럼 메모리에 올리지 않을 입력은 같은 세그먼트 기준의 StreamingSentenceChunker를 사용한다.
+ * <p>
+ * 상태를 갖지 않으므로 빈 하나를 여러 스레드에서 공유해도 안전하다.
+ */
+public class SentenceChunker {
+
+    private static final int MIN_CHUNK_LENGTH = 5;
+
+    private final ToIntFunction<String> tokenCounter;
+    private final int maxTokens;
+    private final int overlapTokens;
+    private final int segmentChars;
+
+    public SentenceChunker(Encoding encoding, int maxTokens, int overlapTokens, int segmentChars) {
+        this(encoding::countTokens, maxTokens, overlapTokens, segmentChars);
+    }
+
+    SentenceChunker(ToIntFunction<String> tokenCounter, int maxTokens, int overlapTokens, int segmentChars) {
+        if (maxTokens <= 0) {
+            throw new IllegalArgumentException("maxTokens는 0보다 커야 합니다: " + maxTokens);
+        }
+        if (overlapTokens < 0 || overlapTokens >= maxTokens / 2) {
+            throw new IllegalArgumentException("overlapTokens는 0 이상, maxTokens/2 미만이어야 합니다: " + overlapTokens);
+        }
+        this.tokenCounter = tokenCounter;
+        this.maxTokens = maxTokens;
+        this.overlapTokens = overlapTokens;
+        this.segmentChars = segmentChars;
+    }
+
+    /**
+     * 텍스트를 청크로 분할 (원문 순서 유지)
+     */
+    public List<Chunk> split(String text) {
+        if (text.length() <= segmentChars) {
+            return splitSegment(text, 0, text.length());
+        }
+
+        List<int[]> segments = segments(text);
+        return segments.parallelStream()
+            .map(range -> splitSegment(text, range[0], range[1]))
+            .flatMap(List::stream)
+            .toList();
+    }
+
+    /**
+     * 세그먼트 경계: segmentChars 근처의 문단 경계(빈 줄) → 줄바꿈 → 문장 끝
+     */
+    private List<int[]> segments(String text) {
+        List<int[]> segments = new ArrayList<>();
+        int start = 0;
+        while (start < text.length()) {
+            int limit = Math.min(start + segmentChars, text.length());
+            int end = limit == text.length() ? limit : segmentBoundary(text, start, limit);
+            segments.add(new int[]{start, end});
+            start = end;
+        }
+        return segments;
+    }
+
+    /**
+     * [start, limit) 안의 세그먼트 끝 위치 (StreamingSentenceChunker도 같은 기준으로 자름)
+     * text는 limit 뒤로 최소 한 글자가 더 있거나 limit에서 끝나야 결과가 전체 텍스트 기준과 같다.
+     */
+    static int segmentBoundary(String text, int start, int limit) {
+        int floor = start + (limit - start) / 2;
+        int paragraph = text.lastIndexOf("\n\n", limit - 1);
+        if (paragraph > floor) {
+            return paragraph + 2;
+        }
+        int line = text.lastIndexOf('\n', limit - 1);
+        if (line > floor) {
+            return line + 1;
+        }
+        for (int i = limit - 1; i > floor; i--) {
+            if (isSentenceEnd(text, i, limit)) {
+                return sentenceEnd(text, i, limit);
+            }
+        }
+        return limit;
+    }
+
+    private List<Chunk> splitSegment(String text, int from, int to) {
+        List<Sentence> sentences = sentences(text, from, to);
+        List<Chunk> chunks = new ArrayList<>();
+
+        List<Sentence> current = new ArrayList<>();
+        int currentTokens = 0;
+        for (Sentence sentence : sentences) {
+            if (currentTokens + sentence.tokens > maxTokens && !current.isEmpty()) {
+                emit(text, current, currentTokens, chunks);
+
+                // 끝에서부터 overlapTokens 이내의 문장을 다음 청크로 넘김
+                List<Sentence> overlap = new ArrayList<>();
+                int overlapSum = 0;
+                for (int i = current.size() - 1; i > 0; i--) {
+                    Sentence tail = current.get(i);
+                    if (overlapSum + tail.tokens > overlapTokens
+                        || overlapSum + tail.tokens + sentence.tokens > maxTokens) {
+                        break;
+                    }
+                    overlap.add(0, tail);
+                    overlapSum += tail.tokens;
+                }
+                current = overlap;
+                currentTokens = overlapSum;
+            }
+            current.add(sentence);
+            currentTokens += sentence.tokens;
+        }
+        if (!current.isEmpty()) {
+            emit(text, current, currentTokens, chunks);
+        }
+        return chunks;
+    }
+
+    private void emit(String text, List<Sentence> sentences, int tokens, List<Chunk> chunks) {
+        // 앞뒤 공백을 제외한 원문 구간 (strip과 같은 기준)
+        int start = sentences.get(0).start;
+        int end = sentences.get(sentences.size() - 1).end;
+        while (start < end && Character.isWhitespace(text.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        if (end - start >= MIN_CHUNK_LENGTH) {
+            chunks.add(new Chunk(text.substring(start, end), tokens, start, end));
+        }
+    }
+
+    /**
+     * [from, to) 구간을 문장 단위로 분할 (각 문장은 뒤따르는 공백까지 포함해 빈틈없이 이어짐)
+     * maxTokens를 넘는 문장은 어절 단위로 다시 나눈다.
+     */
+    private List<Sentence> sentences(String text, int from, int to) {
+        List<Sentence> sentences = new ArrayList<>();
+        int start = from;
+        for (int i = from; i < to; i++) {
+            int end = -1;
+            if (text.charAt(i) == '\n') {
+                end = i + 1;
+            } else if (isSentenceEnd(text, i, to)) {
+                end = sentenceEnd(text, i, to);
+            }
+            if (end > 0) {
+                // 뒤따르는 공백까지 현재 문장에 포함
+                while (end < to && Character.isWhitespace(text.charAt(end))) {
+                    end++;
+                }
+                addSentence(text, start, end, sentences);
+                start = end;
+                i = end - 1;
+            }
+        }
+        if (start < to) {
+            addSentence(text, start, to, sentences);
+        }
+        return sentences;
+    }
+
+    private void addSentence(String text, int start, int end, List<Sentence> sentences) {
+        int tokens = tokenCounter.applyAsInt(text.substring(start, end));
+        if (tokens <= maxTokens) {
+            sentences.add(new Sentence(start, end, tokens));
+            return;
+        }
+
+        // 긴 문장: 어절 단위로 maxTokens 이하가 되도록 나눔
+        int pieceStart = start;
+        int pieceTokens = 0;
+        int i = start;
+        while (i < end) {
+            int wordEnd = i;
+            while (wordEnd < end && !Character.isWhitespace(text.charAt(wordEnd))) {
+                wordEnd++;
+            }
+            while (wordEnd < end && Character.isWhitespace(text.charAt(wordEnd))) {
+                wordEnd++;
+            }
+            int wordTokens = tokenCounter.applyAsInt(text.substring(i, wordEnd));
+            if (pieceTokens + wordTokens > maxTokens && pieceTokens > 0) {
+                sentences.add(new Sentence(pieceStart, i, pieceTokens));
+                pieceStart = i;
+                pieceTokens = 0;
+            }
+            if (wordTokens > maxTokens) {
+                // 공백 없는 아주 긴 토막: 문자 수 비율로 자름
+                int step = Math.max(2, (wordEnd - i) * maxTokens / wordTokens);
+                int pos = i;
+                while (pos < wordEnd) {
+                    int cut = Math.min(pos + step, wordEnd);
+                    if (cut < wordEnd && Character.isHighSurrogate(text.charAt(cut - 1))) {
+                        cut--;
+                    }
+                    sentences.add(new Sentence(pos, cut, tokenCounter.applyAsInt(text.substring(pos, cut))));
+                    pos = cut;
+                }
+                pieceStart = wordEnd;
+            } else {
+                pieceTokens += wordTokens;
+            }
+            i = wordEnd;
+        }
+        if (pieceStart < end) {
+            sentences.add(new Sentence(pieceStart, end, pieceTokens));
+        }
+    }
+
+    /**
+     * 문장 종결 부호이고 뒤에 (닫는 따옴표/괄호 후) 공백 또는 구간 끝이 오는지
+     */
+    private static boolean isSentenceEnd(String text, int i, int to) {
+        char c = text.charAt(i);
+        if (c != '.' && c != '?' && c != '!' && c != '。' && c != '？' && c != '！' && c != '…') {
+            return false;
+        }
+        int next = sentenceEnd(text, i, to);
+        return next >= to || Character.isWhitespace(text.charAt(next));
+    }
+
+    /**
+     * 종결 부호 뒤의 연속 부호와 닫는 따옴표/괄호까지 포함한 문장 끝 위치
+     */
+    private static int sentenceEnd(String text, int i, int to) {
+        int end = i + 1;
+        while (end < to && ".?!。？！…\"'”’)]」』》".indexOf(text.charAt(end)) >= 0) {
+            end++;
+        }
+        return end;
+    }
+
+    private record Sentence(int start, int end, int tokens) {
+    }
+
+    /**
+     * 청크 (tokenCount: 문장별 토큰 수의 합, [start, end): split에 넘긴 원문에서의 문자 위치)
+     */
+    public record Chunk(String text, int tokenCount, int start, int end) {
+    }
+}
@@ -0,0 +1,125 @@
+package org.sprain.ai.global.helper.ingest;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 스트리밍 문장/토큰 청커 (파일 수집용)
+ * <p>
+ * Reader를 segmentChars 이하의 세그먼트로 읽으면서(경계는 SentenceChunker와 같은 문단 → 줄 → 문장 끝 순)
+ * 세그먼트마다 SentenceChunker 또는 HierarchicalChunker로 나누고, 위치를 원문 기준으로 바꿔 sink로 넘긴다.
+ * 메모리에는 세그먼트 하나와 읽기 버퍼만 유지된다.
+ * 청크와 부모 구간은 원래 세그먼트를 넘지 않으므로 결과는 원문 전체를 split()한 것과 같다.
+ * <p>
+ * 상태는 호출 내부에만 존재하므로 여러 스레드에서 동시에 사용해도 안전하다.
+ */
+public class StreamingSentenceChunker {
+
+    private static final int READ_BUFFER_SIZE = 8192;
+
+    private final SentenceChunker sentenceChunker;
+    private final HierarchicalChunker hierarchicalChunker;
+    private final int segmentChars;
+
+    /**
+     * @param segmentChars 두 청커에 설정한 segmentChars와 같아야 전체 split() 결과와 일치
+     */
+    public StreamingSentenceChunker(SentenceChunker sentenceChunker, HierarchicalChunker hierarchicalChunker,
+                                    int segmentChars) {
+        if (segmentChars <= 0) {
+            throw new IllegalArgumentException("segmentChars는 0보다 커야 합니다: " + segmentChars);
+        }
+        this.sentenceChunker = sentenceChunker;
+        this.hierarchicalChunker = hierarchicalChunker;
+        this.segmentChars = segmentChars;
+    }
+
+    /**
+     * 문장/토큰 기준 청크를 원문 순서대로 sink로 전달 (위치는 원문 기준)
+     */
+    public StreamingTextChunker.ChunkStats chunk(Reader reader, Consumer<SentenceChunker.Chunk> sink)
+        throws IOException {
+        int[] count = new int[1];
+        Window window = segments(reader, (segment, offset) -> {
+            for (SentenceChunker.Chunk chunk : sentenceChunker.split(segment)) {
+                sink.accept(shift(chunk, offset));
+                count[0]++;
+            }
+        });
+        return new StreamingTextChunker.ChunkStats(count[0], window.totalChars, window.peak);
+    }
+
+    /**
+     * 부모 구간 + 자식 청크를 원문 순서대로 sink로 전달 (위치는 원문 기준, 청크 수는 자식 기준)
+     */
+    public StreamingTextChunker.ChunkStats chunkSections(Reader reader, Consumer<HierarchicalChunker.Section> sink)
+        throws IOException {
+        int[] count = new int[1];
+        Window window = segments(reader, (segment, offset) -> {
+            for (HierarchicalChunker.Section section : hierarchicalChunker.split(segment)) {
+                List<SentenceChunker.Chunk> children = new ArrayList<>(section.children().size());
+                for (SentenceChunker.Chunk child : section.children()) {
+                    children.add(shift(child, offset));
+                }
+                sink.accept(new HierarchicalChunker.Section(shift(section.parent(), offset), children));
+                count[0] += children.size();
+            }
+        });
+        return new StreamingTextChunker.ChunkStats(count[0], window.totalChars, window.peak);
+    }
+
+    /**
+     * Reader를 세그먼트로 잘라 (세그먼트 텍스트, 원문 시작 위치) 순서로 전달
+     * 경계를 전체 텍스트 기준과 같게 정하려면 마지막이 아닌 세그먼트는 segmentChars보다 한 글자 이상 더 읽은 뒤 자른다.
+     */
+    private Window segments(Reader reader, SegmentSink sink) throws IOException {
+        char[] buffer = new char[READ_BUFFER_SIZE];
+        StringBuilder window = new StringBuilder(segmentChars + READ_BUFFER_SIZE);
+        Window stats = new Window();
+        long offset = 0;
+        boolean eof = false;
+
+        while (!eof || window.length() > 0) {
+            while (!eof && window.length() <= segmentChars) {
+                int read = reader.read(buffer);
+                if (read < 0) {
+                    eof = true;
+                } else {
+                    window.append(buffer, 0, read);
+                    stats.totalChars += read;
+                }
+            }
+            stats.peak = Math.max(stats.peak, window.length());
+            if (window.isEmpty()) {
+                break;
+            }
+
+            String text = window.toString();
+            int end = eof && text.length() <= segmentChars
+                ? text.length()
+                : SentenceChunker.segmentBoundary(text, 0, segmentChars);
+            sink.accept(text.substring(0, end), offset);
+            window.delete(0, end);
+            offset += end;
+        }
+        return stats;
+    }
+
+    private static SentenceChunker.Chunk shift(SentenceChunker.Chunk chunk, long offset) {
+        return new SentenceChunker.Chunk(chunk.text(), chunk.tokenCount(),
+            Math.toIntExact(offset + chunk.start()), Math.toIntExact(offset + chunk.end()));
+    }
+
+    @FunctionalInterface
+    private interface SegmentSink {
+        void accept(String segment, long offset);
+    }
+
+    private static class Window {
+        private long totalChars;
+        private int peak;
+    }
+}
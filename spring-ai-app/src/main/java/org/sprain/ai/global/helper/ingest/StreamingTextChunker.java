@@ -0,0 +1,116 @@
+package org.sprain.ai.global.helper.ingest;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.function.Consumer;
+
+/**
+ * 스트리밍 텍스트 청커
+ * <p>
+ * Reader에서 고정 크기 버퍼 단위로 읽으면서 청크를 만들어 즉시 sink로 넘긴다.
+ * 메모리에는 현재 청크 윈도우(chunkSize + 읽기 버퍼)만 유지되므로
+ * 파일 크기와 관계없이 사용량이 일정하다.
+ * <p>
+ * 상태는 chunk() 호출 내부에만 존재하므로 여러 스레드에서 동시에 사용해도 안전하다.
+ */
+public class StreamingTextChunker {
+
+    private static final int READ_BUFFER_SIZE = 8192;
+    private static final int MIN_CHUNK_LENGTH = 5;
+
+    private final int chunkSize;
+    private final int chunkOverlap;
+
+    public StreamingTextChunker(int chunkSize, int chunkOverlap) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize는 0보다 커야 합니다: " + chunkSize);
+        }
+        if (chunkOverlap < 0 || chunkOverlap >= chunkSize / 2) {
+            throw new IllegalArgumentException("chunkOverlap은 0 이상, chunkSize/2 미만이어야 합니다: " + chunkOverlap);
+        }
+        this.chunkSize = chunkSize;
+        this.chunkOverlap = chunkOverlap;
+    }
+
+    /**
+     * Reader를 끝까지 읽으며 청크를 sink로 전달
+     *
+     * @return 처리 통계 (청크 수, 읽은 문자 수, 최대 윈도우 크기)
+     */
+    public ChunkStats chunk(Reader reader, Consumer<String> sink) throws IOException {
+        char[] buffer = new char[READ_BUFFER_SIZE];
+        StringBuilder window = new StringBuilder(chunkSize + READ_BUFFER_SIZE);
+
+        int chunkCount = 0;
+        long totalChars = 0;
+        int peakWindow = 0;
+        boolean eof = false;
+
+        while (!eof || window.length() > 0) {
+            // 1. 윈도우가 청크 크기를 넘을 때까지 채우기
+            while (!eof && window.length() < chunkSize) {
+                int read = reader.read(buffer);
+                if (read < 0) {
+                    eof = true;
+                } else {
+                    window.append(buffer, 0, read);
+                    totalChars += read;
+                }
+            }
+            peakWindow = Math.max(peakWindow, window.length());
+
+            // 2. 자를 위치 결정 (마지막 청크는 남은 전부)
+            int cut = eof && window.length() <= chunkSize
+                ? window.length()
+                : findBoundary(window);
+
+            String text = window.substring(0, cut).strip();
+            if (text.length() >= MIN_CHUNK_LENGTH) {
+                sink.accept(text);
+                chunkCount++;
+            }
+
+            // 3. 겹침 구간을 남기고 윈도우 앞부분 제거
+            int next = cut == window.length() ? cut : Math.max(cut - chunkOverlap, 1);
+            window.delete(0, next);
+        }
+
+        return new ChunkStats(chunkCount, totalChars, peakWindow);
+    }
+
+    /**
+     * chunkSize 이내에서 가장 자연스러운 분할 위치 탐색
+     * 우선순위: 문단 경계 → 문장 끝 → 공백 → chunkSize
+     */
+    private int findBoundary(StringBuilder window) {
+        int limit = Math.min(chunkSize, window.length());
+        int floor = limit / 2;
+
+        for (int i = limit; i > floor; i--) {
+            if (window.charAt(i - 1) == '\n') {
+                return i;
+            }
+        }
+        for (int i = limit; i > floor; i--) {
+            char c = window.charAt(i - 1);
+            if ((c == '.' || c == '?' || c == '!' || c == '。')
+                && (i == window.length() || Character.isWhitespace(window.charAt(i)))) {
+                return i;
+            }
+        }
+        for (int i = limit; i > floor; i--) {
+            if (Character.isWhitespace(window.charAt(i - 1))) {
+                return i;
+            }
+        }
+
+        // 서로게이트 쌍 중간에서 자르지 않도록 보정
+        return Character.isHighSurrogate(window.charAt(limit - 1)) ? limit - 1 : limit;
+    }
+
+    /**
+     * 청킹 통계
+     */
+    public record ChunkStats(int chunkCount, long totalChars, int peakWindowChars) {
+    }
+}
@@ -0,0 +1,335 @@
+package org.sprain.ai.global.helper.keyword;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 청크 단위 BM25 역색인 (메모리, 본문은 보관하지 않음)
+ * <p>
+ * 색인어별 posting(청크 번호, 출현 빈도) 배열과 청크 길이만 둔다.
+ * 삭제는 툼스톤으로 처리하고 (df/평균 길이에는 압축 전까지 남아 있음 - Lucene의 삭제 문서와 같은 방식),
+ * 툼스톤이 전체의 COMPACT_RATIO를 넘으면 posting을 다시 써서 정리한다.
+ * <p>
+ * 읽기/쓰기 락으로 보호되므로 여러 스레드에서 호출해도 된다.
+ */
+public class Bm25Index {
+
+    private static final double COMPACT_RATIO = 0.25;
+    private static final int COMPACT_MIN_DELETED = 1_000;
+
+    private final double k1;
+    private final double b;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final List<Chunk> chunks = new ArrayList<>();
+    private final Map<String, Integer> ordinalById = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+    private long totalLength;
+
+    /**
+     * @param k1 빈도 포화 계수 (보통 1.2)
+     * @param b  길이 정규화 계수 (보통 0.75)
+     */
+    public Bm25Index(double k1, double b) {
+        this.k1 = k1;
+        this.b = b;
+    }
+
+    /**
+     * 청크 색인 (같은 ID가 있으면 교체)
+     */
+    public void add(String chunkId, String documentId, String text) {
+        Map<String, Integer> frequencies = termFrequencies(text);
+        lock.writeLock().lock();
+        try {
+            addInternal(chunkId, documentId, frequencies);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 문서의 청크를 한 번에 교체 (검색 중 문서가 잠깐 비어 보이지 않도록 하나의 락 구간에서 처리)
+     *
+     * @param texts 청크 ID → 본문 (비어 있으면 문서 삭제와 같음)
+     */
+    public void replaceDocument(String documentId, Map<String, String> texts) {
+        Map<String, Map<String, Integer>> analyzed = new LinkedHashMap<>();
+        texts.forEach((chunkId, text) -> analyzed.put(chunkId, termFrequencies(text)));
+
+        lock.writeLock().lock();
+        try {
+            removeDocumentInternal(documentId);
+            analyzed.forEach((chunkId, frequencies) -> addInternal(chunkId, documentId, frequencies));
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String chunkId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(chunkId);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 문서의 모든 청크 삭제
+     *
+     * @return 삭제된 청크 수
+     */
+    public int removeDocument(String documentId) {
+        lock.writeLock().lock();
+        try {
+            int removed = removeDocumentInternal(documentId);
+            compactIfNeeded();
+            return removed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * BM25 상위 topK 청크 (점수 내림차순, 점수 0 초과만)
+     */
+    public List<Hit> search(String query, int topK) {
+        List<String> queryTerms = KoreanNGramAnalyzer.analyze(query).stream().distinct().toList();
+        if (queryTerms.isEmpty() || topK <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            int n = chunks.size();
+            if (n == 0) {
+                return List.of();
+            }
+            double averageLength = Math.max(1.0, (double) totalLength / n);
+            float[] scores = new float[n];
+            int[] touched = new int[Math.min(n, 1024)];
+            int touchedCount = 0;
+
+            for (String term : queryTerms) {
+                Postings posting = postings.get(term);
+                if (posting == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (n - posting.size + 0.5) / (posting.size + 0.5));
+                for (int p = 0; p < posting.size; p++) {
+                    int ordinal = posting.ordinals[p];
+                    if (deleted.get(ordinal)) {
+                        continue;
+                    }
+                    int tf = posting.frequencies[p];
+                    double norm = k1 * (1 - b + b * chunks.get(ordinal).length() / averageLength);
+                    if (scores[ordinal] == 0f) {
+                        if (touchedCount == touched.length) {
+                            touched = Arrays.copyOf(touched, Math.min(n, touched.length * 2));
+                        }
+                        touched[touchedCount++] = ordinal;
+                    }
+                    scores[ordinal] += (float) (idf * tf * (k1 + 1) / (tf + norm));
+                }
+            }
+
+            PriorityQueue<Hit> top = new PriorityQueue<>(topK + 1, (x, y) -> Double.compare(x.score(), y.score()));
+            for (int t = 0; t < touchedCount; t++) {
+                int ordinal = touched[t];
+                if (scores[ordinal] <= 0f) {
+                    continue;
+                }
+                if (top.size() < topK || scores[ordinal] > top.peek().score()) {
+                    Chunk chunk = chunks.get(ordinal);
+                    top.add(new Hit(chunk.id(), chunk.documentId(), scores[ordinal]));
+                    if (top.size() > topK) {
+                        top.poll();
+                    }
+                }
+            }
+            List<Hit> hits = new ArrayList<>(top);
+            hits.sort((x, y) -> Double.compare(y.score(), x.score()));
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            chunks.clear();
+            ordinalById.clear();
+            deleted.clear();
+            totalLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 유효 청크 수
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinalById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Map<String, Integer> termFrequencies(String text) {
+        Map<String, Integer> frequencies = new LinkedHashMap<>();
+        for (String term : KoreanNGramAnalyzer.analyze(text)) {
+            frequencies.merge(term, 1, Integer::sum);
+        }
+        return frequencies;
+    }
+
+    /**
+     * 쓰기 락 안에서 호출
+     */
+    private void addInternal(String chunkId, String documentId, Map<String, Integer> frequencies) {
+        removeInternal(chunkId);
+        int ordinal = chunks.size();
+        int length = frequencies.values().stream().mapToInt(Integer::intValue).sum();
+        chunks.add(new Chunk(chunkId, documentId, length));
+        ordinalById.put(chunkId, ordinal);
+        totalLength += length;
+        frequencies.forEach((term, tf) -> postings.computeIfAbsent(term, t -> new Postings()).add(ordinal, tf));
+    }
+
+    /**
+     * 쓰기 락 안에서 호출
+     */
+    private int removeDocumentInternal(String documentId) {
+        int removed = 0;
+        for (int ordinal = 0; ordinal < chunks.size(); ordinal++) {
+            Chunk chunk = chunks.get(ordinal);
+            if (!deleted.get(ordinal) && documentId.equals(chunk.documentId())) {
+                ordinalById.remove(chunk.id());
+                deleted.set(ordinal);
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * 쓰기 락 안에서 호출
+     */
+    private void removeInternal(String chunkId) {
+        Integer ordinal = ordinalById.remove(chunkId);
+        if (ordinal != null) {
+            deleted.set(ordinal);
+        }
+    }
+
+    /**
+     * 툼스톤 정리: 살아 있는 청크 번호를 앞으로 당기고 posting을 다시 씀 (쓰기 락 안에서 호출)
+     */
+    private void compactIfNeeded() {
+        int deletedCount = deleted.cardinality();
+        if (deletedCount < COMPACT_MIN_DELETED || deletedCount < chunks.size() * COMPACT_RATIO) {
+            return;
+        }
+        int[] remap = new int[chunks.size()];
+        List<Chunk> live = new ArrayList<>(chunks.size() - deletedCount);
+        totalLength = 0;
+        for (int ordinal = 0; ordinal < chunks.size(); ordinal++) {
+            if (deleted.get(ordinal)) {
+                remap[ordinal] = -1;
+            } else {
+                Chunk chunk = chunks.get(ordinal);
+                remap[ordinal] = live.size();
+                live.add(chunk);
+                totalLength += chunk.length();
+            }
+        }
+
+        Iterator<Postings> iterator = postings.values().iterator();
+        while (iterator.hasNext()) {
+            Postings posting = iterator.next();
+            posting.remap(remap);
+            if (posting.size == 0) {
+                iterator.remove();
+            }
+        }
+
+        chunks.clear();
+        chunks.addAll(live);
+        ordinalById.clear();
+        for (int ordinal = 0; ordinal < chunks.size(); ordinal++) {
+            ordinalById.put(chunks.get(ordinal).id(), ordinal);
+        }
+        deleted.clear();
+    }
+
+    /**
+     * 검색 결과 (score는 BM25 점수)
+     */
+    public record Hit(String chunkId, String documentId, double score) {
+    }
+
+    private record Chunk(String id, String documentId, int length) {
+    }
+
+    /**
+     * 색인어 하나의 posting 목록 (청크 번호 오름차순)
+     */
+    private static final class Postings {
+
+        private int[] ordinals = new int[4];
+        private int[] frequencies = new int[4];
+        private int size;
+
+        void add(int ordinal, int frequency) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            ordinals[size] = ordinal;
+            frequencies[size] = frequency;
+            size++;
+        }
+
+        void remap(int[] remap) {
+            int kept = 0;
+            for (int p = 0; p < size; p++) {
+                int ordinal = remap[ordinals[p]];
+                if (ordinal >= 0) {
+                    ordinals[kept] = ordinal;
+                    frequencies[kept] = frequencies[p];
+                    kept++;
+                }
+            }
+            size = kept;
+            if (size < ordinals.length / 4) {
+                ordinals = Arrays.copyOf(ordinals, Math.max(4, size));
+                frequencies = Arrays.copyOf(frequencies, Math.max(4, size));
+            }
+        }
+    }
+}
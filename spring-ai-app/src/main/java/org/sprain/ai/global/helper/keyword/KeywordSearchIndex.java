@@ -0,0 +1,184 @@
+package org.sprain.ai.global.helper.keyword;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.sprain.ai.global.event.DocumentChangedEvent;
+import org.sprain.ai.repository.VectorStoreChunkRepository;
+import org.springframework.ai.document.Document;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * vector_store 청크에 대한 BM25 키워드 검색 (하이브리드 검색의 키워드 단계)
+ * <p>
+ * 시작 시 vector_store를 페이지 단위로 읽어 색인을 만들고 (백그라운드, 완료 전에는 빈 결과),
+ * 이후에는 DocumentChangedEvent마다 해당 문서의 청크만 다시 읽어 교체한다.
+ * 색인에는 색인어와 청크 길이만 두고, 검색 결과 본문은 상위 청크 ID로 한 번 조회한다.
+ */
+@Slf4j
+public class KeywordSearchIndex implements InitializingBean, DisposableBean {
+
+    private static final int LOAD_PAGE_SIZE = 1_000;
+
+    private final VectorStoreChunkRepository chunkRepository;
+    private final Bm25Index index;
+    private final Set<String> changedDuringBuild = new HashSet<>();
+    private ExecutorService builder;
+    private volatile boolean ready;
+
+    private final Timer searchTimer;
+
+    public KeywordSearchIndex(VectorStoreChunkRepository chunkRepository, double k1, double b,
+                              MeterRegistry meterRegistry) {
+        this.chunkRepository = chunkRepository;
+        this.index = new Bm25Index(k1, b);
+
+        this.searchTimer = Timer.builder("sprain.retrieval.keyword.search")
+            .description("BM25 키워드 검색 시간 (본문 조회 포함)")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+        Gauge.builder("sprain.retrieval.keyword.size", index, Bm25Index::size)
+            .description("BM25 색인의 유효 청크 수")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        builder = Executors.newSingleThreadExecutor(Thread.ofVirtual().name("keyword-index-build").factory());
+        builder.submit(() -> {
+            try {
+                build();
+            } catch (RuntimeException e) {
+                log.error("BM25 색인 구축 실패: {}", e.getMessage(), e);
+            }
+        });
+    }
+
+    @Override
+    public void destroy() {
+        if (builder != null) {
+            builder.shutdownNow();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * BM25 상위 topK 청크 (점수 내림차순)
+     * score와 metadata.keyword_score는 BM25 점수 (벡터 유사도와 척도가 다르므로 순위로만 결합할 것)
+     */
+    public List<Document> search(String query, int topK) {
+        if (!ready) {
+            log.debug("BM25 색인 구축 중 - 키워드 검색 생략");
+            return List.of();
+        }
+        return searchTimer.record(() -> {
+            List<Bm25Index.Hit> hits = index.search(query, topK);
+            if (hits.isEmpty()) {
+                return List.<Document>of();
+            }
+            Map<String, Document> byId = new HashMap<>();
+            for (Document chunk : chunkRepository.findByIds(hits.stream().map(Bm25Index.Hit::chunkId).toList())) {
+                byId.put(chunk.getId(), chunk);
+            }
+
+            List<Document> results = new ArrayList<>(hits.size());
+            for (Bm25Index.Hit hit : hits) {
+                Document chunk = byId.get(hit.chunkId());
+                if (chunk == null) {
+                    continue;  // 색인 반영 전에 삭제된 청크
+                }
+                Map<String, Object> metadata = new HashMap<>(chunk.getMetadata());
+                metadata.put("keyword_score", hit.score());
+                results.add(Document.builder()
+                    .id(chunk.getId())
+                    .text(chunk.getText())
+                    .metadata(metadata)
+                    .score(hit.score())
+                    .build());
+            }
+            return results;
+        });
+    }
+
+    /**
+     * 문서 변경 시 해당 문서의 청크를 다시 읽어 교체 (검색 결과 캐시 무효화보다 먼저 실행)
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDocumentChanged(DocumentChangedEvent event) {
+        String documentId = event.documentId().toString();
+        synchronized (changedDuringBuild) {
+            if (!ready) {
+                changedDuringBuild.add(documentId);
+            }
+        }
+        if (event.type() == DocumentChangedEvent.ChangeType.DELETED) {
+            index.removeDocument(documentId);
+        } else {
+            resyncDocument(documentId);
+        }
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * 전체 색인 (keyset 페이징), 구축 중 바뀐 문서는 마지막에 다시 맞춤
+     */
+    private void build() {
+        long started = System.currentTimeMillis();
+        int count = 0;
+        UUID after = null;
+        List<VectorStoreChunkRepository.ChunkText> page;
+        do {
+            page = chunkRepository.findChunkTexts(after, LOAD_PAGE_SIZE);
+            for (VectorStoreChunkRepository.ChunkText chunk : page) {
+                if (chunk.documentId() != null) {
+                    index.add(chunk.id().toString(), chunk.documentId(), chunk.content());
+                    count++;
+                }
+            }
+            if (!page.isEmpty()) {
+                after = page.get(page.size() - 1).id();
+            }
+        } while (page.size() == LOAD_PAGE_SIZE);
+
+        Set<String> changed;
+        synchronized (changedDuringBuild) {
+            ready = true;
+            changed = Set.copyOf(changedDuringBuild);
+            changedDuringBuild.clear();
+        }
+        changed.forEach(this::resyncDocument);
+        log.info("BM25 색인 구축 완료: 청크 {}개, 색인어 {}개 ({}ms)",
+            count, index.termCount(), System.currentTimeMillis() - started);
+    }
+
+    private void resyncDocument(String documentId) {
+        Map<String, String> texts = new LinkedHashMap<>();
+        for (VectorStoreChunkRepository.ChunkText chunk : chunkRepository.findChunkTextsByDocumentId(documentId)) {
+            texts.put(chunk.id().toString(), chunk.content());
+        }
+        index.replaceDocument(documentId, texts);
+    }
+}
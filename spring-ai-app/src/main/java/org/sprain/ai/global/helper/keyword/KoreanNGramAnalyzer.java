@@ -0,0 +1,78 @@
+package org.sprain.ai.global.helper.keyword;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 한국어 문자 n-gram 분석기 (형태소 분석기 없이 BM25 색인/질의에 사용)
+ * <p>
+ * 글자/숫자가 아닌 문자로 토큰을 나눈 뒤,
+ * <ul>
+ *     <li>한글·한자·가나 연속 구간: 2글자 bigram (1글자 구간은 그대로) - "임베딩을" → 임베, 베딩, 딩을</li>
+ *     <li>영문/숫자 구간: 소문자 단어 그대로 (1글자 영문은 제외)</li>
+ * </ul>
+ * 조사가 붙어도 어간 bigram이 겹치므로 "임베딩은"과 "임베딩을"이 매칭된다.
+ */
+public final class KoreanNGramAnalyzer {
+
+    private KoreanNGramAnalyzer() {
+    }
+
+    /**
+     * 텍스트 → 색인어 목록 (중복 포함, 등장 순서)
+     */
+    public static List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return terms;
+        }
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            int c = text.codePointAt(i);
+            if (isCjk(c)) {
+                int start = i;
+                while (i < length && isCjk(text.codePointAt(i))) {
+                    i += Character.charCount(text.codePointAt(i));
+                }
+                addBigrams(text.substring(start, i), terms);
+            } else if (Character.isLetterOrDigit(c)) {
+                int start = i;
+                while (i < length) {
+                    int d = text.codePointAt(i);
+                    if (!Character.isLetterOrDigit(d) || isCjk(d)) {
+                        break;
+                    }
+                    i += Character.charCount(d);
+                }
+                String word = text.substring(start, i).toLowerCase(Locale.ROOT);
+                if (word.length() > 1 || Character.isDigit(word.charAt(0))) {
+                    terms.add(word);
+                }
+            } else {
+                i += Character.charCount(c);
+            }
+        }
+        return terms;
+    }
+
+    private static void addBigrams(String run, List<String> terms) {
+        int[] codePoints = run.codePoints().toArray();
+        if (codePoints.length == 1) {
+            terms.add(run);
+            return;
+        }
+        for (int j = 0; j + 1 < codePoints.length; j++) {
+            terms.add(new String(codePoints, j, 2));
+        }
+    }
+
+    private static boolean isCjk(int codePoint) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+        return script == Character.UnicodeScript.HANGUL
+            || script == Character.UnicodeScript.HAN
+            || script == Character.UnicodeScript.HIRAGANA
+            || script == Character.UnicodeScript.KATAKANA;
+    }
+}
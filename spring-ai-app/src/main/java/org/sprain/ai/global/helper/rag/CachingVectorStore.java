@@ -0,0 +1,76 @@
+package org.sprain.ai.global.helper.rag;
+
+import org.sprain.ai.global.helper.vector.SearchProfiles;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.ai.vectorstore.filter.Filter;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 검색 결과 캐시를 앞에 둔 VectorStore
+ * <p>
+ * similaritySearch는 같은 질의/topK/threshold/필터면 캐시된 결과를 돌려주고 (임베딩 + pgvector 조회 생략),
+ * 이 VectorStore를 거친 add/delete는 영향받는 결과만 바로 무효화한다.
+ * JDBC로 직접 지우는 경로(VectorStoreChunkRepository)는 DocumentChangedEvent로 무효화된다.
+ * 기본이 아닌 검색 프로필을 지정한 검색은 재현율 기준이 달라 캐시를 읽지도 쓰지도 않는다.
+ */
+public class CachingVectorStore implements VectorStore {
+
+    private final VectorStore delegate;
+    private final SearchResultCache cache;
+    private final SearchProfiles searchProfiles;
+
+    public CachingVectorStore(VectorStore delegate, SearchResultCache cache, SearchProfiles searchProfiles) {
+        this.delegate = delegate;
+        this.cache = cache;
+        this.searchProfiles = searchProfiles;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public void add(List<Document> documents) {
+        delegate.add(documents);
+        cache.onChunksAdded(documents);
+    }
+
+    @Override
+    public void delete(List<String> idList) {
+        delegate.delete(idList);
+        cache.onChunksDeleted(idList);
+    }
+
+    @Override
+    public void delete(Filter.Expression filterExpression) {
+        delegate.delete(filterExpression);
+        cache.clear();
+    }
+
+    @Override
+    public List<Document> similaritySearch(SearchRequest request) {
+        if (!cache.isEnabled() || searchProfiles.isOverridden()) {
+            return delegate.similaritySearch(request);
+        }
+
+        Optional<List<Document>> cached = cache.get(request);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
+        long generation = cache.generation();
+        List<Document> results = delegate.similaritySearch(request);
+        cache.put(request, results, generation);
+        return results;
+    }
+
+    @Override
+    public <T> Optional<T> getNativeClient() {
+        return delegate.getNativeClient();
+    }
+}
@@ -0,0 +1,379 @@
+package org.sprain.ai.global.helper.rag;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.sprain.ai.global.helper.keyword.KoreanNGramAnalyzer;
+import org.springframework.ai.document.Document;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 검색 결과를 토큰 예산 안의 프롬프트 컨텍스트로 조립
+ * <p>
+ * 1. 점수 절벽: 이웃 순위 간 점수 하락이 최고 점수의 cliffRatio를 넘으면 그 아래는 버림
+ * 2. 중복 제거: 다른 청크에 포함되거나 색인어(n-gram) Jaccard 유사도가 duplicateThreshold 이상이면 버림
+ * 3. 이웃 병합: 같은 문서의 연속 청크(chunk_index)는 겹치는 부분(청크 overlap)을 잘라 하나로 합침
+ * 4. 토큰 예산: 순위 순으로 담고, 넘치는 구절은 문장 경계에서 자르거나 건너뜀
+ * 5. 배치: 가장 관련도 높은 구절을 처음과 끝에 두고 낮은 구절을 가운데 둠 (긴 컨텍스트 중간 정보 누락 완화)
+ * <p>
+ * 절감 토큰(검색 결과 원문 - 조립 결과)은 sprain.rag.context.tokens.saved로 기록한다.
+ */
+@Slf4j
+public class ContextAssembler {
+
+    public static final String SEPARATOR = "\n\n---\n\n";
+
+    private static final int MIN_PARTIAL_TOKENS = 64;
+    private static final int MIN_OVERLAP_CHARS = 16;
+    private static final Pattern SENTENCE_END = Pattern.compile("[.!?。…][\"')\\]]*\\s|\\n");
+
+    private final ToIntFunction<String> tokenCounter;
+    private final int tokenBudget;
+    private final double cliffRatio;
+    private final double duplicateThreshold;
+    private final int separatorTokens;
+
+    private final DistributionSummary retrievedTokens;
+    private final DistributionSummary packedTokens;
+    private final DistributionSummary savedTokens;
+    private final Counter cliffCounter;
+    private final Counter duplicateCounter;
+    private final Counter budgetCounter;
+
+    /**
+     * @param tokenCounter       토큰 수 계산 (cl100k_base 근사)
+     * @param tokenBudget        컨텍스트 최대 토큰
+     * @param cliffRatio         점수 절벽 기준 (최고 점수 대비 이웃 간 하락 비율, 0 이하면 사용 안 함)
+     * @param duplicateThreshold 중복으로 볼 색인어 Jaccard 유사도 (1 초과면 사용 안 함)
+     */
+    public ContextAssembler(ToIntFunction<String> tokenCounter, int tokenBudget, double cliffRatio,
+                            double duplicateThreshold, MeterRegistry meterRegistry) {
+        this.tokenCounter = tokenCounter;
+        this.tokenBudget = tokenBudget;
+        this.cliffRatio = cliffRatio;
+        this.duplicateThreshold = duplicateThreshold;
+        this.separatorTokens = tokenCounter.applyAsInt(SEPARATOR);
+
+        this.retrievedTokens = DistributionSummary.builder("sprain.rag.context.tokens")
+            .description("컨텍스트 토큰 수")
+            .tag("stage", "retrieved")
+            .register(meterRegistry);
+        this.packedTokens = DistributionSummary.builder("sprain.rag.context.tokens")
+            .description("컨텍스트 토큰 수")
+            .tag("stage", "packed")
+            .register(meterRegistry);
+        this.savedTokens = DistributionSummary.builder("sprain.rag.context.tokens.saved")
+            .description("요청당 컨텍스트 조립으로 줄인 토큰 수")
+            .register(meterRegistry);
+        this.cliffCounter = dropCounter(meterRegistry, "cliff");
+        this.duplicateCounter = dropCounter(meterRegistry, "duplicate");
+        this.budgetCounter = dropCounter(meterRegistry, "budget");
+    }
+
+    public AssembledContext assemble(List<Document> ranked) {
+        return assemble(ranked, tokenBudget);
+    }
+
+    /**
+     * @param ranked 관련도 내림차순 검색 결과
+     */
+    public AssembledContext assemble(List<Document> ranked, int budget) {
+        return assemble(ranked, budget, true);
+    }
+
+    /**
+     * 예산 제한 없이 조립만 하고 메트릭은 기록하지 않음 (진단 보고서용)
+     */
+    public AssembledContext measure(List<Document> ranked) {
+        return assemble(ranked, Integer.MAX_VALUE, false);
+    }
+
+    private AssembledContext assemble(List<Document> ranked, int budget, boolean record) {
+        int inputTokens = 0;
+        for (Document doc : ranked) {
+            inputTokens += tokenCounter.applyAsInt(doc.getText()) + separatorTokens;
+        }
+
+        List<Document> aboveCliff = cutAtCliff(ranked);
+        List<Document> kept = dropDuplicates(aboveCliff);
+        List<Passage> passages = mergeNeighbours(kept);
+
+        // 순위 순으로 예산 안에 담기
+        passages.sort(Comparator.comparingInt(Passage::rank));
+        List<Passage> selected = new ArrayList<>();
+        int used = 0;
+        int overBudget = 0;
+        for (Passage passage : passages) {
+            int tokens = tokenCounter.applyAsInt(passage.text) + separatorTokens;
+            if (used + tokens <= budget) {
+                selected.add(passage);
+                used += tokens;
+                continue;
+            }
+            int remaining = budget - used - separatorTokens;
+            String truncated = remaining >= MIN_PARTIAL_TOKENS ? truncate(passage.text, remaining) : null;
+            if (truncated != null) {
+                passage.text = truncated;
+                selected.add(passage);
+                used += tokenCounter.applyAsInt(truncated) + separatorTokens;
+            } else {
+                overBudget++;
+            }
+        }
+
+        List<Document> ordered = edgesFirst(selected).stream().map(Passage::toDocument).toList();
+        String text = String.join(SEPARATOR, ordered.stream().map(Document::getText).toList());
+        int contextTokens = ordered.isEmpty() ? 0 : used - separatorTokens;
+        int saved = Math.max(0, inputTokens - contextTokens);
+
+        if (!record) {
+            return new AssembledContext(ordered, text, inputTokens, contextTokens, saved);
+        }
+        retrievedTokens.record(inputTokens);
+        packedTokens.record(contextTokens);
+        savedTokens.record(saved);
+        cliffCounter.increment(ranked.size() - aboveCliff.size());
+        duplicateCounter.increment(aboveCliff.size() - kept.size());
+        budgetCounter.increment(overBudget);
+        log.debug("컨텍스트 조립: 검색 {}개({} tokens) → 구절 {}개({} tokens), 절감 {} tokens",
+            ranked.size(), inputTokens, ordered.size(), contextTokens, saved);
+        return new AssembledContext(ordered, text, inputTokens, contextTokens, saved);
+    }
+
+    /**
+     * 점수 절벽 아래 결과 제거 (점수가 없으면 그대로)
+     */
+    private List<Document> cutAtCliff(List<Document> ranked) {
+        if (cliffRatio <= 0 || ranked.size() < 2 || ranked.get(0).getScore() == null) {
+            return ranked;
+        }
+        double top = ranked.get(0).getScore();
+        if (top <= 0) {
+            return ranked;
+        }
+        for (int i = 1; i < ranked.size(); i++) {
+            Double previous = ranked.get(i - 1).getScore();
+            Double current = ranked.get(i).getScore();
+            if (previous != null && current != null && (previous - current) / top > cliffRatio) {
+                return ranked.subList(0, i);
+            }
+        }
+        return ranked;
+    }
+
+    /**
+     * 상위 결과에 포함되거나 거의 같은 결과 제거
+     */
+    private List<Document> dropDuplicates(List<Document> ranked) {
+        List<Document> kept = new ArrayList<>();
+        List<Set<String>> keptTerms = new ArrayList<>();
+        Set<String> seenIds = new HashSet<>();
+        for (Document doc : ranked) {
+            if (!seenIds.add(doc.getId())) {
+                continue;
+            }
+            Set<String> terms = new HashSet<>(KoreanNGramAnalyzer.analyze(doc.getText()));
+            boolean duplicate = false;
+            for (int i = 0; i < kept.size() && !duplicate; i++) {
+                duplicate = kept.get(i).getText().contains(doc.getText())
+                    || jaccard(terms, keptTerms.get(i)) >= duplicateThreshold;
+            }
+            if (duplicate) {
+                continue;
+            }
+            kept.add(doc);
+            keptTerms.add(terms);
+        }
+        return kept;
+    }
+
+    /**
+     * 같은 문서의 연속 청크를 겹침을 잘라 합침 (chunk_index가 없으면 그대로)
+     */
+    private List<Passage> mergeNeighbours(List<Document> kept) {
+        Map<Object, List<Passage>> byDocument = new LinkedHashMap<>();
+        List<Passage> passages = new ArrayList<>();
+        for (int rank = 0; rank < kept.size(); rank++) {
+            Document doc = kept.get(rank);
+            Passage passage = new Passage(rank, doc);
+            Object documentId = doc.getMetadata().get("document_id");
+            if (documentId == null || passage.firstIndex == null) {
+                passages.add(passage);
+            } else {
+                byDocument.computeIfAbsent(documentId, id -> new ArrayList<>()).add(passage);
+            }
+        }
+
+        for (List<Passage> group : byDocument.values()) {
+            group.sort(Comparator.comparingInt(p -> p.firstIndex));
+            Passage current = group.get(0);
+            for (int i = 1; i < group.size(); i++) {
+                Passage next = group.get(i);
+                if (next.firstIndex == current.lastIndex + 1) {
+                    current.append(next);
+                } else {
+                    passages.add(current);
+                    current = next;
+                }
+            }
+            passages.add(current);
+        }
+        return passages;
+    }
+
+    /**
+     * 문장 경계에서 maxTokens 이하로 자름 (첫 문장도 넘으면 null)
+     */
+    private String truncate(String text, int maxTokens) {
+        List<Integer> ends = new ArrayList<>();
+        Matcher matcher = SENTENCE_END.matcher(text);
+        while (matcher.find()) {
+            ends.add(matcher.end());
+        }
+        int low = 0;
+        int high = ends.size() - 1;
+        int best = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (tokenCounter.applyAsInt(text.substring(0, ends.get(mid))) <= maxTokens) {
+                best = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return best < 0 ? null : text.substring(0, ends.get(best)).strip();
+    }
+
+    /**
+     * 순위 1, 3, 5... 를 앞에서부터, 2, 4, 6... 을 뒤에서부터 배치
+     */
+    private static List<Passage> edgesFirst(List<Passage> byRank) {
+        List<Passage> front = new ArrayList<>();
+        List<Passage> back = new ArrayList<>();
+        for (int i = 0; i < byRank.size(); i++) {
+            (i % 2 == 0 ? front : back).add(byRank.get(i));
+        }
+        for (int i = back.size() - 1; i >= 0; i--) {
+            front.add(back.get(i));
+        }
+        return front;
+    }
+
+    private static double jaccard(Set<String> a, Set<String> b) {
+        if (a.isEmpty() || b.isEmpty()) {
+            return 0;
+        }
+        int intersection = 0;
+        for (String term : a.size() < b.size() ? a : b) {
+            if ((a.size() < b.size() ? b : a).contains(term)) {
+                intersection++;
+            }
+        }
+        return (double) intersection / (a.size() + b.size() - intersection);
+    }
+
+    /**
+     * a의 끝과 b의 시작이 겹치는 길이 (청크 overlap)
+     */
+    static int overlap(String a, String b) {
+        if (b.length() < MIN_OVERLAP_CHARS) {
+            return 0;
+        }
+        String probe = b.substring(0, MIN_OVERLAP_CHARS);
+        int from = Math.max(0, a.length() - b.length());
+        for (int pos = a.indexOf(probe, from); pos >= 0; pos = a.indexOf(probe, pos + 1)) {
+            if (b.startsWith(a.substring(pos))) {
+                return a.length() - pos;
+            }
+        }
+        return 0;
+    }
+
+    private static Counter dropCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("sprain.rag.context.dropped")
+            .description("컨텍스트 조립에서 빠진 검색 결과 수")
+            .tag("reason", reason)
+            .register(meterRegistry);
+    }
+
+    /**
+     * 조립 결과
+     *
+     * @param passages      프롬프트에 들어간 구절 (배치 순서, 병합된 청크는 metadata.merged_chunk_ids)
+     * @param text          SEPARATOR로 이은 컨텍스트
+     * @param inputTokens   검색 결과 원문 토큰 수
+     * @param contextTokens 조립된 컨텍스트 토큰 수
+     * @param savedTokens   inputTokens - contextTokens
+     */
+    public record AssembledContext(List<Document> passages, String text, int inputTokens, int contextTokens,
+                                   int savedTokens) {
+    }
+
+    /**
+     * 조립 중인 구절 (연속 청크 병합 가능)
+     */
+    private static final class Passage {
+
+        private final int rank;
+        private final Document first;
+        private final Integer firstIndex;
+        private final List<String> chunkIds = new ArrayList<>();
+        private Integer lastIndex;
+        private String text;
+
+        Passage(int rank, Document doc) {
+            this.rank = rank;
+            this.first = doc;
+            this.firstIndex = chunkIndex(doc);
+            this.lastIndex = firstIndex;
+            this.text = doc.getText();
+            this.chunkIds.add(doc.getId());
+        }
+
+        int rank() {
+            return rank;
+        }
+
+        void append(Passage next) {
+            int overlap = overlap(text, next.text);
+            text = text + (overlap > 0 ? next.text.substring(overlap) : "\n" + next.text);
+            lastIndex = next.lastIndex;
+            chunkIds.addAll(next.chunkIds);
+        }
+
+        Document toDocument() {
+            Map<String, Object> metadata = new HashMap<>(first.getMetadata());
+            if (chunkIds.size() > 1) {
+                metadata.put("merged_chunk_ids", List.copyOf(chunkIds));
+            }
+            return Document.builder()
+                .id(first.getId())
+                .text(text)
+                .metadata(metadata)
+                .score(first.getScore())
+                .build();
+        }
+
+        private static Integer chunkIndex(Document doc) {
+            Object value = doc.getMetadata().get("chunk_index");
+            if (value instanceof Number number) {
+                return number.intValue();
+            }
+            return value == null ? null : Integer.valueOf(Objects.toString(value));
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package org.sprain.ai.global.helper.rag;
+
+import org.springframework.ai.vectorstore.filter.Filter;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.IntPredicate;
+
+/**
+ * 메타데이터에 대한 필터 식(SearchRequest.filterExpression) 평가
+ * <p>
+ * 3값 논리로 평가한다: 메타데이터에 없는 키나 모르는 연산은 "알 수 없음"으로 본다.
+ * <ul>
+ *     <li>mayMatch: 확실히 false일 때만 불일치 (캐시 무효화처럼 보수적으로 판단할 때)</li>
+ *     <li>matches: 확실히 true일 때만 일치 (인메모리 검색에서 DB 필터와 같은 결과를 낼 때)</li>
+ * </ul>
+ */
+public final class FilterMatcher {
+
+    private FilterMatcher() {
+    }
+
+    /**
+     * @param filter null이면 모든 메타데이터를 만족
+     */
+    public static boolean mayMatch(Filter.Expression filter, Map<String, Object> metadata) {
+        return filter == null || evaluate(filter, metadata) != Boolean.FALSE;
+    }
+
+    /**
+     * @param filter null이면 모든 메타데이터가 일치
+     */
+    public static boolean matches(Filter.Expression filter, Map<String, Object> metadata) {
+        return filter == null || evaluate(filter, metadata) == Boolean.TRUE;
+    }
+
+    private static Boolean evaluate(Filter.Operand operand, Map<String, Object> metadata) {
+        if (operand instanceof Filter.Group group) {
+            return evaluate(group.content(), metadata);
+        }
+        if (!(operand instanceof Filter.Expression expression)) {
+            return null;
+        }
+
+        switch (expression.type()) {
+            case AND -> {
+                Boolean left = evaluate(expression.left(), metadata);
+                Boolean right = evaluate(expression.right(), metadata);
+                if (left == Boolean.FALSE || right == Boolean.FALSE) {
+                    return false;
+                }
+                return left == null || right == null ? null : true;
+            }
+            case OR -> {
+                Boolean left = evaluate(expression.left(), metadata);
+                Boolean right = evaluate(expression.right(), metadata);
+                if (left == Boolean.TRUE || right == Boolean.TRUE) {
+                    return true;
+                }
+                return left == null || right == null ? null : false;
+            }
+            case NOT -> {
+                Boolean inner = evaluate(expression.left(), metadata);
+                return inner == null ? null : !inner;
+            }
+            default -> {
+                return compare(expression, metadata);
+            }
+        }
+    }
+
+    private static Boolean compare(Filter.Expression expression, Map<String, Object> metadata) {
+        if (!(expression.left() instanceof Filter.Key key) || !(expression.right() instanceof Filter.Value value)) {
+            return null;
+        }
+        Object actual = metadata.get(unquote(key.key()));
+        if (actual == null) {
+            return null;
+        }
+        Object expected = value.value();
+
+        return switch (expression.type()) {
+            case EQ -> equalsValue(actual, expected);
+            case NE -> !equalsValue(actual, expected);
+            case IN -> expected instanceof Collection<?> values
+                ? values.stream().anyMatch(v -> equalsValue(actual, v)) : null;
+            case NIN -> expected instanceof Collection<?> values
+                ? values.stream().noneMatch(v -> equalsValue(actual, v)) : null;
+            case GT -> order(actual, expected, c -> c > 0);
+            case GTE -> order(actual, expected, c -> c >= 0);
+            case LT -> order(actual, expected, c -> c < 0);
+            case LTE -> order(actual, expected, c -> c <= 0);
+            default -> null;
+        };
+    }
+
+    private static boolean equalsValue(Object actual, Object expected) {
+        if (actual instanceof Number a && expected instanceof Number e) {
+            return a.doubleValue() == e.doubleValue();
+        }
+        return Objects.equals(String.valueOf(actual), String.valueOf(expected));
+    }
+
+    private static Boolean order(Object actual, Object expected, IntPredicate test) {
+        if (actual instanceof Number a && expected instanceof Number e) {
+            return test.test(Double.compare(a.doubleValue(), e.doubleValue()));
+        }
+        if (actual instanceof String a && expected instanceof String e) {
+            return test.test(a.compareTo(e));
+        }
+        return null;
+    }
+
+    /**
+     * 텍스트 필터의 따옴표 키("file name") 처리
+     */
+    private static String unquote(String key) {
+        if (key.length() >= 2 && (key.startsWith("\"") && key.endsWith("\"")
+            || key.startsWith("'") && key.endsWith("'"))) {
+            return key.substring(1, key.length() - 1);
+        }
+        return key;
+    }
+}
@@ -0,0 +1,150 @@
+package org.sprain.ai.global.helper.rag;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.sprain.ai.global.helper.vector.VectorMath;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * MMR(Maximal Marginal Relevance) 다양성 선택
+ * <p>
+ * score(d) = λ·sim(q, d) - (1-λ)·max sim(d, 선택된 문서)
+ * λ=1이면 유사도 순 그대로, 작을수록 이미 고른 청크와 비슷한(겹치는 이웃 청크) 후보를 뒤로 민다.
+ * <p>
+ * 질의 임베딩은 질의 임베딩 캐시에서(검색 때 이미 계산됨), 후보 임베딩은 한 번의 일괄 조회로 가져오고
+ * 계산은 정규화된 float 배열로만 한다. (선택된 문서와의 최대 유사도를 후보별로 누적해 O(k·n·d))
+ */
+public class MmrSelector {
+
+    private final EmbeddingModel embeddingModel;
+    private final Function<Collection<String>, Map<String, float[]>> embeddingLookup;
+    private final int candidateFactor;
+    private final double defaultLambda;
+    private final Timer selectTimer;
+
+    /**
+     * @param embeddingModel  질의 임베딩 (캐시 적용 모델)
+     * @param embeddingLookup 청크 ID → 저장된 임베딩 일괄 조회
+     * @param candidateFactor RagService/하이브리드 검색에서 topK x 이 값만큼 후보를 가져옴 (1 이하면 사용 안 함)
+     * @param defaultLambda   관련도 가중치 (0~1)
+     */
+    public MmrSelector(EmbeddingModel embeddingModel,
+                       Function<Collection<String>, Map<String, float[]>> embeddingLookup,
+                       int candidateFactor, double defaultLambda, MeterRegistry meterRegistry) {
+        this.embeddingModel = embeddingModel;
+        this.embeddingLookup = embeddingLookup;
+        this.candidateFactor = candidateFactor;
+        this.defaultLambda = defaultLambda;
+        this.selectTimer = Timer.builder("sprain.retrieval.mmr")
+            .description("MMR 선택 시간 (후보 임베딩 조회 포함)")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+    }
+
+    /**
+     * RagService 기본 검색에 적용 여부
+     */
+    public boolean isEnabled() {
+        return candidateFactor > 1;
+    }
+
+    public int getCandidateFactor() {
+        return candidateFactor;
+    }
+
+    public double getDefaultLambda() {
+        return defaultLambda;
+    }
+
+    public List<Document> select(String query, List<Document> candidates, int k) {
+        return select(query, candidates, k, defaultLambda);
+    }
+
+    /**
+     * 후보 중 k개를 MMR 순서로 선택 (임베딩이 없는 후보는 남는 자리에만 검색 순서대로 채움)
+     */
+    public List<Document> select(String query, List<Document> candidates, int k, double lambda) {
+        if (candidates.size() <= 1) {
+            return candidates.subList(0, Math.min(k, candidates.size()));
+        }
+        return selectTimer.record(() -> {
+            Map<String, float[]> embeddings = embeddingLookup.apply(
+                candidates.stream().map(Document::getId).toList());
+
+            List<Document> withVectors = new ArrayList<>(candidates.size());
+            List<Document> withoutVectors = new ArrayList<>();
+            List<float[]> vectors = new ArrayList<>(candidates.size());
+            for (Document candidate : candidates) {
+                float[] vector = embeddings.get(candidate.getId());
+                if (vector == null) {
+                    withoutVectors.add(candidate);
+                } else {
+                    withVectors.add(candidate);
+                    vectors.add(vector);
+                }
+            }
+
+            int[] order = select(embeddingModel.embed(query), vectors.toArray(new float[0][]), k, lambda);
+            List<Document> selected = new ArrayList<>(k);
+            for (int index : order) {
+                selected.add(withVectors.get(index));
+            }
+            for (int i = 0; i < withoutVectors.size() && selected.size() < k; i++) {
+                selected.add(withoutVectors.get(i));
+            }
+            return selected;
+        });
+    }
+
+    /**
+     * MMR 선택 (입력 배열은 수정하지 않음)
+     *
+     * @return 선택된 후보 인덱스 (선택 순서)
+     */
+    public static int[] select(float[] query, float[][] candidates, int k, double lambda) {
+        int n = candidates.length;
+        int limit = Math.min(k, n);
+        float[] q = VectorMath.normalize(query);
+        float[][] vectors = new float[n][];
+        double[] relevance = new double[n];
+        double[] maxSimilarity = new double[n];
+        boolean[] taken = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            vectors[i] = VectorMath.normalize(candidates[i]);
+            relevance[i] = VectorMath.dot(q, vectors[i]);
+            maxSimilarity[i] = Double.NEGATIVE_INFINITY;
+        }
+
+        int[] order = new int[limit];
+        for (int picked = 0; picked < limit; picked++) {
+            int best = -1;
+            double bestScore = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < n; i++) {
+                if (taken[i]) {
+                    continue;
+                }
+                double redundancy = picked == 0 ? 0 : maxSimilarity[i];
+                double score = lambda * relevance[i] - (1 - lambda) * redundancy;
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = i;
+                }
+            }
+            taken[best] = true;
+            order[picked] = best;
+            for (int i = 0; i < n; i++) {
+                if (!taken[i]) {
+                    maxSimilarity[i] = Math.max(maxSimilarity[i], VectorMath.dot(vectors[i], vectors[best]));
+                }
+            }
+        }
+        return order;
+    }
+}
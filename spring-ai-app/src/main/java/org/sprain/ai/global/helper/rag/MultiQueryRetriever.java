@@ -0,0 +1,218 @@
+package org.sprain.ai.global.helper.rag;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.sprain.ai.global.helper.vector.SearchProfile;
+import org.sprain.ai.global.helper.vector.SearchProfiles;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.VectorStore;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 다중 질의 검색 (질의 재작성 + 병렬 검색 + RRF 결합)
+ * <p>
+ * 원 질의 검색은 재작성(LLM 호출)을 기다리지 않고 바로 시작하고, 재작성된 질의 x 필터 조합을
+ * 가상 스레드에서 동시에 검색한다. 전체 지연 시간은 검색 수의 합이 아니라
+ * max(원 질의 검색, 재작성 + 가장 느린 검색)에 가깝다.
+ * <p>
+ * timeout 안에 끝나지 않았거나 실패한 재작성/재작성 질의 검색은 버리고 끝난 결과만 결합한다.
+ * 원 질의 검색은 제한 시간과 무관하게 기다리며, 실패하면 예외를 그대로 던진다. (빈 결과로 대신하지 않음)
+ * 같은 청크는 ID로 중복 제거되고, 여러 질의에서 상위에 나온 청크일수록 RRF 점수가 높다.
+ * 호출 스레드의 검색 프로필(SearchProfiles)은 각 검색 작업에 그대로 전달한다.
+ * <p>
+ * 전용 가상 스레드 executor를 가지므로 다 쓰면 close로 닫는다. (@Bean이면 컨테이너 종료 시 자동 호출)
+ */
+@Slf4j
+public class MultiQueryRetriever implements AutoCloseable {
+
+    private static final String REWRITE_PROMPT = """
+        다음 질문을 벡터 검색에 쓸 수 있도록 서로 다른 표현으로 %d개 바꿔 주세요.
+        - 원래 질문의 의도는 유지하고, 동의어/구체적인 용어/다른 관점을 사용하세요.
+        - 한 줄에 하나씩, 번호나 설명 없이 질문만 출력하세요.
+
+        [질문]
+        %s
+        """;
+
+    private final VectorStore vectorStore;
+    private final ChatClient chatClient;
+    private final SearchProfiles searchProfiles;
+    private final int rewrites;
+    private final Duration timeout;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Timer retrieveTimer;
+    private final Counter droppedCounter;
+
+    /**
+     * @param chatClient 질의 재작성용 (RAG Advisor가 없는 클라이언트여야 재작성 앞에 검색이 끼지 않음)
+     * @param rewrites   재작성 질의 수 (0이면 원 질의 x 필터만 검색)
+     * @param timeout    재작성 + 검색 전체 제한 시간
+     */
+    public MultiQueryRetriever(VectorStore vectorStore, ChatClient chatClient, SearchProfiles searchProfiles,
+                               int rewrites, Duration timeout, MeterRegistry meterRegistry) {
+        this.vectorStore = vectorStore;
+        this.chatClient = chatClient;
+        this.searchProfiles = searchProfiles;
+        this.rewrites = rewrites;
+        this.timeout = timeout;
+
+        this.retrieveTimer = Timer.builder("sprain.retrieval.multiquery")
+            .description("다중 질의 검색 전체 시간 (재작성 + 병렬 검색 + 결합)")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+        this.droppedCounter = Counter.builder("sprain.retrieval.multiquery.dropped")
+            .description("제한 시간 초과/실패로 결합에서 빠진 검색 수")
+            .register(meterRegistry);
+    }
+
+    /**
+     * @param filterExpressions 검색마다 적용할 필터 식 (예: document_id == '...'), 비어 있으면 필터 없이 한 번
+     * @param topK              질의/필터 조합마다 검색할 수이자 결합 후 반환할 수
+     */
+    public List<Document> retrieve(String question, List<String> filterExpressions, int topK,
+                                   double similarityThreshold) {
+        return retrieveTimer.record(() -> {
+            long deadline = System.nanoTime() + timeout.toNanos();
+            SearchProfile profile = searchProfiles.current();
+            List<String> filters = filterExpressions.isEmpty()
+                ? Collections.singletonList(null)
+                : filterExpressions;
+
+            // 1. 원 질의 검색과 재작성을 동시에 시작
+            List<Future<List<Document>>> original = submitSearches(question, filters, topK, similarityThreshold,
+                profile);
+            Future<List<String>> rewriteFuture = rewrites > 0
+                ? executor.submit(() -> rewrite(question))
+                : null;
+
+            // 2. 재작성이 끝나는 대로 재작성 질의 검색 시작
+            List<String> rewritten = rewriteFuture == null ? List.of() : await(rewriteFuture, deadline, List.of());
+            List<Future<List<Document>>> expanded = new ArrayList<>();
+            for (String query : rewritten) {
+                expanded.addAll(submitSearches(query, filters, topK, similarityThreshold, profile));
+            }
+
+            // 3. 결과 수집 (원 질의는 제한 시간과 무관하게 기다리고, 실패하면 나머지 검색을 취소하고 예외 전파)
+            List<List<Document>> rankings = new ArrayList<>();
+            try {
+                for (Future<List<Document>> future : original) {
+                    rankings.add(awaitOriginal(future));
+                }
+            } catch (RuntimeException e) {
+                original.forEach(future -> future.cancel(true));
+                expanded.forEach(future -> future.cancel(true));
+                throw e;
+            }
+            for (Future<List<Document>> future : expanded) {
+                rankings.add(await(future, deadline, List.of()));
+            }
+
+            List<Document> fused = ReciprocalRankFusion.fuse(rankings, ReciprocalRankFusion.DEFAULT_K, topK);
+            log.info("다중 질의 검색: 질의 {}개 x 필터 {}개 → {}개",
+                1 + rewritten.size(), filterExpressions.isEmpty() ? 1 : filterExpressions.size(), fused.size());
+            return fused;
+        });
+    }
+
+    private List<Future<List<Document>>> submitSearches(String query, List<String> filters, int topK,
+                                                        double similarityThreshold, SearchProfile profile) {
+        List<Future<List<Document>>> futures = new ArrayList<>(filters.size());
+        for (String filter : filters) {
+            SearchRequest.Builder request = SearchRequest.builder()
+                .query(query)
+                .topK(topK)
+                .similarityThreshold(similarityThreshold);
+            if (filter != null) {
+                request.filterExpression(filter);
+            }
+            SearchRequest searchRequest = request.build();
+            futures.add(executor.submit(
+                () -> searchProfiles.with(profile, () -> vectorStore.similaritySearch(searchRequest))));
+        }
+        return futures;
+    }
+
+    /**
+     * LLM으로 질의 재작성 (원 질의와 같거나 중복된 줄은 제외)
+     */
+    private List<String> rewrite(String question) {
+        String content = chatClient.prompt()
+            .user(REWRITE_PROMPT.formatted(rewrites, question))
+            .call()
+            .content();
+        if (content == null) {
+            return List.of();
+        }
+        Set<String> queries = new LinkedHashSet<>();
+        Arrays.stream(content.split("\n"))
+            .map(line -> line.replaceFirst("^\\s*(?:[-*•]|\\d+[.)])\\s*", "").trim())
+            .filter(line -> !line.isEmpty() && !line.equals(question.trim()))
+            .limit(rewrites)
+            .forEach(queries::add);
+        log.debug("재작성 질의: {}", queries);
+        return List.copyOf(queries);
+    }
+
+    /**
+     * 원 질의 검색 결과 (실패는 결과 제외가 아니라 호출자에게 전파)
+     */
+    private List<Document> awaitOriginal(Future<List<Document>> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("원 질의 검색 실패", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("원 질의 검색 대기 중 인터럽트", e);
+        }
+    }
+
+    /**
+     * 재작성/재작성 질의 검색 결과 (제한 시간 초과나 실패면 fallback)
+     */
+    private <T> T await(Future<T> future, long deadline, T fallback) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            droppedCounter.increment();
+            log.warn("다중 질의 검색 제한 시간 초과 - 결과 제외");
+        } catch (ExecutionException e) {
+            droppedCounter.increment();
+            log.warn("다중 질의 검색 실패 - 결과 제외: {}", e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+        }
+        return fallback;
+    }
+
+    /**
+     * 진행 중인 검색/재작성을 중단하고 executor 종료
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
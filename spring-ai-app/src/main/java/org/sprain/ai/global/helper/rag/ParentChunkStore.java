@@ -0,0 +1,170 @@
+package org.sprain.ai.global.helper.rag;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.sprain.ai.global.event.DocumentChangedEvent;
+import org.sprain.ai.repository.ChunkParentRepository;
+import org.sprain.ai.repository.ChunkParentRepository.ChunkParent;
+import org.sprain.ai.repository.DocumentContentRepository;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * 부모 구간 본문의 로컬 캐시 (small-to-big 확장용)
+ * <p>
+ * 부모 ID → (문서 ID, 본문)을 LRU로 보관해 적중 시 DB 조회 없이 확장한다.
+ * 미스가 난 문서는 부모 구간 목록(1회)과 원본(문서당 1회)을 읽어 그 문서의 모든 부모를 한 번에 채운다.
+ * (형제 부모가 이어서 검색되는 경우가 많으므로 문서 단위로 적재)
+ * <p>
+ * 원본이 바뀌면 위치가 어긋나므로 문서 갱신/삭제 이벤트로 해당 문서의 항목을 제거하고,
+ * 적재 도중 무효화가 일어나면 generation으로 확인해 오래된 본문을 넣지 않는다.
+ */
+@Slf4j
+public class ParentChunkStore {
+
+    private final ChunkParentRepository chunkParentRepository;
+    private final DocumentContentRepository documentContentRepository;
+    private final int maxEntries;
+    private final LinkedHashMap<String, Section> sections;
+    private long generation;
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    public ParentChunkStore(ChunkParentRepository chunkParentRepository,
+                            DocumentContentRepository documentContentRepository,
+                            int maxEntries, MeterRegistry meterRegistry) {
+        this.chunkParentRepository = chunkParentRepository;
+        this.documentContentRepository = documentContentRepository;
+        this.maxEntries = maxEntries;
+        this.sections = new LinkedHashMap<>(Math.min(maxEntries, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Section> eldest) {
+                return size() > ParentChunkStore.this.maxEntries;
+            }
+        };
+
+        this.hitCounter = Counter.builder("sprain.rag.parent.cache.hits")
+            .description("부모 구간 캐시 적중 수")
+            .register(meterRegistry);
+        this.missCounter = Counter.builder("sprain.rag.parent.cache.misses")
+            .description("부모 구간 캐시 미스 수 (문서 원본 조회)")
+            .register(meterRegistry);
+        Gauge.builder("sprain.rag.parent.cache.size", sections, map -> {
+                synchronized (map) {
+                    return map.size();
+                }
+            })
+            .description("부모 구간 캐시 항목 수")
+            .register(meterRegistry);
+    }
+
+    /**
+     * 부모 본문 일괄 조회
+     *
+     * @param parentDocuments 부모 ID → 문서 ID (자식 청크 메타데이터의 parent_id, document_id)
+     * @return 부모 ID → 본문 (구간 정보나 원본이 없는 부모는 제외)
+     */
+    public Map<String, String> texts(Map<String, String> parentDocuments) {
+        Map<String, String> result = new HashMap<>();
+        Set<UUID> missingDocuments;
+        long loadGeneration;
+        synchronized (sections) {
+            loadGeneration = generation;
+            parentDocuments.forEach((parentId, documentId) -> {
+                Section section = sections.get(parentId);
+                if (section != null) {
+                    result.put(parentId, section.text());
+                }
+            });
+            missingDocuments = parentDocuments.entrySet().stream()
+                .filter(entry -> !result.containsKey(entry.getKey()))
+                .map(entry -> UUID.fromString(entry.getValue()))
+                .collect(Collectors.toSet());
+        }
+        hitCounter.increment(result.size());
+        if (missingDocuments.isEmpty()) {
+            return result;
+        }
+
+        missCounter.increment(parentDocuments.size() - result.size());
+        Map<String, Section> loaded = load(missingDocuments);
+        synchronized (sections) {
+            if (generation == loadGeneration) {
+                sections.putAll(loaded);
+            }
+        }
+        parentDocuments.keySet().forEach(parentId -> {
+            Section section = loaded.get(parentId);
+            if (section != null) {
+                result.put(parentId, section.text());
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 문서들의 부모 구간을 원본에서 잘라 적재 (부모 목록 1회 + 문서별 원본 1회)
+     */
+    private Map<String, Section> load(Set<UUID> documentIds) {
+        Map<UUID, List<ChunkParent>> byDocument = chunkParentRepository.findByDocumentIds(documentIds).stream()
+            .collect(Collectors.groupingBy(ChunkParent::documentId));
+
+        Map<String, Section> loaded = new HashMap<>();
+        byDocument.forEach((documentId, parents) -> {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            if (!documentContentRepository.copyContent(documentId, out)) {
+                return;
+            }
+            String content = out.toString(StandardCharsets.UTF_8);
+            String docId = documentId.toString();
+            for (ChunkParent parent : parents) {
+                if (parent.endOffset() > content.length() || parent.startOffset() >= parent.endOffset()) {
+                    log.warn("부모 구간이 원본 범위를 벗어남: {} ({}~{}, 원본 {}자)",
+                        parent.id(), parent.startOffset(), parent.endOffset(), content.length());
+                    continue;
+                }
+                loaded.put(parent.id().toString(),
+                    new Section(docId, content.substring(parent.startOffset(), parent.endOffset())));
+            }
+        });
+        return loaded;
+    }
+
+    /**
+     * 문서 변경 이벤트 (트랜잭션 안에서 발행되면 커밋 후 실행)
+     * 추가는 새 부모 ID만 생기므로 무시하고, 갱신/삭제는 해당 문서의 항목을 제거한다.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDocumentChanged(DocumentChangedEvent event) {
+        if (event.type() == DocumentChangedEvent.ChangeType.ADDED) {
+            return;
+        }
+        String documentId = event.documentId().toString();
+        synchronized (sections) {
+            generation++;
+            sections.values().removeIf(section -> documentId.equals(section.documentId()));
+        }
+    }
+
+    public void clear() {
+        synchronized (sections) {
+            generation++;
+            sections.clear();
+        }
+    }
+
+    private record Section(String documentId, String text) {
+    }
+}
@@ -0,0 +1,56 @@
+package org.sprain.ai.global.helper.rag;
+
+import org.springframework.ai.document.Document;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 여러 검색 결과 목록을 순위만으로 결합 (Reciprocal Rank Fusion)
+ * <p>
+ * score(d) = Σ 1 / (k + rank(d)), rank는 1부터.
+ * 벡터 유사도와 BM25처럼 척도가 다른 점수를 정규화 없이 합칠 수 있다.
+ * 같은 청크(ID)는 처음 나온 Document를 쓰고, 결과의 score와 metadata.rrf_score는 RRF 점수다.
+ */
+public final class ReciprocalRankFusion {
+
+    /**
+     * 일반적으로 쓰이는 k 값 (클수록 하위 순위의 영향이 커짐)
+     */
+    public static final int DEFAULT_K = 60;
+
+    private ReciprocalRankFusion() {
+    }
+
+    public static List<Document> fuse(List<List<Document>> rankings, int k, int limit) {
+        Map<String, Document> first = new LinkedHashMap<>();
+        Map<String, Double> scores = new HashMap<>();
+        for (List<Document> ranking : rankings) {
+            for (int rank = 0; rank < ranking.size(); rank++) {
+                Document doc = ranking.get(rank);
+                first.putIfAbsent(doc.getId(), doc);
+                scores.merge(doc.getId(), 1.0 / (k + rank + 1), Double::sum);
+            }
+        }
+
+        List<String> ids = new ArrayList<>(first.keySet());
+        ids.sort((a, b) -> Double.compare(scores.get(b), scores.get(a)));
+
+        List<Document> fused = new ArrayList<>(Math.min(limit, ids.size()));
+        for (String id : ids.subList(0, Math.min(limit, ids.size()))) {
+            Document doc = first.get(id);
+            Map<String, Object> metadata = new HashMap<>(doc.getMetadata());
+            metadata.put("rrf_score", scores.get(id));
+            fused.add(Document.builder()
+                .id(id)
+                .text(doc.getText())
+                .metadata(metadata)
+                .score(scores.get(id))
+                .build());
+        }
+        return fused;
+    }
+}
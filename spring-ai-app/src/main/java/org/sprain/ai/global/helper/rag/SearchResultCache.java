@@ -0,0 +1,277 @@
+package org.sprain.ai.global.helper.rag;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.sprain.ai.global.event.DocumentChangedEvent;
+import org.sprain.ai.global.helper.embedding.CachingEmbeddingModel;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.filter.Filter;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * 벡터 검색 결과 캐시 (top-K 결과를 청크 ID + 점수 목록으로 보관)
+ * <p>
+ * 키: 정규화된 질의 + topK + similarityThreshold + 필터 식
+ * 청크 본문/메타데이터는 청크 ID별로 한 번만 보관해 여러 결과가 공유하고,
+ * 적중 시 임베딩 호출과 pgvector 조회 없이 메모리에서 결과를 복원한다.
+ * (청크가 크기 제한으로 빠져 있으면 미스로 처리)
+ * <p>
+ * 무효화는 필터 단위로 정확하게 한다.
+ * <ul>
+ *     <li>청크 추가/문서 추가·갱신: 새 메타데이터가 필터를 만족할 수 있는 결과만 제거 (필터 없는 결과는 항상 제거)</li>
+ *     <li>청크/문서 삭제: 그 청크·문서를 포함한 결과만 제거 (포함하지 않은 top-K는 바뀌지 않음)</li>
+ * </ul>
+ * 검색 도중 문서가 바뀌면 오래된 결과가 저장되지 않도록 generation으로 확인한다.
+ */
+@Slf4j
+public class SearchResultCache {
+
+    private final boolean enabled;
+    private final int maxEntries;
+    private final int maxChunks;
+    private final long ttlNanos;
+    private final LinkedHashMap<SearchKey, Entry> entries;
+    private final LinkedHashMap<String, Document> chunks;
+    private long generation;
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter invalidatedCounter;
+
+    public SearchResultCache(boolean enabled, int maxEntries, int maxChunks, Duration ttl,
+                             MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.maxChunks = maxChunks;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(Math.min(maxEntries, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<SearchKey, Entry> eldest) {
+                return size() > SearchResultCache.this.maxEntries;
+            }
+        };
+        this.chunks = new LinkedHashMap<>(Math.min(maxChunks, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Document> eldest) {
+                return size() > SearchResultCache.this.maxChunks;
+            }
+        };
+
+        this.hitCounter = Counter.builder("sprain.retrieval.search.cache.hits")
+            .description("검색 결과 캐시 적중 수")
+            .register(meterRegistry);
+        this.missCounter = Counter.builder("sprain.retrieval.search.cache.misses")
+            .description("검색 결과 캐시 미스 수")
+            .register(meterRegistry);
+        this.invalidatedCounter = Counter.builder("sprain.retrieval.search.cache.invalidations")
+            .description("문서 변경으로 제거된 검색 결과 수")
+            .register(meterRegistry);
+        Gauge.builder("sprain.retrieval.search.cache.size", this, SearchResultCache::size)
+            .description("검색 결과 캐시 항목 수")
+            .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 현재 세대 (검색 전에 받아서 put에 넘김)
+     */
+    public long generation() {
+        synchronized (entries) {
+            return generation;
+        }
+    }
+
+    /**
+     * 캐시된 결과 (점수 내림차순, 호출자가 수정해도 되는 새 Document 목록)
+     */
+    public Optional<List<Document>> get(SearchRequest request) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        SearchKey key = SearchKey.of(request);
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry == null || System.nanoTime() - entry.expiresAt > 0) {
+                if (entry != null) {
+                    entries.remove(key);
+                }
+                missCounter.increment();
+                return Optional.empty();
+            }
+
+            List<Document> results = new ArrayList<>(entry.hits.size());
+            for (ScoredChunk hit : entry.hits) {
+                Document chunk = chunks.get(hit.id);
+                if (chunk == null) {
+                    entries.remove(key);
+                    missCounter.increment();
+                    return Optional.empty();
+                }
+                Map<String, Object> metadata = new HashMap<>(chunk.getMetadata());
+                if (hit.distance != null) {
+                    metadata.put("distance", hit.distance);
+                }
+                results.add(Document.builder()
+                    .id(hit.id)
+                    .text(chunk.getText())
+                    .metadata(metadata)
+                    .score(hit.score)
+                    .build());
+            }
+            hitCounter.increment();
+            return Optional.of(results);
+        }
+    }
+
+    /**
+     * 검색 결과 저장
+     *
+     * @param generation 검색 전에 받은 generation() 값
+     */
+    public void put(SearchRequest request, List<Document> results, long generation) {
+        if (!enabled) {
+            return;
+        }
+        List<ScoredChunk> hits = new ArrayList<>(results.size());
+        Set<String> documentIds = new HashSet<>();
+        for (Document doc : results) {
+            hits.add(new ScoredChunk(doc.getId(), doc.getScore(), doc.getMetadata().get("distance")));
+            Object documentId = doc.getMetadata().get("document_id");
+            if (documentId != null) {
+                documentIds.add(documentId.toString());
+            }
+        }
+        Entry entry = new Entry(request.getFilterExpression(), List.copyOf(hits),
+            Set.copyOf(documentIds), System.nanoTime() + ttlNanos);
+
+        synchronized (entries) {
+            if (this.generation != generation) {
+                return;
+            }
+            for (Document doc : results) {
+                Map<String, Object> metadata = new HashMap<>(doc.getMetadata());
+                metadata.remove("distance");
+                chunks.put(doc.getId(), Document.builder()
+                    .id(doc.getId())
+                    .text(doc.getText())
+                    .metadata(metadata)
+                    .build());
+            }
+            entries.put(SearchKey.of(request), entry);
+        }
+    }
+
+    /**
+     * 청크가 추가된 경우: 추가된 청크 메타데이터가 필터를 만족할 수 있는 결과 제거
+     */
+    public void onChunksAdded(Collection<Document> added) {
+        List<Map<String, Object>> metadataList = added.stream()
+            .map(Document::getMetadata)
+            .distinct()
+            .toList();
+        invalidate(entry -> metadataList.stream()
+            .anyMatch(metadata -> FilterMatcher.mayMatch(entry.filter, metadata)));
+    }
+
+    /**
+     * 청크가 삭제된 경우: 그 청크를 포함한 결과 제거
+     */
+    public void onChunksDeleted(Collection<String> chunkIds) {
+        Set<String> ids = Set.copyOf(chunkIds);
+        invalidate(entry -> entry.hits.stream().anyMatch(hit -> ids.contains(hit.id)));
+        synchronized (entries) {
+            chunks.keySet().removeAll(ids);
+        }
+    }
+
+    /**
+     * 문서 변경 이벤트 (트랜잭션 안에서 발행되면 커밋 후 실행)
+     * 추가/갱신은 문서 단위 메타데이터(document_id, filename)로 필터를 판단하고,
+     * 알 수 없는 키를 쓰는 필터는 만족할 수 있다고 보고 제거한다.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDocumentChanged(DocumentChangedEvent event) {
+        String documentId = event.documentId().toString();
+        Map<String, Object> metadata = new HashMap<>();
+        metadata.put("document_id", documentId);
+        if (event.filename() != null) {
+            metadata.put("filename", event.filename());
+        }
+
+        invalidate(entry -> switch (event.type()) {
+            case DELETED -> entry.documentIds.contains(documentId);
+            case UPDATED -> entry.documentIds.contains(documentId)
+                || FilterMatcher.mayMatch(entry.filter, metadata);
+            case ADDED -> FilterMatcher.mayMatch(entry.filter, metadata);
+        });
+        if (event.type() != DocumentChangedEvent.ChangeType.ADDED) {
+            synchronized (entries) {
+                chunks.values().removeIf(chunk -> documentId.equals(chunk.getMetadata().get("document_id")));
+            }
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            generation++;
+            entries.clear();
+            chunks.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private void invalidate(Predicate<Entry> affected) {
+        synchronized (entries) {
+            generation++;
+            int before = entries.size();
+            entries.values().removeIf(affected);
+            int removed = before - entries.size();
+            if (removed > 0) {
+                invalidatedCounter.increment(removed);
+                log.debug("검색 결과 캐시 무효화: {}건", removed);
+            }
+        }
+    }
+
+    private record SearchKey(String query, int topK, double threshold, String filter) {
+
+        static SearchKey of(SearchRequest request) {
+            return new SearchKey(
+                CachingEmbeddingModel.normalize(request.getQuery()),
+                request.getTopK(),
+                request.getSimilarityThreshold(),
+                Objects.toString(request.getFilterExpression(), null));
+        }
+    }
+
+    private record ScoredChunk(String id, Double score, Object distance) {
+    }
+
+    private record Entry(Filter.Expression filter, List<ScoredChunk> hits, Set<String> documentIds,
+                         long expiresAt) {
+    }
+}
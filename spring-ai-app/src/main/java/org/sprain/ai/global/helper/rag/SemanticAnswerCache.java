@@ -0,0 +1,223 @@
+package org.sprain.ai.global.helper.rag;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.sprain.ai.dto.DocumentSource;
+import org.sprain.ai.global.event.DocumentChangedEvent;
+import org.sprain.ai.global.helper.vector.VectorMath;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 의미 기반 답변 캐시 (질의 임베딩 유사도로 이전 답변 재사용)
+ * <p>
+ * 같은 scope(호출 경로 + 검색 조건)에서 코사인 유사도가 threshold 이상인 이전 질의가 있으면
+ * 검색과 LLM 호출 없이 저장된 답변과 출처를 돌려준다.
+ * <ul>
+ *     <li>크기: maxSize를 넘으면 가장 오래 사용하지 않은 항목부터 제거 (LRU)</li>
+ *     <li>유효 시간: TTL이 지난 항목은 조회 시점에 제거</li>
+ *     <li>무효화: 문서가 추가/갱신되면 전체 비움 (새 문서가 더 좋은 근거일 수 있음),
+ *         삭제되면 그 문서를 출처로 쓴 항목만 제거</li>
+ * </ul>
+ * 답변 생성 중에 문서가 바뀌면 오래된 답변이 저장되지 않도록,
+ * 조회 전에 받은 generation이 저장 시점과 다르면 저장을 건너뛴다.
+ * <p>
+ * 항목 수가 maxSize로 제한되므로 같은 scope 항목을 선형 탐색한다. (벡터는 정규화해서 내적 = 코사인)
+ */
+@Slf4j
+public class SemanticAnswerCache {
+
+    private final boolean enabled;
+    private final double threshold;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LinkedHashMap<Long, Entry> entries;
+    private long nextId;
+    private long generation;
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter sizeEvictionCounter;
+    private final Counter expiredEvictionCounter;
+    private final Counter invalidatedCounter;
+
+    public SemanticAnswerCache(boolean enabled, double threshold, int maxSize, Duration ttl,
+                               MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.threshold = threshold;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(Math.min(maxSize, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                if (size() > SemanticAnswerCache.this.maxSize) {
+                    sizeEvictionCounter.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        this.hitCounter = Counter.builder("sprain.rag.answer.cache.hits")
+            .description("의미 기반 답변 캐시 적중 수")
+            .register(meterRegistry);
+        this.missCounter = Counter.builder("sprain.rag.answer.cache.misses")
+            .description("의미 기반 답변 캐시 미스 수")
+            .register(meterRegistry);
+        this.sizeEvictionCounter = Counter.builder("sprain.rag.answer.cache.evictions")
+            .description("의미 기반 답변 캐시 제거 수")
+            .tag("cause", "size")
+            .register(meterRegistry);
+        this.expiredEvictionCounter = Counter.builder("sprain.rag.answer.cache.evictions")
+            .description("의미 기반 답변 캐시 제거 수")
+            .tag("cause", "expired")
+            .register(meterRegistry);
+        this.invalidatedCounter = Counter.builder("sprain.rag.answer.cache.evictions")
+            .description("의미 기반 답변 캐시 제거 수")
+            .tag("cause", "document")
+            .register(meterRegistry);
+        Gauge.builder("sprain.rag.answer.cache.size", this, SemanticAnswerCache::size)
+            .description("의미 기반 답변 캐시 항목 수")
+            .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 현재 문서 세대 (조회 전에 받아서 put에 넘김)
+     */
+    public long generation() {
+        synchronized (entries) {
+            return generation;
+        }
+    }
+
+    /**
+     * scope 안에서 가장 유사한 이전 질의의 답변 (threshold 미만이면 empty)
+     */
+    public Optional<CachedAnswer> lookup(String scope, float[] queryVector) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        float[] query = VectorMath.normalize(queryVector);
+        long now = System.nanoTime();
+
+        synchronized (entries) {
+            Entry best = null;
+            Long bestKey = null;
+            double bestScore = threshold;
+            for (Iterator<Map.Entry<Long, Entry>> it = entries.entrySet().iterator(); it.hasNext(); ) {
+                Map.Entry<Long, Entry> e = it.next();
+                Entry entry = e.getValue();
+                if (now - entry.expiresAt > 0) {
+                    it.remove();
+                    expiredEvictionCounter.increment();
+                    continue;
+                }
+                if (!entry.scope.equals(scope) || entry.vector.length != query.length) {
+                    continue;
+                }
+                double score = VectorMath.dot(query, entry.vector);
+                if (score >= bestScore) {
+                    best = entry;
+                    bestKey = e.getKey();
+                    bestScore = score;
+                }
+            }
+
+            if (best == null) {
+                missCounter.increment();
+                return Optional.empty();
+            }
+            entries.get(bestKey);  // LRU 순서 갱신
+            hitCounter.increment();
+            log.debug("의미 캐시 적중: scope={}, similarity={}, 원 질의={}", scope, bestScore, best.query);
+            return Optional.of(new CachedAnswer(best.answer, best.sources, bestScore));
+        }
+    }
+
+    /**
+     * 답변 저장
+     * 출처가 없는 답변("찾을 수 없음" 등)은 저장하지 않는다.
+     *
+     * @param generation 조회 전에 받은 generation() 값 (그 사이 문서가 바뀌었으면 저장하지 않음)
+     */
+    public void put(String scope, float[] queryVector, String query, String answer,
+                    List<DocumentSource> sources, long generation) {
+        if (!enabled || answer == null || answer.isBlank() || sources == null || sources.isEmpty()) {
+            return;
+        }
+        Set<String> documentIds = sources.stream()
+            .map(DocumentSource::documentId)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toUnmodifiableSet());
+        Entry entry = new Entry(scope, VectorMath.normalize(queryVector), query, answer, List.copyOf(sources),
+            documentIds, System.nanoTime() + ttlNanos);
+
+        synchronized (entries) {
+            if (this.generation != generation) {
+                log.debug("답변 생성 중 문서 변경 → 캐시 저장 생략: {}", query);
+                return;
+            }
+            entries.put(nextId++, entry);
+        }
+    }
+
+    /**
+     * 문서 변경 시 무효화 (트랜잭션 안에서 발행되면 커밋 후 실행)
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDocumentChanged(DocumentChangedEvent event) {
+        synchronized (entries) {
+            generation++;
+            int before = entries.size();
+            if (event.type() == DocumentChangedEvent.ChangeType.DELETED) {
+                String documentId = event.documentId().toString();
+                entries.values().removeIf(entry -> entry.documentIds.contains(documentId));
+            } else {
+                entries.clear();
+            }
+            int removed = before - entries.size();
+            invalidatedCounter.increment(removed);
+            if (removed > 0) {
+                log.info("의미 캐시 무효화: {} {} → {}건 제거", event.type(), event.documentId(), removed);
+            }
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            generation++;
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * 캐시된 답변 (similarity: 원 질의와의 코사인 유사도)
+     */
+    public record CachedAnswer(String answer, List<DocumentSource> sources, double similarity) {
+    }
+
+    private record Entry(String scope, float[] vector, String query, String answer,
+                         List<DocumentSource> sources, Set<String> documentIds, long expiresAt) {
+    }
+}
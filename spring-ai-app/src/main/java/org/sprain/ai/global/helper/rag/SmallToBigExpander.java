@@ -0,0 +1,107 @@
+package org.sprain.ai.global.helper.rag;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.ai.document.Document;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * small-to-big 확장: 자식 청크 검색 결과를 부모 구간으로 바꿔 LLM에 전달
+ * <p>
+ * 1. metadata.parent_id가 있는 결과를 부모별로 묶는다. (같은 부모에 적중한 형제는 하나로 병합)
+ * 2. 부모는 가장 먼저(가장 높은 순위로) 적중한 자식 자리에 놓고, 점수도 그 자식 점수를 쓴다.
+ * 3. 부모 ID를 문서 ID로, 적중한 자식 ID는 metadata.child_ids로 남긴다.
+ * <p>
+ * 부모 본문은 ParentChunkStore(로컬 캐시)에서 가져오며,
+ * parent_id가 없거나(평면 청킹 문서) 부모 본문을 찾지 못한 결과는 그대로 둔다.
+ */
+public class SmallToBigExpander {
+
+    private final ParentChunkStore parentChunkStore;
+    private final boolean enabled;
+    private final Counter expandedCounter;
+    private final Counter mergedCounter;
+
+    public SmallToBigExpander(ParentChunkStore parentChunkStore, boolean enabled, MeterRegistry meterRegistry) {
+        this.parentChunkStore = parentChunkStore;
+        this.enabled = enabled;
+        this.expandedCounter = Counter.builder("sprain.rag.parent.expanded")
+            .description("부모 구간으로 확장된 결과 수")
+            .register(meterRegistry);
+        this.mergedCounter = Counter.builder("sprain.rag.parent.siblings.merged")
+            .description("같은 부모로 병합되어 빠진 형제 청크 수")
+            .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 순위 순서의 검색 결과를 부모 구간으로 확장 (사용하지 않으면 그대로 반환)
+     */
+    public List<Document> expand(List<Document> ranked) {
+        if (!enabled || ranked.isEmpty()) {
+            return ranked;
+        }
+
+        Map<String, String> parentDocuments = new HashMap<>();
+        for (Document doc : ranked) {
+            Object parentId = doc.getMetadata().get("parent_id");
+            Object documentId = doc.getMetadata().get("document_id");
+            if (parentId != null && documentId != null) {
+                parentDocuments.put(parentId.toString(), documentId.toString());
+            }
+        }
+        if (parentDocuments.isEmpty()) {
+            return ranked;
+        }
+        Map<String, String> texts = parentChunkStore.texts(parentDocuments);
+
+        // 키: 부모 ID 또는 (확장하지 않는 결과는) 자기 ID, 값: 그 자리에 묶인 자식들 (순위 순)
+        Map<String, List<Document>> groups = new LinkedHashMap<>();
+        for (Document doc : ranked) {
+            Object parentId = doc.getMetadata().get("parent_id");
+            String key = parentId != null && texts.containsKey(parentId.toString())
+                ? parentId.toString()
+                : doc.getId();
+            groups.computeIfAbsent(key, k -> new ArrayList<>(2)).add(doc);
+        }
+
+        List<Document> expanded = new ArrayList<>(groups.size());
+        groups.forEach((key, children) -> {
+            String text = texts.get(key);
+            if (text == null) {
+                expanded.addAll(children);
+                return;
+            }
+            expanded.add(toParent(key, text, children));
+            expandedCounter.increment();
+            mergedCounter.increment(children.size() - 1);
+        });
+        return expanded;
+    }
+
+    private static Document toParent(String parentId, String text, List<Document> children) {
+        Document best = children.get(0);
+        Map<String, Object> metadata = new HashMap<>(best.getMetadata());
+        // 자식 위치 정보는 부모에 맞지 않으므로 제외 (chunk_index가 없어야 ContextAssembler가 이웃 병합하지 않음)
+        metadata.remove("chunk_index");
+        metadata.remove("start_offset");
+        metadata.remove("end_offset");
+        metadata.remove("token_count");
+        metadata.put("child_ids", children.stream().map(Document::getId).toList());
+
+        return Document.builder()
+            .id(parentId)
+            .text(text)
+            .metadata(metadata)
+            .score(best.getScore())
+            .build();
+    }
+}
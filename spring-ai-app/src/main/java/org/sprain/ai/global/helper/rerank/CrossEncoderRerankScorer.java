@@ -0,0 +1,75 @@
+package org.sprain.ai.global.helper.rerank;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.springframework.ai.document.Document;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.RestClient;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 로컬 cross-encoder 재순위 모델 호출 (후보 전체를 한 번의 요청으로 채점)
+ * <p>
+ * Cohere 호환 /v1/rerank API를 사용한다. (llama.cpp server --reranking, Infinity, vLLM, TEI 등)
+ * <pre>
+ * 요청: {"model": "...", "query": "...", "documents": ["...", ...]}
+ * 응답: {"results": [{"index": 0, "relevance_score": 0.93}, ...]}
+ * </pre>
+ * 응답에 빠진 후보는 가장 낮은 점수로 본다.
+ */
+public class CrossEncoderRerankScorer implements RerankScorer {
+
+    public static final String NAME = "cross-encoder";
+
+    private final RestClient restClient;
+    private final String model;
+
+    /**
+     * @param restClient baseUrl과 읽기 타임아웃이 설정된 RestClient
+     */
+    public CrossEncoderRerankScorer(RestClient restClient, String model) {
+        this.restClient = restClient;
+        this.model = model;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public double[] score(String query, List<Document> candidates) {
+        RerankRequest request = new RerankRequest(model, query,
+            candidates.stream().map(Document::getText).toList());
+
+        RerankResponse response = restClient.post()
+            .uri("/v1/rerank")
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(request)
+            .retrieve()
+            .body(RerankResponse.class);
+
+        if (response == null || response.results() == null) {
+            throw new IllegalStateException("재순위 모델 응답이 비어 있습니다");
+        }
+        double[] scores = new double[candidates.size()];
+        Arrays.fill(scores, Double.NEGATIVE_INFINITY);
+        for (RerankResult result : response.results()) {
+            if (result.index() >= 0 && result.index() < scores.length) {
+                scores[result.index()] = result.relevanceScore();
+            }
+        }
+        return scores;
+    }
+
+    record RerankRequest(String model, String query, List<String> documents) {
+    }
+
+    record RerankResponse(List<RerankResult> results) {
+    }
+
+    record RerankResult(int index,
+                        @JsonProperty("relevance_score") double relevanceScore) {
+    }
+}
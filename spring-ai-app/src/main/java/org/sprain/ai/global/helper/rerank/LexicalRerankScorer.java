@@ -0,0 +1,46 @@
+package org.sprain.ai.global.helper.rerank;
+
+import org.sprain.ai.global.helper.keyword.KoreanNGramAnalyzer;
+import org.springframework.ai.document.Document;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 질의 색인어가 후보에 얼마나 포함되는지 (0~1)
+ * <p>
+ * 질의는 한 번만 분석하고, 후보마다 본문을 한 번 분석해 질의 색인어 포함 비율을 계산한다.
+ * 분석은 BM25 색인과 같은 한국어 n-gram(KoreanNGramAnalyzer)이라 조사가 붙어도 매칭된다.
+ */
+public class LexicalRerankScorer implements RerankScorer {
+
+    public static final String NAME = "lexical";
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public double[] score(String query, List<Document> candidates) {
+        Set<String> queryTerms = new HashSet<>(KoreanNGramAnalyzer.analyze(query));
+        double[] scores = new double[candidates.size()];
+        if (queryTerms.isEmpty()) {
+            return scores;
+        }
+        for (int i = 0; i < candidates.size(); i++) {
+            Set<String> matched = new HashSet<>();
+            for (String term : KoreanNGramAnalyzer.analyze(candidates.get(i).getText())) {
+                if (queryTerms.contains(term)) {
+                    matched.add(term);
+                    if (matched.size() == queryTerms.size()) {
+                        break;
+                    }
+                }
+            }
+            scores[i] = (double) matched.size() / queryTerms.size();
+        }
+        return scores;
+    }
+}
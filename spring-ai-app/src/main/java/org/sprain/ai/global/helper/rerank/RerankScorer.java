@@ -0,0 +1,24 @@
+package org.sprain.ai.global.helper.rerank;
+
+import org.springframework.ai.document.Document;
+
+import java.util.List;
+
+/**
+ * 재순위 점수 계산기
+ * <p>
+ * 후보 전체를 한 번에 받아 후보마다 점수를 정확히 한 번 계산한다 (정렬 비교 중 재계산 금지).
+ * 점수 척도는 자유롭고, Reranker가 점수기별로 min-max 정규화한 뒤 가중합한다.
+ */
+public interface RerankScorer {
+
+    /**
+     * 설정(sprain.retrieval.rerank-scorers)에서 쓰는 이름
+     */
+    String name();
+
+    /**
+     * @return candidates와 같은 순서/길이의 점수 (클수록 관련도 높음)
+     */
+    double[] score(String query, List<Document> candidates);
+}
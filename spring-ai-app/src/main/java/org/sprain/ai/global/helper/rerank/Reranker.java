@@ -0,0 +1,158 @@
+package org.sprain.ai.global.helper.rerank;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.document.Document;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 검색 후보 재순위 단계 (RagService, RAG Advisor 공용)
+ * <p>
+ * 등록된 점수기(RerankScorer)마다 후보 전체를 한 번씩 채점하고,
+ * 점수기별 min-max 정규화 점수를 가중합해 정렬한다. (동점은 원래 검색 순서 유지)
+ * 전체 채점이 latencyBudget을 넘기거나 실패하면 원래 검색(벡터) 순서 상위 topN을 그대로 돌려준다.
+ * <p>
+ * 결과 Document의 score와 metadata.rerank_score는 재순위 점수(0~가중치 합)이고, 검색 당시 score는 metadata.retrieval_score에 남긴다.
+ */
+@Slf4j
+public class Reranker {
+
+    private final Map<RerankScorer, Double> scorers;
+    private final Duration latencyBudget;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Timer rerankTimer;
+    private final Counter timeoutCounter;
+    private final Counter errorCounter;
+
+    /**
+     * @param scorers 점수기 → 가중치 (등록 순서대로 실행)
+     */
+    public Reranker(Map<RerankScorer, Double> scorers, Duration latencyBudget, MeterRegistry meterRegistry) {
+        this.scorers = new LinkedHashMap<>(scorers);
+        this.latencyBudget = latencyBudget;
+
+        this.rerankTimer = Timer.builder("sprain.retrieval.rerank")
+            .description("재순위 단계 시간 (전체 점수기)")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+        this.timeoutCounter = Counter.builder("sprain.retrieval.rerank.fallbacks")
+            .description("재순위를 건너뛰고 검색 순서를 사용한 횟수")
+            .tag("reason", "timeout")
+            .register(meterRegistry);
+        this.errorCounter = Counter.builder("sprain.retrieval.rerank.fallbacks")
+            .description("재순위를 건너뛰고 검색 순서를 사용한 횟수")
+            .tag("reason", "error")
+            .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return !scorers.isEmpty();
+    }
+
+    /**
+     * 후보를 재순위해서 상위 topN 반환
+     *
+     * @param candidates 검색 순서대로 정렬된 후보
+     */
+    public List<Document> rerank(String query, List<Document> candidates, int topN) {
+        if (scorers.isEmpty() || candidates.size() <= 1) {
+            return candidates.subList(0, Math.min(topN, candidates.size()));
+        }
+
+        long started = System.nanoTime();
+        CompletableFuture<double[]> future = CompletableFuture.supplyAsync(
+            () -> combinedScores(query, candidates), executor);
+        try {
+            double[] scores = future.get(latencyBudget.toMillis(), TimeUnit.MILLISECONDS);
+            return ranked(candidates, scores, topN);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timeoutCounter.increment();
+            log.warn("재순위 시간 초과 ({}ms) - 검색 순서 사용", latencyBudget.toMillis());
+        } catch (ExecutionException e) {
+            errorCounter.increment();
+            log.warn("재순위 실패 - 검색 순서 사용: {}", e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+        } finally {
+            rerankTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+        return candidates.subList(0, Math.min(topN, candidates.size()));
+    }
+
+    private double[] combinedScores(String query, List<Document> candidates) {
+        double[] combined = new double[candidates.size()];
+        scorers.forEach((scorer, weight) -> {
+            double[] normalized = normalize(scorer.score(query, candidates));
+            for (int i = 0; i < combined.length; i++) {
+                combined[i] += weight * normalized[i];
+            }
+        });
+        return combined;
+    }
+
+    /**
+     * min-max 정규화 (유한값 기준, 무한/NaN은 0, 모두 같으면 전부 0)
+     */
+    private static double[] normalize(double[] scores) {
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (double score : scores) {
+            if (Double.isFinite(score)) {
+                min = Math.min(min, score);
+                max = Math.max(max, score);
+            }
+        }
+        double[] normalized = new double[scores.length];
+        if (!(max > min)) {
+            return normalized;
+        }
+        for (int i = 0; i < scores.length; i++) {
+            normalized[i] = Double.isFinite(scores[i]) ? (scores[i] - min) / (max - min) : 0;
+        }
+        return normalized;
+    }
+
+    private static List<Document> ranked(List<Document> candidates, double[] scores, int topN) {
+        List<Integer> order = new ArrayList<>(candidates.size());
+        for (int i = 0; i < candidates.size(); i++) {
+            order.add(i);
+        }
+        // List.sort는 안정 정렬이므로 동점은 검색 순서 유지
+        order.sort(Comparator.comparingDouble((Integer i) -> scores[i]).reversed());
+
+        List<Document> results = new ArrayList<>(Math.min(topN, order.size()));
+        for (int i : order.subList(0, Math.min(topN, order.size()))) {
+            Document doc = candidates.get(i);
+            Map<String, Object> metadata = new HashMap<>(doc.getMetadata());
+            metadata.put("rerank_score", scores[i]);
+            if (doc.getScore() != null) {
+                metadata.put("retrieval_score", doc.getScore());
+            }
+            results.add(Document.builder()
+                .id(doc.getId())
+                .text(doc.getText())
+                .metadata(metadata)
+                .score(scores[i])
+                .build());
+        }
+        return results;
+    }
+}
@@ -0,0 +1,83 @@
+package org.sprain.ai.global.helper.vector;
+
+import java.util.Locale;
+
+/**
+ * vector_store ANN 인덱스 정의 (pgvector HNSW | IVFFlat)
+ * <p>
+ * target은 인덱스를 걸 식이며, 검색 SQL의 정렬식과 같아야 인덱스가 사용된다.
+ * <ul>
+ *     <li>NONE: embedding 컬럼 (PgVectorStore 검색, vector 타입은 2000차원까지만 인덱스 가능)</li>
+ *     <li>HALFVEC: embedding::halfvec(d) (quantization=halfvec 검색, 4000차원까지)</li>
+ *     <li>BINARY: binary_quantize(embedding)::bit(d) (quantization=binary 검색)</li>
+ * </ul>
+ * 인덱스 이름은 target마다 하나로 고정해서 재구축 시 교체하고, VectorQuantizationMigration이 중복 생성하지 않게 한다.
+ *
+ * @param m              HNSW 노드당 이웃 수 (2~100)
+ * @param efConstruction HNSW 구축 시 탐색 후보 수 (2m 이상, 1000 이하)
+ * @param lists          IVFFlat 리스트 수 (1~32768, 행 수 / 1000 정도가 출발점)
+ */
+public record AnnIndexSpec(Method method, Quantization target, int m, int efConstruction, int lists) {
+
+    private static final int MAX_VECTOR_DIMENSIONS = 2000;
+    private static final int MAX_HALFVEC_DIMENSIONS = 4000;
+
+    public enum Method {
+        HNSW,
+        IVFFLAT;
+
+        public static Method from(String value) {
+            return value == null || value.isBlank() ? HNSW : valueOf(value.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException 차원 제한이나 파라미터 범위를 벗어날 때
+     */
+    public void validate(int dimensions) {
+        if (target == Quantization.NONE && dimensions > MAX_VECTOR_DIMENSIONS) {
+            throw new IllegalArgumentException("vector 컬럼 인덱스는 " + MAX_VECTOR_DIMENSIONS + "차원까지만 가능합니다 (현재 "
+                + dimensions + "차원): target=halfvec으로 만들고 quantization=halfvec으로 검색하세요");
+        }
+        if (target == Quantization.HALFVEC && dimensions > MAX_HALFVEC_DIMENSIONS) {
+            throw new IllegalArgumentException("halfvec 인덱스는 " + MAX_HALFVEC_DIMENSIONS + "차원까지만 가능합니다: " + dimensions);
+        }
+        if (method == Method.HNSW) {
+            if (m < 2 || m > 100) {
+                throw new IllegalArgumentException("m은 2~100이어야 합니다: " + m);
+            }
+            if (efConstruction < 2 * m || efConstruction > 1000) {
+                throw new IllegalArgumentException("efConstruction은 2m(" + 2 * m + ") 이상 1000 이하여야 합니다: "
+                    + efConstruction);
+            }
+        } else if (lists < 1 || lists > 32768) {
+            throw new IllegalArgumentException("lists는 1~32768이어야 합니다: " + lists);
+        }
+    }
+
+    /**
+     * target별 고정 인덱스 이름
+     */
+    public String indexName(boolean normalized) {
+        return target == Quantization.NONE ? "idx_vector_store_embedding" : target.indexName(normalized);
+    }
+
+    /**
+     * CREATE INDEX CONCURRENTLY 문 (트랜잭션 밖에서 실행해야 함)
+     *
+     * @param normalized 단위 벡터 저장이면 halfvec은 내적 연산자 클래스 (QuantizedPgVectorStore 정렬식과 일치)
+     */
+    public String createIndexSql(String name, int dimensions, boolean normalized) {
+        String expression = switch (target) {
+            case NONE -> "embedding vector_cosine_ops";
+            case HALFVEC -> "(embedding::halfvec(" + dimensions + ")) "
+                + (normalized ? "halfvec_ip_ops" : "halfvec_cosine_ops");
+            case BINARY -> "(binary_quantize(embedding)::bit(" + dimensions + ")) bit_hamming_ops";
+        };
+        String with = method == Method.HNSW
+            ? "m = " + m + ", ef_construction = " + efConstruction
+            : "lists = " + lists;
+        return "CREATE INDEX CONCURRENTLY " + name + " ON vector_store USING "
+            + method.name().toLowerCase(Locale.ROOT) + " (" + expression + ") WITH (" + with + ")";
+    }
+}
@@ -0,0 +1,94 @@
+package org.sprain.ai.global.helper.vector;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.ai.vectorstore.filter.Filter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 질의마다 검색 프로필의 ANN 파라미터를 적용하는 pgvector 검색
+ * <p>
+ * similaritySearch를 트랜잭션으로 감싸고 SET LOCAL(set_config(..., true))로
+ * hnsw.ef_search, ivfflat.probes를 정한 뒤 PgVectorStore에 위임한다.
+ * PgVectorStore의 JdbcTemplate도 같은 DataSource를 쓰므로 같은 커넥션(트랜잭션)에서 실행되고,
+ * 설정은 트랜잭션이 끝나면 풀로 돌아가는 커넥션에 남지 않는다.
+ * <p>
+ * PgVectorStore는 검색 안에서 질의를 임베딩하므로, 트랜잭션을 열기 전에 같은 EmbeddingModel로 먼저 임베딩해
+ * 질의 임베딩 캐시를 채운다. (미스 시 Ollama 호출 동안 풀 커넥션을 잡고 있지 않도록)
+ * <p>
+ * 쓰기(add/delete)는 그대로 위임한다.
+ */
+public class AnnTuningVectorStore implements VectorStore {
+
+    private final VectorStore delegate;
+    private final EmbeddingModel embeddingModel;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SearchProfiles searchProfiles;
+
+    /**
+     * @param embeddingModel delegate(PgVectorStore)와 같은 EmbeddingModel (질의 임베딩 캐시 공유)
+     */
+    public AnnTuningVectorStore(VectorStore delegate, EmbeddingModel embeddingModel, JdbcTemplate jdbcTemplate,
+                                TransactionTemplate transactionTemplate, SearchProfiles searchProfiles) {
+        this.delegate = delegate;
+        this.embeddingModel = embeddingModel;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.searchProfiles = searchProfiles;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public void add(List<Document> documents) {
+        delegate.add(documents);
+    }
+
+    @Override
+    public void delete(List<String> idList) {
+        delegate.delete(idList);
+    }
+
+    @Override
+    public void delete(Filter.Expression filterExpression) {
+        delegate.delete(filterExpression);
+    }
+
+    @Override
+    public List<Document> similaritySearch(SearchRequest request) {
+        SearchProfile profile = searchProfiles.current();
+        // 트랜잭션 밖에서 질의 임베딩 캐시 적재 (트랜잭션 안의 임베딩은 캐시 적중)
+        embeddingModel.embed(request.getQuery());
+        List<Document> results = transactionTemplate.execute(status -> {
+            applyLocal(jdbcTemplate, profile, request.getTopK());
+            return delegate.similaritySearch(request);
+        });
+        return results == null ? List.of() : results;
+    }
+
+    @Override
+    public <T> Optional<T> getNativeClient() {
+        return delegate.getNativeClient();
+    }
+
+    /**
+     * 현재 트랜잭션에만 ANN 탐색 파라미터 적용 (HNSW는 후보 수가 ef_search를 넘지 못하므로 최소 minEfSearch)
+     */
+    public static void applyLocal(JdbcTemplate jdbcTemplate, SearchProfile profile, int minEfSearch) {
+        int efSearch = Math.min(1000, Math.max(profile.efSearch(), minEfSearch));
+        jdbcTemplate.queryForObject(
+            "SELECT set_config('hnsw.ef_search', ?, true), set_config('ivfflat.probes', ?, true)",
+            (rs, rowNum) -> rs.getString(1),
+            String.valueOf(efSearch), String.valueOf(profile.probes()));
+    }
+}
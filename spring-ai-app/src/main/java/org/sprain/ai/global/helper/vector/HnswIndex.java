@@ -0,0 +1,379 @@
+package org.sprain.ai.global.helper.vector;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.function.IntPredicate;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * HNSW(Hierarchical Navigable Small World) 그래프 인덱스
+ * <p>
+ * 노드 번호는 MappedVectorFile의 slot과 같고, 벡터는 그 파일에서 읽는다. (그래프는 int 배열만 보관)
+ * <ul>
+ *     <li>이웃 목록: 노드·레벨별 int[] (0번 칸이 이웃 수), 레벨 0은 2M개, 상위 레벨은 M개까지</li>
+ *     <li>이웃 선택: 논문의 휴리스틱 (이미 고른 이웃보다 질의에 더 가까운 후보만 채택 후 남는 자리는 가까운 순으로 채움)</li>
+ *     <li>삭제: 툼스톤 비트로 결과에서만 제외하고 탐색 경로로는 계속 사용</li>
+ * </ul>
+ * 동기화하지 않으므로 호출자가 쓰기(insert/delete)와 읽기를 직렬화해야 한다. (읽기끼리는 동시 실행 가능)
+ */
+public class HnswIndex {
+
+    private static final int FORMAT_MAGIC = 0x484E5357;  // "HNSW"
+    private static final int FORMAT_VERSION = 1;
+
+    private final MappedVectorFile vectors;
+    private final int m;
+    private final int maxM0;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    private int[][] level0 = new int[0][];
+    private int[][][] upper = new int[0][][];
+    private int[] levels = new int[0];
+    private final BitSet deleted = new BitSet();
+    private int size;
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+
+    public HnswIndex(MappedVectorFile vectors, int m, int efConstruction) {
+        this.vectors = vectors;
+        this.m = m;
+        this.maxM0 = m * 2;
+        this.efConstruction = efConstruction;
+        this.levelMultiplier = 1.0 / Math.log(m);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int deletedCount() {
+        return deleted.cardinality();
+    }
+
+    public boolean isDeleted(int node) {
+        return deleted.get(node);
+    }
+
+    /**
+     * 벡터 파일의 slot을 그래프에 추가 (slot은 size()와 같아야 함)
+     */
+    public void insert(int node) {
+        if (node != size) {
+            throw new IllegalStateException("노드는 순서대로 추가해야 합니다: " + node + " != " + size);
+        }
+        int level = (int) (-Math.log(1.0 - random.nextDouble()) * levelMultiplier);
+        ensureCapacity(node + 1);
+        levels[node] = level;
+        level0[node] = new int[maxM0 + 1];
+        if (level > 0) {
+            upper[node] = new int[level][m + 1];
+        }
+        size++;
+
+        if (entryPoint < 0) {
+            entryPoint = node;
+            maxLevel = level;
+            return;
+        }
+
+        IntToDoubleFunction score = other -> vectors.dot(node, other);
+        int ep = entryPoint;
+        for (int l = maxLevel; l > level; l--) {
+            ep = greedy(score, ep, l);
+        }
+        for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+            List<Scored> candidates = searchLayer(score, ep, efConstruction, l, null);
+            int[] neighbors = selectNeighbors(candidates, l == 0 ? maxM0 : m);
+            setLinks(node, l, neighbors);
+            for (int neighbor : neighbors) {
+                addLink(neighbor, node, l);
+            }
+            ep = candidates.get(0).node;
+        }
+        if (level > maxLevel) {
+            maxLevel = level;
+            entryPoint = node;
+        }
+    }
+
+    public void delete(int node) {
+        deleted.set(node);
+    }
+
+    /**
+     * 근사 최근접 검색
+     *
+     * @param query  정규화된 질의 벡터
+     * @param accept 결과에 포함할 노드 조건 (null이면 전부) - 탐색 경로에는 영향 없음
+     * @return 유사도 내림차순 최대 k개
+     */
+    public List<Scored> search(float[] query, int k, int ef, IntPredicate accept) {
+        if (entryPoint < 0) {
+            return List.of();
+        }
+        IntToDoubleFunction score = node -> vectors.dot(node, query);
+        int ep = entryPoint;
+        for (int l = maxLevel; l > 0; l--) {
+            ep = greedy(score, ep, l);
+        }
+        IntPredicate live = accept == null ? node -> !deleted.get(node) : node -> !deleted.get(node) && accept.test(node);
+        List<Scored> results = searchLayer(score, ep, Math.max(ef, k), 0, live);
+        return results.size() > k ? results.subList(0, k) : results;
+    }
+
+    /**
+     * 전수 검색 (필터 조건에 맞는 노드가 적을 때 그래프 대신 사용)
+     */
+    public List<Scored> exactSearch(float[] query, int k, IntPredicate accept) {
+        PriorityQueue<Scored> top = new PriorityQueue<>(Comparator.comparingDouble(Scored::score));
+        for (int node = 0; node < size; node++) {
+            if (deleted.get(node) || (accept != null && !accept.test(node))) {
+                continue;
+            }
+            double s = vectors.dot(node, query);
+            if (top.size() < k) {
+                top.add(new Scored(node, s));
+            } else if (s > top.peek().score) {
+                top.poll();
+                top.add(new Scored(node, s));
+            }
+        }
+        List<Scored> results = new ArrayList<>(top);
+        results.sort(Comparator.comparingDouble(Scored::score).reversed());
+        return results;
+    }
+
+    /**
+     * 그래프 저장 (벡터는 MappedVectorFile에 이미 있음)
+     */
+    public void save(DataOutputStream out) throws IOException {
+        out.writeInt(FORMAT_MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeInt(m);
+        out.writeInt(size);
+        out.writeInt(entryPoint);
+        out.writeInt(maxLevel);
+        for (int node = 0; node < size; node++) {
+            out.writeInt(levels[node]);
+            writeLinks(out, level0[node]);
+            for (int l = 0; l < levels[node]; l++) {
+                writeLinks(out, upper[node][l]);
+            }
+        }
+        long[] bits = deleted.toLongArray();
+        out.writeInt(bits.length);
+        for (long word : bits) {
+            out.writeLong(word);
+        }
+    }
+
+    /**
+     * 저장된 그래프 복원
+     *
+     * @throws IOException 형식/파라미터가 다르거나 벡터 파일과 노드 수가 맞지 않을 때
+     */
+    public void load(DataInputStream in) throws IOException {
+        if (in.readInt() != FORMAT_MAGIC || in.readInt() != FORMAT_VERSION) {
+            throw new IOException("HNSW 그래프 형식이 아닙니다");
+        }
+        if (in.readInt() != m) {
+            throw new IOException("HNSW M 값이 설정과 다릅니다");
+        }
+        int count = in.readInt();
+        if (count != vectors.size()) {
+            throw new IOException("그래프 노드 수(" + count + ")와 벡터 수(" + vectors.size() + ")가 다릅니다");
+        }
+        ensureCapacity(count);
+        entryPoint = in.readInt();
+        maxLevel = in.readInt();
+        for (int node = 0; node < count; node++) {
+            int level = in.readInt();
+            levels[node] = level;
+            level0[node] = readLinks(in, maxM0);
+            if (level > 0) {
+                upper[node] = new int[level][];
+                for (int l = 0; l < level; l++) {
+                    upper[node][l] = readLinks(in, m);
+                }
+            }
+        }
+        size = count;
+        long[] bits = new long[in.readInt()];
+        for (int i = 0; i < bits.length; i++) {
+            bits[i] = in.readLong();
+        }
+        deleted.clear();
+        deleted.or(BitSet.valueOf(bits));
+    }
+
+    private int greedy(IntToDoubleFunction score, int ep, int level) {
+        int current = ep;
+        double best = score.applyAsDouble(current);
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            int[] links = links(current, level);
+            for (int i = 1; i <= links[0]; i++) {
+                double s = score.applyAsDouble(links[i]);
+                if (s > best) {
+                    best = s;
+                    current = links[i];
+                    changed = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 한 레벨 탐색 (결과는 유사도 내림차순)
+     *
+     * @param accept 결과 후보 조건 (null이면 전부), 조건에 맞지 않는 노드도 탐색 경로로는 사용
+     */
+    private List<Scored> searchLayer(IntToDoubleFunction score, int ep, int ef, int level, IntPredicate accept) {
+        BitSet visited = new BitSet(size);
+        PriorityQueue<Scored> candidates = new PriorityQueue<>(Comparator.comparingDouble(Scored::score).reversed());
+        PriorityQueue<Scored> results = new PriorityQueue<>(Comparator.comparingDouble(Scored::score));
+
+        Scored start = new Scored(ep, score.applyAsDouble(ep));
+        visited.set(ep);
+        candidates.add(start);
+        if (accept == null || accept.test(ep)) {
+            results.add(start);
+        }
+
+        while (!candidates.isEmpty()) {
+            Scored current = candidates.poll();
+            if (results.size() >= ef && current.score < results.peek().score) {
+                break;
+            }
+            int[] links = links(current.node, level);
+            for (int i = 1; i <= links[0]; i++) {
+                int neighbor = links[i];
+                if (visited.get(neighbor)) {
+                    continue;
+                }
+                visited.set(neighbor);
+                double s = score.applyAsDouble(neighbor);
+                if (results.size() < ef || s > results.peek().score) {
+                    Scored scored = new Scored(neighbor, s);
+                    candidates.add(scored);
+                    if (accept == null || accept.test(neighbor)) {
+                        results.add(scored);
+                        if (results.size() > ef) {
+                            results.poll();
+                        }
+                    }
+                }
+            }
+        }
+
+        List<Scored> sorted = new ArrayList<>(results);
+        sorted.sort(Comparator.comparingDouble(Scored::score).reversed());
+        return sorted;
+    }
+
+    /**
+     * 이웃 선택 휴리스틱 (candidates는 기준 노드와의 유사도 내림차순)
+     */
+    private int[] selectNeighbors(List<Scored> candidates, int max) {
+        int[] selected = new int[Math.min(max, candidates.size())];
+        int count = 0;
+        List<Scored> skipped = new ArrayList<>();
+        for (Scored candidate : candidates) {
+            if (count >= max) {
+                break;
+            }
+            boolean diverse = true;
+            for (int i = 0; i < count; i++) {
+                if (vectors.dot(candidate.node, selected[i]) > candidate.score) {
+                    diverse = false;
+                    break;
+                }
+            }
+            if (diverse) {
+                selected[count++] = candidate.node;
+            } else {
+                skipped.add(candidate);
+            }
+        }
+        for (int i = 0; i < skipped.size() && count < selected.length; i++) {
+            selected[count++] = skipped.get(i).node;
+        }
+        return count == selected.length ? selected : Arrays.copyOf(selected, count);
+    }
+
+    private void addLink(int node, int neighbor, int level) {
+        int[] links = links(node, level);
+        int max = links.length - 1;
+        if (links[0] < max) {
+            links[++links[0]] = neighbor;
+            return;
+        }
+
+        // 가득 찬 경우 기존 이웃 + 새 이웃 중에서 다시 선택
+        List<Scored> candidates = new ArrayList<>(max + 1);
+        for (int i = 1; i <= links[0]; i++) {
+            candidates.add(new Scored(links[i], vectors.dot(node, links[i])));
+        }
+        candidates.add(new Scored(neighbor, vectors.dot(node, neighbor)));
+        candidates.sort(Comparator.comparingDouble(Scored::score).reversed());
+        setLinks(node, level, selectNeighbors(candidates, max));
+    }
+
+    private void setLinks(int node, int level, int[] neighbors) {
+        int[] links = links(node, level);
+        links[0] = neighbors.length;
+        System.arraycopy(neighbors, 0, links, 1, neighbors.length);
+    }
+
+    private int[] links(int node, int level) {
+        return level == 0 ? level0[node] : upper[node][level - 1];
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= levels.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, Math.max(16, levels.length * 2));
+        level0 = Arrays.copyOf(level0, newCapacity);
+        upper = Arrays.copyOf(upper, newCapacity);
+        levels = Arrays.copyOf(levels, newCapacity);
+    }
+
+    private static void writeLinks(DataOutputStream out, int[] links) throws IOException {
+        out.writeInt(links[0]);
+        for (int i = 1; i <= links[0]; i++) {
+            out.writeInt(links[i]);
+        }
+    }
+
+    private static int[] readLinks(DataInputStream in, int max) throws IOException {
+        int count = in.readInt();
+        if (count > max) {
+            throw new IOException("이웃 수가 최대값을 넘습니다: " + count);
+        }
+        int[] links = new int[max + 1];
+        links[0] = count;
+        for (int i = 1; i <= count; i++) {
+            links[i] = in.readInt();
+        }
+        return links;
+    }
+
+    /**
+     * 검색 결과 (노드 번호 + 코사인 유사도)
+     */
+    public record Scored(int node, double score) {
+    }
+}
@@ -0,0 +1,598 @@
+package org.sprain.ai.global.helper.vector;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.sprain.ai.global.event.DocumentChangedEvent;
+import org.sprain.ai.global.helper.rag.FilterMatcher;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.ai.vectorstore.filter.Filter;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
+
+/**
+ * JVM 안에 HNSW 그래프를 두는 VectorStore (검색 시 DB 왕복 없음)
+ * <p>
+ * vector_store 테이블이 원본이고, 이 저장소는 그 사본을 인덱싱한다.
+ * <ul>
+ *     <li>쓰기(add/delete)는 원본 VectorStore(PgVectorStore)에 먼저 반영한 뒤, 저장된 행을 다시 읽어 인덱스에 넣는다.</li>
+ *     <li>JDBC로 직접 바뀌는 경우(문서 삭제/증분 갱신)는 DocumentChangedEvent로 해당 문서만 다시 맞춘다.</li>
+ *     <li>시작 시와 reconcileInterval마다 전체 ID를 비교해 빠진 행은 추가, 사라진 행은 삭제 처리한다.</li>
+ * </ul>
+ * 벡터는 directory/vectors.bin (mmap, 힙 밖), 그래프와 청크 본문/메타데이터는 directory/index.bin에 저장한다.
+ * 삭제는 툼스톤으로 처리하고, 툼스톤이 전체의 30%를 넘으면 정합성 점검 때 유효 청크만으로 새 그래프를 따로 만들어 교체한다.
+ * <p>
+ * 필터 식은 메타데이터에 대해 직접 평가한다. 조건에 맞는 청크가 exactScanLimit 이하면 그래프 대신 전수 검색한다.
+ */
+@Slf4j
+public class HnswVectorStore implements VectorStore, InitializingBean, DisposableBean {
+
+    private static final int LOAD_BATCH_SIZE = 500;
+    private static final double REBUILD_DELETED_RATIO = 0.3;
+    private static final TypeReference<Map<String, Object>> METADATA_TYPE = new TypeReference<>() {
+    };
+
+    private final VectorStore source;
+    private final JdbcTemplate jdbcTemplate;
+    private final EmbeddingModel embeddingModel;
+    private final ObjectMapper objectMapper;
+    private final Options options;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<Chunk> chunks = new ArrayList<>();
+    private final Map<String, Integer> slotById = new HashMap<>();
+    private MappedVectorFile vectors;
+    private HnswIndex index;
+    private ScheduledExecutorService reconciler;
+
+    private final Timer searchTimer;
+
+    public HnswVectorStore(VectorStore source, JdbcTemplate jdbcTemplate, EmbeddingModel embeddingModel,
+                           ObjectMapper objectMapper, Options options, MeterRegistry meterRegistry) {
+        this.source = source;
+        this.jdbcTemplate = jdbcTemplate;
+        this.embeddingModel = embeddingModel;
+        this.objectMapper = objectMapper;
+        this.options = options;
+
+        this.searchTimer = Timer.builder("sprain.retrieval.hnsw.search")
+            .description("HNSW 인메모리 검색 시간")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+        Gauge.builder("sprain.retrieval.hnsw.size", this, HnswVectorStore::liveCount)
+            .description("HNSW 인덱스의 유효 청크 수")
+            .register(meterRegistry);
+    }
+
+    /**
+     * 저장된 인덱스를 열고 원본과 맞춘 뒤 주기적 점검 시작
+     */
+    @Override
+    public void afterPropertiesSet() throws IOException {
+        Files.createDirectories(options.directory());
+        openIndex();
+        reconcile();
+
+        long interval = options.reconcileInterval().toMillis();
+        reconciler = Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("hnsw-reconcile").factory());
+        reconciler.scheduleWithFixedDelay(() -> {
+            try {
+                reconcile();
+            } catch (RuntimeException e) {
+                log.error("HNSW 인덱스 정합성 점검 실패: {}", e.getMessage(), e);
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        if (reconciler != null) {
+            reconciler.shutdownNow();
+        }
+        save();
+        lock.writeLock().lock();
+        try {
+            vectors.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "HnswVectorStore";
+    }
+
+    /**
+     * 원본에 저장 후 저장된 행(임베딩 포함)을 읽어 인덱스에 추가
+     */
+    @Override
+    public void add(List<Document> documents) {
+        source.add(documents);
+        loadChunks(documents.stream().map(Document::getId).toList());
+    }
+
+    @Override
+    public void delete(List<String> idList) {
+        source.delete(idList);
+        lock.writeLock().lock();
+        try {
+            idList.forEach(this::remove);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void delete(Filter.Expression filterExpression) {
+        source.delete(filterExpression);
+        lock.writeLock().lock();
+        try {
+            for (int slot = 0; slot < chunks.size(); slot++) {
+                if (!index.isDeleted(slot) && FilterMatcher.matches(filterExpression, chunks.get(slot).metadata())) {
+                    remove(chunks.get(slot).id());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Document> similaritySearch(SearchRequest request) {
+        float[] query = VectorMath.normalize(embeddingModel.embed(request.getQuery()));
+        Filter.Expression filter = request.getFilterExpression();
+
+        lock.readLock().lock();
+        try {
+            return searchTimer.record(() -> {
+                IntPredicate accept = filter == null
+                    ? null
+                    : slot -> FilterMatcher.matches(filter, chunks.get(slot).metadata());
+
+                List<HnswIndex.Scored> hits = accept != null && countAtMost(accept, options.exactScanLimit())
+                    ? index.exactSearch(query, request.getTopK(), accept)
+                    : index.search(query, request.getTopK(), Math.max(options.efSearch(), request.getTopK()), accept);
+
+                List<Document> results = new ArrayList<>(hits.size());
+                for (HnswIndex.Scored hit : hits) {
+                    if (hit.score() < request.getSimilarityThreshold()) {
+                        break;
+                    }
+                    Chunk chunk = chunks.get(hit.node());
+                    Map<String, Object> metadata = new HashMap<>(chunk.metadata());
+                    metadata.put("distance", (float) (1.0 - hit.score()));
+                    results.add(Document.builder()
+                        .id(chunk.id())
+                        .text(chunk.text())
+                        .metadata(metadata)
+                        .score(hit.score())
+                        .build());
+                }
+                return results;
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 문서 변경 시 해당 문서의 청크만 원본과 다시 맞춤
+     * 검색 결과 캐시보다 먼저 실행되어야 무효화 직후의 검색이 갱신된 인덱스를 본다.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDocumentChanged(DocumentChangedEvent event) {
+        resyncDocument(event.documentId().toString());
+    }
+
+    /**
+     * 전체 정합성 점검: 원본에 없는 청크는 삭제, 인덱스에 없는 청크는 추가
+     */
+    public void reconcile() {
+        Set<String> sourceIds = new HashSet<>(
+            jdbcTemplate.queryForList("SELECT id::text FROM vector_store", String.class));
+
+        boolean rebuild;
+        lock.writeLock().lock();
+        try {
+            for (Chunk chunk : List.copyOf(chunks)) {
+                if (!sourceIds.contains(chunk.id())) {
+                    remove(chunk.id());
+                }
+            }
+            rebuild = index.size() > 0 && index.deletedCount() > index.size() * REBUILD_DELETED_RATIO;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (rebuild) {
+            rebuildIndex();
+        }
+
+        List<String> missing;
+        lock.readLock().lock();
+        try {
+            missing = sourceIds.stream().filter(id -> !slotById.containsKey(id)).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        if (!missing.isEmpty()) {
+            log.info("HNSW 인덱스에 원본 청크 {}개 추가", missing.size());
+            loadChunks(missing);
+        }
+        if (rebuild || !missing.isEmpty()) {
+            save();
+        }
+    }
+
+    /**
+     * 툼스톤을 뺀 새 그래프를 vectors.bin.rebuild에 따로 만든 뒤 쓰기 락 안에서 교체
+     * 만드는 동안에는 기존 그래프로 계속 검색한다. 유효 벡터는 DB가 아니라 기존 벡터 파일에서 배치 단위로 복사하고
+     * (읽기 락은 배치마다 잠깐만 잡음), 만드는 동안 삭제/재추가된 청크는 교체 시점에 맞춘다.
+     */
+    private void rebuildIndex() {
+        Path vectorPath = options.directory().resolve("vectors.bin");
+        Path rebuildPath = options.directory().resolve("vectors.bin.rebuild");
+
+        Map<String, Integer> snapshot;
+        lock.readLock().lock();
+        try {
+            log.info("HNSW 인덱스 재생성 시작: 툼스톤 {}/{}", index.deletedCount(), index.size());
+            snapshot = new HashMap<>(slotById);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        MappedVectorFile newVectors = null;
+        boolean swapped = false;
+        try {
+            Files.deleteIfExists(rebuildPath);
+            newVectors = new MappedVectorFile(rebuildPath, options.dimensions());
+            HnswIndex newIndex = new HnswIndex(newVectors, options.m(), options.efConstruction());
+            List<Chunk> newChunks = new ArrayList<>(snapshot.size());
+            Map<String, Integer> newSlots = new HashMap<>();
+
+            // 1. 유효 벡터 복사 + 그래프 삽입 (삽입은 락 밖에서)
+            List<String> ids = List.copyOf(snapshot.keySet());
+            for (int from = 0; from < ids.size(); from += LOAD_BATCH_SIZE) {
+                List<Chunk> batchChunks = new ArrayList<>(LOAD_BATCH_SIZE);
+                List<float[]> batchVectors = new ArrayList<>(LOAD_BATCH_SIZE);
+                lock.readLock().lock();
+                try {
+                    for (String id : ids.subList(from, Math.min(from + LOAD_BATCH_SIZE, ids.size()))) {
+                        Integer slot = slotById.get(id);
+                        if (slot == null || !slot.equals(snapshot.get(id))) {
+                            continue;  // 그 사이 삭제/재추가됨 (교체 시점에 맞춤)
+                        }
+                        float[] vector = new float[options.dimensions()];
+                        vectors.read(slot, vector);
+                        batchChunks.add(chunks.get(slot));
+                        batchVectors.add(vector);
+                    }
+                } finally {
+                    lock.readLock().unlock();
+                }
+                for (int i = 0; i < batchChunks.size(); i++) {
+                    int slot = newVectors.append(batchVectors.get(i));
+                    newIndex.insert(slot);
+                    newChunks.add(batchChunks.get(i));
+                    newSlots.put(batchChunks.get(i).id(), slot);
+                }
+            }
+
+            // 2. 교체: 만드는 동안 바뀐 청크는 새 그래프에서 빼고 교체 후 원본에서 다시 읽음
+            List<String> changed = new ArrayList<>();
+            MappedVectorFile oldVectors;
+            lock.writeLock().lock();
+            try {
+                for (Iterator<Map.Entry<String, Integer>> it = newSlots.entrySet().iterator(); it.hasNext(); ) {
+                    Map.Entry<String, Integer> entry = it.next();
+                    Integer current = slotById.get(entry.getKey());
+                    if (current == null || !current.equals(snapshot.get(entry.getKey()))) {
+                        newIndex.delete(entry.getValue());
+                        it.remove();
+                    } else {
+                        newChunks.set(entry.getValue(), chunks.get(current));  // 최신 메타데이터
+                    }
+                }
+                slotById.keySet().stream().filter(id -> !newSlots.containsKey(id)).forEach(changed::add);
+
+                // 교체 도중 중단되면 두 파일이 어긋나므로 index.bin을 먼저 지움 (다음 시작 때 원본에서 다시 만듦)
+                Files.deleteIfExists(options.directory().resolve("index.bin"));
+                Files.move(rebuildPath, vectorPath, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+                oldVectors = vectors;
+                vectors = newVectors;
+                index = newIndex;
+                chunks.clear();
+                chunks.addAll(newChunks);
+                slotById.clear();
+                slotById.putAll(newSlots);
+                swapped = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            oldVectors.close();
+            log.info("HNSW 인덱스 재생성 완료: {}개 (교체 후 다시 읽을 청크 {}개)", newSlots.size(), changed.size());
+            loadChunks(changed);
+        } catch (IOException e) {
+            throw new UncheckedIOException("HNSW 인덱스 재생성 실패", e);
+        } finally {
+            if (!swapped && newVectors != null) {
+                try {
+                    newVectors.close();
+                    Files.deleteIfExists(rebuildPath);
+                } catch (IOException e) {
+                    log.warn("HNSW 재생성 임시 파일 정리 실패: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * 그래프 + 청크를 index.bin에 저장 (임시 파일에 쓴 뒤 교체)
+     */
+    public void save() {
+        lock.readLock().lock();
+        try {
+            vectors.force();
+            Path target = options.directory().resolve("index.bin");
+            Path temp = options.directory().resolve("index.bin.tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                index.save(out);
+                out.writeInt(chunks.size());
+                for (Chunk chunk : chunks) {
+                    writeString(out, chunk.id());
+                    writeString(out, chunk.text());
+                    writeString(out, objectMapper.writeValueAsString(chunk.metadata()));
+                }
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("HNSW 인덱스 저장 실패", e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 청크 ID별 저장된 임베딩 (정규화된 값, 없는 ID는 제외) - MMR 후보 임베딩을 DB 조회 없이 제공
+     */
+    public Map<String, float[]> embeddings(Collection<String> ids) {
+        lock.readLock().lock();
+        try {
+            Map<String, float[]> result = new HashMap<>();
+            for (String id : ids) {
+                Integer slot = slotById.get(id);
+                if (slot != null) {
+                    float[] vector = new float[options.dimensions()];
+                    vectors.read(slot, vector);
+                    result.put(id, vector);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int liveCount() {
+        lock.readLock().lock();
+        try {
+            return slotById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void resyncDocument(String documentId) {
+        Map<String, Map<String, Object>> rows = new HashMap<>();
+        jdbcTemplate.query(
+            "SELECT id::text AS id, metadata::text AS metadata FROM vector_store "
+                + "WHERE metadata @> jsonb_build_object('document_id', ?::text)",
+            rs -> {
+                rows.put(rs.getString("id"), parseMetadata(rs.getString("metadata")));
+            },
+            documentId);
+
+        List<String> missing = new ArrayList<>();
+        lock.writeLock().lock();
+        try {
+            for (Chunk chunk : List.copyOf(chunks)) {
+                if (documentId.equals(String.valueOf(chunk.metadata().get("document_id")))
+                    && slotById.containsKey(chunk.id()) && !rows.containsKey(chunk.id())) {
+                    remove(chunk.id());
+                }
+            }
+            rows.forEach((id, metadata) -> {
+                Integer slot = slotById.get(id);
+                if (slot == null) {
+                    missing.add(id);
+                } else {
+                    Chunk chunk = chunks.get(slot);
+                    chunks.set(slot, new Chunk(chunk.id(), chunk.text(), metadata));  // chunk_index 등 갱신
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+        loadChunks(missing);
+    }
+
+    /**
+     * vector_store에서 행을 읽어 인덱스에 추가 (같은 ID가 있으면 이전 slot은 툼스톤 처리)
+     * DB 조회는 락 밖에서, 그래프 삽입은 배치 단위로 쓰기 락 안에서 한다.
+     */
+    private void loadChunks(Collection<String> ids) {
+        List<String> all = List.copyOf(ids);
+        for (int from = 0; from < all.size(); from += LOAD_BATCH_SIZE) {
+            List<String> batch = all.subList(from, Math.min(from + LOAD_BATCH_SIZE, all.size()));
+            Object[] uuids = batch.stream().map(UUID::fromString).toArray();
+
+            List<LoadedRow> rows = jdbcTemplate.query(
+                "SELECT id::text AS id, content, metadata::text AS metadata, embedding::text AS embedding "
+                    + "FROM vector_store WHERE id = ANY (?) AND embedding IS NOT NULL",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid", uuids)),
+                (rs, rowNum) -> new LoadedRow(
+                    rs.getString("id"),
+                    rs.getString("content"),
+                    parseMetadata(rs.getString("metadata")),
+                    VectorMath.parseVector(rs.getString("embedding"))));
+
+            lock.writeLock().lock();
+            try {
+                for (LoadedRow row : rows) {
+                    remove(row.id());
+                    int slot = vectors.append(row.vector());
+                    index.insert(slot);
+                    chunks.add(new Chunk(row.id(), row.content(), row.metadata()));
+                    slotById.put(row.id(), slot);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("HNSW 벡터 파일 쓰기 실패", e);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * 쓰기 락 안에서 호출
+     */
+    private void remove(String id) {
+        Integer slot = slotById.remove(id);
+        if (slot != null) {
+            index.delete(slot);
+        }
+    }
+
+    /**
+     * 조건에 맞는 유효 청크가 limit 이하인지 (limit을 넘는 순간 중단)
+     */
+    private boolean countAtMost(IntPredicate accept, int limit) {
+        int count = 0;
+        for (int slot = 0; slot < chunks.size(); slot++) {
+            if (!index.isDeleted(slot) && accept.test(slot) && ++count > limit) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * vectors.bin + index.bin 열기 (형식/차원이 맞지 않거나 둘이 어긋나 있으면 비우고 새로 만듦)
+     */
+    private void openIndex() throws IOException {
+        Path vectorPath = options.directory().resolve("vectors.bin");
+        Path indexPath = options.directory().resolve("index.bin");
+        try {
+            vectors = new MappedVectorFile(vectorPath, options.dimensions());
+        } catch (IOException e) {
+            log.warn("HNSW 벡터 파일을 새로 만듭니다: {}", e.getMessage());
+            Files.deleteIfExists(vectorPath);
+            vectors = new MappedVectorFile(vectorPath, options.dimensions());
+        }
+        index = new HnswIndex(vectors, options.m(), options.efConstruction());
+
+        if (!Files.exists(indexPath)) {
+            vectors.reset();
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexPath)))) {
+            index.load(in);
+            int count = in.readInt();
+            for (int slot = 0; slot < count; slot++) {
+                Chunk chunk = new Chunk(readString(in), readString(in), parseMetadata(readString(in)));
+                chunks.add(chunk);
+                if (!index.isDeleted(slot)) {
+                    slotById.put(chunk.id(), slot);
+                }
+            }
+            log.info("HNSW 인덱스 로드: {}개 (툼스톤 {})", slotById.size(), index.deletedCount());
+        } catch (IOException | RuntimeException e) {
+            log.warn("HNSW 인덱스를 읽지 못해 원본에서 다시 만듭니다: {}", e.getMessage());
+            resetIndex();
+        }
+    }
+
+    private void resetIndex() {
+        vectors.reset();
+        index = new HnswIndex(vectors, options.m(), options.efConstruction());
+        chunks.clear();
+        slotById.clear();
+    }
+
+    private Map<String, Object> parseMetadata(String json) {
+        if (json == null || json.isBlank()) {
+            return Map.of();
+        }
+        try {
+            return objectMapper.readValue(json, METADATA_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("청크 메타데이터 파싱 실패: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 인덱스 설정 (RetrievalConfig의 sprain.retrieval.hnsw-* 값)
+     */
+    public record Options(Path directory, int dimensions, int m, int efConstruction, int efSearch,
+                          int exactScanLimit, Duration reconcileInterval) {
+    }
+
+    private record Chunk(String id, String text, Map<String, Object> metadata) {
+    }
+
+    private record LoadedRow(String id, String content, Map<String, Object> metadata, float[] vector) {
+    }
+}
@@ -0,0 +1,163 @@
+package org.sprain.ai.global.helper.vector;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 메모리 매핑 파일에 저장하는 고정 차원 벡터 배열 (힙 밖, float 원시값)
+ * <p>
+ * 파일 구조: [헤더 HEADER_BYTES][세그먼트 0][세그먼트 1]...
+ * 세그먼트는 SEGMENT_VECTORS개 벡터(2048차원 기준 64MB)를 담고, 공간이 모자라면 파일을 늘려 다음 세그먼트를 매핑한다.
+ * 벡터는 단위 벡터로 정규화해서 저장하므로 내적이 곧 코사인 유사도다.
+ * <p>
+ * 동기화하지 않으므로 호출자가 읽기/쓰기를 직렬화해야 한다.
+ */
+public class MappedVectorFile implements Closeable {
+
+    private static final int MAGIC = 0x53564543;  // "SVEC"
+    private static final int HEADER_BYTES = 16;
+    private static final int SEGMENT_VECTORS = 8192;
+
+    private final FileChannel channel;
+    private final int dimensions;
+    private final ThreadLocal<float[]> scratchA;
+    private final ThreadLocal<float[]> scratchB;
+    private final long segmentBytes;
+    private final MappedByteBuffer header;
+    private final List<FloatBuffer> segments = new ArrayList<>();
+    private final List<MappedByteBuffer> mapped = new ArrayList<>();
+    private int count;
+
+    /**
+     * 파일을 열고 (없으면 생성) 저장된 벡터 수를 복원
+     *
+     * @throws IOException 파일의 차원이 다르거나 형식이 맞지 않을 때
+     */
+    public MappedVectorFile(Path path, int dimensions) throws IOException {
+        this.channel = FileChannel.open(path,
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.dimensions = dimensions;
+        this.segmentBytes = (long) SEGMENT_VECTORS * dimensions * Float.BYTES;
+        this.scratchA = ThreadLocal.withInitial(() -> new float[dimensions]);
+        this.scratchB = ThreadLocal.withInitial(() -> new float[dimensions]);
+
+        boolean created = channel.size() < HEADER_BYTES;
+        this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+        if (created) {
+            header.putInt(0, MAGIC);
+            header.putInt(4, dimensions);
+            header.putInt(8, 0);
+        } else {
+            if (header.getInt(0) != MAGIC) {
+                channel.close();
+                throw new IOException("벡터 파일 형식이 아닙니다: " + path);
+            }
+            if (header.getInt(4) != dimensions) {
+                int stored = header.getInt(4);
+                channel.close();
+                throw new IOException("벡터 차원 불일치: 파일 " + stored + ", 설정 " + dimensions);
+            }
+            this.count = header.getInt(8);
+        }
+        while ((long) segments.size() * SEGMENT_VECTORS < count) {
+            mapSegment();
+        }
+    }
+
+    public int dimensions() {
+        return dimensions;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /**
+     * 벡터를 정규화해서 끝에 추가
+     *
+     * @return 저장 위치(slot)
+     */
+    public int append(float[] vector) throws IOException {
+        if (vector.length != dimensions) {
+            throw new IllegalArgumentException("벡터 차원 불일치: " + vector.length + " != " + dimensions);
+        }
+        int slot = count;
+        if (slot / SEGMENT_VECTORS >= segments.size()) {
+            mapSegment();
+        }
+
+        segments.get(slot / SEGMENT_VECTORS).put((slot % SEGMENT_VECTORS) * dimensions, VectorMath.normalize(vector));
+        count++;
+        header.putInt(8, count);
+        return slot;
+    }
+
+    /**
+     * 저장된 벡터와 정규화된 질의 벡터의 내적 (코사인 유사도)
+     */
+    public float dot(int slot, float[] query) {
+        float[] a = scratchA.get();
+        read(slot, a);
+        return VectorMath.dot(a, query, dimensions);
+    }
+
+    /**
+     * 저장된 두 벡터의 내적
+     */
+    public float dot(int a, int b) {
+        float[] va = scratchA.get();
+        float[] vb = scratchB.get();
+        read(a, va);
+        read(b, vb);
+        return VectorMath.dot(va, vb, dimensions);
+    }
+
+    /**
+     * 저장된 벡터를 dst 앞쪽에 복사 (정규화된 값)
+     */
+    public void read(int slot, float[] dst) {
+        segments.get(slot / SEGMENT_VECTORS).get((slot % SEGMENT_VECTORS) * dimensions, dst, 0, dimensions);
+    }
+
+    /**
+     * 내용을 비우고 처음부터 다시 채울 때 사용 (매핑은 유지, 파일 크기는 줄이지 않음)
+     */
+    public void reset() {
+        count = 0;
+        header.putInt(8, 0);
+    }
+
+    /**
+     * 변경 내용을 디스크에 반영
+     */
+    public void force() {
+        header.force();
+        for (MappedByteBuffer buffer : mapped) {
+            buffer.force();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        segments.clear();
+        mapped.clear();
+        channel.close();
+    }
+
+    private void mapSegment() throws IOException {
+        long offset = HEADER_BYTES + segments.size() * segmentBytes;
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, offset, segmentBytes);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        mapped.add(buffer);
+        segments.add(buffer.asFloatBuffer());
+    }
+}
@@ -0,0 +1,74 @@
+package org.sprain.ai.global.helper.vector;
+
+import java.util.Locale;
+
+/**
+ * vector_store 후보 검색 단계에서 쓰는 양자화 방식 (pgvector 0.7+)
+ * <p>
+ * 원본 embedding(vector) 컬럼은 그대로 두고 식 인덱스(expression index)로만 양자화하므로
+ * 테이블 구조 변경 없이 켜고 끌 수 있다. 후보는 양자화 거리로 뽑고, 최종 순위는 원본 벡터로 다시 계산한다.
+ * <ul>
+ *     <li>NONE: 양자화 없음 (PgVectorStore 기본 검색)</li>
+ *     <li>HALFVEC: float16, 벡터당 2바이트 x 차원 (HNSW 최대 4000차원)</li>
+ *     <li>BINARY: 부호 비트, 벡터당 1비트 x 차원, 해밍 거리 (후보를 넉넉히 뽑아 재채점 필수)</li>
+ * </ul>
+ * int8 스칼라 양자화는 pgvector에 해당 타입이 없어 지원하지 않는다.
+ */
+public enum Quantization {
+
+    NONE,
+    HALFVEC,
+    BINARY;
+
+    public static Quantization from(String value) {
+        return value == null || value.isBlank() ? NONE : valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * 후보 단계 정렬식 (파라미터 1개: 질의 벡터 텍스트)
+     * 인덱스 식과 똑같아야 인덱스를 사용한다.
+     *
+     * @param normalized 저장/질의 벡터가 단위 벡터면 내적(&lt;#&gt;), 아니면 코사인(&lt;=&gt;)
+     */
+    public String candidateOrderBy(int dimensions, boolean normalized) {
+        String op = normalized ? "<#>" : "<=>";
+        return switch (this) {
+            case NONE -> "embedding " + op + " ?::vector";
+            case HALFVEC -> "embedding::halfvec(" + dimensions + ") " + op + " ?::halfvec(" + dimensions + ")";
+            case BINARY -> "binary_quantize(embedding)::bit(" + dimensions + ") <~> binary_quantize(?::vector)";
+        };
+    }
+
+    /**
+     * 식 인덱스 이름 (거리 연산 종류를 이름에 넣어 설정이 바뀌면 새 인덱스를 만든다)
+     */
+    public String indexName(boolean normalized) {
+        return switch (this) {
+            case NONE -> null;
+            case HALFVEC -> "idx_vector_store_embedding_halfvec_" + (normalized ? "ip" : "cos");
+            case BINARY -> "idx_vector_store_embedding_bit";
+        };
+    }
+
+    public String createIndexSql(int dimensions, boolean normalized) {
+        return switch (this) {
+            case NONE -> throw new IllegalStateException("양자화 없음(NONE)은 식 인덱스가 없습니다");
+            case HALFVEC -> "CREATE INDEX CONCURRENTLY IF NOT EXISTS " + indexName(normalized)
+                + " ON vector_store USING hnsw ((embedding::halfvec(" + dimensions + ")) "
+                + (normalized ? "halfvec_ip_ops" : "halfvec_cosine_ops") + ")";
+            case BINARY -> "CREATE INDEX CONCURRENTLY IF NOT EXISTS " + indexName(normalized)
+                + " ON vector_store USING hnsw ((binary_quantize(embedding)::bit(" + dimensions + ")) bit_hamming_ops)";
+        };
+    }
+
+    /**
+     * pgvector 저장 형식 기준 벡터 1개 크기 (헤더 8바이트 포함)
+     */
+    public long bytesPerVector(int dimensions) {
+        return switch (this) {
+            case NONE -> 8L + 4L * dimensions;
+            case HALFVEC -> 8L + 2L * dimensions;
+            case BINARY -> 8L + (dimensions + 7) / 8;
+        };
+    }
+}
@@ -0,0 +1,177 @@
+package org.sprain.ai.global.helper.vector;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.ai.vectorstore.filter.Filter;
+import org.springframework.ai.vectorstore.pgvector.PgVectorFilterExpressionConverter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 양자화 식 인덱스로 후보를 뽑고 원본 벡터로 다시 채점하는 pgvector 검색
+ * <p>
+ * 1단계: 양자화 거리(halfvec 내적/코사인 또는 bit 해밍)로 topK x oversample개 후보 (식 인덱스 사용)
+ * 2단계: 후보만 원본 embedding &lt;=&gt; 질의로 코사인 거리를 다시 계산해 topK 선택
+ * <p>
+ * 쓰기(add/delete)는 원본 PgVectorStore에 그대로 위임한다. 식 인덱스는 embedding 컬럼에서 계산되므로 별도 동기화가 없다.
+ * 점수/distance는 재채점한 코사인 값이라 PgVectorStore 결과와 같은 기준으로 similarityThreshold를 적용한다.
+ */
+@Slf4j
+public class QuantizedPgVectorStore implements VectorStore {
+
+    private static final TypeReference<Map<String, Object>> METADATA_TYPE = new TypeReference<>() {
+    };
+
+    private final VectorStore source;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EmbeddingModel embeddingModel;
+    private final ObjectMapper objectMapper;
+    private final Quantization quantization;
+    private final int dimensions;
+    private final boolean normalized;
+    private final int oversample;
+    private final SearchProfiles searchProfiles;
+    private final PgVectorFilterExpressionConverter filterConverter = new PgVectorFilterExpressionConverter();
+    private final Timer searchTimer;
+
+    public QuantizedPgVectorStore(VectorStore source, JdbcTemplate jdbcTemplate,
+                                  TransactionTemplate transactionTemplate, EmbeddingModel embeddingModel,
+                                  ObjectMapper objectMapper, Quantization quantization, int dimensions,
+                                  boolean normalized, int oversample, SearchProfiles searchProfiles,
+                                  MeterRegistry meterRegistry) {
+        if (quantization == Quantization.NONE) {
+            throw new IllegalArgumentException("양자화 방식이 필요합니다 (halfvec | binary)");
+        }
+        this.source = source;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.embeddingModel = embeddingModel;
+        this.objectMapper = objectMapper;
+        this.quantization = quantization;
+        this.dimensions = dimensions;
+        this.normalized = normalized;
+        this.oversample = Math.max(1, oversample);
+        this.searchProfiles = searchProfiles;
+        this.searchTimer = Timer.builder("sprain.retrieval.quantized.search")
+            .description("양자화 후보 검색 + 재채점 시간")
+            .tag("quantization", quantization.name().toLowerCase())
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+    }
+
+    @Override
+    public void add(List<Document> documents) {
+        source.add(documents);
+    }
+
+    @Override
+    public void delete(List<String> idList) {
+        source.delete(idList);
+    }
+
+    @Override
+    public void delete(Filter.Expression filterExpression) {
+        source.delete(filterExpression);
+    }
+
+    @Override
+    public List<Document> similaritySearch(SearchRequest request) {
+        String query = toPgVector(embeddingModel.embed(request.getQuery()));
+        String jsonPath = request.getFilterExpression() == null
+            ? null
+            : filterConverter.convertExpression(request.getFilterExpression());
+        int topK = request.getTopK();
+        int candidates = topK * oversample;
+        String sql = searchSql(quantization, dimensions, normalized, jsonPath != null);
+        SearchProfile profile = searchProfiles.current();
+
+        List<Document> rows = searchTimer.record(() -> transactionTemplate.execute(status -> {
+            // SET LOCAL: 이 트랜잭션에서만 검색 프로필의 탐색 파라미터 적용 (HNSW 후보 수는 최소 후보 수만큼)
+            AnnTuningVectorStore.applyLocal(jdbcTemplate, profile, candidates);
+            List<Object> args = new ArrayList<>(5);
+            args.add(query);
+            if (jsonPath != null) {
+                args.add(jsonPath);
+            }
+            args.add(candidates);
+            args.add(query);
+            args.add(topK);
+            return jdbcTemplate.query(sql, (rs, rowNum) -> {
+                float distance = rs.getFloat("distance");
+                Map<String, Object> metadata = new HashMap<>(parseMetadata(rs.getString("metadata")));
+                metadata.put("distance", distance);
+                return Document.builder()
+                    .id(rs.getString("id"))
+                    .text(rs.getString("content"))
+                    .metadata(metadata)
+                    .score(1.0 - distance)
+                    .build();
+            }, args.toArray());
+        }));
+
+        return rows == null
+            ? List.of()
+            : rows.stream().filter(doc -> doc.getScore() >= request.getSimilarityThreshold()).toList();
+    }
+
+    /**
+     * 2단계 검색 SQL
+     * 파라미터: 질의 벡터, [jsonpath 필터], 후보 수, 질의 벡터, topK
+     */
+    public static String searchSql(Quantization quantization, int dimensions, boolean normalized, boolean filtered) {
+        return """
+            WITH candidates AS (
+                SELECT id, content, metadata, embedding
+                FROM vector_store
+                WHERE embedding IS NOT NULL%s
+                ORDER BY %s
+                LIMIT ?
+            )
+            SELECT id::text AS id, content, metadata::text AS metadata, embedding <=> ?::vector AS distance
+            FROM candidates
+            ORDER BY distance
+            LIMIT ?
+            """.formatted(
+            filtered ? " AND metadata::jsonb @@ ?::jsonpath" : "",
+            quantization.candidateOrderBy(dimensions, normalized));
+    }
+
+    /**
+     * float[] → pgvector 텍스트 표현 "[0.1,0.2,...]"
+     */
+    public static String toPgVector(float[] vector) {
+        StringBuilder sb = new StringBuilder(vector.length * 10).append('[');
+        for (int i = 0; i < vector.length; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(vector[i]);
+        }
+        return sb.append(']').toString();
+    }
+
+    private Map<String, Object> parseMetadata(String json) {
+        if (json == null || json.isBlank()) {
+            return Map.of();
+        }
+        try {
+            return objectMapper.readValue(json, METADATA_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("청크 메타데이터 파싱 실패: " + e.getOriginalMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package org.sprain.ai.global.helper.vector;
+
+/**
+ * 검색 속도/재현율 프로필 (질의마다 pgvector ANN 탐색 파라미터로 적용)
+ *
+ * @param efSearch HNSW 탐색 후보 수 (hnsw.ef_search, 클수록 재현율↑ 속도↓)
+ * @param probes   IVFFlat 탐색 리스트 수 (ivfflat.probes, lists의 제곱근 정도가 출발점)
+ */
+public record SearchProfile(String name, int efSearch, int probes) {
+
+    public SearchProfile {
+        if (efSearch < 1 || efSearch > 1000) {
+            throw new IllegalArgumentException("efSearch는 1~1000이어야 합니다: " + efSearch);
+        }
+        if (probes < 1) {
+            throw new IllegalArgumentException("probes는 1 이상이어야 합니다: " + probes);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package org.sprain.ai.global.helper.vector;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * 검색 프로필 목록 + 현재 스레드에서 진행 중인 검색의 프로필
+ * <p>
+ * SearchRequest에는 ANN 파라미터를 담을 자리가 없으므로 호출자가 with(프로필, 검색)으로 감싸면
+ * 같은 스레드의 VectorStore 구현(AnnTuningVectorStore, QuantizedPgVectorStore)이 current()를 읽어
+ * 그 질의의 트랜잭션에만 SET LOCAL로 적용한다.
+ * 감싸지 않은 검색은 기본 프로필을 사용한다.
+ * <p>
+ * ThreadLocal이므로 다른 스레드(가상 스레드, Reactor 스케줄러)에서 검색하려면 호출 스레드에서
+ * current()를 읽어 두고 작업 안에서 with(프로필, 검색)으로 다시 지정해야 한다.
+ * (MultiQueryRetriever, RagService.askStream)
+ */
+public class SearchProfiles {
+
+    private static final ThreadLocal<SearchProfile> CURRENT = new ThreadLocal<>();
+
+    private final Map<String, SearchProfile> profiles;
+    private final SearchProfile defaultProfile;
+
+    public SearchProfiles(Map<String, SearchProfile> profiles, String defaultName) {
+        this.profiles = Collections.unmodifiableMap(new LinkedHashMap<>(profiles));
+        this.defaultProfile = profiles.get(defaultName);
+        if (defaultProfile == null) {
+            throw new IllegalArgumentException("기본 검색 프로필이 목록에 없습니다: " + defaultName);
+        }
+    }
+
+    /**
+     * 이름으로 프로필 조회 (비어 있으면 기본 프로필)
+     *
+     * @throws IllegalArgumentException 없는 프로필 이름
+     */
+    public SearchProfile resolve(String name) {
+        if (name == null || name.isBlank()) {
+            return defaultProfile;
+        }
+        SearchProfile profile = profiles.get(name.trim().toLowerCase(Locale.ROOT));
+        if (profile == null) {
+            throw new IllegalArgumentException("알 수 없는 검색 프로필: " + name + " (사용 가능: " + profiles.keySet() + ")");
+        }
+        return profile;
+    }
+
+    /**
+     * 프로필을 지정해 검색 실행 (검색이 끝나면 이전 프로필로 복원)
+     */
+    public <T> T with(String name, Supplier<T> search) {
+        return with(resolve(name), search);
+    }
+
+    /**
+     * 다른 스레드에서 읽어 둔 프로필로 검색 실행 (검색이 끝나면 이전 프로필로 복원)
+     */
+    public <T> T with(SearchProfile profile, Supplier<T> search) {
+        SearchProfile previous = CURRENT.get();
+        CURRENT.set(profile);
+        try {
+            return search.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * 현재 스레드의 검색 프로필 (지정하지 않았으면 기본 프로필)
+     */
+    public SearchProfile current() {
+        SearchProfile profile = CURRENT.get();
+        return profile == null ? defaultProfile : profile;
+    }
+
+    /**
+     * 기본이 아닌 프로필이 지정된 검색인지 (검색 결과 캐시를 거치지 않는 기준)
+     */
+    public boolean isOverridden() {
+        SearchProfile profile = CURRENT.get();
+        return profile != null && !profile.equals(defaultProfile);
+    }
+
+    public SearchProfile getDefault() {
+        return defaultProfile;
+    }
+
+    public Collection<SearchProfile> all() {
+        return profiles.values();
+    }
+}
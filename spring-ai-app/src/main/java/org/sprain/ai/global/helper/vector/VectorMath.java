@@ -0,0 +1,84 @@
+package org.sprain.ai.global.helper.vector;
+
+/**
+ * 임베딩 벡터 공용 연산 (정규화, 내적, pgvector 텍스트 파싱)
+ * <p>
+ * 정규화된 벡터끼리의 내적이 코사인 유사도이므로, 캐시/MMR/HNSW 모두 저장 시 normalize 후 dot으로 비교한다.
+ */
+public final class VectorMath {
+
+    private VectorMath() {
+    }
+
+    /**
+     * L2 정규화한 새 배열 (영벡터는 영벡터 그대로)
+     */
+    public static float[] normalize(float[] vector) {
+        double norm = 0;
+        for (float v : vector) {
+            norm += v * v;
+        }
+        float[] normalized = new float[vector.length];
+        if (norm == 0) {
+            return normalized;
+        }
+        float scale = (float) (1.0 / Math.sqrt(norm));
+        for (int i = 0; i < vector.length; i++) {
+            normalized[i] = vector[i] * scale;
+        }
+        return normalized;
+    }
+
+    /**
+     * 두 벡터의 내적 (정규화된 벡터면 코사인 유사도)
+     */
+    public static float dot(float[] a, float[] b) {
+        return dot(a, b, Math.min(a.length, b.length));
+    }
+
+    /**
+     * 앞쪽 length개 성분의 내적 (누산기 4개로 나눠야 JIT가 벡터화함)
+     */
+    public static float dot(float[] a, float[] b, int length) {
+        float s0 = 0f, s1 = 0f, s2 = 0f, s3 = 0f;
+        int i = 0;
+        for (; i + 3 < length; i += 4) {
+            s0 += a[i] * b[i];
+            s1 += a[i + 1] * b[i + 1];
+            s2 += a[i + 2] * b[i + 2];
+            s3 += a[i + 3] * b[i + 3];
+        }
+        for (; i < length; i++) {
+            s0 += a[i] * b[i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    /**
+     * pgvector 텍스트 표현 "[0.1,0.2,...]" → float[]
+     */
+    public static float[] parseVector(String text) {
+        int start = text.indexOf('[') + 1;
+        int end = text.lastIndexOf(']');
+        if (end < start || text.substring(start, end).isBlank()) {
+            return new float[0];
+        }
+
+        int dimensions = 1;
+        for (int i = start; i < end; i++) {
+            if (text.charAt(i) == ',') {
+                dimensions++;
+            }
+        }
+        float[] vector = new float[dimensions];
+        int from = start;
+        int d = 0;
+        for (int i = start; i <= end; i++) {
+            if (i == end || text.charAt(i) == ',') {
+                vector[d++] = Float.parseFloat(text.substring(from, i).trim());
+                from = i + 1;
+            }
+        }
+        return vector;
+    }
+}
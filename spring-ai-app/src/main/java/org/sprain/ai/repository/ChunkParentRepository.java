@@ -0,0 +1,79 @@
+package org.sprain.ai.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 부모 청크(절) 저장소 (chunk_parents 테이블)
+ * 본문은 저장하지 않고 document_contents 원본에서의 문자 위치만 보관한다.
+ * 자식 청크는 vector_store metadata.parent_id로 부모를 가리킨다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ChunkParentRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void saveAll(List<ChunkParent> parents) {
+        if (parents.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO chunk_parents (id, document_id, parent_index, start_offset, end_offset, token_count)
+                VALUES (?, ?, ?, ?, ?, ?)
+                ON CONFLICT (id) DO NOTHING
+                """,
+            parents,
+            parents.size(),
+            (ps, parent) -> {
+                ps.setObject(1, parent.id());
+                ps.setObject(2, parent.documentId());
+                ps.setInt(3, parent.parentIndex());
+                ps.setInt(4, parent.startOffset());
+                ps.setInt(5, parent.endOffset());
+                ps.setInt(6, parent.tokenCount());
+            });
+    }
+
+    /**
+     * 여러 문서의 부모 구간을 한 번에 조회 (문서별 parent_index 순)
+     */
+    public List<ChunkParent> findByDocumentIds(Collection<UUID> documentIds) {
+        if (documentIds.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query("""
+                SELECT id, document_id, parent_index, start_offset, end_offset, token_count
+                FROM chunk_parents
+                WHERE document_id = ANY (?)
+                ORDER BY document_id, parent_index
+                """,
+            ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid", documentIds.toArray())),
+            (rs, rowNum) -> new ChunkParent(
+                rs.getObject("id", UUID.class),
+                rs.getObject("document_id", UUID.class),
+                rs.getInt("parent_index"),
+                rs.getInt("start_offset"),
+                rs.getInt("end_offset"),
+                rs.getInt("token_count")));
+    }
+
+    /**
+     * 문서의 부모 구간 삭제 (원본이 바뀌어 위치가 더 이상 맞지 않을 때)
+     */
+    public int deleteByDocumentId(UUID documentId) {
+        return jdbcTemplate.update("DELETE FROM chunk_parents WHERE document_id = ?", documentId);
+    }
+
+    /**
+     * 부모 구간 ([startOffset, endOffset): 문서 원본에서의 문자 위치)
+     */
+    public record ChunkParent(UUID id, UUID documentId, int parentIndex, int startOffset, int endOffset,
+                              int tokenCount) {
+    }
+}
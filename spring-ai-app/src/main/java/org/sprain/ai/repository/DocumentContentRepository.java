@@ -0,0 +1,145 @@
+package org.sprain.ai.repository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.sprain.ai.global.helper.ingest.CountingInputStream;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * 문서 원본 저장소 (document_contents 테이블)
+ * <p>
+ * 원본은 [포맷 버전 1바이트][본문] 형태의 BYTEA로 압축 저장하고,
+ * 원본을 요청할 때만 읽어서 스트림으로 풀어준다. (documents 행 조회 시에는 읽지 않음)
+ * <ul>
+ *     <li>0: 무압축 UTF-8</li>
+ *     <li>1: deflate(UTF-8)</li>
+ * </ul>
+ */
+@Slf4j
+@Repository
+public class DocumentContentRepository {
+
+    static final int FORMAT_RAW = 0;
+    static final int FORMAT_DEFLATE = 1;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final DistributionSummary compressionRatio;
+    private final Counter originalBytes;
+    private final Counter storedBytes;
+
+    public DocumentContentRepository(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+
+        this.compressionRatio = DistributionSummary.builder("sprain.document.compression.ratio")
+            .description("문서 원본 압축률 (원본 크기 / 저장 크기)")
+            .register(meterRegistry);
+        this.originalBytes = Counter.builder("sprain.document.content.bytes")
+            .description("저장한 문서 원본 크기")
+            .baseUnit("bytes")
+            .tag("form", "original")
+            .register(meterRegistry);
+        this.storedBytes = Counter.builder("sprain.document.content.bytes")
+            .description("저장한 문서 원본 크기")
+            .baseUnit("bytes")
+            .tag("form", "stored")
+            .register(meterRegistry);
+    }
+
+    /**
+     * 원본(UTF-8 바이트 스트림)을 압축해 저장 (이미 있으면 교체)
+     * 임시 파일에 압축한 뒤 드라이버로 스트리밍하므로 원본 전체를 메모리에 올리지 않는다.
+     *
+     * @return 원본 바이트 수
+     */
+    public long saveContent(UUID documentId, InputStream raw) throws IOException {
+        Path compressed = Files.createTempFile("sprain-content-", ".bin");
+        try {
+            CountingInputStream counting = new CountingInputStream(raw);
+            Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+            try (OutputStream out = Files.newOutputStream(compressed)) {
+                out.write(FORMAT_DEFLATE);
+                DeflaterOutputStream deflate = new DeflaterOutputStream(out, deflater, 8192);
+                counting.transferTo(deflate);
+                deflate.finish();
+            } finally {
+                deflater.end();
+            }
+
+            long originalSize = counting.getCount();
+            long storedSize = Files.size(compressed);
+            try (InputStream in = Files.newInputStream(compressed)) {
+                jdbcTemplate.update("""
+                        INSERT INTO document_contents (document_id, original_size, stored_size, data)
+                        VALUES (?, ?, ?, ?)
+                        ON CONFLICT (document_id) DO UPDATE
+                            SET original_size = EXCLUDED.original_size,
+                                stored_size   = EXCLUDED.stored_size,
+                                data          = EXCLUDED.data
+                        """,
+                    ps -> {
+                        ps.setObject(1, documentId);
+                        ps.setLong(2, originalSize);
+                        ps.setLong(3, storedSize);
+                        ps.setBinaryStream(4, in, storedSize);
+                    });
+            }
+
+            originalBytes.increment(originalSize);
+            storedBytes.increment(storedSize);
+            if (originalSize > 0) {
+                compressionRatio.record((double) originalSize / storedSize);
+            }
+            log.debug("문서 원본 저장: {} ({} → {} bytes)", documentId, originalSize, storedSize);
+            return originalSize;
+        } finally {
+            Files.deleteIfExists(compressed);
+        }
+    }
+
+    /**
+     * 원본을 풀어서 out으로 복사
+     *
+     * @return 저장된 원본이 없으면 false
+     */
+    public boolean copyContent(UUID documentId, OutputStream out) {
+        Boolean found = jdbcTemplate.query(
+            "SELECT data FROM document_contents WHERE document_id = ?",
+            rs -> {
+                if (!rs.next()) {
+                    return false;
+                }
+                try (InputStream in = decode(rs.getBinaryStream("data"))) {
+                    in.transferTo(out);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return true;
+            },
+            documentId);
+        return Boolean.TRUE.equals(found);
+    }
+
+    private static InputStream decode(InputStream stored) throws IOException {
+        int format = stored.read();
+        return switch (format) {
+            case FORMAT_RAW -> stored;
+            case FORMAT_DEFLATE -> new InflaterInputStream(stored);
+            default -> throw new IOException("지원하지 않는 문서 저장 포맷: " + format);
+        };
+    }
+}
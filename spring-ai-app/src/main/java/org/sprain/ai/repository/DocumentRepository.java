@@ -1,18 +1,59 @@
 package org.sprain.ai.repository;
 
+import jakarta.persistence.QueryHint;
+import org.sprain.ai.dto.DocumentSummaryView;
 import org.sprain.ai.entity.DocumentEntity;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
-public interface DocumentRepository extends JpaRepository<DocumentEntity, String> {
+public interface DocumentRepository extends JpaRepository<DocumentEntity, UUID> {
 
     List<DocumentEntity> findByFilenameContaining(String filename);
 
     List<DocumentEntity> findByContentType(String contentType);
 
-    List<DocumentEntity> findByContentContaining(String content);
+    Optional<DocumentEntity> findFirstByContentHash(String contentHash);
+
+    /**
+     * 문서 목록 첫 페이지 (최신순)
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "200"))
+    @Query("""
+        SELECT new org.sprain.ai.dto.DocumentSummaryView(
+            d.id, d.filename, d.contentType, d.chunkCount, d.uploadedAt, d.contentLength)
+        FROM DocumentEntity d
+        ORDER BY d.uploadedAt DESC, d.id DESC
+        """)
+    Stream<DocumentSummaryView> streamSummaries(Limit limit);
+
+    /**
+     * 커서 다음 페이지 (키셋: idx_documents_uploaded_id 범위 스캔)
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "200"))
+    @Query("""
+        SELECT new org.sprain.ai.dto.DocumentSummaryView(
+            d.id, d.filename, d.contentType, d.chunkCount, d.uploadedAt, d.contentLength)
+        FROM DocumentEntity d
+        WHERE d.uploadedAt <= :uploadedAt
+          AND (d.uploadedAt < :uploadedAt OR d.id < :id)
+        ORDER BY d.uploadedAt DESC, d.id DESC
+        """)
+    Stream<DocumentSummaryView> streamSummariesAfter(
+        @Param("uploadedAt") LocalDateTime uploadedAt,
+        @Param("id") UUID id,
+        Limit limit);
 
 }
@@ -0,0 +1,71 @@
+package org.sprain.ai.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 청크 임베딩 캐시 (embedding_cache 테이블)
+ * 키: SHA-256(모델 ID + 정규화된 텍스트), 값: float 벡터 (little-endian BYTEA)
+ */
+@Repository
+@RequiredArgsConstructor
+public class EmbeddingCacheRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Map<String, float[]> findAll(Collection<String> contentHashes) {
+        Map<String, float[]> result = new HashMap<>();
+        if (contentHashes.isEmpty()) {
+            return result;
+        }
+
+        jdbcTemplate.query(
+            "SELECT content_hash, embedding FROM embedding_cache WHERE content_hash = ANY (?)",
+            ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", contentHashes.toArray())),
+            rs -> {
+                result.put(rs.getString("content_hash"), toVector(rs.getBytes("embedding")));
+            });
+        return result;
+    }
+
+    public void saveAll(String modelId, Map<String, float[]> embeddings) {
+        if (embeddings.isEmpty()) {
+            return;
+        }
+
+        List<Map.Entry<String, float[]>> entries = List.copyOf(embeddings.entrySet());
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO embedding_cache (content_hash, model_id, dimensions, embedding)
+                VALUES (?, ?, ?, ?)
+                ON CONFLICT (content_hash) DO NOTHING
+                """,
+            entries,
+            entries.size(),
+            (ps, entry) -> {
+                ps.setString(1, entry.getKey());
+                ps.setString(2, modelId);
+                ps.setInt(3, entry.getValue().length);
+                ps.setBytes(4, toBytes(entry.getValue()));
+            });
+    }
+
+    private static byte[] toBytes(float[] vector) {
+        ByteBuffer buffer = ByteBuffer.allocate(vector.length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asFloatBuffer().put(vector);
+        return buffer.array();
+    }
+
+    private static float[] toVector(byte[] bytes) {
+        float[] vector = new float[bytes.length / Float.BYTES];
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().get(vector);
+        return vector;
+    }
+}
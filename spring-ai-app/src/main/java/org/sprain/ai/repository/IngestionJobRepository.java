@@ -0,0 +1,28 @@
+package org.sprain.ai.repository;
+
+import org.sprain.ai.dto.IngestionJobStatus;
+import org.sprain.ai.entity.IngestionJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface IngestionJobRepository extends JpaRepository<IngestionJob, UUID> {
+
+    List<IngestionJob> findByStatusInOrderByCreatedAtAsc(Collection<IngestionJobStatus> statuses);
+
+    @Transactional
+    @Modifying
+    @Query("""
+        UPDATE IngestionJob j
+           SET j.checkpoint = :checkpoint, j.bytesProcessed = :bytesProcessed
+         WHERE j.id = :id
+        """)
+    void updateProgress(UUID id, int checkpoint, long bytesProcessed);
+}
@@ -0,0 +1,200 @@
+package org.sprain.ai.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.sprain.ai.global.helper.vector.VectorMath;
+import org.springframework.ai.document.Document;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Types;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * vector_store 청크 관리용 JDBC 저장소
+ * 증분 재수집의 diff 계산, 키워드 색인 구축/본문 복원용 (임베딩은 MMR 후보 일괄 조회에서만 읽는다)
+ */
+@Repository
+@RequiredArgsConstructor
+public class VectorStoreChunkRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 문서의 저장된 청크 목록 (내용은 DB에서 SHA-256으로만 반환)
+     */
+    public List<StoredChunk> findByDocumentId(String documentId) {
+        return jdbcTemplate.query("""
+                SELECT id,
+                       encode(sha256(convert_to(content, 'UTF8')), 'hex') AS content_hash,
+                       (metadata ->> 'chunk_index')::int                   AS chunk_index,
+                       metadata ->> 'parent_id'                            AS parent_id,
+                       (metadata ->> 'start_offset')::int                  AS start_offset
+                FROM vector_store
+                WHERE metadata @> jsonb_build_object('document_id', ?::text)
+                ORDER BY chunk_index
+                """,
+            (rs, rowNum) -> new StoredChunk(
+                rs.getObject("id", UUID.class),
+                rs.getString("content_hash"),
+                rs.getObject("chunk_index", Integer.class),
+                rs.getString("parent_id"),
+                rs.getObject("start_offset", Integer.class)
+            ),
+            documentId);
+    }
+
+    /**
+     * 청크 본문을 ID 순으로 페이지 조회 (키워드 색인 구축용, keyset 페이징)
+     *
+     * @param afterId 이전 페이지의 마지막 ID (처음이면 null)
+     */
+    public List<ChunkText> findChunkTexts(UUID afterId, int limit) {
+        return jdbcTemplate.query("""
+                SELECT id, metadata ->> 'document_id' AS document_id, content
+                FROM vector_store
+                WHERE id > ?
+                ORDER BY id
+                LIMIT ?
+                """,
+            (rs, rowNum) -> new ChunkText(
+                rs.getObject("id", UUID.class),
+                rs.getString("document_id"),
+                rs.getString("content")),
+            afterId == null ? new UUID(0L, 0L) : afterId, limit);
+    }
+
+    /**
+     * 문서의 청크 본문 (키워드 색인 문서 단위 재동기화용)
+     */
+    public List<ChunkText> findChunkTextsByDocumentId(String documentId) {
+        return jdbcTemplate.query("""
+                SELECT id, metadata ->> 'document_id' AS document_id, content
+                FROM vector_store
+                WHERE metadata @> jsonb_build_object('document_id', ?::text)
+                """,
+            (rs, rowNum) -> new ChunkText(
+                rs.getObject("id", UUID.class),
+                rs.getString("document_id"),
+                rs.getString("content")),
+            documentId);
+    }
+
+    /**
+     * ID로 청크 조회 (키워드 검색 결과의 본문 복원, 순서는 보장하지 않음)
+     */
+    public List<Document> findByIds(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Object[] uuids = ids.stream().map(UUID::fromString).toArray();
+        return jdbcTemplate.query("""
+                SELECT id::text AS id, content,
+                       metadata ->> 'document_id' AS document_id,
+                       metadata ->> 'filename'    AS filename,
+                       (metadata ->> 'chunk_index')::int AS chunk_index
+                FROM vector_store
+                WHERE id = ANY (?)
+                """,
+            ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid", uuids)),
+            (rs, rowNum) -> {
+                Map<String, Object> metadata = new HashMap<>();
+                metadata.put("document_id", rs.getString("document_id"));
+                metadata.put("filename", rs.getString("filename"));
+                Integer chunkIndex = rs.getObject("chunk_index", Integer.class);
+                if (chunkIndex != null) {
+                    metadata.put("chunk_index", chunkIndex);
+                }
+                return new Document(rs.getString("id"), rs.getString("content"), metadata);
+            });
+    }
+
+    /**
+     * ID별 저장된 임베딩 (MMR 후보 임베딩을 한 번의 쿼리로 조회, 없는 ID는 제외)
+     */
+    public Map<String, float[]> findEmbeddings(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        Object[] uuids = ids.stream().map(UUID::fromString).toArray();
+        Map<String, float[]> embeddings = new HashMap<>();
+        jdbcTemplate.query("""
+                SELECT id::text AS id, embedding::text AS embedding
+                FROM vector_store
+                WHERE id = ANY (?) AND embedding IS NOT NULL
+                """,
+            ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid", uuids)),
+            rs -> {
+                embeddings.put(rs.getString("id"), VectorMath.parseVector(rs.getString("embedding")));
+            });
+        return embeddings;
+    }
+
+    /**
+     * 재사용된 청크의 위치(metadata.chunk_index, parent_id, start_offset, end_offset) 갱신 - 임베딩은 그대로 둔다
+     * null인 항목은 기존 값을 유지한다.
+     */
+    public void updateChunkPositions(Map<UUID, ChunkPosition> positions) {
+        if (positions.isEmpty()) {
+            return;
+        }
+
+        List<Map.Entry<UUID, ChunkPosition>> entries = List.copyOf(positions.entrySet());
+        jdbcTemplate.batchUpdate("""
+                UPDATE vector_store
+                SET metadata = metadata || jsonb_strip_nulls(jsonb_build_object(
+                    'chunk_index', ?::int, 'parent_id', ?::text, 'start_offset', ?::int, 'end_offset', ?::int))
+                WHERE id = ?
+                """,
+            entries,
+            entries.size(),
+            (ps, entry) -> {
+                ChunkPosition position = entry.getValue();
+                ps.setInt(1, position.chunkIndex());
+                ps.setObject(2, position.parentId(), Types.VARCHAR);
+                ps.setObject(3, position.startOffset(), Types.INTEGER);
+                ps.setObject(4, position.endOffset(), Types.INTEGER);
+                ps.setObject(5, entry.getKey());
+            });
+    }
+
+    /**
+     * 문서의 모든 청크를 한 번에 삭제
+     * metadata @> 조건은 idx_vector_store_metadata(GIN, jsonb_path_ops)를 사용한다.
+     */
+    public int deleteByDocumentId(String documentId) {
+        return jdbcTemplate.update(
+            "DELETE FROM vector_store WHERE metadata @> jsonb_build_object('document_id', ?::text)",
+            documentId);
+    }
+
+    public int deleteByIds(Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update("DELETE FROM vector_store WHERE id = ANY (?)",
+            ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid", ids.toArray())));
+    }
+
+    /**
+     * 저장된 청크 요약
+     */
+    public record StoredChunk(UUID id, String contentHash, Integer chunkIndex, String parentId,
+                              Integer startOffset) {
+    }
+
+    /**
+     * 재사용 청크의 새 위치 (평면 청킹이면 parentId, 오프셋은 null)
+     */
+    public record ChunkPosition(int chunkIndex, String parentId, Integer startOffset, Integer endOffset) {
+    }
+
+    /**
+     * 청크 본문 (임베딩 제외)
+     */
+    public record ChunkText(UUID id, String documentId, String content) {
+    }
+}
@@ -0,0 +1,53 @@
+package org.sprain.ai.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.sprain.ai.dto.BulkIngestionReport;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+/**
+ * 일괄 수집 CLI
+ * <pre>
+ * java -jar spring-ai-app.jar --ingest=/data/onboarding        (디렉터리)
+ * java -jar spring-ai-app.jar --ingest=/data/onboarding.zip    (ZIP)
+ * </pre>
+ * 수집이 끝나면 보고서를 출력하고 종료한다. (실패한 파일이 있으면 종료 코드 1)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BulkIngestionRunner implements ApplicationRunner {
+
+    private static final String OPTION = "ingest";
+
+    private final BulkIngestionService bulkIngestionService;
+    private final ConfigurableApplicationContext context;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!args.containsOption(OPTION)) {
+            return;
+        }
+
+        int failed = 0;
+        for (String source : args.getOptionValues(OPTION)) {
+            BulkIngestionReport report = bulkIngestionService.start(Path.of(source)).await();
+            report.files().stream()
+                .filter(file -> file.status() != BulkIngestionReport.FileStatus.SKIPPED)
+                .forEach(file -> log.info("  {} {} ({} bytes, {} chunks, {} ms){}",
+                    file.status(), file.path(), file.bytes(), file.chunks(), file.millis(),
+                    file.errorMessage() == null ? "" : " - " + file.errorMessage()));
+            log.info("일괄 수집 보고서 [{}]: {}", source, BulkIngestionService.summary(report));
+            failed += report.failed();
+        }
+
+        int exitCode = failed > 0 ? 1 : 0;
+        System.exit(SpringApplication.exit(context, () -> exitCode));
+    }
+}
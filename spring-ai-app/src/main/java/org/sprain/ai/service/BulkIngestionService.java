@@ -0,0 +1,443 @@
+package org.sprain.ai.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.sprain.ai.config.IngestionConfig;
+import org.sprain.ai.dto.BulkIngestionReport;
+import org.sprain.ai.dto.BulkIngestionReport.FileResult;
+import org.sprain.ai.dto.BulkIngestionReport.FileStatus;
+import org.sprain.ai.entity.DocumentEntity;
+import org.sprain.ai.global.exception.custom.IngestionException;
+import org.sprain.ai.global.helper.ingest.IngestionProgressListener;
+import org.sprain.ai.global.helper.ingest.MappedFileInputStream;
+import org.sprain.ai.repository.DocumentRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * 디렉터리 / ZIP 일괄 수집
+ * <p>
+ * 1. 파일마다 mmap으로 읽어 SHA-256 계산 → 이미 있는 문서(또는 같은 실행 내 중복)는 건너뜀
+ * 2. bulkConcurrency개 파일을 가상 스레드에서 동시에 청킹/임베딩
+ *    (임베딩 요청 수는 EmbeddingPipeline의 전역 세마포어가 따로 제한)
+ * 3. 파일별 소요 시간, 실패, 전체 처리량을 BulkIngestionReport로 집계
+ * <p>
+ * 끝난 실행은 bulkRunRetention 동안만 조회할 수 있고, 보관 수는 bulkMaxRuns로 제한한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BulkIngestionService {
+
+    private final DocumentService documentService;
+    private final DocumentRepository documentRepository;
+    private final IngestionConfig ingestionConfig;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<UUID, BulkRun> runs = new ConcurrentHashMap<>();
+
+    /**
+     * 업로드된 ZIP 일괄 수집 시작
+     */
+    public BulkRun submitZip(MultipartFile zip) throws IOException {
+        Path spoolDir = Files.createDirectories(Path.of(ingestionConfig.getSpoolDir()));
+        Path spoolFile = spoolDir.resolve(UUID.randomUUID() + ".zip");
+        try (InputStream in = zip.getInputStream()) {
+            Files.copy(in, spoolFile);
+        }
+        return start(spoolFile, zip.getOriginalFilename(), true);
+    }
+
+    /**
+     * 서버 디렉터리 일괄 수집 시작 (API 호출용 - bulkRoot 하위만 허용)
+     */
+    public BulkRun submitDirectory(String directory) {
+        if (ingestionConfig.getBulkRoot() == null || ingestionConfig.getBulkRoot().isBlank()) {
+            throw new IllegalStateException("디렉터리 일괄 수집이 비활성화되어 있습니다 (sprain.ingestion.bulk-root)");
+        }
+        // 심볼릭 링크를 따라간 실제 경로로 비교해야 루트 밖을 가리키는 링크를 막을 수 있다
+        Path target;
+        try {
+            Path root = Path.of(ingestionConfig.getBulkRoot()).toRealPath();
+            target = root.resolve(directory).toRealPath();
+            if (!target.startsWith(root) || !Files.isDirectory(target)) {
+                throw new IllegalArgumentException("허용되지 않은 디렉터리입니다: " + directory);
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("허용되지 않은 디렉터리입니다: " + directory, e);
+        }
+        return start(target, target.toString(), false);
+    }
+
+    /**
+     * 디렉터리 또는 ZIP 파일 일괄 수집 시작 (CLI 러너용 - 경로 제한 없음)
+     */
+    public BulkRun start(Path source) {
+        if (!Files.isDirectory(source) && !isZip(source)) {
+            throw new IllegalArgumentException("디렉터리 또는 ZIP 파일이어야 합니다: " + source);
+        }
+        return start(source, source.toString(), false);
+    }
+
+    public Optional<BulkIngestionReport> getReport(UUID runId) {
+        evictRuns();
+        return Optional.ofNullable(runs.get(runId)).map(BulkRun::toReport);
+    }
+
+    /**
+     * 보관 시간이 지난 실행 제거 후, 그래도 bulkMaxRuns를 넘으면 먼저 끝난 실행부터 제거
+     */
+    private void evictRuns() {
+        long now = System.nanoTime();
+        long retentionNanos = ingestionConfig.getBulkRunRetention().toNanos();
+        runs.values().removeIf(run -> run.isFinished() && now - run.completedNanos > retentionNanos);
+
+        int excess = runs.size() - ingestionConfig.getBulkMaxRuns();
+        if (excess > 0) {
+            runs.values().stream()
+                .filter(BulkRun::isFinished)
+                .sorted(Comparator.comparingLong(run -> run.completedNanos))
+                .limit(excess)
+                .toList()
+                .forEach(run -> runs.remove(run.id));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private BulkRun start(Path source, String label, boolean deleteSource) {
+        evictRuns();
+        BulkRun run = new BulkRun(UUID.randomUUID(), label);
+        runs.put(run.id, run);
+
+        run.completion = CompletableFuture.runAsync(() -> {
+            try {
+                if (Files.isDirectory(source)) {
+                    ingestDirectory(run, source);
+                } else {
+                    ingestZip(run, source);
+                }
+            } catch (IOException e) {
+                throw new IngestionException("일괄 수집 실패: " + label, e);
+            } finally {
+                run.completedNanos = System.nanoTime();
+                run.completedAt = LocalDateTime.now();
+                if (deleteSource) {
+                    deleteQuietly(source);
+                }
+                log.info("일괄 수집 종료: {} ({})", run.id, summary(run.toReport()));
+            }
+        }, executor);
+
+        log.info("일괄 수집 시작: {} ({})", run.id, label);
+        return run;
+    }
+
+    private void ingestDirectory(BulkRun run, Path directory) throws IOException {
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(directory)) {
+            files = walk.filter(Files::isRegularFile).sorted().toList();
+        }
+        run.totalFiles = files.size();
+
+        Semaphore permits = new Semaphore(ingestionConfig.getBulkConcurrency());
+        List<CompletableFuture<Void>> futures = new ArrayList<>(files.size());
+        for (Path file : files) {
+            String name = directory.relativize(file).toString();
+            acquire(permits);
+            futures.add(CompletableFuture.runAsync(() -> {
+                try {
+                    run.results.add(ingestOne(run, name, file));
+                } finally {
+                    permits.release();
+                }
+            }, executor));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+    }
+
+    /**
+     * ZIP은 항목마다 임시 파일로 풀어서 처리 (mmap 대상은 실제 파일이어야 함)
+     * 임시 파일 이름은 UUID이므로 항목 경로(../ 등)가 파일 시스템에 영향을 주지 않는다.
+     */
+    private void ingestZip(BulkRun run, Path zipPath) throws IOException {
+        Path workDir = Files.createDirectories(
+            Path.of(ingestionConfig.getSpoolDir()).resolve("bulk-" + run.id));
+        try (ZipFile zip = new ZipFile(zipPath.toFile())) {
+            List<? extends ZipEntry> entries = zip.stream().filter(entry -> !entry.isDirectory()).toList();
+            run.totalFiles = entries.size();
+
+            Semaphore permits = new Semaphore(ingestionConfig.getBulkConcurrency());
+            List<CompletableFuture<Void>> futures = new ArrayList<>(entries.size());
+            for (ZipEntry entry : entries) {
+                acquire(permits);
+                futures.add(CompletableFuture.runAsync(() -> {
+                    Path extracted = workDir.resolve(UUID.randomUUID() + ".entry");
+                    long started = System.nanoTime();
+                    try {
+                        if (!isSupported(entry.getName())) {
+                            run.results.add(skipped(entry.getName(), entry.getSize()));
+                            return;
+                        }
+                        try (InputStream in = zip.getInputStream(entry)) {
+                            copyLimited(in, extracted);
+                        }
+                        run.results.add(ingestOne(run, entry.getName(), extracted));
+                    } catch (IOException | RuntimeException e) {
+                        run.results.add(failed(entry.getName(), entry.getSize(), started, e));
+                    } finally {
+                        deleteQuietly(extracted);
+                        permits.release();
+                    }
+                }, executor));
+            }
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        } finally {
+            deleteQuietly(workDir);
+        }
+    }
+
+    private FileResult ingestOne(BulkRun run, String name, Path file) {
+        long started = System.nanoTime();
+        long bytes = 0;
+        try {
+            bytes = Files.size(file);
+            if (!isSupported(name)) {
+                return skipped(name, bytes);
+            }
+            if (bytes > ingestionConfig.getBulkMaxFileSize().toBytes()) {
+                throw new IngestionException("최대 파일 크기 초과: " + bytes + " bytes");
+            }
+
+            String contentHash = sha256(file);
+            Optional<DocumentEntity> existing = documentRepository.findFirstByContentHash(contentHash);
+            if (existing.isPresent() || !run.contentHashes.add(contentHash)) {
+                return new FileResult(name, existing.map(doc -> doc.getId().toString()).orElse(null),
+                    FileStatus.DUPLICATE, bytes, 0, elapsedMillis(started), null);
+            }
+
+            DocumentEntity document = documentService.ingestFile(
+                UUID.randomUUID(), fileName(name), contentType(name), file, contentHash, 0,
+                IngestionProgressListener.NONE);
+            return new FileResult(name, document.getId().toString(), FileStatus.COMPLETED,
+                bytes, document.getChunkCount(), elapsedMillis(started), null);
+        } catch (IOException | RuntimeException e) {
+            return failed(name, bytes, started, e);
+        }
+    }
+
+    private FileResult skipped(String name, long bytes) {
+        return new FileResult(name, null, FileStatus.SKIPPED, Math.max(bytes, 0), 0, 0, null);
+    }
+
+    private FileResult failed(String name, long bytes, long started, Exception e) {
+        log.warn("일괄 수집 파일 실패: {} - {}", name, e.getMessage());
+        return new FileResult(name, null, FileStatus.FAILED, Math.max(bytes, 0), 0, elapsedMillis(started), e.getMessage());
+    }
+
+    /**
+     * ZIP 항목 압축 해제 (bulkMaxFileSize를 넘으면 중단 - 압축 폭탄 방지)
+     */
+    private void copyLimited(InputStream in, Path target) throws IOException {
+        long limit = ingestionConfig.getBulkMaxFileSize().toBytes();
+        byte[] buffer = new byte[8192];
+        long written = 0;
+        try (OutputStream out = Files.newOutputStream(target)) {
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                written += read;
+                if (written > limit) {
+                    throw new IngestionException("최대 파일 크기 초과: " + limit + " bytes");
+                }
+                out.write(buffer, 0, read);
+            }
+        }
+    }
+
+    private static String sha256(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256을 사용할 수 없습니다", e);
+        }
+        try (InputStream in = new DigestInputStream(new MappedFileInputStream(file), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private boolean isSupported(String name) {
+        return ingestionConfig.getBulkExtensions().contains(extension(name));
+    }
+
+    private static boolean isZip(Path path) {
+        return Files.isRegularFile(path) && "zip".equals(extension(path.toString()));
+    }
+
+    private static String extension(String name) {
+        int dot = name.lastIndexOf('.');
+        return dot < 0 ? "" : name.substring(dot + 1).toLowerCase(Locale.ROOT);
+    }
+
+    private static String fileName(String path) {
+        int slash = Math.max(path.lastIndexOf('/'), path.lastIndexOf('\\'));
+        return path.substring(slash + 1);
+    }
+
+    private static String contentType(String name) {
+        return switch (extension(name)) {
+            case "md", "markdown" -> "text/markdown";
+            case "csv" -> "text/csv";
+            case "json" -> "application/json";
+            case "html" -> "text/html";
+            case "xml" -> "application/xml";
+            default -> "text/plain";
+        };
+    }
+
+    private static void acquire(Semaphore permits) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IngestionException("일괄 수집 대기 중 인터럽트", e);
+        }
+    }
+
+    private static long elapsedMillis(long startedNanos) {
+        return (System.nanoTime() - startedNanos) / 1_000_000;
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            if (Files.isDirectory(path)) {
+                try (Stream<Path> walk = Files.walk(path)) {
+                    walk.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+                }
+            } else {
+                Files.deleteIfExists(path);
+            }
+        } catch (IOException e) {
+            log.warn("임시 파일 삭제 실패: {} - {}", path, e.getMessage());
+        }
+    }
+
+    static String summary(BulkIngestionReport report) {
+        return String.format("%d files: %d 완료, %d 중복, %d 건너뜀, %d 실패 / %d chunks, %.1f chunks/s, %.2f MB/s, %d ms",
+            report.totalFiles(), report.succeeded(), report.duplicates(), report.skipped(), report.failed(),
+            report.totalChunks(), report.chunksPerSecond(), report.megabytesPerSecond(), report.elapsedMillis());
+    }
+
+    /**
+     * 일괄 수집 실행 상태
+     */
+    public static class BulkRun {
+
+        private final UUID id;
+        private final String source;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final long startedNanos = System.nanoTime();
+        private final ConcurrentLinkedQueue<FileResult> results = new ConcurrentLinkedQueue<>();
+        private final Set<String> contentHashes = ConcurrentHashMap.newKeySet();
+        private volatile int totalFiles;
+        private volatile LocalDateTime completedAt;
+        private volatile long completedNanos;
+        private CompletableFuture<Void> completion;
+
+        private BulkRun(UUID id, String source) {
+            this.id = id;
+            this.source = source;
+        }
+
+        public UUID getId() {
+            return id;
+        }
+
+        private boolean isFinished() {
+            return completedAt != null;
+        }
+
+        /**
+         * 실행이 끝날 때까지 대기 후 최종 보고서 반환
+         */
+        public BulkIngestionReport await() {
+            completion.join();
+            return toReport();
+        }
+
+        public BulkIngestionReport toReport() {
+            List<FileResult> files = List.copyOf(results);
+            int succeeded = 0, duplicates = 0, skipped = 0, failed = 0;
+            long bytes = 0, chunks = 0;
+            for (FileResult file : files) {
+                switch (file.status()) {
+                    case COMPLETED -> {
+                        succeeded++;
+                        bytes += file.bytes();
+                        chunks += file.chunks();
+                    }
+                    case DUPLICATE -> duplicates++;
+                    case SKIPPED -> skipped++;
+                    case FAILED -> failed++;
+                }
+            }
+
+            boolean finished = isFinished();
+            long end = finished ? completedNanos : System.nanoTime();
+            long elapsedMillis = (end - startedNanos) / 1_000_000;
+            double seconds = Math.max(elapsedMillis / 1000.0, 0.001);
+
+            return new BulkIngestionReport(
+                id.toString(),
+                source,
+                finished,
+                Math.max(totalFiles, files.size()),
+                succeeded,
+                duplicates,
+                skipped,
+                failed,
+                bytes,
+                chunks,
+                elapsedMillis,
+                Math.round(chunks / seconds * 10) / 10.0,
+                Math.round(bytes / seconds / (1024 * 1024) * 100) / 100.0,
+                startedAt,
+                completedAt,
+                files.stream().sorted(Comparator.comparing(FileResult::path)).toList()
+            );
+        }
+    }
+}
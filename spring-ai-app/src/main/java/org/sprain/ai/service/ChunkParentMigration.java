@@ -0,0 +1,38 @@
+package org.sprain.ai.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * small-to-big 검색의 부모 구간(chunk_parents) 스키마
+ * <p>
+ * 부모 본문은 저장하지 않고 document_contents 원본의 문자 위치만 기록한다.
+ * 애플리케이션 시작 시 실행되며, 이미 있으면 아무것도 하지 않는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class ChunkParentMigration implements ApplicationRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        jdbcTemplate.execute("""
+            CREATE TABLE IF NOT EXISTS chunk_parents
+            (
+                id           UUID PRIMARY KEY,
+                document_id  UUID    NOT NULL REFERENCES documents (id) ON DELETE CASCADE,
+                parent_index INTEGER NOT NULL,
+                start_offset INTEGER NOT NULL,  -- 원본 문자 위치 (포함)
+                end_offset   INTEGER NOT NULL,  -- 원본 문자 위치 (제외)
+                token_count  INTEGER NOT NULL
+            )
+            """);
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_chunk_parents_document ON chunk_parents(document_id)");
+        jdbcTemplate.execute("COMMENT ON TABLE chunk_parents IS "
+            + "'부모 청크 구간 (본문은 document_contents에서 위치로 잘라 사용, 자식은 vector_store metadata.parent_id)'");
+    }
+}
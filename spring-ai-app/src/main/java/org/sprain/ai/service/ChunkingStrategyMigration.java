@@ -0,0 +1,45 @@
+package org.sprain.ai.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * 문서별 청킹 방식(documents.chunking) 스키마
+ * <p>
+ * 컬럼이 없으면 추가하고, 값이 없는 기존 문서는 저장된 청크 metadata로 판별해 채운다.
+ * (parent_id가 있으면 HIERARCHICAL, token_count가 있으면 SENTENCE, 그 외 CHARACTER)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ChunkingStrategyMigration implements ApplicationRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        jdbcTemplate.execute("ALTER TABLE documents ADD COLUMN IF NOT EXISTS chunking VARCHAR(20)");
+        jdbcTemplate.execute("COMMENT ON COLUMN documents.chunking IS "
+            + "'청킹 방식 (CHARACTER, SENTENCE, HIERARCHICAL - 갱신 시 같은 방식으로 재청킹)'");
+
+        int backfilled = jdbcTemplate.update("""
+            UPDATE documents d
+            SET chunking = CASE
+                WHEN EXISTS (SELECT 1 FROM vector_store v
+                             WHERE v.metadata @> jsonb_build_object('document_id', d.id::text)
+                               AND v.metadata ? 'parent_id') THEN 'HIERARCHICAL'
+                WHEN EXISTS (SELECT 1 FROM vector_store v
+                             WHERE v.metadata @> jsonb_build_object('document_id', d.id::text)
+                               AND v.metadata ? 'token_count') THEN 'SENTENCE'
+                ELSE 'CHARACTER' END
+            WHERE chunking IS NULL
+            """);
+        if (backfilled > 0) {
+            log.info("문서 청킹 방식 기록: {}건", backfilled);
+        }
+    }
+}
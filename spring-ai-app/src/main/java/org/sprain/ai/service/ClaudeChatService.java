@@ -3,7 +3,9 @@ package org.sprain.ai.service;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.sprain.ai.global.advisor.UsageLoggingAdvisor;
 import org.sprain.ai.global.exception.custom.ContextLengthExceededException;
+import org.sprain.ai.global.helper.ai.StreamCancellationTracker;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.client.ChatClientResponse;
 import org.springframework.ai.chat.messages.AssistantMessage;
@@ -29,6 +31,7 @@ public class ClaudeChatService implements ChatService {
     private final Map<String, ChatClient> allChatClients; // Set<ChatClient> -> Spring이 자동으로 ChatClient Type Bean Set 주입해줘요.
     private Map<String, ChatClient> chatClientMap = new HashMap<>();
     private final Map<String, List<Message>> conversations = new ConcurrentHashMap<>();
+    private final StreamCancellationTracker cancellationTracker;
 
     @PostConstruct
     public void init() {
@@ -72,7 +75,11 @@ public class ClaudeChatService implements ChatService {
         }
 
 
-        return ChatResponse.of(responseMessage, UUID.randomUUID().toString(), modelName);
+        // 토큰 사용량 (프롬프트 캐시 읽기/쓰기 토큰 포함)
+        var metadata = response.chatResponse().getMetadata();
+        TokenUsage tokenUsage = metadata != null ? UsageLoggingAdvisor.toTokenUsage(metadata.getUsage()) : null;
+
+        return ChatResponse.of(responseMessage, UUID.randomUUID().toString(), tokenUsage, modelName);
     }
 
 
@@ -95,11 +102,7 @@ public class ClaudeChatService implements ChatService {
         conversations.put(conversationId, history);
 
         var metadata = response.getMetadata();
-        TokenUsage tokenUsage = null;
-        if (metadata != null && metadata.getUsage() != null) {
-            var usage = metadata.getUsage();
-            tokenUsage = new TokenUsage(usage.getPromptTokens(), usage.getCompletionTokens(), usage.getTotalTokens());
-        }
+        TokenUsage tokenUsage = metadata != null ? UsageLoggingAdvisor.toTokenUsage(metadata.getUsage()) : null;
         return ChatResponse.of(assistantResponse, conversationId, tokenUsage, modelName);
     }
 
@@ -143,11 +146,14 @@ public class ClaudeChatService implements ChatService {
         }
     }
 
+    /**
+     * 클라이언트가 연결을 끊으면 구독 취소로 LLM 스트림도 중단
+     */
     private Flux<String> promptStream(String question) {
-        return chatClient.prompt()
+        return cancellationTracker.track("chat", chatClient.prompt()
                 .user(question)
                 .stream()
-                .content();
+                .content());
     }
 
     private ChatClient getChatClient(String modelName) {
@@ -0,0 +1,97 @@
+package org.sprain.ai.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.sprain.ai.repository.DocumentContentRepository;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * documents.content(무압축 TEXT) → document_contents(압축 BYTEA) 이전
+ * <p>
+ * document_contents 테이블과 documents.content_length가 없으면 만들고,
+ * 예전 content 컬럼이 남아 있는 기존 DB에서만 본문을 옮긴다. (애플리케이션 시작 시 실행)
+ * 배치마다 커밋하므로 중간에 중단되어도 다음 시작 때 남은 행부터 이어서 처리한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DocumentContentMigration implements ApplicationRunner {
+
+    private static final int BATCH_SIZE = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DocumentContentRepository documentContentRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        jdbcTemplate.execute("""
+            CREATE TABLE IF NOT EXISTS document_contents
+            (
+                document_id   UUID PRIMARY KEY REFERENCES documents (id) ON DELETE CASCADE,
+                original_size BIGINT NOT NULL,  -- 원본 UTF-8 바이트 수
+                stored_size   BIGINT NOT NULL,  -- 저장 바이트 수
+                data          BYTEA  NOT NULL   -- [포맷 버전 1바이트][본문] (0: 무압축, 1: deflate)
+            )
+            """);
+        jdbcTemplate.execute("COMMENT ON TABLE document_contents IS '문서 원본 (원본 요청 시에만 조회)'");
+        jdbcTemplate.execute("ALTER TABLE documents ADD COLUMN IF NOT EXISTS content_length BIGINT");
+        jdbcTemplate.execute("COMMENT ON COLUMN documents.content_length IS '원본 문자 수'");
+
+        if (!hasLegacyContentColumn()) {
+            return;
+        }
+        jdbcTemplate.execute("ALTER TABLE documents ALTER COLUMN content DROP NOT NULL");
+
+        int migrated = 0;
+        int batch;
+        do {
+            batch = transactionTemplate.execute(status -> migrateBatch());
+            migrated += batch;
+        } while (batch > 0);
+
+        if (migrated > 0) {
+            log.info("문서 원본 압축 이전 완료: {}건", migrated);
+        }
+    }
+
+    private boolean hasLegacyContentColumn() {
+        Integer count = jdbcTemplate.queryForObject("""
+            SELECT count(*)
+            FROM information_schema.columns
+            WHERE table_name = 'documents' AND column_name = 'content'
+            """, Integer.class);
+        return count != null && count > 0;
+    }
+
+    private int migrateBatch() {
+        List<UUID> ids = jdbcTemplate.queryForList(
+            "SELECT id FROM documents WHERE content IS NOT NULL LIMIT ? FOR UPDATE SKIP LOCKED",
+            UUID.class, BATCH_SIZE);
+
+        for (UUID id : ids) {
+            String content = jdbcTemplate.queryForObject(
+                "SELECT content FROM documents WHERE id = ?", String.class, id);
+            try {
+                documentContentRepository.saveContent(id,
+                    new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            jdbcTemplate.update("UPDATE documents SET content = NULL, content_length = ? WHERE id = ?",
+                (long) content.length(), id);
+        }
+        return ids.size();
+    }
+}
@@ -2,26 +2,65 @@ package org.sprain.ai.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.sprain.ai.config.IngestionConfig;
+import org.sprain.ai.dto.ChunkingStrategy;
+import org.sprain.ai.dto.DocumentCursor;
+import org.sprain.ai.dto.DocumentSummaryView;
+import org.sprain.ai.dto.DocumentUpdateResult;
 import org.sprain.ai.entity.DocumentEntity;
+import org.sprain.ai.global.event.DocumentChangedEvent;
+import org.sprain.ai.global.helper.embedding.CachingEmbeddingModel;
+import org.sprain.ai.global.helper.ingest.CountingInputStream;
+import org.sprain.ai.global.helper.ingest.EmbeddingPipeline;
+import org.sprain.ai.global.helper.ingest.IngestionProgressListener;
+import org.sprain.ai.global.helper.ingest.MappedFileInputStream;
+import org.sprain.ai.global.helper.ingest.SentenceChunker;
+import org.sprain.ai.global.helper.ingest.StreamingSentenceChunker;
+import org.sprain.ai.global.helper.ingest.StreamingTextChunker;
+import org.sprain.ai.repository.ChunkParentRepository;
+import org.sprain.ai.repository.ChunkParentRepository.ChunkParent;
+import org.sprain.ai.repository.DocumentContentRepository;
 import org.sprain.ai.repository.DocumentRepository;
+import org.sprain.ai.repository.VectorStoreChunkRepository;
+import org.sprain.ai.repository.VectorStoreChunkRepository.ChunkPosition;
+import org.sprain.ai.repository.VectorStoreChunkRepository.StoredChunk;
 import org.springframework.ai.document.Document;
-import org.springframework.ai.reader.TextReader;
-import org.springframework.ai.transformer.splitter.TextSplitter;
-import org.springframework.ai.transformer.splitter.TokenTextSplitter;
 import org.springframework.ai.vectorstore.SearchRequest;
 import org.springframework.ai.vectorstore.VectorStore;
-import org.springframework.core.io.ByteArrayResource;
-import org.springframework.core.io.Resource;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -30,146 +69,450 @@ public class DocumentService {
 
     private final VectorStore vectorStore;
     private final DocumentRepository documentRepository;
+    private final DocumentContentRepository documentContentRepository;
+    private final VectorStoreChunkRepository vectorStoreChunkRepository;
+    private final StreamingTextChunker streamingTextChunker;
+    private final StreamingSentenceChunker streamingSentenceChunker;
+    private final ChunkParentRepository chunkParentRepository;
+    private final EmbeddingPipeline embeddingPipeline;
+    private final IngestionConfig ingestionConfig;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
-     * 문서 업로드 및 벡터화
+     * 스풀 파일 수집 및 벡터화 (IngestionJobService의 백그라운드 작업에서 호출)
+     * 파일 전체를 메모리에 올리지 않고 mmap 스트림으로 읽으면서 청크 단위 배치로 저장
+     * 청킹은 텍스트 추가와 같은 문장/토큰 기준 (2단계 청킹이면 부모 구간도 함께 저장)
+     *
+     * @param resumeFrom 이전 실행에서 이미 저장된 앞쪽 청크 수 (해당 청크는 건너뜀)
      */
-    @Transactional
-    public DocumentEntity uploadDocument(MultipartFile file) throws IOException {
-        log.info("문서 업로드 시작: {}", file.getOriginalFilename());
+    public DocumentEntity ingestFile(UUID documentId, String filename, String contentType, Path source,
+                                     String contentHash, int resumeFrom,
+                                     IngestionProgressListener listener) throws IOException {
+        log.info("문서 수집 시작: {} (documentId={}, resumeFrom={})", filename, documentId, resumeFrom);
 
-        // 1. 파일 내용 읽기
-        String content = new String(file.getBytes(), StandardCharsets.UTF_8);
+        String docId = documentId.toString();
+        try (CountingInputStream in = new CountingInputStream(new MappedFileInputStream(source));
+             Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
 
-        // 2. DB에 원본 문서 저장
-        DocumentEntity documentEntity = DocumentEntity.builder()
-            .id(UUID.randomUUID())
-            .filename(file.getOriginalFilename())
-            .content(content)
-            .contentType(file.getContentType())
-            .build();
+            // 1. 스트리밍 청킹 + 배치 단위 병렬 임베딩/저장
+            EmbeddingPipeline.Session session = embeddingPipeline.open(docId, resumeFrom,
+                checkpoint -> listener.onProgress(checkpoint, in.getCount()));
+            List<Document> batch = new ArrayList<>(ingestionConfig.getBatchSize());
+            List<ChunkParent> parents = new ArrayList<>();
+            ChunkingStrategy chunking = chunkingStrategy();
 
-        // 3. 문서를 작은 청크로 분할
-        List<Document> chunks = splitDocument(content, documentEntity.getId().toString(),
-            file.getOriginalFilename());
-        documentEntity.setChunkCount(chunks.size());
-        documentRepository.save(documentEntity);
+            StreamingTextChunker.ChunkStats stats;
+            try {
+                stats = chunkStream(reader, chunking, docId, filename, parents, (index, chunk) -> {
+                    if (index < resumeFrom) {
+                        return;  // 이전 실행에서 저장 완료된 청크
+                    }
+                    batch.add(chunk);
+                    if (batch.size() >= ingestionConfig.getBatchSize()) {
+                        session.submit(List.copyOf(batch));
+                        batch.clear();
+                    }
+                });
+                session.submit(List.copyOf(batch));
+                session.awaitCompletion();
+            } catch (IOException | RuntimeException e) {
+                session.abort();
+                throw e;
+            }
 
-        // 4. 벡터 저장소에 저장 (자동으로 임베딩 생성)
-        vectorStore.add(chunks);
+            // 2. DB에 문서 저장 (원본은 document_contents에 압축 저장)
+            DocumentEntity documentEntity = DocumentEntity.builder()
+                .id(documentId)
+                .filename(filename)
+                .contentType(contentType)
+                .chunkCount(stats.chunkCount())
+                .contentLength(stats.totalChars())
+                .contentHash(contentHash)
+                .chunking(chunking)
+                .build();
 
-        log.info("문서 업로드 완료: {} ({} chunks)", file.getOriginalFilename(), chunks.size());
-        return documentEntity;
+            transactionTemplate.executeWithoutResult(status -> {
+                documentRepository.saveAndFlush(documentEntity);
+                chunkParentRepository.saveAll(parents);
+                try (InputStream content = new MappedFileInputStream(source)) {
+                    documentContentRepository.saveContent(documentId, content);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            eventPublisher.publishEvent(
+                new DocumentChangedEvent(documentId, filename, DocumentChangedEvent.ChangeType.ADDED));
+
+            log.info("문서 수집 완료: {} ({} chunks, {} chars, peak window {} chars)",
+                filename, stats.chunkCount(), stats.totalChars(), stats.peakWindowChars());
+            return documentEntity;
+        } catch (IOException | RuntimeException e) {
+            removeChunks(docId);
+            throw e;
+        }
     }
 
     /**
-     * 문서 분할 (Chunking)
+     * 문서 내용 갱신 (증분 재수집)
+     * 새 내용을 문서에 기록된 청킹 방식으로 다시 나눈 뒤 기존 청크와 내용 해시로 비교해
+     * 추가/변경된 청크만 임베딩하고, 사라진 청크만 vector_store에서 삭제한다.
+     * 그대로인 청크는 임베딩을 재사용하고 위치(chunk_index, parent_id, 원본 오프셋)만 갱신한다.
+     * 2단계 청킹 문서는 부모 구간(chunk_parents)도 새 내용 기준으로 다시 저장한다.
      */
-    private List<Document> splitDocument(String content, String documentId, String filename) {
-        // TokenTextSplitter: 토큰 기반으로 문서 분할
-        TextSplitter splitter = new TokenTextSplitter(
-            500,  // defaultChunkSize: 기본 청크 크기
-            100,            // minChunkSizeChars: 최소 청크 크기 (문자 단위)
-            5,              // minChunkLengthToEmbed: 임베딩할 최소 청크 길이
-            1,              // maxNumChunks: 최대 청크 수 (무제한은 Integer.MAX_VALUE)
-            true            // keepSeparator: 구분자 유지 여부
-        );
+    public DocumentUpdateResult updateDocument(UUID documentId, MultipartFile file) throws IOException {
+        DocumentEntity document = documentRepository.findById(documentId)
+            .orElseThrow(() -> new IllegalArgumentException("문서를 찾을 수 없습니다: " + documentId));
+
+        String docId = documentId.toString();
+        String filename = document.getFilename();
+        log.info("문서 갱신 시작: {} (documentId={})", filename, documentId);
+
+        // 1. 기존 청크를 내용 해시별로 묶기 (같은 내용이 여러 번 나오면 앞에서부터 대응)
+        Map<String, Deque<StoredChunk>> previous = new HashMap<>();
+        for (StoredChunk chunk : vectorStoreChunkRepository.findByDocumentId(docId)) {
+            previous.computeIfAbsent(chunk.contentHash(), hash -> new ArrayDeque<>()).add(chunk);
+        }
+
+        // 2. 같은 방식으로 새 내용 청킹 + diff: 해시가 일치하는 청크는 재사용, 나머지만 임베딩
+        ChunkingStrategy chunking = Objects.requireNonNullElse(document.getChunking(), ChunkingStrategy.CHARACTER);
+        Map<UUID, ChunkPosition> reindexed = new HashMap<>();
+        List<UUID> added = new ArrayList<>();
+        List<ChunkParent> parents = new ArrayList<>();
+        AtomicInteger reused = new AtomicInteger();
+        MessageDigest digest = sha256Digest();
+
+        EmbeddingPipeline.Session session = embeddingPipeline.open(docId);
+        StreamingTextChunker.ChunkStats stats;
+        try (InputStream in = new DigestInputStream(file.getInputStream(), digest);
+             Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            List<Document> batch = new ArrayList<>(ingestionConfig.getBatchSize());
+
+            stats = chunkStream(reader, chunking, docId, filename, parents, (index, chunk) -> {
+                Deque<StoredChunk> candidates = previous.get(CachingEmbeddingModel.sha256(chunk.getText()));
+                StoredChunk match = candidates == null ? null : candidates.pollFirst();
+                if (match != null) {
+                    reused.incrementAndGet();
+                    ChunkPosition position = positionOf(index, chunk);
+                    if (!Objects.equals(match.chunkIndex(), index)
+                        || !Objects.equals(match.parentId(), position.parentId())
+                        || !Objects.equals(match.startOffset(), position.startOffset())) {
+                        reindexed.put(match.id(), position);
+                    }
+                    return;
+                }
+
+                // 위치 기반 ID는 기존 청크와 겹칠 수 있으므로 새 청크는 임의 ID 사용
+                Document fresh = new Document(UUID.randomUUID().toString(), chunk.getText(), chunk.getMetadata());
+                added.add(UUID.fromString(fresh.getId()));
+                batch.add(fresh);
+                if (batch.size() >= ingestionConfig.getBatchSize()) {
+                    session.submit(List.copyOf(batch));
+                    batch.clear();
+                }
+            });
+            session.submit(List.copyOf(batch));
+            session.awaitCompletion();
+        } catch (IOException | RuntimeException e) {
+            session.abort();
+            removeChunks(documentId, added);
+            throw e;
+        }
+
+        List<UUID> removed = previous.values().stream()
+            .flatMap(Deque::stream)
+            .map(StoredChunk::id)
+            .toList();
+        String contentHash = HexFormat.of().formatHex(digest.digest());
+        boolean unchanged = added.isEmpty() && removed.isEmpty() && reindexed.isEmpty()
+            && contentHash.equals(document.getContentHash());
 
-        // 메타데이터 추가
+        // 3. 사라진 청크 삭제 + 위치/부모 구간 갱신 + 문서 갱신을 한 트랜잭션으로
+        if (!unchanged) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    vectorStoreChunkRepository.updateChunkPositions(reindexed);
+                    vectorStoreChunkRepository.deleteByIds(removed);
+                    // 부모 ID는 (문서 ID, 부모 순번)으로 결정되므로 지운 뒤 새 위치로 다시 저장
+                    chunkParentRepository.deleteByDocumentId(documentId);
+                    chunkParentRepository.saveAll(parents);
+
+                    document.setChunkCount(stats.chunkCount());
+                    document.setContentLength(stats.totalChars());
+                    document.setContentHash(contentHash);
+                    document.setChunking(chunking);
+                    if (file.getContentType() != null) {
+                        document.setContentType(file.getContentType());
+                    }
+                    documentRepository.saveAndFlush(document);
+                    try (InputStream content = file.getInputStream()) {
+                        documentContentRepository.saveContent(documentId, content);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (RuntimeException e) {
+                removeChunks(documentId, added);
+                throw e;
+            }
+            eventPublisher.publishEvent(
+                new DocumentChangedEvent(documentId, filename, DocumentChangedEvent.ChangeType.UPDATED));
+        }
+
+        log.info("문서 갱신 완료: {} ({} chunks, 임베딩 {}, 재사용 {}, 삭제 {})",
+            filename, stats.chunkCount(), added.size(), reused.get(), removed.size());
+        return new DocumentUpdateResult(docId, filename, stats.chunkCount(),
+            added.size(), reused.get(), removed.size(), unchanged);
+    }
+
+    /**
+     * 수집 실패 시 이미 저장된 청크 정리
+     * (배치는 별도 스레드에서 커밋되므로 트랜잭션 롤백 대상이 아님)
+     */
+    private void removeChunks(String documentId) {
+        try {
+            vectorStoreChunkRepository.deleteByDocumentId(documentId);
+            eventPublisher.publishEvent(new DocumentChangedEvent(UUID.fromString(documentId), null,
+                DocumentChangedEvent.ChangeType.DELETED));
+        } catch (Exception e) {
+            log.error("실패한 업로드의 청크 정리 실패: {} - {}", documentId, e.getMessage());
+        }
+    }
+
+    /**
+     * 갱신 중 실패 시 새로 추가한 청크만 정리 (기존 청크는 그대로 유지)
+     */
+    private void removeChunks(UUID documentId, List<UUID> chunkIds) {
+        try {
+            vectorStoreChunkRepository.deleteByIds(chunkIds);
+            eventPublisher.publishEvent(new DocumentChangedEvent(documentId, null,
+                DocumentChangedEvent.ChangeType.UPDATED));
+        } catch (Exception e) {
+            log.error("실패한 갱신의 청크 정리 실패: {} chunks - {}", chunkIds.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * 스트리밍 청킹 결과를 Document로 변환
+     * 청크 ID는 (문서 ID, 순번)에서 결정적으로 생성되므로 재개 시 같은 청크를 다시 써도 upsert가 된다.
+     */
+    private Document createChunk(String text, String documentId, String filename, int chunkIndex) {
+        String chunkId = UUID.nameUUIDFromBytes(
+            (documentId + "#" + chunkIndex).getBytes(StandardCharsets.UTF_8)).toString();
         Map<String, Object> metadata = new HashMap<>();
         metadata.put("document_id", documentId);
         metadata.put("filename", filename);
         metadata.put("source", "user_upload");
+        metadata.put("chunk_index", chunkIndex);
 
-        // Document 객체 생성
-        Document document = new Document(content, metadata);
+        return new Document(chunkId, text, metadata);
+    }
 
-        // 분할 수행
-        return splitter.split(document);
+    /**
+     * 청크 metadata에서 위치 정보 추출 (재사용 청크 갱신용)
+     */
+    private static ChunkPosition positionOf(int chunkIndex, Document chunk) {
+        Map<String, Object> metadata = chunk.getMetadata();
+        return new ChunkPosition(chunkIndex,
+            (String) metadata.get("parent_id"),
+            (Integer) metadata.get("start_offset"),
+            (Integer) metadata.get("end_offset"));
     }
 
     /**
-     * TextReader를 사용한 문서 분할 (대안)
+     * 새 문서에 적용할 청킹 방식
      */
-    private List<Document> splitDocumentWithReader(MultipartFile file, String documentId)
-        throws IOException {
-        // ByteArrayResource로 변환
-        Resource resource = new ByteArrayResource(file.getBytes()) {
-            @Override
-            public String getFilename() {
-                return file.getOriginalFilename();
-            }
-        };
+    private ChunkingStrategy chunkingStrategy() {
+        return ingestionConfig.isHierarchicalChunking() ? ChunkingStrategy.HIERARCHICAL : ChunkingStrategy.SENTENCE;
+    }
 
-        // TextReader 사용
-        TextReader textReader = new TextReader(resource);
-        textReader.getCustomMetadata().put("document_id", documentId);
-        textReader.getCustomMetadata().put("filename", file.getOriginalFilename());
-        textReader.getCustomMetadata().put("source", "user_upload");
+    private static MessageDigest sha256Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256을 사용할 수 없습니다", e);
+        }
+    }
 
-        List<Document> documents = textReader.get();
+    /**
+     * 문서 분할 (Chunking)
+     * 문장 경계 + 토큰 수 기준으로 나누고 청크별 토큰 수를 메타데이터에 기록
+     * <p>
+     * 2단계 청킹이면 부모 구간(절) 안에서 작은 자식 청크를 만들고,
+     * 자식 metadata에 parent_id와 원본 위치(start_offset, end_offset)를 기록한다.
+     * 부모 ID도 (문서 ID, 부모 순번)에서 결정적으로 생성한다.
+     * <p>
+     * 세그먼트 단위로 읽으므로 파일 수집에서도 원문 전체를 메모리에 올리지 않는다.
+     * 문자 기준(CHARACTER)은 이전에 그렇게 수집된 문서를 같은 방식으로 갱신할 때만 사용한다.
+     *
+     * @param parents 부모 구간을 모을 목록 (평면 청킹이면 비어 있음)
+     * @param sink    (청크 순번, 청크) 순서로 호출
+     */
+    private StreamingTextChunker.ChunkStats chunkStream(Reader reader, ChunkingStrategy chunking,
+                                                        String documentId, String filename,
+                                                        List<ChunkParent> parents, ChunkSink sink)
+        throws IOException {
+        AtomicInteger chunkIndex = new AtomicInteger();
+        if (chunking == ChunkingStrategy.CHARACTER) {
+            return streamingTextChunker.chunk(reader, text -> {
+                int index = chunkIndex.getAndIncrement();
+                sink.accept(index, createChunk(text, documentId, filename, index));
+            });
+        }
+        if (chunking == ChunkingStrategy.SENTENCE) {
+            return streamingSentenceChunker.chunk(reader, chunk -> {
+                int index = chunkIndex.getAndIncrement();
+                Document document = createChunk(chunk.text(), documentId, filename, index);
+                document.getMetadata().put("token_count", chunk.tokenCount());
+                sink.accept(index, document);
+            });
+        }
 
-        // TokenTextSplitter로 분할
-        TextSplitter splitter = new TokenTextSplitter();
-        return splitter.split(documents);
+        UUID docUuid = UUID.fromString(documentId);
+        return streamingSentenceChunker.chunkSections(reader, section -> {
+            int p = parents.size();
+            SentenceChunker.Chunk parent = section.parent();
+            UUID parentId = UUID.nameUUIDFromBytes(
+                (documentId + "#parent#" + p).getBytes(StandardCharsets.UTF_8));
+            parents.add(new ChunkParent(parentId, docUuid, p, parent.start(), parent.end(), parent.tokenCount()));
+
+            for (SentenceChunker.Chunk child : section.children()) {
+                int index = chunkIndex.getAndIncrement();
+                Document document = createChunk(child.text(), documentId, filename, index);
+                document.getMetadata().put("token_count", child.tokenCount());
+                document.getMetadata().put("parent_id", parentId.toString());
+                document.getMetadata().put("start_offset", child.start());
+                document.getMetadata().put("end_offset", child.end());
+                sink.accept(index, document);
+            }
+        });
     }
 
     /**
      * 텍스트로 직접 문서 추가
+     * ingestFile과 같이 임베딩은 트랜잭션 밖에서 하고, 문서 행/부모 구간/원본만 짧은 트랜잭션으로 저장한다.
+     * (배치는 다른 스레드에서 커밋되므로 실패하면 removeChunks로 정리)
      */
-    @Transactional
     public DocumentEntity addTextDocument(String filename, String content) {
         log.info("텍스트 문서 추가: {}", filename);
 
+        // 완전히 같은 내용이 이미 있으면 임베딩 없이 기존 문서 반환
+        String contentHash = CachingEmbeddingModel.sha256(content);
+        Optional<DocumentEntity> existing = documentRepository.findFirstByContentHash(contentHash);
+        if (existing.isPresent()) {
+            log.info("중복 문서 감지: {} → 기존 문서 {}", filename, existing.get().getId());
+            return existing.get();
+        }
+
         DocumentEntity documentEntity = DocumentEntity.builder()
             .id(UUID.randomUUID())
             .filename(filename)
-            .content(content)
             .contentType("text/plain")
+            .contentLength((long) content.length())
+            .contentHash(contentHash)
+            .chunking(chunkingStrategy())
             .build();
 
-        List<Document> chunks = splitDocument(content, documentEntity.getId().toString(), filename);
+        List<Document> chunks = new ArrayList<>();
+        List<ChunkParent> parents = new ArrayList<>();
+        try {
+            chunkStream(new StringReader(content), documentEntity.getChunking(),
+                documentEntity.getId().toString(), filename, parents, (index, chunk) -> chunks.add(chunk));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
         documentEntity.setChunkCount(chunks.size());
-        documentRepository.save(documentEntity);
 
-        vectorStore.add(chunks);
+        String docId = documentEntity.getId().toString();
+        EmbeddingPipeline.Session session = embeddingPipeline.open(docId);
+        try {
+            try {
+                for (int from = 0; from < chunks.size(); from += ingestionConfig.getBatchSize()) {
+                    session.submit(chunks.subList(from, Math.min(from + ingestionConfig.getBatchSize(), chunks.size())));
+                }
+                session.awaitCompletion();
+            } catch (RuntimeException e) {
+                session.abort();
+                throw e;
+            }
+
+            transactionTemplate.executeWithoutResult(status -> {
+                documentRepository.saveAndFlush(documentEntity);
+                chunkParentRepository.saveAll(parents);
+                try {
+                    documentContentRepository.saveContent(documentEntity.getId(),
+                        new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (RuntimeException e) {
+            removeChunks(docId);
+            throw e;
+        }
+        eventPublisher.publishEvent(
+            new DocumentChangedEvent(documentEntity.getId(), filename, DocumentChangedEvent.ChangeType.ADDED));
 
         return documentEntity;
     }
 
     /**
-     * 모든 문서 조회
+     * 문서 목록을 한 페이지씩 스트리밍 (content 제외 프로젝션, 키셋 페이지네이션)
+     *
+     * @param cursor 이전 페이지의 마지막 행 (첫 페이지는 null)
+     * @param sink   행마다 호출 (DB 커서에서 읽는 즉시 전달)
+     * @return 다음 페이지 커서 (마지막 페이지면 null)
+     */
+    @Transactional(readOnly = true)
+    public DocumentCursor streamDocumentSummaries(DocumentCursor cursor, int size,
+                                                  Consumer<DocumentSummaryView> sink) {
+        Limit limit = Limit.of(size);
+        try (Stream<DocumentSummaryView> rows = cursor == null
+            ? documentRepository.streamSummaries(limit)
+            : documentRepository.streamSummariesAfter(cursor.uploadedAt(), cursor.id(), limit)) {
+
+            DocumentSummaryView last = null;
+            int count = 0;
+            for (Iterator<DocumentSummaryView> it = rows.iterator(); it.hasNext(); count++) {
+                last = it.next();
+                sink.accept(last);
+            }
+            return count == size ? DocumentCursor.of(last) : null;
+        }
+    }
+
+    /**
+     * 문서 원본을 풀어서 out으로 복사 (원본을 요청할 때만 읽음)
+     */
+    @Transactional(readOnly = true)
+    public boolean copyContent(UUID documentId, OutputStream out) {
+        return documentContentRepository.copyContent(documentId, out);
+    }
+
+    /**
+     * 문서 단건 조회 (기본키)
      */
-    public List<DocumentEntity> getAllDocuments() {
-        return documentRepository.findAll();
+    public Optional<DocumentEntity> getDocument(UUID documentId) {
+        return documentRepository.findById(documentId);
     }
 
     /**
-     * 문서 삭제 (Spring AI 1.1.0-M2에서 VectorStore.delete 지원)
+     * 문서 삭제
+     * documents 행과 vector_store 청크를 한 트랜잭션에서 삭제한다.
+     * 청크는 document_id 메타데이터 조건 하나로 지우므로 임베딩 호출이나 개수 제한이 없다.
      */
     @Transactional
     public void deleteDocument(String documentId) {
-        // DB에서 삭제
-        DocumentEntity document = documentRepository.findById(documentId)
+        DocumentEntity document = documentRepository.findById(UUID.fromString(documentId))
             .orElseThrow(() -> new IllegalArgumentException("문서를 찾을 수 없습니다: " + documentId));
 
-        documentRepository.deleteById(documentId);
-
-        // Vector Store에서 삭제
-        try {
-            // document_id 메타데이터를 기준으로 삭제
-            // 주의: VectorStore 구현체에 따라 지원 여부가 다를 수 있음
-            List<String> documentIds = vectorSearchRequest(documentId, "", 1000)
-                .stream().map(Document::getId).toList();
-
-            if (!documentIds.isEmpty()) {
-                vectorStore.delete(documentIds);
-                log.info("Vector Store에서 {} 청크 삭제 완료", documentIds.size());
-            }
-        } catch (Exception e) {
-            log.error("Vector Store 삭제 중 오류 발생: {}", e.getMessage());
-            // Vector Store 삭제 실패 시에도 DB 삭제는 유지
-        }
+        documentRepository.delete(document);
+        int deleted = vectorStoreChunkRepository.deleteByDocumentId(documentId);
+        eventPublisher.publishEvent(
+            new DocumentChangedEvent(document.getId(), document.getFilename(),
+                DocumentChangedEvent.ChangeType.DELETED));
+        log.info("문서 삭제 완료: {} (Vector Store 청크 {}개)", documentId, deleted);
     }
 
     /**
@@ -189,4 +532,9 @@ public class DocumentService {
         );
     }
 
+    @FunctionalInterface
+    private interface ChunkSink {
+        void accept(int chunkIndex, Document chunk);
+    }
+
 }
\ No newline at end of file
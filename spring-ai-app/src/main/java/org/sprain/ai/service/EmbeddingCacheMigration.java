@@ -0,0 +1,42 @@
+package org.sprain.ai.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * 내용 해시 기반 중복 제거 스키마
+ * <p>
+ * <ul>
+ *     <li>documents.content_hash: 원본 SHA-256 (중복 업로드 판별)</li>
+ *     <li>embedding_cache: 청크 임베딩 재사용</li>
+ * </ul>
+ * 애플리케이션 시작 시 실행되며, 이미 있으면 아무것도 하지 않는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class EmbeddingCacheMigration implements ApplicationRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        jdbcTemplate.execute("ALTER TABLE documents ADD COLUMN IF NOT EXISTS content_hash CHAR(64)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_documents_content_hash ON documents(content_hash)");
+        jdbcTemplate.execute("COMMENT ON COLUMN documents.content_hash IS '원본 SHA-256 (중복 업로드 판별)'");
+
+        jdbcTemplate.execute("""
+            CREATE TABLE IF NOT EXISTS embedding_cache
+            (
+                content_hash CHAR(64) PRIMARY KEY,   -- SHA-256(모델 ID + 정규화된 텍스트)
+                model_id     VARCHAR(100) NOT NULL,
+                dimensions   INTEGER      NOT NULL,
+                embedding    BYTEA        NOT NULL,  -- float32 little-endian
+                created_at   TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+            )
+            """);
+        jdbcTemplate.execute("COMMENT ON TABLE embedding_cache IS '내용 해시 기반 임베딩 캐시'");
+    }
+}
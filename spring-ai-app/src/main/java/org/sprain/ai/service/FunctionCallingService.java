@@ -1,10 +1,12 @@
 package org.sprain.ai.service;
 
 import lombok.extern.slf4j.Slf4j;
+import org.sprain.ai.global.helper.ai.StreamCancellationTracker;
 import org.sprain.ai.global.helper.function.ClaudeTools;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 
 @Slf4j
 @Service
@@ -12,12 +14,15 @@ public class FunctionCallingService {
 
     private final ChatClient chatClient;
     private final ClaudeTools claudeTools;
+    private final StreamCancellationTracker cancellationTracker;
 
     public FunctionCallingService(
         @Qualifier("claudeChatClient") ChatClient chatClient,
-        ClaudeTools claudeTools) {
+        ClaudeTools claudeTools,
+        StreamCancellationTracker cancellationTracker) {
         this.chatClient = chatClient;
         this.claudeTools = claudeTools;
+        this.cancellationTracker = cancellationTracker;
     }
 
     /**
@@ -66,19 +71,16 @@ public class FunctionCallingService {
 
     /**
      * 스트리밍 응답 (Function Calling 포함)
+     * 구독이 취소되면 (클라이언트 연결 종료) LLM 스트림도 중단
      */
-    public void chatStream(String userMessage,
-                           java.util.function.Consumer<String> onNext,
-                           java.util.function.Consumer<Throwable> onError,
-                           Runnable onComplete) {
+    public Flux<String> chatStream(String userMessage) {
         log.info("Streaming Function Calling 질문: {}", userMessage);
 
-        chatClient.prompt()
+        return cancellationTracker.track("function", chatClient.prompt()
             .user(userMessage)
             .tools(claudeTools)
             .stream()
-            .content()
-            .subscribe(onNext, onError, onComplete);
+            .content());
     }
 
     /**
@@ -0,0 +1,55 @@
+package org.sprain.ai.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.sprain.ai.config.RagConfig;
+import org.sprain.ai.global.advisor.HybridRagAdvisor;
+import org.sprain.ai.global.advisor.UsageLoggingAdvisor;
+import org.sprain.ai.global.helper.keyword.KeywordSearchIndex;
+import org.sprain.ai.global.helper.rag.MmrSelector;
+import org.sprain.ai.global.helper.rerank.Reranker;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/**
+ * 하이브리드 검색(Vector + BM25, RRF 결합) RAG
+ * <p>
+ * KeywordSearchIndex와 같은 조건(sprain.retrieval.keyword-search-enabled=true)에서만 등록된다.
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(prefix = "sprain.retrieval", name = "keyword-search-enabled", havingValue = "true")
+public class HybridRagService {
+
+    private static final int TOP_K = 5;
+
+    private final ChatClient chatClient;
+
+    public HybridRagService(ChatClient.Builder chatClientBuilder, VectorStore vectorStore,
+                            KeywordSearchIndex keywordSearchIndex, Reranker reranker, MmrSelector mmrSelector) {
+        // MMR 후보 수/가중치는 RagService와 같은 sprain.retrieval.mmr-* 설정 (배수가 1 이하면 사용 안 함)
+        RagConfig config = RagConfig.builder()
+            .topK(TOP_K)
+            .mmrCandidates(TOP_K * mmrSelector.getCandidateFactor())
+            .mmrLambda(mmrSelector.getDefaultLambda())
+            .build();
+
+        // 요청마다 defaultAdvisors를 추가하면 빌더에 Advisor가 계속 쌓이므로 한 번만 생성
+        this.chatClient = chatClientBuilder
+            .defaultAdvisors(
+                new UsageLoggingAdvisor(),
+                new HybridRagAdvisor(vectorStore, keywordSearchIndex, reranker, mmrSelector, config)
+            )
+            .build();
+    }
+
+    public String ask(String question) {
+        log.info("하이브리드 RAG 질문: {}", question);
+
+        return chatClient.prompt()
+            .user(question)
+            .call()
+            .content();
+    }
+}
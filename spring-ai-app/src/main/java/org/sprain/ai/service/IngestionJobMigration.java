@@ -0,0 +1,49 @@
+package org.sprain.ai.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * 비동기 문서 수집 작업(ingestion_jobs) 스키마
+ * <p>
+ * 애플리케이션 시작 시 실행되며, 이미 있으면 아무것도 하지 않는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class IngestionJobMigration implements ApplicationRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        jdbcTemplate.execute("""
+            CREATE TABLE IF NOT EXISTS ingestion_jobs
+            (
+                id              UUID PRIMARY KEY,
+                document_id     UUID         NOT NULL,
+                filename        VARCHAR(255) NOT NULL,
+                content_type    VARCHAR(255),
+                spool_path      TEXT         NOT NULL,
+                status          VARCHAR(20)  NOT NULL,
+                total_bytes     BIGINT       NOT NULL,
+                content_hash    VARCHAR(64),
+                bytes_processed BIGINT       NOT NULL DEFAULT 0,
+                checkpoint      INTEGER      NOT NULL DEFAULT 0,
+                resumed_from    INTEGER      NOT NULL DEFAULT 0,
+                error_message   TEXT,
+                created_at      TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                started_at      TIMESTAMP,
+                completed_at    TIMESTAMP
+            )
+            """);
+        jdbcTemplate.execute("ALTER TABLE ingestion_jobs ADD COLUMN IF NOT EXISTS content_hash VARCHAR(64)");
+        // 재시작 시 미완료 작업 조회
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_ingestion_jobs_status ON ingestion_jobs(status, created_at)");
+        jdbcTemplate.execute("COMMENT ON TABLE ingestion_jobs IS '비동기 문서 수집 작업'");
+        jdbcTemplate.execute("COMMENT ON COLUMN ingestion_jobs.content_hash IS '원본 SHA-256 (중복 업로드 판별)'");
+        jdbcTemplate.execute("COMMENT ON COLUMN ingestion_jobs.checkpoint IS '앞에서부터 연속으로 저장 완료된 청크 수 (재개 지점)'");
+    }
+}
@@ -0,0 +1,240 @@
+package org.sprain.ai.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.sprain.ai.config.IngestionConfig;
+import org.sprain.ai.dto.IngestionJobProgress;
+import org.sprain.ai.dto.IngestionJobStatus;
+import org.sprain.ai.entity.DocumentEntity;
+import org.sprain.ai.entity.IngestionJob;
+import org.sprain.ai.repository.DocumentRepository;
+import org.sprain.ai.repository.IngestionJobRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * 비동기 문서 수집 작업 관리
+ * <p>
+ * 1. 업로드 원본을 스풀 디렉터리에 저장하고 작업(PENDING)을 기록한 뒤 바로 반환
+ * 2. ingestionJobExecutor(동시 실행 상한)에서 청킹/임베딩 수행
+ * 3. 배치가 저장될 때마다 체크포인트 기록 → 재시작 시 PENDING/RUNNING 작업을 체크포인트부터 재개
+ */
+@Slf4j
+@Service
+public class IngestionJobService {
+
+    private final IngestionJobRepository jobRepository;
+    private final DocumentRepository documentRepository;
+    private final DocumentService documentService;
+    private final IngestionConfig ingestionConfig;
+    private final ExecutorService jobExecutor;
+
+    public IngestionJobService(
+        IngestionJobRepository jobRepository,
+        DocumentRepository documentRepository,
+        DocumentService documentService,
+        IngestionConfig ingestionConfig,
+        @Qualifier("ingestionJobExecutor") ExecutorService jobExecutor) {
+        this.jobRepository = jobRepository;
+        this.documentRepository = documentRepository;
+        this.documentService = documentService;
+        this.ingestionConfig = ingestionConfig;
+        this.jobExecutor = jobExecutor;
+    }
+
+    /**
+     * 업로드 파일을 스풀에 저장하고 수집 작업 등록
+     */
+    public IngestionJob submit(MultipartFile file) throws IOException {
+        UUID jobId = UUID.randomUUID();
+
+        Path spoolDir = Path.of(ingestionConfig.getSpoolDir());
+        Files.createDirectories(spoolDir);
+        Path spoolFile = spoolDir.resolve(jobId + ".upload");
+
+        // 스풀에 복사하면서 원본 지문(SHA-256) 계산
+        MessageDigest digest = sha256();
+        try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+            Files.copy(in, spoolFile);
+        }
+        String contentHash = HexFormat.of().formatHex(digest.digest());
+        long totalBytes = Files.size(spoolFile);
+
+        IngestionJob.IngestionJobBuilder builder = IngestionJob.builder()
+            .id(jobId)
+            .filename(file.getOriginalFilename())
+            .contentType(file.getContentType())
+            .spoolPath(spoolFile.toString())
+            .totalBytes(totalBytes)
+            .contentHash(contentHash);
+
+        // 완전히 같은 파일이 이미 수집되어 있으면 임베딩 없이 기존 문서를 반환
+        Optional<DocumentEntity> existing = documentRepository.findFirstByContentHash(contentHash);
+        if (existing.isPresent()) {
+            deleteSpoolFile(spoolFile);
+            IngestionJob job = jobRepository.save(builder
+                .documentId(existing.get().getId())
+                .status(IngestionJobStatus.DUPLICATE)
+                .bytesProcessed(totalBytes)
+                .checkpoint(existing.get().getChunkCount())
+                .completedAt(LocalDateTime.now())
+                .build());
+            log.info("중복 업로드 감지: {} → 기존 문서 {}", job.getFilename(), job.getDocumentId());
+            return job;
+        }
+
+        IngestionJob job = jobRepository.save(builder
+            .documentId(UUID.randomUUID())
+            .status(IngestionJobStatus.PENDING)
+            .build());
+
+        log.info("수집 작업 등록: {} ({}, {} bytes)", jobId, job.getFilename(), job.getTotalBytes());
+        schedule(jobId);
+        return job;
+    }
+
+    /**
+     * 작업 진행 상황 조회
+     */
+    public Optional<IngestionJobProgress> getProgress(UUID jobId) {
+        return jobRepository.findById(jobId).map(this::toProgress);
+    }
+
+    /**
+     * 애플리케이션 시작 시 끝나지 않은 작업 재개
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinishedJobs() {
+        List<IngestionJob> unfinished = jobRepository.findByStatusInOrderByCreatedAtAsc(
+            List.of(IngestionJobStatus.PENDING, IngestionJobStatus.RUNNING));
+
+        if (!unfinished.isEmpty()) {
+            log.info("미완료 수집 작업 {}건 재개", unfinished.size());
+        }
+        unfinished.forEach(job -> schedule(job.getId()));
+    }
+
+    private void schedule(UUID jobId) {
+        jobExecutor.execute(() -> run(jobId));
+    }
+
+    /**
+     * 작업 실행 (ingestionJobExecutor 스레드)
+     */
+    void run(UUID jobId) {
+        IngestionJob job = jobRepository.findById(jobId).orElse(null);
+        if (job == null || (job.getStatus() != IngestionJobStatus.PENDING
+            && job.getStatus() != IngestionJobStatus.RUNNING)) {
+            return;
+        }
+
+        job.setStatus(IngestionJobStatus.RUNNING);
+        job.setStartedAt(LocalDateTime.now());
+        job.setResumedFrom(job.getCheckpoint());
+        jobRepository.save(job);
+
+        Path spoolFile = Path.of(job.getSpoolPath());
+        try {
+            DocumentEntity document = documentService.ingestFile(
+                job.getDocumentId(),
+                job.getFilename(),
+                job.getContentType(),
+                spoolFile,
+                job.getContentHash(),
+                job.getCheckpoint(),
+                (checkpoint, bytesProcessed) -> jobRepository.updateProgress(jobId, checkpoint, bytesProcessed)
+            );
+
+            finish(jobId, IngestionJobStatus.COMPLETED, null, document.getChunkCount());
+            log.info("수집 작업 완료: {} ({} chunks)", jobId, document.getChunkCount());
+        } catch (Exception e) {
+            log.error("수집 작업 실패: {} - {}", jobId, e.getMessage());
+            finish(jobId, IngestionJobStatus.FAILED, e.getMessage(), null);
+        } finally {
+            deleteSpoolFile(spoolFile);
+        }
+    }
+
+    private void finish(UUID jobId, IngestionJobStatus status, String errorMessage, Integer chunkCount) {
+        // 진행률은 별도 UPDATE로 갱신되므로 최신 상태를 다시 읽어서 반영
+        jobRepository.findById(jobId).ifPresent(job -> {
+            job.setStatus(status);
+            job.setErrorMessage(errorMessage);
+            job.setCompletedAt(LocalDateTime.now());
+            if (chunkCount != null) {
+                job.setCheckpoint(chunkCount);
+                job.setBytesProcessed(job.getTotalBytes());
+            }
+            jobRepository.save(job);
+        });
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256을 사용할 수 없습니다", e);
+        }
+    }
+
+    private void deleteSpoolFile(Path spoolFile) {
+        try {
+            Files.deleteIfExists(spoolFile);
+        } catch (IOException e) {
+            log.warn("스풀 파일 삭제 실패: {} - {}", spoolFile, e.getMessage());
+        }
+    }
+
+    private IngestionJobProgress toProgress(IngestionJob job) {
+        long total = job.getTotalBytes();
+        long processed = Math.min(job.getBytesProcessed(), total);
+        double percent = total == 0 ? 100.0 : processed * 100.0 / total;
+
+        double chunksPerSecond = 0;
+        Long etaSeconds = null;
+        if (job.getStartedAt() != null) {
+            LocalDateTime end = job.getCompletedAt() != null ? job.getCompletedAt() : LocalDateTime.now();
+            double elapsed = Math.max(Duration.between(job.getStartedAt(), end).toMillis() / 1000.0, 0.001);
+            chunksPerSecond = (job.getCheckpoint() - job.getResumedFrom()) / elapsed;
+
+            if (job.getStatus() == IngestionJobStatus.RUNNING && processed > 0) {
+                double bytesPerSecond = processed / elapsed;
+                etaSeconds = Math.round((total - processed) / bytesPerSecond);
+            }
+        }
+
+        return new IngestionJobProgress(
+            job.getId().toString(),
+            job.getDocumentId().toString(),
+            job.getFilename(),
+            job.getStatus(),
+            total,
+            processed,
+            Math.round(percent * 10) / 10.0,
+            job.getCheckpoint(),
+            Math.round(chunksPerSecond * 10) / 10.0,
+            etaSeconds,
+            job.getErrorMessage(),
+            job.getCreatedAt(),
+            job.getStartedAt(),
+            job.getCompletedAt()
+        );
+    }
+}
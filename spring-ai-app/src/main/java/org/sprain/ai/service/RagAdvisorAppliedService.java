@@ -1,42 +1,64 @@
 package org.sprain.ai.service;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.sprain.ai.config.RagConfig;
 import org.sprain.ai.global.advisor.AdvancedRagAdvisor;
+import org.sprain.ai.global.advisor.SemanticCacheAdvisor;
 import org.sprain.ai.global.advisor.UsageLoggingAdvisor;
+import org.sprain.ai.global.helper.rag.ContextAssembler;
+import org.sprain.ai.global.helper.rag.MmrSelector;
+import org.sprain.ai.global.helper.rag.SemanticAnswerCache;
+import org.sprain.ai.global.helper.rag.SmallToBigExpander;
+import org.sprain.ai.global.helper.rerank.Reranker;
 import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.embedding.EmbeddingModel;
 import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class RagAdvisorAppliedService {
 
-    private final ChatClient.Builder chatClientBuilder;
-    private final VectorStore vectorStore;
-
-    public String ask(String question) {
-        log.info("RAG 질문: {}", question);
+    private final ChatClient chatClient;
 
+    public RagAdvisorAppliedService(ChatClient.Builder chatClientBuilder, VectorStore vectorStore,
+                                    @Qualifier("cachingEmbeddingModel") EmbeddingModel embeddingModel,
+                                    SemanticAnswerCache answerCache, Reranker reranker,
+                                    ContextAssembler contextAssembler, MmrSelector mmrSelector,
+                                    SmallToBigExpander smallToBigExpander) {
         RagConfig config = RagConfig.builder()
             .topK(10)
+            .rerankCandidates(20)
+            .mmrCandidates(20)
             .similarityThreshold(0.75)
             .requireDocuments(false)
             .appendSources(true)
             .build();
 
-        ChatClient chatClient = chatClientBuilder
+        // 요청마다 defaultAdvisors를 추가하면 빌더에 Advisor가 계속 쌓이므로 한 번만 생성
+        this.chatClient = chatClientBuilder
             .defaultAdvisors(
+                new SemanticCacheAdvisor(embeddingModel, answerCache, "ragAdvisorApplied"),
                 new UsageLoggingAdvisor(),
-                new AdvancedRagAdvisor(vectorStore, config)
+                AdvancedRagAdvisor.builder()
+                    .vectorStore(vectorStore)
+                    .config(config)
+                    .reranker(reranker)
+                    .contextAssembler(contextAssembler)
+                    .mmrSelector(mmrSelector)
+                    .smallToBigExpander(smallToBigExpander)
+                    .build()
             )
             .build();
+    }
+
+    public String ask(String question) {
+        log.info("RAG 질문: {}", question);
 
         return chatClient.prompt()
             .user(question)
             .call()
             .content();
     }
-}
\ No newline at end of file
+}
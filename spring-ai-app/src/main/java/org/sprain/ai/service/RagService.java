@@ -1,17 +1,37 @@
 package org.sprain.ai.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.sprain.ai.dto.DocumentSource;
 import org.sprain.ai.dto.RagResponse;
+import org.sprain.ai.dto.RagStreamEvent;
+import org.sprain.ai.global.helper.ai.StreamCancellationTracker;
+import org.sprain.ai.global.helper.rag.ContextAssembler;
+import org.sprain.ai.global.helper.rag.MmrSelector;
+import org.sprain.ai.global.helper.rag.MultiQueryRetriever;
+import org.sprain.ai.global.helper.rag.SemanticAnswerCache;
+import org.sprain.ai.global.helper.rag.SmallToBigExpander;
+import org.sprain.ai.global.helper.rerank.Reranker;
+import org.sprain.ai.global.helper.vector.SearchProfile;
+import org.sprain.ai.global.helper.vector.SearchProfiles;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
 import org.springframework.ai.vectorstore.SearchRequest;
 import org.springframework.ai.vectorstore.VectorStore;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 
 @Service
 @Slf4j
@@ -19,10 +39,47 @@ public class RagService {
 
     private final ChatClient chatClient;
     private final VectorStore vectorStore;
-
-    public RagService(@Qualifier("claudeChatClient") ChatClient chatClient, VectorStore vectorStore) {
+    private final EmbeddingModel embeddingModel;
+    private final SemanticAnswerCache answerCache;
+    private final Reranker reranker;
+    private final MultiQueryRetriever multiQueryRetriever;
+    private final ContextAssembler contextAssembler;
+    private final MmrSelector mmrSelector;
+    private final SmallToBigExpander smallToBigExpander;
+    private final SearchProfiles searchProfiles;
+    private final Scheduler retrievalScheduler;
+    private final StreamCancellationTracker cancellationTracker;
+    private final Timer ttfbTimer;
+    private final Timer ttftTimer;
+
+    public RagService(@Qualifier("claudeChatClient") ChatClient chatClient, VectorStore vectorStore,
+                      @Qualifier("cachingEmbeddingModel") EmbeddingModel embeddingModel,
+                      SemanticAnswerCache answerCache, Reranker reranker,
+                      MultiQueryRetriever multiQueryRetriever, ContextAssembler contextAssembler,
+                      MmrSelector mmrSelector, SmallToBigExpander smallToBigExpander,
+                      SearchProfiles searchProfiles,
+                      @Qualifier("ragRetrievalScheduler") Scheduler retrievalScheduler,
+                      StreamCancellationTracker cancellationTracker, MeterRegistry meterRegistry) {
         this.chatClient = chatClient;
         this.vectorStore = vectorStore;
+        this.embeddingModel = embeddingModel;
+        this.answerCache = answerCache;
+        this.reranker = reranker;
+        this.multiQueryRetriever = multiQueryRetriever;
+        this.contextAssembler = contextAssembler;
+        this.mmrSelector = mmrSelector;
+        this.smallToBigExpander = smallToBigExpander;
+        this.searchProfiles = searchProfiles;
+        this.retrievalScheduler = retrievalScheduler;
+        this.cancellationTracker = cancellationTracker;
+        this.ttfbTimer = Timer.builder("sprain.rag.stream.ttfb")
+            .description("스트리밍 RAG 요청부터 첫 이벤트(retrieval_done)까지 시간")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+        this.ttftTimer = Timer.builder("sprain.rag.stream.ttft")
+            .description("스트리밍 RAG 요청부터 첫 답변 토큰까지 시간")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
     }
 
     /**
@@ -30,9 +87,13 @@ public class RagService {
      */
     public String ask(String question) {
         log.info("RAG 질문: {}", question);
+        return answerWithCache("ask", question, () -> generateAnswer(question)).answer();
+    }
+
+    private RagResponse generateAnswer(String question) {
 
         // 1. Vector Store에서 관련 문서 검색
-        List<Document> relevantDocs = vectorStore.similaritySearch(
+        List<Document> relevantDocs = searchDiverse(
             SearchRequest.builder()
                 .query(question)
                 .topK(5)  // 상위 5개 문서
@@ -41,7 +102,7 @@ public class RagService {
 
         if (relevantDocs.isEmpty()) {
             log.warn("관련 문서를 찾을 수 없음");
-            return "죄송하지만 관련 정보를 찾을 수 없습니다. 다른 질문을 해주세요.";
+            return notFound("죄송하지만 관련 정보를 찾을 수 없습니다. 다른 질문을 해주세요.");
         }
 
         log.info("검색된 문서: {} 개", relevantDocs.size());
@@ -53,9 +114,8 @@ public class RagService {
         );
 
         // 2. 검색된 문서들을 Context로 조합
-        String context = relevantDocs.stream()
-            .map(Document::getText)
-            .collect(Collectors.joining("\n\n---\n\n"));
+        ContextAssembler.AssembledContext packed = contextAssembler.assemble(relevantDocs);
+        String context = packed.text();
 
         // 3. LLM에 컨텍스트와 함께 질문 전달
         String prompt = String.format("""
@@ -78,7 +138,7 @@ public class RagService {
             .content();
 
         log.info("RAG 답변 생성 완료");
-        return answer;
+        return new RagResponse(answer, toSources(packed.passages()));
     }
 
     /**
@@ -86,9 +146,14 @@ public class RagService {
      */
     public String askWithSystemPrompt(String question) {
         log.info("RAG (System Prompt) 질문: {}", question);
+        return answerWithCache("askWithSystemPrompt", question,
+            () -> generateWithSystemPrompt(question)).answer();
+    }
+
+    private RagResponse generateWithSystemPrompt(String question) {
 
         // 1. 관련 문서 검색
-        List<Document> relevantDocs = vectorStore.similaritySearch(
+        List<Document> relevantDocs = searchDiverse(
             SearchRequest.builder()
                 .query(question)
                 .topK(5)
@@ -97,13 +162,12 @@ public class RagService {
         );
 
         if (relevantDocs.isEmpty()) {
-            return "죄송하지만 관련 정보를 찾을 수 없습니다.";
+            return notFound("죄송하지만 관련 정보를 찾을 수 없습니다.");
         }
 
         // 2. 컨텍스트 구성
-        String context = relevantDocs.stream()
-            .map(Document::getText)
-            .collect(Collectors.joining("\n\n---\n\n"));
+        ContextAssembler.AssembledContext packed = contextAssembler.assemble(relevantDocs);
+        String context = packed.text();
 
         // 3. 시스템 프롬프트 + 유저 프롬프트 방식
         String systemPrompt = """
@@ -121,37 +185,92 @@ public class RagService {
             %s
             """, context, question);
 
-        return chatClient.prompt()
+        String answer = chatClient.prompt()
             .system(systemPrompt)
             .user(userPrompt)
             .call()
             .content();
+        return new RagResponse(answer, toSources(packed.passages()));
     }
 
     /**
-     * 스트리밍 방식의 RAG 답변
+     * 스트리밍 방식의 RAG 답변 (구독 전에는 아무 작업도 하지 않음)
+     * <p>
+     * 임베딩/검색은 retrievalScheduler(bounded)에서 실행해 요청 스레드를 막지 않고,
+     * 검색이 끝나면 retrieval_done → sources 이벤트를 먼저 보낸 뒤 답변 조각을 token 이벤트로 보낸다.
+     * 답변 스트림은 구독자 요청량만큼만 흘려보낸다(backpressure).
+     * 구독이 취소되면 진행 중인 검색 작업은 인터럽트되고, 답변 생성 중이면 LLM 스트림 연결을 끊는다.
+     * 요청마다 첫 이벤트까지(TTFB)와 첫 토큰까지(TTFT) 시간을 기록한다.
      */
-    public void askStream(String question, java.util.function.Consumer<String> callback) {
-        log.info("RAG 스트리밍 질문: {}", question);
+    public Flux<RagStreamEvent> askStream(String question) {
+        // 검색 프로필은 호출 스레드의 ThreadLocal이므로 읽어 두었다가 검색 스케줄러 작업에서 다시 지정
+        SearchProfile profile = searchProfiles.current();
+        return Flux.defer(() -> {
+            log.info("RAG 스트리밍 질문: {}", question);
+            long startNanos = System.nanoTime();
+            AtomicBoolean firstEvent = new AtomicBoolean();
+            AtomicBoolean firstToken = new AtomicBoolean();
+
+            return Mono.fromCallable(() -> searchProfiles.with(profile, () -> retrieveForStream(question, startNanos)))
+                .subscribeOn(retrievalScheduler)
+                .flatMapMany(this::streamAnswer)
+                .doOnNext(event -> {
+                    long elapsed = System.nanoTime() - startNanos;
+                    if (firstEvent.compareAndSet(false, true)) {
+                        ttfbTimer.record(elapsed, TimeUnit.NANOSECONDS);
+                    }
+                    if (RagStreamEvent.TOKEN.equals(event.type()) && firstToken.compareAndSet(false, true)) {
+                        ttftTimer.record(elapsed, TimeUnit.NANOSECONDS);
+                        log.info("첫 토큰까지 {}ms", TimeUnit.NANOSECONDS.toMillis(elapsed));
+                    }
+                })
+                .doOnCancel(() -> log.info("RAG 스트리밍 취소 (클라이언트 연결 종료): {}", question));
+        });
+    }
 
-        // 1. 관련 문서 검색
-        List<Document> relevantDocs = vectorStore.similaritySearch(
+    /**
+     * 스트리밍 답변의 검색 단계 (blocking, retrievalScheduler에서 실행)
+     */
+    private StreamRetrieval retrieveForStream(String question, long startNanos) {
+        // 0. 의미 캐시 적중 시 저장된 답변을 한 번에 전달
+        float[] queryVector = embeddingModel.embed(question);
+        long generation = answerCache.generation();
+        Optional<SemanticAnswerCache.CachedAnswer> cached = answerCache.lookup("askStream", queryVector);
+        if (cached.isPresent()) {
+            return new StreamRetrieval(question, queryVector, generation, null, cached.get(), startNanos);
+        }
+
+        // 1. 관련 문서 검색 + 컨텍스트 구성
+        List<Document> relevantDocs = searchDiverse(
             SearchRequest.builder()
                 .query(question)
                 .topK(5)
                 .build()
         );
+        ContextAssembler.AssembledContext packed = relevantDocs.isEmpty()
+            ? null
+            : contextAssembler.assemble(relevantDocs);
+        return new StreamRetrieval(question, queryVector, generation, packed, null, startNanos);
+    }
 
-        if (relevantDocs.isEmpty()) {
-            callback.accept("죄송하지만 관련 정보를 찾을 수 없습니다.");
-            return;
-        }
+    private Flux<RagStreamEvent> streamAnswer(StreamRetrieval retrieval) {
+        long retrievalMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - retrieval.startNanos());
 
-        // 2. 컨텍스트 구성
-        String context = relevantDocs.stream()
-            .map(Document::getText)
-            .collect(Collectors.joining("\n\n---\n\n"));
+        if (retrieval.cached() != null) {
+            return Flux.just(
+                RagStreamEvent.retrievalDone(retrieval.cached().sources().size(), retrievalMillis, true),
+                RagStreamEvent.sources(retrieval.cached().sources()),
+                RagStreamEvent.token(retrieval.cached().answer()),
+                RagStreamEvent.done());
+        }
+        if (retrieval.packed() == null) {
+            return Flux.just(
+                RagStreamEvent.retrievalDone(0, retrievalMillis, false),
+                RagStreamEvent.token("죄송하지만 관련 정보를 찾을 수 없습니다."),
+                RagStreamEvent.done());
+        }
 
+        List<DocumentSource> sources = toSources(retrieval.packed().passages());
         String prompt = String.format("""
             다음 문서들을 참고하여 질문에 답변해주세요.
             
@@ -160,18 +279,37 @@ public class RagService {
             
             [질문]
             %s
-            """, context, question);
+            """, retrieval.packed().text(), retrieval.question());
+
+        // 2. 스트리밍 응답 (완료되면 누적한 답변을 캐시에 저장)
+        StringBuilder answer = new StringBuilder();
+        Flux<RagStreamEvent> tokens = cancellationTracker.track("rag", chatClient.prompt()
+                .user(prompt)
+                .stream()
+                .content())
+            .doOnNext(answer::append)
+            .map(RagStreamEvent::token)
+            .doOnError(error -> log.error("스트리밍 오류: {}", error.getMessage()))
+            .doOnComplete(() -> {
+                log.info("스트리밍 완료");
+                answerCache.put("askStream", retrieval.queryVector(), retrieval.question(), answer.toString(),
+                    sources, retrieval.generation());
+            });
+
+        return Flux.concat(
+            Flux.just(
+                RagStreamEvent.retrievalDone(retrieval.packed().passages().size(), retrievalMillis, false),
+                RagStreamEvent.sources(sources)),
+            tokens,
+            Mono.just(RagStreamEvent.done()));
+    }
 
-        // 3. 스트리밍 응답
-        chatClient.prompt()
-            .user(prompt)
-            .stream()
-            .content()
-            .subscribe(
-                callback::accept,
-                error -> log.error("스트리밍 오류: {}", error.getMessage()),
-                () -> log.info("스트리밍 완료")
-            );
+    /**
+     * 스트리밍 답변의 검색 결과 (cached가 있으면 의미 캐시 적중, packed가 null이면 관련 문서 없음)
+     */
+    private record StreamRetrieval(String question, float[] queryVector, long generation,
+                                   ContextAssembler.AssembledContext packed,
+                                   SemanticAnswerCache.CachedAnswer cached, long startNanos) {
     }
 
     /**
@@ -179,9 +317,13 @@ public class RagService {
      */
     public RagResponse askWithSource(String question) {
         log.info("RAG (소스 포함) 질문: {}", question);
+        return answerWithCache("askWithSource", question, () -> generateWithSource(question));
+    }
+
+    private RagResponse generateWithSource(String question) {
 
         // 1. 관련 문서 검색
-        List<Document> relevantDocs = vectorStore.similaritySearch(
+        List<Document> relevantDocs = searchDiverse(
             SearchRequest.builder()
                 .query(question)
                 .topK(5)
@@ -196,9 +338,8 @@ public class RagService {
         }
 
         // 2. 컨텍스트 구성
-        String context = relevantDocs.stream()
-            .map(Document::getText)
-            .collect(Collectors.joining("\n\n---\n\n"));
+        ContextAssembler.AssembledContext packed = contextAssembler.assemble(relevantDocs);
+        String context = packed.text();
 
         String prompt = String.format("""
             다음 문서들을 참고하여 질문에 답변해주세요.
@@ -217,44 +358,59 @@ public class RagService {
             .content();
 
         // 4. 소스 정보 추출
-        List<DocumentSource> sources = relevantDocs.stream()
-            .map(doc -> new DocumentSource(
-                (String) doc.getMetadata().get("filename"),
-                (String) doc.getMetadata().get("document_id"),
-                doc.getText().substring(0, Math.min(200, doc.getText().length()))
-            ))
-            .toList();
+        return new RagResponse(answer, toSources(packed.passages()));
+    }
 
-        return new RagResponse(answer, sources);
+    /**
+     * 답변 컨텍스트용 검색: MMR 사용 시 topK x candidateFactor개를 검색해 겹치는 이웃 청크를 뒤로 밀고 topK 선택
+     * 선택된 자식 청크는 부모 구간으로 확장한다. (같은 부모의 형제는 병합)
+     */
+    private List<Document> searchDiverse(SearchRequest request) {
+        if (!mmrSelector.isEnabled()) {
+            return smallToBigExpander.expand(vectorStore.similaritySearch(request));
+        }
+        List<Document> candidates = vectorStore.similaritySearch(SearchRequest.from(request)
+            .topK(request.getTopK() * mmrSelector.getCandidateFactor())
+            .build());
+        return smallToBigExpander.expand(mmrSelector.select(request.getQuery(), candidates, request.getTopK()));
     }
 
     /**
      * 관련 문서만 검색 (답변 생성 없이)
      */
     public List<Document> searchDocuments(String query, int topK) {
-        log.info("문서 검색: {} (topK={})", query, topK);
+        return searchDocuments(query, topK, null);
+    }
 
-        return vectorStore.similaritySearch(
+    /**
+     * 검색 프로필을 지정한 문서 검색 (fast | balanced | accurate, null이면 기본 프로필)
+     *
+     * @throws IllegalArgumentException 없는 프로필 이름
+     */
+    public List<Document> searchDocuments(String query, int topK, String profile) {
+        log.info("문서 검색: {} (topK={}, profile={})", query, topK, profile);
+
+        return searchProfiles.with(profile, () -> vectorStore.similaritySearch(
             SearchRequest.builder()
                 .query(query)
                 .topK(topK)
                 .build()
-        );
+        ));
     }
 
     /**
      * 유사도 점수와 함께 검색
      */
-    public List<Document> searchWithScore(String query, int topK, double threshold) {
-        log.info("유사도 검색: {} (topK={}, threshold={})", query, topK, threshold);
+    public List<Document> searchWithScore(String query, int topK, double threshold, String profile) {
+        log.info("유사도 검색: {} (topK={}, threshold={}, profile={})", query, topK, threshold, profile);
 
-        return vectorStore.similaritySearch(
+        return searchProfiles.with(profile, () -> vectorStore.similaritySearch(
             SearchRequest.builder()
                 .query(query)
                 .topK(topK)
                 .similarityThreshold(threshold)
                 .build()
-        );
+        ));
     }
 
     /**
@@ -277,9 +433,14 @@ public class RagService {
      */
     public String askInDocument(String question, String documentId) {
         log.info("문서 내 RAG 질문: {} (documentId={})", question, documentId);
+        return answerWithCache("askInDocument:" + documentId, question,
+            () -> generateInDocument(question, documentId)).answer();
+    }
+
+    private RagResponse generateInDocument(String question, String documentId) {
 
         // 1. 특정 문서에서만 검색
-        List<Document> relevantDocs = vectorStore.similaritySearch(
+        List<Document> relevantDocs = searchDiverse(
             SearchRequest.builder()
                 .query(question)
                 .topK(3)
@@ -288,13 +449,12 @@ public class RagService {
         );
 
         if (relevantDocs.isEmpty()) {
-            return "해당 문서에서 관련 정보를 찾을 수 없습니다.";
+            return notFound("해당 문서에서 관련 정보를 찾을 수 없습니다.");
         }
 
         // 2. 컨텍스트 구성 및 답변 생성
-        String context = relevantDocs.stream()
-            .map(Document::getText)
-            .collect(Collectors.joining("\n\n---\n\n"));
+        ContextAssembler.AssembledContext packed = contextAssembler.assemble(relevantDocs);
+        String context = packed.text();
 
         String prompt = String.format("""
             다음 문서 내용을 참고하여 질문에 답변해주세요.
@@ -306,10 +466,11 @@ public class RagService {
             %s
             """, context, question);
 
-        return chatClient.prompt()
+        String answer = chatClient.prompt()
             .user(prompt)
             .call()
             .content();
+        return new RagResponse(answer, toSources(packed.passages()));
     }
 
     /**
@@ -317,37 +478,91 @@ public class RagService {
      */
     public String askWithReranking(String question) {
         log.info("RAG (재랭킹) 질문: {}", question);
+        return answerWithCache("askWithReranking", question,
+            () -> generateWithReranking(question)).answer();
+    }
+
+    private RagResponse generateWithReranking(String question) {
 
-        // 1. 더 많은 문서 검색 (10개)
+        // 1. 더 많은 문서 검색 (10개, MMR 사용 시 3 x candidateFactor개 중 큰 값)
+        boolean mmr = mmrSelector.isEnabled();
         List<Document> candidates = vectorStore.similaritySearch(
             SearchRequest.builder()
                 .query(question)
-                .topK(10)
+                .topK(mmr ? Math.max(10, 3 * mmrSelector.getCandidateFactor()) : 10)
                 .similarityThreshold(0.5)
                 .build()
         );
 
         if (candidates.isEmpty()) {
-            return "관련 정보를 찾을 수 없습니다.";
+            return notFound("관련 정보를 찾을 수 없습니다.");
         }
 
-        // 2. 재랭킹: 키워드 매칭 + 문서 길이 기반
-        List<Document> rerankedDocs = candidates.stream()
-            .sorted((d1, d2) -> {
-                int score1 = countKeywordMatches(d1.getText(), question);
-                int score2 = countKeywordMatches(d2.getText(), question);
-                return Integer.compare(score2, score1);
-            })
-            .limit(3)
-            .toList();
+        // 2. 재랭킹: 후보마다 한 번씩 채점 (시간 예산 초과 시 검색 순서 유지)
+        // MMR 사용 시 재순위한 후보 전체에서 겹치는 이웃 청크를 뒤로 밀고 3개 선택
+        List<Document> rerankedDocs = reranker.rerank(question, candidates, mmr ? candidates.size() : 3);
+        if (mmr) {
+            rerankedDocs = mmrSelector.select(question, rerankedDocs, 3);
+        }
 
         // 3. 컨텍스트 구성 및 답변 생성
-        String context = rerankedDocs.stream()
-            .map(Document::getText)
-            .collect(Collectors.joining("\n\n---\n\n"));
+        ContextAssembler.AssembledContext packed = contextAssembler.assemble(rerankedDocs);
+        String context = packed.text();
+
+        String prompt = String.format("""
+            다음 문서들을 참고하여 질문에 답변해주세요.
+            
+            [참고 문서]
+            %s
+            
+            [질문]
+            %s
+            """, context, question);
+
+        String answer = chatClient.prompt()
+            .user(prompt)
+            .call()
+            .content();
+        return new RagResponse(answer, toSources(packed.passages()));
+    }
+
+    /**
+     * 다중 질의 RAG: 질문을 여러 표현으로 바꿔 (문서 필터별로) 병렬 검색 후 RRF로 결합
+     *
+     * @param documentIds 검색할 문서 ID (비어 있으면 전체)
+     */
+    public RagResponse askWithMultiQuery(String question, List<String> documentIds) {
+        log.info("다중 질의 RAG 질문: {} (documentIds={})", question, documentIds);
+        List<String> scope = documentIds.stream().sorted().toList();
+        return answerWithCache("askWithMultiQuery:" + String.join(",", scope), question,
+            () -> generateWithMultiQuery(question, scope));
+    }
+
+    private RagResponse generateWithMultiQuery(String question, List<String> documentIds) {
+        // UUID 형식만 허용 (필터 식에 그대로 들어가므로)
+        List<String> filters = documentIds.stream()
+            .map(documentId -> "document_id == '" + UUID.fromString(documentId) + "'")
+            .toList();
+
+        // MMR 사용 시 결합 결과를 5 x candidateFactor개 받아 겹치는 이웃 청크를 뒤로 밀고 5개 선택
+        List<Document> relevantDocs;
+        if (mmrSelector.isEnabled()) {
+            relevantDocs = mmrSelector.select(question,
+                multiQueryRetriever.retrieve(question, filters, 5 * mmrSelector.getCandidateFactor(), 0.5), 5);
+        } else {
+            relevantDocs = multiQueryRetriever.retrieve(question, filters, 5, 0.5);
+        }
+
+        if (relevantDocs.isEmpty()) {
+            return notFound("관련 정보를 찾을 수 없습니다.");
+        }
+
+        ContextAssembler.AssembledContext packed = contextAssembler.assemble(relevantDocs);
+        String context = packed.text();
 
         String prompt = String.format("""
             다음 문서들을 참고하여 질문에 답변해주세요.
+            문서에 없는 내용은 답변하지 마세요.
             
             [참고 문서]
             %s
@@ -356,26 +571,45 @@ public class RagService {
             %s
             """, context, question);
 
-        return chatClient.prompt()
+        String answer = chatClient.prompt()
             .user(prompt)
             .call()
             .content();
+        return new RagResponse(answer, toSources(packed.passages()));
     }
 
     /**
-     * 키워드 매칭 개수 계산 (재랭킹용)
+     * 의미 캐시 조회 후 없으면 생성해서 저장
+     * 질의 임베딩은 질의 임베딩 캐시를 거치므로 이어지는 유사도 검색에서 다시 계산하지 않는다.
+     *
+     * @param scope 호출 경로 + 검색 조건 (프롬프트/검색 조건이 다른 답변끼리 섞이지 않도록 구분)
      */
-    private int countKeywordMatches(String content, String question) {
-        String[] keywords = question.toLowerCase().split("\\s+");
-        String lowerContent = content.toLowerCase();
-
-        int count = 0;
-        for (String keyword : keywords) {
-            if (keyword.length() > 1 && lowerContent.contains(keyword)) {
-                count++;
-            }
+    private RagResponse answerWithCache(String scope, String question, Supplier<RagResponse> generator) {
+        float[] queryVector = embeddingModel.embed(question);
+        long generation = answerCache.generation();
+
+        Optional<SemanticAnswerCache.CachedAnswer> cached = answerCache.lookup(scope, queryVector);
+        if (cached.isPresent()) {
+            log.info("의미 캐시 적중 ({}): similarity={}", scope, String.format("%.4f", cached.get().similarity()));
+            return new RagResponse(cached.get().answer(), cached.get().sources());
         }
-        return count;
+
+        RagResponse response = generator.get();
+        answerCache.put(scope, queryVector, question, response.answer(), response.sources(), generation);
+        return response;
+    }
+
+    /**
+     * 관련 문서가 없을 때의 응답 (출처가 없으므로 캐시하지 않음)
+     */
+    private static RagResponse notFound(String message) {
+        return new RagResponse(message, List.of());
+    }
+
+    private static List<DocumentSource> toSources(List<Document> documents) {
+        return documents.stream()
+            .map(DocumentSource::from)
+            .toList();
     }
 
     /**
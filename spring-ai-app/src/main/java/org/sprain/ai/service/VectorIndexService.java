@@ -0,0 +1,411 @@
+package org.sprain.ai.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.sprain.ai.config.RetrievalConfig;
+import org.sprain.ai.config.model.VectorStoreConfig;
+import org.sprain.ai.dto.MmrReport;
+import org.sprain.ai.dto.QuantizationReport;
+import org.sprain.ai.dto.VectorIndexBuildRequest;
+import org.sprain.ai.dto.VectorIndexBuildResult;
+import org.sprain.ai.dto.VectorIndexStatus;
+import org.sprain.ai.global.helper.rag.ContextAssembler;
+import org.sprain.ai.global.helper.rag.MmrSelector;
+import org.sprain.ai.global.helper.vector.AnnIndexSpec;
+import org.sprain.ai.global.helper.vector.Quantization;
+import org.sprain.ai.global.helper.vector.QuantizedPgVectorStore;
+import org.sprain.ai.global.helper.vector.SearchProfiles;
+import org.sprain.ai.global.helper.vector.VectorMath;
+import org.springframework.ai.document.Document;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * vector_store 인덱스 관리/진단
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class VectorIndexService {
+
+    private static final int MAX_EF_SEARCH = 1000;
+    private static final Pattern INDEX_SCAN = Pattern.compile("Index (?:Only )?Scan using (\\S+) on");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RetrievalConfig retrievalConfig;
+    private final ContextAssembler contextAssembler;
+    private final SearchProfiles searchProfiles;
+    private final AtomicBoolean building = new AtomicBoolean();
+
+    /**
+     * 양자화 방식별 recall@k와 메모리 절감 비교
+     * <p>
+     * 저장된 청크 sampleSize개의 임베딩을 질의로 사용하고, 질의 자신은 결과에서 제외한다.
+     * 기준값은 원본 벡터 전수 검색(인덱스 미사용), 양자화 검색은 운영과 같은 SQL(식 인덱스가 있으면 사용)이다.
+     */
+    public QuantizationReport quantizationReport(int sampleSize, int k) {
+        int dimensions = VectorStoreConfig.EMBEDDING_DIMENSIONS;
+        boolean normalized = retrievalConfig.isNormalizeEmbeddings();
+        int oversample = Math.max(1, retrievalConfig.getRescoreOversample());
+
+        Long count = jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM vector_store WHERE embedding IS NOT NULL", Long.class);
+        long vectorCount = count == null ? 0 : count;
+
+        List<String[]> samples = jdbcTemplate.query(
+            "SELECT id::text, embedding::text FROM vector_store WHERE embedding IS NOT NULL ORDER BY random() LIMIT ?",
+            (rs, rowNum) -> new String[]{rs.getString(1), rs.getString(2)},
+            sampleSize);
+
+        List<Set<String>> expected = new ArrayList<>(samples.size());
+        for (String[] sample : samples) {
+            expected.add(exactTopK(sample[0], sample[1], k));
+        }
+
+        long fullPrecisionBytes = vectorCount * Quantization.NONE.bytesPerVector(dimensions);
+        List<QuantizationReport.ModeResult> modes = new ArrayList<>();
+        for (Quantization quantization : List.of(Quantization.HALFVEC, Quantization.BINARY)) {
+            double withoutRescore = 0;
+            double withRescore = 0;
+            for (int i = 0; i < samples.size(); i++) {
+                String[] sample = samples.get(i);
+                withoutRescore += recall(expected.get(i),
+                    quantizedTopK(quantization, normalized, sample[0], sample[1], k, k + 1));
+                withRescore += recall(expected.get(i),
+                    quantizedTopK(quantization, normalized, sample[0], sample[1], k, (k + 1) * oversample));
+            }
+            long estimatedBytes = vectorCount * quantization.bytesPerVector(dimensions);
+            modes.add(new QuantizationReport.ModeResult(
+                quantization.name().toLowerCase(),
+                samples.isEmpty() ? 0 : withoutRescore / samples.size(),
+                samples.isEmpty() ? 0 : withRescore / samples.size(),
+                estimatedBytes,
+                fullPrecisionBytes == 0 ? 0 : 1.0 - (double) estimatedBytes / fullPrecisionBytes,
+                jdbcTemplate.queryForObject("SELECT pg_relation_size(to_regclass(?))", Long.class,
+                    quantization.indexName(normalized))));
+        }
+
+        log.info("양자화 보고서: 표본 {}개, k={}, 벡터 {}개", samples.size(), k, vectorCount);
+        return new QuantizationReport(samples.size(), k, oversample, normalized, vectorCount,
+            fullPrecisionBytes, modes);
+    }
+
+    /**
+     * MMR λ별 recall@k와 중복 토큰 비교
+     * <p>
+     * 저장된 청크 sampleSize개의 임베딩을 질의로 사용하고(질의 자신은 제외), 전수 검색 상위 candidates개를 후보로
+     * λ마다 MMR로 k개를 고른다. 토큰 절감은 유사도 순 top-k를 그대로 보냈을 때의 중복 토큰과 비교한다.
+     */
+    public MmrReport mmrReport(int sampleSize, int k, int candidates, List<Double> lambdas) {
+        List<String[]> samples = jdbcTemplate.query(
+            "SELECT id::text, embedding::text FROM vector_store WHERE embedding IS NOT NULL ORDER BY random() LIMIT ?",
+            (rs, rowNum) -> new String[]{rs.getString(1), rs.getString(2)},
+            sampleSize);
+
+        int lambdaCount = lambdas.size();
+        double[] recall = new double[lambdaCount];
+        double[] pairSimilarity = new double[lambdaCount];
+        double[] rawTokens = new double[lambdaCount];
+        double[] contextTokens = new double[lambdaCount];
+        double baselineRedundant = 0;
+
+        for (String[] sample : samples) {
+            float[] query = VectorMath.parseVector(sample[1]);
+            List<Candidate> pool = exactCandidates(sample[0], sample[1], Math.max(k, candidates));
+            float[][] vectors = new float[pool.size()][];
+            for (int i = 0; i < pool.size(); i++) {
+                vectors[i] = VectorMath.normalize(pool.get(i).vector());
+            }
+
+            int[] topK = new int[Math.min(k, pool.size())];
+            for (int i = 0; i < topK.length; i++) {
+                topK[i] = i;
+            }
+            ContextAssembler.AssembledContext baseline = contextAssembler.measure(toDocuments(pool, topK));
+            baselineRedundant += baseline.inputTokens() - baseline.contextTokens();
+
+            for (int l = 0; l < lambdaCount; l++) {
+                int[] selected = MmrSelector.select(query, vectors, k, lambdas.get(l));
+                ContextAssembler.AssembledContext packed = contextAssembler.measure(toDocuments(pool, selected));
+                long hits = Arrays.stream(selected).filter(index -> index < topK.length).count();
+                recall[l] += topK.length == 0 ? 1.0 : (double) hits / topK.length;
+                pairSimilarity[l] += meanPairSimilarity(vectors, selected);
+                rawTokens[l] += packed.inputTokens();
+                contextTokens[l] += packed.contextTokens();
+            }
+        }
+
+        int n = Math.max(1, samples.size());
+        List<MmrReport.LambdaResult> results = new ArrayList<>(lambdaCount);
+        for (int l = 0; l < lambdaCount; l++) {
+            double redundant = (rawTokens[l] - contextTokens[l]) / n;
+            results.add(new MmrReport.LambdaResult(lambdas.get(l), recall[l] / n, pairSimilarity[l] / n,
+                rawTokens[l] / n, contextTokens[l] / n, redundant, baselineRedundant / n - redundant));
+        }
+
+        log.info("MMR 보고서: 표본 {}개, k={}, 후보 {}개", samples.size(), k, candidates);
+        return new MmrReport(samples.size(), k, candidates, results);
+    }
+
+    /**
+     * vector_store ANN 인덱스 목록 + 현재 검색 경로가 실제로 쓰는 인덱스 (EXPLAIN)
+     */
+    public VectorIndexStatus indexStatus() {
+        List<VectorIndexStatus.IndexInfo> indexes = jdbcTemplate.query("""
+                SELECT c.relname                           AS name,
+                       am.amname                           AS method,
+                       pg_get_indexdef(i.indexrelid)       AS definition,
+                       pg_relation_size(i.indexrelid)      AS size_bytes,
+                       i.indisvalid                        AS valid
+                FROM pg_index i
+                         JOIN pg_class c ON c.oid = i.indexrelid
+                         JOIN pg_am am ON am.oid = c.relam
+                WHERE i.indrelid = 'vector_store'::regclass
+                  AND am.amname IN ('hnsw', 'ivfflat')
+                ORDER BY c.relname
+                """,
+            (rs, rowNum) -> new VectorIndexStatus.IndexInfo(
+                rs.getString("name"),
+                rs.getString("method"),
+                rs.getString("definition"),
+                rs.getLong("size_bytes"),
+                rs.getBoolean("valid")));
+
+        Quantization quantization = Quantization.from(retrievalConfig.getQuantization());
+        List<String> plan = explainSearch(quantization, retrievalConfig.isNormalizeEmbeddings());
+        String activeIndex = plan.stream()
+            .map(INDEX_SCAN::matcher)
+            .filter(Matcher::find)
+            .map(matcher -> matcher.group(1))
+            .findFirst()
+            .orElse(null);
+
+        return new VectorIndexStatus(retrievalConfig.getVectorStore(), quantization.name().toLowerCase(Locale.ROOT),
+            activeIndex, plan, indexes, searchProfiles.getDefault().name(), List.copyOf(searchProfiles.all()));
+    }
+
+    /**
+     * 검색 경로의 후보 정렬식으로 EXPLAIN (저장된 임베딩 하나를 질의로 사용)
+     * PgVectorStore는 embedding &lt;=&gt; 질의, 양자화 검색은 식 인덱스와 같은 정렬식을 쓴다.
+     */
+    private List<String> explainSearch(Quantization quantization, boolean normalized) {
+        String sample = jdbcTemplate.query(
+            "SELECT embedding::text FROM vector_store WHERE embedding IS NOT NULL LIMIT 1",
+            rs -> rs.next() ? rs.getString(1) : null);
+        if (sample == null) {
+            return List.of();
+        }
+        String orderBy = quantization == Quantization.NONE
+            ? "embedding <=> ?::vector"
+            : quantization.candidateOrderBy(VectorStoreConfig.EMBEDDING_DIMENSIONS, normalized);
+        return jdbcTemplate.queryForList(
+            "EXPLAIN SELECT id FROM vector_store WHERE embedding IS NOT NULL ORDER BY " + orderBy + " LIMIT 10",
+            String.class, sample);
+    }
+
+    /**
+     * ANN 인덱스 구축/재구축 (CREATE INDEX CONCURRENTLY, 쓰기를 막지 않음)
+     * <p>
+     * 임시 이름으로 새 인덱스를 다 만든 뒤 기존 인덱스를 지우고 이름을 바꾸므로
+     * 구축 중에도 기존 인덱스로 검색된다. 실패하면 INVALID로 남은 임시 인덱스만 지운다.
+     * 한 번에 하나의 구축만 허용한다.
+     *
+     * @throws IllegalArgumentException 잘못된 방식/대상/파라미터
+     * @throws IllegalStateException    다른 구축이 진행 중일 때
+     */
+    public VectorIndexBuildResult buildIndex(VectorIndexBuildRequest request) {
+        int dimensions = VectorStoreConfig.EMBEDDING_DIMENSIONS;
+        boolean normalized = retrievalConfig.isNormalizeEmbeddings();
+        AnnIndexSpec spec = toSpec(request);
+        spec.validate(dimensions);
+
+        if (!building.compareAndSet(false, true)) {
+            throw new IllegalStateException("다른 인덱스 구축이 진행 중입니다");
+        }
+        try {
+            String name = spec.indexName(normalized);
+            String temporary = name + "_rebuild";
+            // 이전에 중단된 구축이 남긴 임시 인덱스 정리 (CONCURRENTLY는 트랜잭션 밖에서만 실행 가능)
+            jdbcTemplate.execute("DROP INDEX CONCURRENTLY IF EXISTS " + temporary);
+
+            log.info("벡터 인덱스 구축 시작: {} ({})", name, spec);
+            long started = System.nanoTime();
+            try {
+                jdbcTemplate.execute(spec.createIndexSql(temporary, dimensions, normalized));
+            } catch (RuntimeException e) {
+                jdbcTemplate.execute("DROP INDEX CONCURRENTLY IF EXISTS " + temporary);
+                throw e;
+            }
+            long buildMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+            boolean replaced = Boolean.TRUE.equals(
+                jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, name));
+            jdbcTemplate.execute("DROP INDEX CONCURRENTLY IF EXISTS " + name);
+            jdbcTemplate.execute("ALTER INDEX " + temporary + " RENAME TO " + name);
+
+            Long size = jdbcTemplate.queryForObject("SELECT pg_relation_size(to_regclass(?))", Long.class, name);
+            String definition = jdbcTemplate.queryForObject("SELECT pg_get_indexdef(to_regclass(?))", String.class,
+                name);
+            log.info("벡터 인덱스 구축 완료: {} ({}ms, {} bytes, 교체={})", name, buildMillis, size, replaced);
+            return new VectorIndexBuildResult(name, spec.method().name().toLowerCase(Locale.ROOT),
+                spec.target().name().toLowerCase(Locale.ROOT), definition, buildMillis,
+                size == null ? 0 : size, replaced);
+        } finally {
+            building.set(false);
+        }
+    }
+
+    private AnnIndexSpec toSpec(VectorIndexBuildRequest request) {
+        AnnIndexSpec.Method method = AnnIndexSpec.Method.from(request.method());
+        Quantization target = Quantization.from(
+            request.target() == null ? retrievalConfig.getQuantization() : request.target());
+        int m = request.m() == null ? 16 : request.m();
+        int efConstruction = request.efConstruction() == null ? 64 : request.efConstruction();
+        int lists = request.lists() != null ? request.lists() : defaultLists();
+        return new AnnIndexSpec(method, target, m, efConstruction, lists);
+    }
+
+    /**
+     * IVFFlat 기본 리스트 수: 행 수 / 1000 (pgvector 권장, 100만 행 이하 기준)
+     */
+    private int defaultLists() {
+        Long count = jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM vector_store WHERE embedding IS NOT NULL", Long.class);
+        return (int) Math.max(1, Math.min(32768, (count == null ? 0 : count) / 1000));
+    }
+
+    /**
+     * 전수 검색 상위 limit개 (질의 자신 제외, 본문/임베딩 포함)
+     */
+    private List<Candidate> exactCandidates(String id, String embedding, int limit) {
+        List<Candidate> rows = transactionTemplate.execute(status -> {
+            jdbcTemplate.queryForObject("SELECT set_config('enable_indexscan', 'off', true)", String.class);
+            return jdbcTemplate.query("""
+                    SELECT id::text AS id, content,
+                           metadata ->> 'document_id' AS document_id,
+                           (metadata ->> 'chunk_index')::int AS chunk_index,
+                           embedding::text AS embedding
+                    FROM vector_store
+                    WHERE embedding IS NOT NULL
+                    ORDER BY embedding <=> ?::vector
+                    LIMIT ?
+                    """,
+                (rs, rowNum) -> new Candidate(
+                    rs.getString("id"),
+                    rs.getString("content"),
+                    rs.getString("document_id"),
+                    rs.getObject("chunk_index", Integer.class),
+                    VectorMath.parseVector(rs.getString("embedding"))),
+                embedding, limit + 1);
+        });
+        List<Candidate> result = new ArrayList<>();
+        if (rows != null) {
+            for (Candidate row : rows) {
+                if (!row.id().equals(id) && result.size() < limit) {
+                    result.add(row);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static List<Document> toDocuments(List<Candidate> pool, int[] indexes) {
+        List<Document> documents = new ArrayList<>(indexes.length);
+        for (int index : indexes) {
+            Candidate candidate = pool.get(index);
+            Map<String, Object> metadata = new HashMap<>();
+            metadata.put("document_id", candidate.documentId());
+            if (candidate.chunkIndex() != null) {
+                metadata.put("chunk_index", candidate.chunkIndex());
+            }
+            documents.add(new Document(candidate.id(), candidate.content(), metadata));
+        }
+        return documents;
+    }
+
+    private static double meanPairSimilarity(float[][] vectors, int[] selected) {
+        if (selected.length < 2) {
+            return 0;
+        }
+        double sum = 0;
+        int pairs = 0;
+        for (int i = 0; i < selected.length; i++) {
+            for (int j = i + 1; j < selected.length; j++) {
+                float[] a = vectors[selected[i]];
+                float[] b = vectors[selected[j]];
+                double dot = 0;
+                for (int d = 0; d < a.length; d++) {
+                    dot += a[d] * b[d];
+                }
+                sum += dot;
+                pairs++;
+            }
+        }
+        return sum / pairs;
+    }
+
+    /**
+     * 원본 벡터 전수 검색 top-k (SET LOCAL로 인덱스 스캔을 꺼서 근사 결과가 섞이지 않게 함)
+     */
+    private Set<String> exactTopK(String id, String embedding, int k) {
+        List<String> ids = transactionTemplate.execute(status -> {
+            jdbcTemplate.queryForObject("SELECT set_config('enable_indexscan', 'off', true)", String.class);
+            return jdbcTemplate.queryForList(
+                "SELECT id::text FROM vector_store WHERE embedding IS NOT NULL "
+                    + "ORDER BY embedding <=> ?::vector LIMIT ?",
+                String.class, embedding, k + 1);
+        });
+        return withoutSelf(ids, id, k);
+    }
+
+    private Set<String> quantizedTopK(Quantization quantization, boolean normalized,
+                                      String id, String embedding, int k, int candidates) {
+        String sql = QuantizedPgVectorStore.searchSql(
+            quantization, VectorStoreConfig.EMBEDDING_DIMENSIONS, normalized, false);
+        List<String> ids = transactionTemplate.execute(status -> {
+            jdbcTemplate.queryForObject("SELECT set_config('hnsw.ef_search', ?, true)", String.class,
+                String.valueOf(Math.min(MAX_EF_SEARCH, Math.max(40, candidates))));
+            return jdbcTemplate.query(sql, (rs, rowNum) -> rs.getString("id"),
+                embedding, candidates, embedding, k + 1);
+        });
+        return withoutSelf(ids, id, k);
+    }
+
+    private static Set<String> withoutSelf(List<String> ids, String self, int k) {
+        Set<String> result = new HashSet<>();
+        if (ids != null) {
+            for (String id : ids) {
+                if (!id.equals(self) && result.size() < k) {
+                    result.add(id);
+                }
+            }
+        }
+        return result;
+    }
+
+    private record Candidate(String id, String content, String documentId, Integer chunkIndex, float[] vector) {
+    }
+
+    private static double recall(Set<String> expected, Set<String> actual) {
+        if (expected.isEmpty()) {
+            return 1.0;
+        }
+        long hits = actual.stream().filter(expected::contains).count();
+        return (double) hits / expected.size();
+    }
+}
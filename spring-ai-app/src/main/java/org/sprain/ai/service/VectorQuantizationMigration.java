@@ -0,0 +1,90 @@
+package org.sprain.ai.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.sprain.ai.config.RetrievalConfig;
+import org.sprain.ai.config.model.VectorStoreConfig;
+import org.sprain.ai.global.helper.vector.Quantization;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * 임베딩 정규화/양자화 설정에 맞춰 기존 vector_store를 이전
+ * <p>
+ * <ul>
+ *     <li>normalize-embeddings=true: 단위 벡터가 아닌 행을 l2_normalize로 배치 갱신
+ *         (배치마다 커밋하므로 중단되어도 다음 시작 때 남은 행부터 이어서 처리)</li>
+ *     <li>quantization=halfvec|binary: 식 인덱스를 CREATE INDEX CONCURRENTLY로 생성
+ *         (쓰기를 막지 않음, 이전에 실패해 INVALID로 남은 인덱스는 지우고 다시 만듦)</li>
+ * </ul>
+ * halfvec, binary_quantize, l2_normalize는 pgvector 0.7 이상이 필요하다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class VectorQuantizationMigration implements ApplicationRunner {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RetrievalConfig retrievalConfig;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        boolean normalized = retrievalConfig.isNormalizeEmbeddings();
+        Quantization quantization = Quantization.from(retrievalConfig.getQuantization());
+
+        if (normalized) {
+            normalizeExisting();
+        }
+        if (quantization != Quantization.NONE) {
+            ensureIndex(quantization, normalized);
+        }
+    }
+
+    private void normalizeExisting() {
+        int normalized = 0;
+        int batch;
+        do {
+            // 자동 커밋 UPDATE 한 번이 한 배치 (행 잠금이 짧게 유지됨)
+            batch = jdbcTemplate.update("""
+                UPDATE vector_store
+                SET embedding = l2_normalize(embedding)
+                WHERE id IN (
+                    SELECT id FROM vector_store
+                    WHERE embedding IS NOT NULL AND abs(vector_norm(embedding) - 1) > 1e-3
+                    LIMIT ?
+                    FOR UPDATE SKIP LOCKED
+                )
+                """, BATCH_SIZE);
+            normalized += batch;
+        } while (batch > 0);
+
+        if (normalized > 0) {
+            log.info("임베딩 L2 정규화 완료: {}건", normalized);
+        }
+    }
+
+    private void ensureIndex(Quantization quantization, boolean normalized) {
+        String indexName = quantization.indexName(normalized);
+        Boolean valid = jdbcTemplate.query(
+            "SELECT indisvalid FROM pg_index WHERE indexrelid = to_regclass(?)",
+            rs -> rs.next() ? rs.getBoolean(1) : null,
+            indexName);
+        if (Boolean.TRUE.equals(valid)) {
+            return;
+        }
+        if (Boolean.FALSE.equals(valid)) {
+            log.warn("INVALID 상태인 양자화 인덱스를 다시 만듭니다: {}", indexName);
+            jdbcTemplate.execute("DROP INDEX CONCURRENTLY IF EXISTS " + indexName);
+        }
+
+        long started = System.currentTimeMillis();
+        log.info("양자화 인덱스 생성 시작: {}", indexName);
+        // CONCURRENTLY는 트랜잭션 밖(자동 커밋)에서만 실행 가능
+        jdbcTemplate.execute(quantization.createIndexSql(VectorStoreConfig.EMBEDDING_DIMENSIONS, normalized));
+        log.info("양자화 인덱스 생성 완료: {} ({}ms)", indexName, System.currentTimeMillis() - started);
+    }
+}
@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.sprain.ai.dto.ImageAnalysisResponse;
 import org.sprain.ai.dto.TokenUsage;
+import org.sprain.ai.global.advisor.UsageLoggingAdvisor;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.messages.UserMessage;
 import org.springframework.ai.chat.model.ChatResponse;
@@ -64,16 +65,8 @@ public class VisionService {
             String analysis = response.getResult().getOutput().getText();
 
             // 7. 토큰 사용량 추출
-            TokenUsage tokenUsage = null;
             var metadata = response.getMetadata();
-            if (metadata != null && metadata.getUsage() != null) {
-                var usage = metadata.getUsage();
-                tokenUsage = new TokenUsage(
-                    usage.getPromptTokens(),
-                    usage.getCompletionTokens(),
-                    usage.getTotalTokens()
-                );
-            }
+            TokenUsage tokenUsage = metadata != null ? UsageLoggingAdvisor.toTokenUsage(metadata.getUsage()) : null;
 
             return ImageAnalysisResponse.of(
                 analysis,
@@ -19,10 +19,9 @@ CREATE TABLE IF NOT EXISTS vector_store
 -- ================================================
 -- 성능 최적화 인덱스
 -- ================================================
-CREATE INDEX idx_vector_store_embedding
-    ON vector_store
-    USING ivfflat (embedding vector_cosine_ops)
-    WITH (lists = 100);
+-- ANN 인덱스: vector 타입 HNSW/IVFFlat 인덱스는 2000차원까지만 가능하므로 vector(2048)에는 만들 수 없다.
+-- halfvec 식 인덱스(HNSW/IVFFlat, 4000차원까지)를 quantization=halfvec 설정(시작 시 자동 생성) 또는
+-- POST /api/vector-index/indexes 로 만들고, GET /api/vector-index/indexes 로 실제 사용 여부를 확인한다.
 
 CREATE INDEX IF NOT EXISTS idx_vector_store_metadata
     ON vector_store
@@ -36,7 +35,6 @@ CREATE TABLE IF NOT EXISTS documents
 (
     id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
     filename     VARCHAR(255) NOT NULL,
-    content      TEXT         NOT NULL,
     content_type VARCHAR(50)  NOT NULL,
     uploaded_at  TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     chunk_count  INTEGER      NOT NULL,
@@ -57,6 +55,10 @@ CREATE INDEX IF NOT EXISTS idx_documents_filename
 CREATE INDEX IF NOT EXISTS idx_documents_uploaded_at
     ON documents(uploaded_at DESC);
 
+-- 문서 목록 키셋 페이지네이션 (uploaded_at DESC, id DESC)
+CREATE INDEX IF NOT EXISTS idx_documents_uploaded_id
+    ON documents(uploaded_at DESC, id DESC);
+
 -- 컨텐츠 타입으로 필터링할 때
 CREATE INDEX IF NOT EXISTS idx_documents_content_type
     ON documents(content_type);
@@ -71,12 +73,21 @@ CREATE INDEX IF NOT EXISTS idx_documents_type_date
 COMMENT ON TABLE documents IS '업로드된 문서 정보를 저장하는 테이블';
 COMMENT ON COLUMN documents.id IS '문서 고유 식별자 (UUID)';
 COMMENT ON COLUMN documents.filename IS '원본 파일명';
-COMMENT ON COLUMN documents.content IS '문서 전체 내용';
 COMMENT ON COLUMN documents.content_type IS '문서 타입 (PDF, DOCX, TXT 등)';
 COMMENT ON COLUMN documents.uploaded_at IS '업로드 일시';
 COMMENT ON COLUMN documents.chunk_count IS '문서가 나뉜 청크 개수';
 COMMENT ON COLUMN documents.metadata IS 'JSON 형태의 추가 메타데이터';
 
+-- ================================================
+-- 기능별 테이블/컬럼은 애플리케이션 시작 시 각 기능의 마이그레이션이 만든다
+-- (service 패키지의 *Migration - 기존 DB와 새 DB 모두 같은 경로)
+--   document_contents, documents.content_length: DocumentContentMigration
+--   ingestion_jobs: IngestionJobMigration
+--   documents.content_hash, embedding_cache: EmbeddingCacheMigration
+--   documents.chunking: ChunkingStrategyMigration
+--   chunk_parents: ChunkParentMigration
+-- ================================================
+
 -- ================================================
 -- 확인 메시지
 -- ================================================
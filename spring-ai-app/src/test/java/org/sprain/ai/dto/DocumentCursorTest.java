@@ -0,0 +1,51 @@
+package org.sprain.ai.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DocumentCursorTest {
+
+    @Test
+    void encodedCursorDecodesToTheSameRow() {
+        DocumentCursor cursor = new DocumentCursor(LocalDateTime.of(2025, 3, 14, 9, 26, 53, 589_793_000), UUID.randomUUID());
+
+        assertEquals(cursor, DocumentCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void wholeMinuteTimestampRoundTrips() {
+        // LocalDateTime.toString은 초가 0이면 초를 생략함
+        DocumentCursor cursor = new DocumentCursor(LocalDateTime.of(2025, 1, 1, 0, 0), UUID.randomUUID());
+
+        assertEquals(cursor, DocumentCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void encodedCursorIsUrlSafe() {
+        DocumentCursor cursor = new DocumentCursor(LocalDateTime.of(2025, 3, 14, 9, 26, 53), UUID.randomUUID());
+
+        String encoded = cursor.encode();
+
+        assertTrue(encoded.matches("[A-Za-z0-9_-]+"), encoded);
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> DocumentCursor.decode("not a cursor!"));
+        assertThrows(IllegalArgumentException.class, () -> DocumentCursor.decode(encode("2025-01-01T00:00")));
+        assertThrows(IllegalArgumentException.class, () -> DocumentCursor.decode(encode("yesterday|" + UUID.randomUUID())));
+        assertThrows(IllegalArgumentException.class, () -> DocumentCursor.decode(encode("2025-01-01T00:00|not-a-uuid")));
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
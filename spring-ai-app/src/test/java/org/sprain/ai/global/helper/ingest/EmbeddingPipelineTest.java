@@ -0,0 +1,162 @@
+package org.sprain.ai.global.helper.ingest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.sprain.ai.config.IngestionConfig;
+import org.sprain.ai.global.exception.custom.IngestionException;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.VectorStore;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class EmbeddingPipelineTest {
+
+    private VectorStore vectorStore;
+    private EmbeddingPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        IngestionConfig config = new IngestionConfig();
+        config.setEmbeddingConcurrency(4);
+        config.setMaxAttempts(3);
+        config.setRetryBackoff(Duration.ofMillis(1));
+        vectorStore = mock(VectorStore.class);
+        pipeline = new EmbeddingPipeline(vectorStore, config, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        pipeline.shutdown();
+    }
+
+    @Test
+    void failedBatchIsRetriedUntilItSucceeds() {
+        AtomicInteger calls = new AtomicInteger();
+        doAnswer(invocation -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new IllegalStateException("ollama unavailable");
+            }
+            return null;
+        }).when(vectorStore).add(anyList());
+
+        EmbeddingPipeline.Session session = pipeline.open("doc");
+        session.submit(batch("a", 2));
+
+        assertEquals(2, session.awaitCompletion());
+        verify(vectorStore, times(3)).add(anyList());
+    }
+
+    @Test
+    void batchFailsAfterMaxAttemptsAndStopsTheSession() {
+        doAnswer(invocation -> {
+            throw new IllegalStateException("ollama unavailable");
+        }).when(vectorStore).add(anyList());
+
+        EmbeddingPipeline.Session session = pipeline.open("doc");
+        session.submit(batch("a", 2));
+
+        assertThrows(IngestionException.class, session::awaitCompletion);
+        verify(vectorStore, times(3)).add(anyList());
+        // 실패한 세션에는 더 이상 배치를 넣을 수 없음
+        assertThrows(IngestionException.class, () -> session.submit(batch("b", 1)));
+    }
+
+    @Test
+    void checkpointAdvancesOnlyOverContiguousBatches() throws InterruptedException {
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        CountDownLatch secondStored = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            List<Document> docs = invocation.getArgument(0);
+            if (docs.get(0).getId().startsWith("a")) {
+                assertTrue(releaseFirst.await(5, TimeUnit.SECONDS));
+            } else {
+                secondStored.countDown();
+            }
+            return null;
+        }).when(vectorStore).add(anyList());
+
+        List<Integer> checkpoints = new CopyOnWriteArrayList<>();
+        EmbeddingPipeline.Session session = pipeline.open("doc", 10, checkpoints::add);
+        session.submit(batch("a", 2));
+        session.submit(batch("b", 3));
+
+        // 두 번째 배치가 먼저 저장돼도 첫 배치가 끝나기 전에는 체크포인트가 움직이지 않음
+        assertTrue(secondStored.await(5, TimeUnit.SECONDS));
+        assertEquals(10, session.getCheckpoint());
+        releaseFirst.countDown();
+
+        assertEquals(5, session.awaitCompletion());
+        assertEquals(15, session.getCheckpoint());
+        assertEquals(15, checkpoints.get(checkpoints.size() - 1));
+        for (int i = 0; i < checkpoints.size(); i++) {
+            assertTrue(checkpoints.get(i) == 12 || checkpoints.get(i) == 15, "연속 구간이 아닌 체크포인트: " + checkpoints);
+            assertTrue(i == 0 || checkpoints.get(i) > checkpoints.get(i - 1), "역순 체크포인트: " + checkpoints);
+        }
+    }
+
+    @Test
+    void slowCheckpointListenerDoesNotBlockOtherBatches() throws InterruptedException {
+        CountDownLatch listenerEntered = new CountDownLatch(1);
+        CountDownLatch releaseListener = new CountDownLatch(1);
+        CountDownLatch secondStored = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            List<Document> docs = invocation.getArgument(0);
+            if (docs.get(0).getId().startsWith("b")) {
+                secondStored.countDown();
+            }
+            return null;
+        }).when(vectorStore).add(anyList());
+
+        List<Integer> checkpoints = new CopyOnWriteArrayList<>();
+        EmbeddingPipeline.Session session = pipeline.open("doc", 0, checkpoint -> {
+            listenerEntered.countDown();
+            try {
+                assertTrue(releaseListener.await(5, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            checkpoints.add(checkpoint);
+        });
+        session.submit(batch("a", 2));
+        assertTrue(listenerEntered.await(5, TimeUnit.SECONDS));
+
+        // 리스너가 기록 중이어도 다음 배치는 저장되고 체크포인트가 계산됨
+        session.submit(batch("b", 3));
+        assertTrue(secondStored.await(5, TimeUnit.SECONDS));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (session.getCheckpoint() < 5 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(5, session.getCheckpoint());
+        releaseListener.countDown();
+
+        session.awaitCompletion();
+        assertEquals(List.of(2, 5), checkpoints);
+    }
+
+    private static List<Document> batch(String prefix, int size) {
+        List<Document> batch = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            batch.add(new Document(prefix + i, "chunk " + prefix + i, Map.of()));
+        }
+        return batch;
+    }
+}
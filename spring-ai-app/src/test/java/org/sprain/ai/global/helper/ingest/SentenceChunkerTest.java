@@ -0,0 +1,137 @@
+package org.sprain.ai.global.helper.ingest;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SentenceChunkerTest {
+
+    // 테스트에서는 공백 단위 어절 수를 토큰 수로 사용
+    private static final ToIntFunction<String> WORDS = text -> text.isBlank() ? 0 : text.strip().split("\\s+").length;
+
+    @Test
+    void chunkOffsetsPointIntoOriginalText() {
+        String text = sampleText(40);
+        SentenceChunker chunker = new SentenceChunker(WORDS, 30, 8, 10_000);
+
+        List<SentenceChunker.Chunk> chunks = chunker.split(text);
+
+        assertTrue(chunks.size() > 1);
+        for (SentenceChunker.Chunk chunk : chunks) {
+            assertEquals(text.substring(chunk.start(), chunk.end()), chunk.text());
+            assertTrue(chunk.tokenCount() <= 30, "청크 토큰 수 초과: " + chunk.tokenCount());
+        }
+    }
+
+    @Test
+    void consecutiveChunksOverlapByWholeSentences() {
+        String text = sampleText(40);
+        // 가장 긴 문장(11어절)도 겹침에 들어가도록 overlapTokens를 잡음
+        SentenceChunker chunker = new SentenceChunker(WORDS, 30, 14, 10_000);
+
+        List<SentenceChunker.Chunk> chunks = chunker.split(text);
+
+        for (int i = 1; i < chunks.size(); i++) {
+            SentenceChunker.Chunk previous = chunks.get(i - 1);
+            SentenceChunker.Chunk current = chunks.get(i);
+            assertTrue(current.start() < previous.end(), "겹침이 없음: " + i);
+            assertTrue(current.start() > previous.start(), "청크 순서가 어긋남: " + i);
+            // 겹치는 부분은 문장 단위이므로 다음 청크는 문장 시작에서 시작
+            assertTrue(current.text().startsWith("Sentence"), current.text());
+        }
+    }
+
+    @Test
+    void noOverlapWhenOverlapTokensIsZero() {
+        String text = sampleText(40);
+        SentenceChunker chunker = new SentenceChunker(WORDS, 30, 0, 10_000);
+
+        List<SentenceChunker.Chunk> chunks = chunker.split(text);
+
+        for (int i = 1; i < chunks.size(); i++) {
+            assertTrue(chunks.get(i).start() >= chunks.get(i - 1).end());
+        }
+    }
+
+    @Test
+    void segmentedSplitKeepsOffsetsAndDoesNotCrossSegments() {
+        String text = sampleText(400);
+        SentenceChunker chunker = new SentenceChunker(WORDS, 30, 8, 500);
+
+        List<SentenceChunker.Chunk> chunks = chunker.split(text);
+
+        int previousStart = -1;
+        for (SentenceChunker.Chunk chunk : chunks) {
+            assertEquals(text.substring(chunk.start(), chunk.end()), chunk.text());
+            assertTrue(chunk.start() > previousStart);
+            assertTrue(chunk.end() - chunk.start() <= 500);
+            previousStart = chunk.start();
+        }
+    }
+
+    @Test
+    void longSentenceIsSplitByWords() {
+        String text = "word ".repeat(100).strip() + ".";
+        SentenceChunker chunker = new SentenceChunker(WORDS, 30, 0, 10_000);
+
+        List<SentenceChunker.Chunk> chunks = chunker.split(text);
+
+        assertEquals(4, chunks.size());
+        chunks.forEach(chunk -> assertTrue(chunk.tokenCount() <= 30));
+    }
+
+    @Test
+    void streamingSentenceChunkerMatchesInMemorySplit() throws IOException {
+        String text = sampleText(400);
+        SentenceChunker sentenceChunker = new SentenceChunker(WORDS, 30, 8, 500);
+        HierarchicalChunker hierarchicalChunker = new HierarchicalChunker(
+            new SentenceChunker(WORDS, 120, 0, 500), new SentenceChunker(WORDS, 30, 8, 500));
+        StreamingSentenceChunker streaming = new StreamingSentenceChunker(sentenceChunker, hierarchicalChunker, 500);
+
+        List<SentenceChunker.Chunk> streamed = new ArrayList<>();
+        StreamingTextChunker.ChunkStats stats = streaming.chunk(new StringReader(text), streamed::add);
+        assertEquals(sentenceChunker.split(text), streamed);
+        assertEquals(text.length(), stats.totalChars());
+
+        List<HierarchicalChunker.Section> sections = new ArrayList<>();
+        streaming.chunkSections(new StringReader(text), sections::add);
+        assertEquals(hierarchicalChunker.split(text), sections);
+    }
+
+    @Test
+    void hierarchicalChildrenStayInsideTheirParent() {
+        String text = sampleText(60);
+        HierarchicalChunker chunker = new HierarchicalChunker(
+            new SentenceChunker(WORDS, 120, 0, 10_000), new SentenceChunker(WORDS, 30, 8, 10_000));
+
+        List<HierarchicalChunker.Section> sections = chunker.split(text);
+
+        assertFalse(sections.isEmpty());
+        for (HierarchicalChunker.Section section : sections) {
+            for (SentenceChunker.Chunk child : section.children()) {
+                assertTrue(child.start() >= section.parent().start() && child.end() <= section.parent().end());
+                assertEquals(text.substring(child.start(), child.end()), child.text());
+            }
+        }
+    }
+
+    /**
+     * 문장마다 어절 수가 다른 텍스트 (7문장마다 문단 구분)
+     */
+    static String sampleText(int sentences) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < sentences; i++) {
+            text.append("Sentence ").append(i).append(" has").append(" some words".repeat(1 + i % 4)).append('.');
+            text.append(i % 7 == 6 ? "\n\n" : " ");
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,66 @@
+package org.sprain.ai.global.helper.ingest;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StreamingTextChunkerTest {
+
+    @Test
+    void chunksRespectSizeAndCoverTheText() throws IOException {
+        String text = SentenceChunkerTest.sampleText(300);
+        StreamingTextChunker chunker = new StreamingTextChunker(200, 40);
+
+        List<String> chunks = new ArrayList<>();
+        StreamingTextChunker.ChunkStats stats = chunker.chunk(new StringReader(text), chunks::add);
+
+        assertEquals(chunks.size(), stats.chunkCount());
+        assertEquals(text.length(), stats.totalChars());
+        assertTrue(stats.peakWindowChars() <= 200 + 8192);
+        int from = 0;
+        for (String chunk : chunks) {
+            assertTrue(chunk.length() <= 200, "청크 크기 초과: " + chunk.length());
+            int at = text.indexOf(chunk, from);
+            assertTrue(at >= 0, "원문 순서대로 나오지 않음: " + chunk);
+            from = at + 1;
+        }
+        assertTrue(text.strip().endsWith(chunks.get(chunks.size() - 1)));
+    }
+
+    @Test
+    void consecutiveChunksOverlap() throws IOException {
+        String text = SentenceChunkerTest.sampleText(300);
+        StreamingTextChunker chunker = new StreamingTextChunker(200, 40);
+
+        List<String> chunks = new ArrayList<>();
+        chunker.chunk(new StringReader(text), chunks::add);
+
+        for (int i = 1; i < chunks.size(); i++) {
+            String previous = chunks.get(i - 1);
+            String current = chunks.get(i);
+            int previousStart = text.indexOf(previous);
+            int currentStart = text.indexOf(current, previousStart + 1);
+            assertTrue(currentStart < previousStart + previous.length(), "겹침이 없음: " + i);
+        }
+    }
+
+    @Test
+    void shortInputIsSingleChunk() throws IOException {
+        List<String> chunks = new ArrayList<>();
+        new StreamingTextChunker(200, 40).chunk(new StringReader("  짧은 문서입니다.  "), chunks::add);
+
+        assertEquals(List.of("짧은 문서입니다."), chunks);
+    }
+
+    @Test
+    void rejectsOverlapOfHalfChunkOrMore() {
+        assertThrows(IllegalArgumentException.class, () -> new StreamingTextChunker(100, 50));
+    }
+}
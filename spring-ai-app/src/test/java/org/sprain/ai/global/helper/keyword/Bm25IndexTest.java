@@ -0,0 +1,84 @@
+package org.sprain.ai.global.helper.keyword;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class Bm25IndexTest {
+
+    @Test
+    void koreanBigramsMatchAcrossParticles() {
+        assertEquals(List.of("임베", "베딩", "딩을"), KoreanNGramAnalyzer.analyze("임베딩을"));
+        assertEquals(List.of("pgvector", "인덱", "덱스", "hnsw", "16"),
+            KoreanNGramAnalyzer.analyze("PgVector 인덱스: HNSW, m=16"));
+        assertEquals(List.of("가"), KoreanNGramAnalyzer.analyze("가"));
+    }
+
+    @Test
+    void rankHigherTermFrequencyFirst() {
+        Bm25Index index = new Bm25Index(1.2, 0.75);
+        index.add("c1", "d1", "벡터 검색은 벡터 인덱스로 벡터를 찾는다");
+        index.add("c2", "d1", "벡터 검색 소개");
+        index.add("c3", "d2", "형태소 분석기 설명");
+
+        List<Bm25Index.Hit> hits = index.search("벡터", 10);
+
+        assertEquals(List.of("c1", "c2"), hits.stream().map(Bm25Index.Hit::chunkId).toList());
+        assertTrue(hits.get(0).score() > hits.get(1).score());
+    }
+
+    @Test
+    void rareTermOutweighsCommonTerm() {
+        Bm25Index index = new Bm25Index(1.2, 0.75);
+        index.add("c1", "d1", "문서 문서 문서 검색");
+        index.add("c2", "d1", "문서 재순위");
+        index.add("c3", "d2", "문서 요약");
+        index.add("c4", "d2", "문서 분할");
+
+        List<Bm25Index.Hit> hits = index.search("문서 재순위", 4);
+
+        assertEquals("c2", hits.get(0).chunkId());
+    }
+
+    @Test
+    void shorterChunkWinsForSameTermFrequency() {
+        Bm25Index index = new Bm25Index(1.2, 0.75);
+        index.add("long", "d1", "캐시 " + "다른 내용이 길게 이어지는 문장 ".repeat(10));
+        index.add("short", "d1", "캐시 적중");
+
+        List<Bm25Index.Hit> hits = index.search("캐시", 2);
+
+        assertEquals("short", hits.get(0).chunkId());
+    }
+
+    @Test
+    void removedChunksAndDocumentsAreNotReturned() {
+        Bm25Index index = new Bm25Index(1.2, 0.75);
+        index.add("c1", "d1", "청크 임베딩 재사용");
+        index.add("c2", "d2", "임베딩 캐시");
+        index.add("c3", "d2", "임베딩 모델");
+
+        index.remove("c1");
+        assertEquals(List.of("c2", "c3"),
+            index.search("임베딩", 10).stream().map(Bm25Index.Hit::chunkId).sorted().toList());
+
+        assertEquals(2, index.removeDocument("d2"));
+        assertTrue(index.search("임베딩", 10).isEmpty());
+    }
+
+    @Test
+    void replaceDocumentSwapsChunks() {
+        Bm25Index index = new Bm25Index(1.2, 0.75);
+        index.add("old", "d1", "이전 내용");
+
+        index.replaceDocument("d1", Map.of("new", "새 내용"));
+
+        assertTrue(index.search("이전", 10).isEmpty());
+        assertEquals("new", index.search("내용", 10).get(0).chunkId());
+        assertEquals(1, index.size());
+    }
+}
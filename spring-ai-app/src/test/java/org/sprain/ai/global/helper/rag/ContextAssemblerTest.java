@@ -0,0 +1,120 @@
+package org.sprain.ai.global.helper.rag;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ContextAssemblerTest {
+
+    // 테스트에서는 공백 단위 어절 수를 토큰 수로 사용 (SEPARATOR는 1토큰)
+    private static final ToIntFunction<String> WORDS = text -> text.isBlank() ? 0 : text.strip().split("\\s+").length;
+
+    @Test
+    void dropsResultsBelowScoreCliff() {
+        ContextAssembler assembler = assembler(1_000, 0.3);
+
+        ContextAssembler.AssembledContext context = assembler.assemble(List.of(
+            doc("a", words("a", 10), 0.90),
+            doc("b", words("b", 10), 0.85),
+            doc("c", words("c", 10), 0.30)));
+
+        assertEquals(List.of("a", "b"), ids(context));
+    }
+
+    @Test
+    void dropsResultContainedInHigherRankedResult() {
+        ContextAssembler assembler = assembler(1_000, 0);
+        String first = words("a", 20);
+
+        ContextAssembler.AssembledContext context = assembler.assemble(List.of(
+            doc("a", first, 0.9),
+            doc("b", first.substring(0, first.length() / 2), 0.8),
+            doc("c", words("c", 10), 0.7)));
+
+        assertEquals(List.of("a", "c"), ids(context));
+    }
+
+    @Test
+    void mergesConsecutiveChunksOfSameDocumentWithoutRepeatingOverlap() {
+        ContextAssembler assembler = assembler(1_000, 0);
+        String shared = "겹치는 부분은 여기에 있습니다.";
+        Document second = chunk("c1", "doc", 1, shared + " 다음 내용이 이어집니다.", 0.9);
+        Document first = chunk("c0", "doc", 0, "첫 번째 문장입니다. " + shared, 0.8);
+
+        ContextAssembler.AssembledContext context = assembler.assemble(List.of(second, first));
+
+        assertEquals(1, context.passages().size());
+        assertEquals("첫 번째 문장입니다. 겹치는 부분은 여기에 있습니다. 다음 내용이 이어집니다.", context.text());
+        assertEquals(List.of("c0", "c1"), context.passages().get(0).getMetadata().get("merged_chunk_ids"));
+    }
+
+    @Test
+    void skipsPassagesOverBudget() {
+        ContextAssembler assembler = assembler(25, 0);
+
+        ContextAssembler.AssembledContext context = assembler.assemble(List.of(
+            doc("a", words("a", 10), 0.9),
+            doc("b", words("b", 10), 0.8),
+            doc("c", words("c", 10), 0.7)));
+
+        assertEquals(List.of("a", "b"), ids(context));
+        assertEquals(33, context.inputTokens());
+        assertEquals(21, context.contextTokens());
+        assertEquals(12, context.savedTokens());
+        assertTrue(context.contextTokens() <= 25);
+    }
+
+    @Test
+    void placesBestPassagesAtTheEdges() {
+        ContextAssembler assembler = assembler(1_000, 0);
+
+        ContextAssembler.AssembledContext context = assembler.assemble(List.of(
+            doc("r1", words("r1", 5), 0.9),
+            doc("r2", words("r2", 5), 0.8),
+            doc("r3", words("r3", 5), 0.7),
+            doc("r4", words("r4", 5), 0.6)));
+
+        assertEquals(List.of("r1", "r3", "r4", "r2"), ids(context));
+        assertFalse(context.text().isBlank());
+        assertEquals(4, context.text().split(ContextAssembler.SEPARATOR).length);
+    }
+
+    private static ContextAssembler assembler(int budget, double cliffRatio) {
+        return new ContextAssembler(WORDS, budget, cliffRatio, 0.9, new SimpleMeterRegistry());
+    }
+
+    private static List<String> ids(ContextAssembler.AssembledContext context) {
+        return context.passages().stream().map(Document::getId).toList();
+    }
+
+    /**
+     * 서로 겹치는 색인어가 없는 어절 count개 (prefix0 prefix1 ...)
+     */
+    private static String words(String prefix, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            text.append(i == 0 ? "" : " ").append(prefix).append("w").append(i);
+        }
+        return text.toString();
+    }
+
+    private static Document doc(String id, String text, double score) {
+        return Document.builder().id(id).text(text).score(score).build();
+    }
+
+    private static Document chunk(String id, String documentId, int chunkIndex, String text, double score) {
+        Map<String, Object> metadata = new HashMap<>();
+        metadata.put("document_id", documentId);
+        metadata.put("chunk_index", chunkIndex);
+        return Document.builder().id(id).text(text).metadata(metadata).score(score).build();
+    }
+}
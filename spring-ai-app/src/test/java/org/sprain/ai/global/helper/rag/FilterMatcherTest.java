@@ -0,0 +1,62 @@
+package org.sprain.ai.global.helper.rag;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.vectorstore.filter.Filter;
+import org.springframework.ai.vectorstore.filter.FilterExpressionBuilder;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FilterMatcherTest {
+
+    private final FilterExpressionBuilder b = new FilterExpressionBuilder();
+    private final Map<String, Object> metadata = Map.of("document_id", "d1", "filename", "a.txt", "chunk_index", 3);
+
+    @Test
+    void comparisons() {
+        assertTrue(FilterMatcher.matches(b.eq("document_id", "d1").build(), metadata));
+        assertFalse(FilterMatcher.matches(b.eq("document_id", "d2").build(), metadata));
+        assertTrue(FilterMatcher.matches(b.ne("filename", "b.txt").build(), metadata));
+        assertTrue(FilterMatcher.matches(b.gte("chunk_index", 3).build(), metadata));
+        assertFalse(FilterMatcher.matches(b.gt("chunk_index", 3).build(), metadata));
+        assertTrue(FilterMatcher.matches(b.in("filename", "a.txt", "b.txt").build(), metadata));
+        assertFalse(FilterMatcher.matches(b.nin("filename", "a.txt").build(), metadata));
+    }
+
+    @Test
+    void numbersCompareByValue() {
+        assertTrue(FilterMatcher.matches(b.eq("chunk_index", 3.0).build(), metadata));
+        assertTrue(FilterMatcher.matches(b.lt("chunk_index", 3.5).build(), metadata));
+    }
+
+    @Test
+    void booleanOperators() {
+        assertTrue(FilterMatcher.matches(
+            b.and(b.eq("document_id", "d1"), b.lte("chunk_index", 5)).build(), metadata));
+        assertFalse(FilterMatcher.matches(
+            b.and(b.eq("document_id", "d1"), b.eq("filename", "b.txt")).build(), metadata));
+        assertTrue(FilterMatcher.matches(
+            b.or(b.eq("document_id", "d2"), b.eq("filename", "a.txt")).build(), metadata));
+        assertTrue(FilterMatcher.matches(b.not(b.eq("document_id", "d2")).build(), metadata));
+    }
+
+    @Test
+    void unknownKeyIsNeitherMatchNorMismatch() {
+        Filter.Expression unknown = b.eq("category", "manual").build();
+
+        assertFalse(FilterMatcher.matches(unknown, metadata));
+        assertTrue(FilterMatcher.mayMatch(unknown, metadata));
+        // 알 수 없음 AND 거짓 = 거짓, 알 수 없음 OR 참 = 참
+        assertFalse(FilterMatcher.mayMatch(b.and(b.eq("category", "manual"), b.eq("document_id", "d2")).build(), metadata));
+        assertTrue(FilterMatcher.matches(b.or(b.eq("category", "manual"), b.eq("document_id", "d1")).build(), metadata));
+        assertTrue(FilterMatcher.mayMatch(b.not(b.eq("category", "manual")).build(), metadata));
+    }
+
+    @Test
+    void nullFilterMatchesEverything() {
+        assertTrue(FilterMatcher.matches(null, metadata));
+        assertTrue(FilterMatcher.mayMatch(null, metadata));
+    }
+}
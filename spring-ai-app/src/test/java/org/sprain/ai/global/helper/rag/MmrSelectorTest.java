@@ -0,0 +1,42 @@
+package org.sprain.ai.global.helper.rag;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MmrSelectorTest {
+
+    private static final float[] QUERY = {1, 0, 0};
+
+    // 0과 1은 거의 같은 벡터, 2는 관련도는 낮지만 다른 방향
+    private static final float[][] CANDIDATES = {
+        {1, 0.05f, 0},
+        {1, 0.06f, 0},
+        {0.6f, 0, 0.8f},
+    };
+
+    @Test
+    void lambdaOneKeepsSimilarityOrder() {
+        assertArrayEquals(new int[]{0, 1, 2}, MmrSelector.select(QUERY, CANDIDATES, 3, 1.0));
+    }
+
+    @Test
+    void lowLambdaPrefersDiverseCandidate() {
+        assertArrayEquals(new int[]{0, 2, 1}, MmrSelector.select(QUERY, CANDIDATES, 3, 0.3));
+    }
+
+    @Test
+    void selectsAtMostK() {
+        assertEquals(2, MmrSelector.select(QUERY, CANDIDATES, 2, 0.5).length);
+        assertEquals(3, MmrSelector.select(QUERY, CANDIDATES, 10, 0.5).length);
+    }
+
+    @Test
+    void inputVectorsAreNotModified() {
+        float[] candidate = {3, 4, 0};
+        MmrSelector.select(QUERY, new float[][]{candidate}, 1, 0.5);
+
+        assertArrayEquals(new float[]{3, 4, 0}, candidate);
+    }
+}
@@ -0,0 +1,105 @@
+package org.sprain.ai.global.helper.rag;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.sprain.ai.global.helper.vector.SearchProfile;
+import org.sprain.ai.global.helper.vector.SearchProfiles;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.VectorStore;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MultiQueryRetrieverTest {
+
+    private VectorStore vectorStore;
+    private ChatClient chatClient;
+    private MultiQueryRetriever retriever;
+
+    @BeforeEach
+    void setUp() {
+        vectorStore = mock(VectorStore.class);
+        chatClient = mock(ChatClient.class);
+        SearchProfiles searchProfiles = new SearchProfiles(
+            Map.of("balanced", new SearchProfile("balanced", 40, 10)), "balanced");
+        retriever = new MultiQueryRetriever(vectorStore, chatClient, searchProfiles, 2, Duration.ofSeconds(5),
+            new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        retriever.close();
+    }
+
+    @Test
+    void failedRewriteSearchIsDroppedFromFusion() {
+        rewritesTo("좋은 재작성\n실패하는 재작성");
+        when(vectorStore.similaritySearch(any(SearchRequest.class))).thenAnswer(invocation -> {
+            SearchRequest request = invocation.getArgument(0);
+            return switch (request.getQuery()) {
+                case "원 질문" -> List.of(doc("a"), doc("b"));
+                case "좋은 재작성" -> List.of(doc("b"), doc("c"));
+                default -> throw new IllegalStateException("검색 실패");
+            };
+        });
+
+        List<Document> fused = retriever.retrieve("원 질문", List.of(), 10, 0.0);
+
+        // b: 두 질의 모두 상위, 실패한 재작성 질의는 결과에서 빠짐
+        assertEquals(List.of("b", "a", "c"), fused.stream().map(Document::getId).toList());
+    }
+
+    @Test
+    void failedOriginalSearchIsRethrown() {
+        rewritesTo("좋은 재작성");
+        IllegalStateException failure = new IllegalStateException("pgvector unavailable");
+        when(vectorStore.similaritySearch(any(SearchRequest.class))).thenAnswer(invocation -> {
+            SearchRequest request = invocation.getArgument(0);
+            if (request.getQuery().equals("원 질문")) {
+                throw failure;
+            }
+            return List.of(doc("c"));
+        });
+
+        // 원 질의 실패를 빈 결과로 바꾸지 않고 그대로 전파
+        IllegalStateException thrown = assertThrows(IllegalStateException.class,
+            () -> retriever.retrieve("원 질문", List.of(), 10, 0.0));
+        assertSame(failure, thrown);
+    }
+
+    @Test
+    void failedRewriteStillReturnsOriginalResults() {
+        when(chatClient.prompt()).thenThrow(new IllegalStateException("LLM unavailable"));
+        when(vectorStore.similaritySearch(any(SearchRequest.class))).thenReturn(List.of(doc("a"), doc("b")));
+
+        List<Document> fused = retriever.retrieve("원 질문", List.of(), 10, 0.0);
+
+        assertEquals(List.of("a", "b"), fused.stream().map(Document::getId).toList());
+    }
+
+    private void rewritesTo(String content) {
+        ChatClient.ChatClientRequestSpec request = mock(ChatClient.ChatClientRequestSpec.class);
+        ChatClient.CallResponseSpec response = mock(ChatClient.CallResponseSpec.class);
+        when(chatClient.prompt()).thenReturn(request);
+        when(request.user(anyString())).thenReturn(request);
+        when(request.call()).thenReturn(response);
+        when(response.content()).thenReturn(content);
+    }
+
+    private static Document doc(String id) {
+        return new Document(id, "chunk " + id, Map.of());
+    }
+}
@@ -0,0 +1,47 @@
+package org.sprain.ai.global.helper.rag;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReciprocalRankFusionTest {
+
+    @Test
+    void chunksFoundByBothRankingsComeFirst() {
+        List<Document> vector = List.of(doc("a", "vector"), doc("b", "vector"), doc("c", "vector"));
+        List<Document> keyword = List.of(doc("b", "keyword"), doc("d", "keyword"));
+
+        List<Document> fused = ReciprocalRankFusion.fuse(List.of(vector, keyword), 60, 10);
+
+        // b: 1/62 + 1/61, a: 1/61, d: 1/62, c: 1/63
+        assertEquals(List.of("b", "a", "d", "c"), fused.stream().map(Document::getId).toList());
+        assertEquals(1.0 / 62 + 1.0 / 61, fused.get(0).getScore(), 1e-12);
+        assertEquals(fused.get(0).getScore(), (Double) fused.get(0).getMetadata().get("rrf_score"), 1e-12);
+    }
+
+    @Test
+    void duplicateChunkKeepsFirstDocument() {
+        List<Document> fused = ReciprocalRankFusion.fuse(
+            List.of(List.of(doc("a", "vector")), List.of(doc("a", "keyword"))), 60, 10);
+
+        assertEquals(1, fused.size());
+        assertEquals("vector", fused.get(0).getText());
+        assertEquals("vector", fused.get(0).getMetadata().get("source"));
+    }
+
+    @Test
+    void limitCutsFusedList() {
+        List<Document> fused = ReciprocalRankFusion.fuse(
+            List.of(List.of(doc("a", "x"), doc("b", "x"), doc("c", "x"))), ReciprocalRankFusion.DEFAULT_K, 2);
+
+        assertEquals(List.of("a", "b"), fused.stream().map(Document::getId).toList());
+    }
+
+    private static Document doc(String id, String source) {
+        return new Document(id, source, Map.of("source", source));
+    }
+}
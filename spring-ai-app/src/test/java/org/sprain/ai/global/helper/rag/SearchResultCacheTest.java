@@ -0,0 +1,110 @@
+package org.sprain.ai.global.helper.rag;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.sprain.ai.global.event.DocumentChangedEvent;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.filter.Filter;
+import org.springframework.ai.vectorstore.filter.FilterExpressionBuilder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchResultCacheTest {
+
+    private final UUID documentA = UUID.randomUUID();
+    private final UUID documentB = UUID.randomUUID();
+    private final SearchResultCache cache =
+        new SearchResultCache(true, 100, 1_000, Duration.ofMinutes(5), new SimpleMeterRegistry());
+
+    @Test
+    void hitRestoresChunksAndScores() {
+        SearchRequest request = request("벡터 검색", null);
+        cache.put(request, List.of(chunk("a1", documentA, 0.9), chunk("a2", documentA, 0.8)), cache.generation());
+
+        List<Document> results = cache.get(request("  벡터   검색 ", null)).orElseThrow();
+
+        assertEquals(List.of("a1", "a2"), results.stream().map(Document::getId).toList());
+        assertEquals(0.9, results.get(0).getScore(), 1e-9);
+        assertEquals("a1 본문", results.get(0).getText());
+        assertEquals(documentA.toString(), results.get(0).getMetadata().get("document_id"));
+    }
+
+    @Test
+    void differentTopKIsADifferentKey() {
+        cache.put(request("질의", null), List.of(chunk("a1", documentA, 0.9)), cache.generation());
+
+        assertFalse(cache.get(SearchRequest.builder().query("질의").topK(10).build()).isPresent());
+    }
+
+    @Test
+    void deletedDocumentInvalidatesOnlyResultsContainingIt() {
+        cache.put(request("질의 A", null), List.of(chunk("a1", documentA, 0.9)), cache.generation());
+        cache.put(request("질의 B", null), List.of(chunk("b1", documentB, 0.9)), cache.generation());
+
+        cache.onDocumentChanged(new DocumentChangedEvent(documentA, "a.txt", DocumentChangedEvent.ChangeType.DELETED));
+
+        assertFalse(cache.get(request("질의 A", null)).isPresent());
+        assertTrue(cache.get(request("질의 B", null)).isPresent());
+    }
+
+    @Test
+    void addedDocumentInvalidatesOnlyResultsWhoseFilterMayMatch() {
+        FilterExpressionBuilder b = new FilterExpressionBuilder();
+        SearchRequest onlyA = request("질의", b.eq("document_id", documentA.toString()).build());
+        SearchRequest unfiltered = request("질의", null);
+        cache.put(onlyA, List.of(chunk("a1", documentA, 0.9)), cache.generation());
+        cache.put(unfiltered, List.of(chunk("a1", documentA, 0.9)), cache.generation());
+
+        cache.onDocumentChanged(new DocumentChangedEvent(UUID.randomUUID(), "new.txt",
+            DocumentChangedEvent.ChangeType.ADDED));
+
+        assertTrue(cache.get(onlyA).isPresent());
+        assertFalse(cache.get(unfiltered).isPresent());
+    }
+
+    @Test
+    void deletedChunkInvalidatesResultsContainingIt() {
+        cache.put(request("질의 A", null), List.of(chunk("a1", documentA, 0.9)), cache.generation());
+        cache.put(request("질의 B", null), List.of(chunk("b1", documentB, 0.9)), cache.generation());
+
+        cache.onChunksDeleted(List.of("b1"));
+
+        assertTrue(cache.get(request("질의 A", null)).isPresent());
+        assertFalse(cache.get(request("질의 B", null)).isPresent());
+    }
+
+    @Test
+    void resultsSearchedBeforeChangeAreNotStored() {
+        long generation = cache.generation();
+        cache.onChunksAdded(List.of(chunk("b1", documentB, 0.0)));
+
+        cache.put(request("질의", null), List.of(chunk("a1", documentA, 0.9)), generation);
+
+        assertEquals(0, cache.size());
+    }
+
+    private static SearchRequest request(String query, Filter.Expression filter) {
+        SearchRequest.Builder builder = SearchRequest.builder().query(query).topK(5);
+        if (filter != null) {
+            builder.filterExpression(filter);
+        }
+        return builder.build();
+    }
+
+    private static Document chunk(String id, UUID documentId, double score) {
+        return Document.builder()
+            .id(id)
+            .text(id + " 본문")
+            .metadata(Map.of("document_id", documentId.toString(), "filename", documentId + ".txt"))
+            .score(score)
+            .build();
+    }
+}
@@ -0,0 +1,109 @@
+package org.sprain.ai.global.helper.rag;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.sprain.ai.dto.DocumentSource;
+import org.sprain.ai.global.event.DocumentChangedEvent;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SemanticAnswerCacheTest {
+
+    private static final String SCOPE = "rag:5";
+
+    private final UUID documentA = UUID.randomUUID();
+    private final UUID documentB = UUID.randomUUID();
+
+    @Test
+    void returnsAnswerOnlyAboveThreshold() {
+        SemanticAnswerCache cache = cache(Duration.ofMinutes(5));
+        cache.put(SCOPE, new float[]{1, 0}, "질문", "답변", sources(documentA), cache.generation());
+
+        Optional<SemanticAnswerCache.CachedAnswer> hit = cache.lookup(SCOPE, new float[]{0.99f, 0.1f});
+        assertTrue(hit.isPresent());
+        assertEquals("답변", hit.get().answer());
+        assertTrue(hit.get().similarity() >= 0.95);
+
+        // 코사인 0.707 < 0.95
+        assertFalse(cache.lookup(SCOPE, new float[]{1, 1}).isPresent());
+    }
+
+    @Test
+    void scopesAreIsolated() {
+        SemanticAnswerCache cache = cache(Duration.ofMinutes(5));
+        cache.put(SCOPE, new float[]{1, 0}, "질문", "답변", sources(documentA), cache.generation());
+
+        assertFalse(cache.lookup("rag:10", new float[]{1, 0}).isPresent());
+    }
+
+    @Test
+    void expiredEntriesAreRemoved() throws InterruptedException {
+        SemanticAnswerCache cache = cache(Duration.ofMillis(1));
+        cache.put(SCOPE, new float[]{1, 0}, "질문", "답변", sources(documentA), cache.generation());
+
+        Thread.sleep(20);
+
+        assertFalse(cache.lookup(SCOPE, new float[]{1, 0}).isPresent());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void addedDocumentClearsAllEntries() {
+        SemanticAnswerCache cache = cache(Duration.ofMinutes(5));
+        cache.put(SCOPE, new float[]{1, 0}, "질문 1", "답변 1", sources(documentA), cache.generation());
+        cache.put(SCOPE, new float[]{0, 1}, "질문 2", "답변 2", sources(documentB), cache.generation());
+
+        cache.onDocumentChanged(new DocumentChangedEvent(UUID.randomUUID(), "new.txt",
+            DocumentChangedEvent.ChangeType.ADDED));
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void deletedDocumentRemovesOnlyAnswersCitingIt() {
+        SemanticAnswerCache cache = cache(Duration.ofMinutes(5));
+        cache.put(SCOPE, new float[]{1, 0}, "질문 1", "답변 1", sources(documentA), cache.generation());
+        cache.put(SCOPE, new float[]{0, 1}, "질문 2", "답변 2", sources(documentB), cache.generation());
+
+        cache.onDocumentChanged(new DocumentChangedEvent(documentA, "a.txt",
+            DocumentChangedEvent.ChangeType.DELETED));
+
+        assertFalse(cache.lookup(SCOPE, new float[]{1, 0}).isPresent());
+        assertEquals("답변 2", cache.lookup(SCOPE, new float[]{0, 1}).orElseThrow().answer());
+    }
+
+    @Test
+    void answerGeneratedBeforeDocumentChangeIsNotStored() {
+        SemanticAnswerCache cache = cache(Duration.ofMinutes(5));
+        long generation = cache.generation();
+
+        cache.onDocumentChanged(new DocumentChangedEvent(documentB, "b.txt",
+            DocumentChangedEvent.ChangeType.UPDATED));
+        cache.put(SCOPE, new float[]{1, 0}, "질문", "답변", sources(documentA), generation);
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void answersWithoutSourcesAreNotStored() {
+        SemanticAnswerCache cache = cache(Duration.ofMinutes(5));
+        cache.put(SCOPE, new float[]{1, 0}, "질문", "찾을 수 없습니다", List.of(), cache.generation());
+
+        assertEquals(0, cache.size());
+    }
+
+    private static SemanticAnswerCache cache(Duration ttl) {
+        return new SemanticAnswerCache(true, 0.95, 100, ttl, new SimpleMeterRegistry());
+    }
+
+    private static List<DocumentSource> sources(UUID documentId) {
+        return List.of(new DocumentSource(documentId + ".txt", documentId.toString(), "미리보기"));
+    }
+}
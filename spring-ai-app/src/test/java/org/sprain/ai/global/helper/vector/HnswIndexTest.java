@@ -0,0 +1,95 @@
+package org.sprain.ai.global.helper.vector;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HnswIndexTest {
+
+    private static final int DIMENSIONS = 32;
+    private static final int VECTORS = 2_000;
+    private static final int QUERIES = 50;
+    private static final int K = 10;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void recallAgainstExactSearch() throws IOException {
+        Random random = new Random(42);
+        try (MappedVectorFile vectors = new MappedVectorFile(tempDir.resolve("vectors.bin"), DIMENSIONS)) {
+            HnswIndex index = new HnswIndex(vectors, 16, 100);
+            for (int i = 0; i < VECTORS; i++) {
+                index.insert(vectors.append(randomVector(random)));
+            }
+
+            int found = 0;
+            for (int q = 0; q < QUERIES; q++) {
+                float[] query = VectorMath.normalize(randomVector(random));
+                Set<Integer> exact = nodes(index.exactSearch(query, K, null));
+                Set<Integer> approximate = nodes(index.search(query, K, 64, null));
+                approximate.retainAll(exact);
+                found += approximate.size();
+            }
+            double recall = (double) found / (QUERIES * K);
+            assertTrue(recall >= 0.9, "recall@10 = " + recall);
+        }
+    }
+
+    @Test
+    void exactSearchReturnsNearestFirst() throws IOException {
+        try (MappedVectorFile vectors = new MappedVectorFile(tempDir.resolve("exact.bin"), 2)) {
+            HnswIndex index = new HnswIndex(vectors, 4, 16);
+            index.insert(vectors.append(new float[]{1, 0}));
+            index.insert(vectors.append(new float[]{0, 1}));
+            index.insert(vectors.append(new float[]{1, 1}));
+
+            List<HnswIndex.Scored> results = index.exactSearch(VectorMath.normalize(new float[]{1, 0.1f}), 2, null);
+
+            assertEquals(List.of(0, 2), results.stream().map(HnswIndex.Scored::node).toList());
+            assertEquals(1.0, vectors.dot(0, new float[]{1, 0}), 1e-6);
+        }
+    }
+
+    @Test
+    void deletedAndRejectedNodesAreSkipped() throws IOException {
+        Random random = new Random(7);
+        try (MappedVectorFile vectors = new MappedVectorFile(tempDir.resolve("deleted.bin"), DIMENSIONS)) {
+            HnswIndex index = new HnswIndex(vectors, 8, 50);
+            for (int i = 0; i < 200; i++) {
+                index.insert(vectors.append(randomVector(random)));
+            }
+            float[] query = new float[DIMENSIONS];
+            vectors.read(5, query);
+
+            assertEquals(5, index.search(query, 1, 32, null).get(0).node());
+
+            index.delete(5);
+            assertFalse(nodes(index.search(query, K, 32, null)).contains(5));
+            assertTrue(index.search(query, K, 32, node -> node % 2 == 0).stream()
+                .allMatch(scored -> scored.node() % 2 == 0));
+        }
+    }
+
+    private static Set<Integer> nodes(List<HnswIndex.Scored> results) {
+        return results.stream().map(HnswIndex.Scored::node).collect(Collectors.toSet());
+    }
+
+    private static float[] randomVector(Random random) {
+        float[] vector = new float[DIMENSIONS];
+        for (int i = 0; i < DIMENSIONS; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return vector;
+    }
+}
@@ -0,0 +1,138 @@
+package org.sprain.ai.repository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DocumentContentRepositoryTest {
+
+    private InMemoryJdbcTemplate jdbcTemplate;
+    private DocumentContentRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new InMemoryJdbcTemplate();
+        repository = new DocumentContentRepository(jdbcTemplate, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void savedContentIsDeflatedAndRestoredAsIs() throws IOException {
+        UUID id = UUID.randomUUID();
+        byte[] original = "반복되는 문장은 잘 압축된다. ".repeat(500).getBytes(StandardCharsets.UTF_8);
+
+        long originalSize = repository.saveContent(id, new ByteArrayInputStream(original));
+
+        byte[] stored = jdbcTemplate.rows.get(id);
+        assertEquals(original.length, originalSize);
+        assertEquals(DocumentContentRepository.FORMAT_DEFLATE, stored[0]);
+        assertTrue(stored.length < original.length / 10, "압축되지 않음: " + stored.length);
+
+        ByteArrayOutputStream restored = new ByteArrayOutputStream();
+        assertTrue(repository.copyContent(id, restored));
+        assertArrayEquals(original, restored.toByteArray());
+    }
+
+    @Test
+    void emptyContentRoundTrips() throws IOException {
+        UUID id = UUID.randomUUID();
+
+        assertEquals(0, repository.saveContent(id, new ByteArrayInputStream(new byte[0])));
+
+        ByteArrayOutputStream restored = new ByteArrayOutputStream();
+        assertTrue(repository.copyContent(id, restored));
+        assertEquals(0, restored.size());
+    }
+
+    @Test
+    void rawFormatIsReadWithoutInflating() {
+        UUID id = UUID.randomUUID();
+        byte[] text = "무압축 원본".getBytes(StandardCharsets.UTF_8);
+        byte[] stored = new byte[text.length + 1];
+        stored[0] = DocumentContentRepository.FORMAT_RAW;
+        System.arraycopy(text, 0, stored, 1, text.length);
+        jdbcTemplate.rows.put(id, stored);
+
+        ByteArrayOutputStream restored = new ByteArrayOutputStream();
+        assertTrue(repository.copyContent(id, restored));
+        assertArrayEquals(text, restored.toByteArray());
+    }
+
+    @Test
+    void unknownFormatIsRejected() {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.rows.put(id, new byte[]{9, 1, 2, 3});
+
+        assertThrows(UncheckedIOException.class, () -> repository.copyContent(id, new ByteArrayOutputStream()));
+    }
+
+    @Test
+    void missingContentReturnsFalse() {
+        assertFalse(repository.copyContent(UUID.randomUUID(), new ByteArrayOutputStream()));
+    }
+
+    /**
+     * document_contents 한 테이블만 흉내 내는 JdbcTemplate (document_id → data)
+     */
+    private static class InMemoryJdbcTemplate extends JdbcTemplate {
+
+        final Map<UUID, byte[]> rows = new HashMap<>();
+
+        @Override
+        public int update(String sql, PreparedStatementSetter pss) {
+            Object[] params = new Object[5];
+            PreparedStatement ps = mock(PreparedStatement.class);
+            try {
+                doAnswer(invocation -> params[1] = invocation.getArgument(1))
+                    .when(ps).setObject(eq(1), any());
+                doAnswer(invocation -> params[4] = ((InputStream) invocation.getArgument(1)).readAllBytes())
+                    .when(ps).setBinaryStream(eq(4), any(InputStream.class), anyLong());
+                pss.setValues(ps);
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+            rows.put((UUID) params[1], (byte[]) params[4]);
+            return 1;
+        }
+
+        @Override
+        public <T> T query(String sql, ResultSetExtractor<T> rse, Object... args) {
+            byte[] data = rows.get((UUID) args[0]);
+            ResultSet rs = mock(ResultSet.class);
+            try {
+                when(rs.next()).thenReturn(data != null);
+                when(rs.getBinaryStream("data")).thenReturn(data == null ? null : new ByteArrayInputStream(data));
+                return rse.extractData(rs);
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
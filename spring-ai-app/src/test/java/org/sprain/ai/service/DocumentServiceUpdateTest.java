@@ -0,0 +1,248 @@
+package org.sprain.ai.service;
+
+import com.knuddels.jtokkit.Encodings;
+import com.knuddels.jtokkit.api.Encoding;
+import com.knuddels.jtokkit.api.EncodingType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.sprain.ai.config.IngestionConfig;
+import org.sprain.ai.dto.ChunkingStrategy;
+import org.sprain.ai.dto.DocumentUpdateResult;
+import org.sprain.ai.entity.DocumentEntity;
+import org.sprain.ai.global.exception.custom.IngestionException;
+import org.sprain.ai.global.helper.embedding.CachingEmbeddingModel;
+import org.sprain.ai.global.helper.ingest.EmbeddingPipeline;
+import org.sprain.ai.global.helper.ingest.HierarchicalChunker;
+import org.sprain.ai.global.helper.ingest.SentenceChunker;
+import org.sprain.ai.global.helper.ingest.StreamingSentenceChunker;
+import org.sprain.ai.global.helper.ingest.StreamingTextChunker;
+import org.sprain.ai.repository.ChunkParentRepository;
+import org.sprain.ai.repository.DocumentContentRepository;
+import org.sprain.ai.repository.DocumentRepository;
+import org.sprain.ai.repository.VectorStoreChunkRepository;
+import org.sprain.ai.repository.VectorStoreChunkRepository.ChunkPosition;
+import org.sprain.ai.repository.VectorStoreChunkRepository.StoredChunk;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DocumentServiceUpdateTest {
+
+    private final UUID documentId = UUID.randomUUID();
+
+    private VectorStore vectorStore;
+    private DocumentRepository documentRepository;
+    private VectorStoreChunkRepository chunkRepository;
+    private EmbeddingPipeline embeddingPipeline;
+    private SentenceChunker sentenceChunker;
+    private DocumentService service;
+
+    private final List<Document> embedded = new CopyOnWriteArrayList<>();
+    private final List<UUID> deleted = new ArrayList<>();
+    private final List<Map<UUID, ChunkPosition>> repositioned = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        IngestionConfig config = new IngestionConfig();
+        config.setBatchSize(4);
+        config.setMaxAttempts(1);
+        config.setRetryBackoff(Duration.ofMillis(1));
+
+        vectorStore = mock(VectorStore.class);
+        doAnswer(invocation -> embedded.addAll(invocation.getArgument(0))).when(vectorStore).add(anyList());
+        documentRepository = mock(DocumentRepository.class);
+        chunkRepository = mock(VectorStoreChunkRepository.class);
+        doAnswer(invocation -> {
+            Collection<UUID> ids = invocation.getArgument(0);
+            deleted.addAll(ids);
+            return ids.size();
+        }).when(chunkRepository).deleteByIds(any());
+        doAnswer(invocation -> repositioned.add(invocation.getArgument(0)))
+            .when(chunkRepository).updateChunkPositions(anyMap());
+
+        Encoding encoding = Encodings.newLazyEncodingRegistry().getEncoding(EncodingType.CL100K_BASE);
+        sentenceChunker = new SentenceChunker(encoding, 30, 0, 10_000);
+        StreamingSentenceChunker streamingSentenceChunker = new StreamingSentenceChunker(sentenceChunker,
+            new HierarchicalChunker(encoding, 120, 30, 0, 10_000), 10_000);
+        embeddingPipeline = new EmbeddingPipeline(vectorStore, config, new SimpleMeterRegistry());
+
+        service = new DocumentService(vectorStore, documentRepository, mock(DocumentContentRepository.class),
+            chunkRepository, new StreamingTextChunker(200, 40), streamingSentenceChunker,
+            mock(ChunkParentRepository.class), embeddingPipeline, config,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)), mock(ApplicationEventPublisher.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        embeddingPipeline.shutdown();
+    }
+
+    @Test
+    void onlyChangedChunksAreEmbeddedAndOnlyVanishedChunksAreDeleted() throws IOException {
+        String oldText = sampleText(40);
+        String newText = oldText.replace("Sentence 20 has some words.", "Sentence 20 was rewritten entirely.");
+        List<StoredChunk> stored = storedChunks(oldText);
+        DocumentEntity document = givenDocument(oldText, stored);
+
+        DocumentUpdateResult result = service.updateDocument(documentId, file(newText));
+
+        List<String> newChunks = texts(sentenceChunker.split(newText));
+        Set<String> oldChunks = new HashSet<>(texts(sentenceChunker.split(oldText)));
+        assertEquals(newChunks.size(), result.chunkCount());
+        assertEquals(result.chunkCount(), result.embedded() + result.reused());
+        assertTrue(result.reused() > 0 && result.embedded() > 0, result.toString());
+        assertFalse(result.unchanged());
+
+        // 기존에 없던 청크만 임베딩
+        assertEquals(result.embedded(), embedded.size());
+        embedded.forEach(chunk -> assertFalse(oldChunks.contains(chunk.getText()), chunk.getText()));
+
+        // 새 내용에 없는 기존 청크만 삭제
+        Set<UUID> vanished = stored.stream()
+            .filter(chunk -> newChunks.stream().noneMatch(text -> CachingEmbeddingModel.sha256(text).equals(chunk.contentHash())))
+            .map(StoredChunk::id)
+            .collect(Collectors.toSet());
+        assertEquals(vanished, new HashSet<>(deleted));
+        assertEquals(result.removed(), deleted.size());
+
+        assertEquals(CachingEmbeddingModel.sha256(newText), document.getContentHash());
+        assertEquals(newChunks.size(), document.getChunkCount());
+        verify(documentRepository).saveAndFlush(document);
+    }
+
+    @Test
+    void reusedChunksThatMovedAreRepositioned() throws IOException {
+        String text = sampleText(40);
+        // 앞쪽 청크 하나가 사라지고 나머지가 한 칸씩 당겨진 상황
+        UUID dropped = UUID.randomUUID();
+        List<StoredChunk> stored = new ArrayList<>();
+        stored.add(new StoredChunk(dropped, CachingEmbeddingModel.sha256("사라진 청크"), 0, null, null));
+        List<SentenceChunker.Chunk> chunks = sentenceChunker.split(text);
+        for (int i = 0; i < chunks.size(); i++) {
+            stored.add(new StoredChunk(UUID.randomUUID(), CachingEmbeddingModel.sha256(chunks.get(i).text()), i + 1, null, null));
+        }
+        givenDocument(text, stored);
+
+        DocumentUpdateResult result = service.updateDocument(documentId, file(text));
+
+        assertEquals(0, result.embedded());
+        assertEquals(chunks.size(), result.reused());
+        assertEquals(List.of(dropped), deleted);
+        assertEquals(1, repositioned.size());
+        Map<UUID, ChunkPosition> positions = repositioned.get(0);
+        assertEquals(chunks.size(), positions.size());
+        for (int i = 0; i < chunks.size(); i++) {
+            assertEquals(i, positions.get(stored.get(i + 1).id()).chunkIndex());
+        }
+        assertTrue(embedded.isEmpty());
+    }
+
+    @Test
+    void identicalContentChangesNothing() throws IOException {
+        String text = sampleText(40);
+        DocumentEntity document = givenDocument(text, storedChunks(text));
+        document.setContentHash(CachingEmbeddingModel.sha256(text));
+
+        DocumentUpdateResult result = service.updateDocument(documentId, file(text));
+
+        assertTrue(result.unchanged());
+        assertEquals(0, result.embedded());
+        assertEquals(0, result.removed());
+        assertTrue(embedded.isEmpty());
+        assertTrue(deleted.isEmpty());
+        verify(documentRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void failedEmbeddingRemovesOnlyNewChunks() {
+        String oldText = sampleText(40);
+        String newText = oldText + "A completely new closing sentence.";
+        List<StoredChunk> stored = storedChunks(oldText);
+        givenDocument(oldText, stored);
+        doThrow(new IllegalStateException("ollama unavailable")).when(vectorStore).add(anyList());
+
+        assertThrows(IngestionException.class, () -> service.updateDocument(documentId, file(newText)));
+
+        // 새로 만든 청크만 정리하고 기존 청크는 건드리지 않음
+        assertFalse(deleted.isEmpty());
+        stored.forEach(chunk -> assertFalse(deleted.contains(chunk.id())));
+        assertTrue(repositioned.isEmpty());
+        verify(documentRepository, never()).saveAndFlush(any());
+    }
+
+    private DocumentEntity givenDocument(String text, List<StoredChunk> stored) {
+        DocumentEntity document = DocumentEntity.builder()
+            .id(documentId)
+            .filename("doc.txt")
+            .contentType("text/plain")
+            .chunkCount(stored.size())
+            .contentLength((long) text.length())
+            .chunking(ChunkingStrategy.SENTENCE)
+            .build();
+        when(documentRepository.findById(documentId)).thenReturn(Optional.of(document));
+        when(chunkRepository.findByDocumentId(documentId.toString())).thenReturn(stored);
+        return document;
+    }
+
+    private List<StoredChunk> storedChunks(String text) {
+        List<SentenceChunker.Chunk> chunks = sentenceChunker.split(text);
+        List<StoredChunk> stored = new ArrayList<>();
+        for (int i = 0; i < chunks.size(); i++) {
+            stored.add(new StoredChunk(UUID.randomUUID(), CachingEmbeddingModel.sha256(chunks.get(i).text()), i, null, null));
+        }
+        return stored;
+    }
+
+    private static List<String> texts(List<SentenceChunker.Chunk> chunks) {
+        return chunks.stream().map(SentenceChunker.Chunk::text).toList();
+    }
+
+    private static MockMultipartFile file(String text) {
+        return new MockMultipartFile("file", "doc.txt", "text/plain", text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 문장마다 어절 수가 다른 텍스트 (7문장마다 문단 구분)
+     */
+    private static String sampleText(int sentences) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < sentences; i++) {
+            text.append("Sentence ").append(i).append(" has").append(" some words".repeat(1 + i % 4)).append('.');
+            text.append(i % 7 == 6 ? "\n\n" : " ");
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,130 @@
+package org.sprain.ai.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sprain.ai.config.IngestionConfig;
+import org.sprain.ai.dto.IngestionJobStatus;
+import org.sprain.ai.entity.DocumentEntity;
+import org.sprain.ai.entity.IngestionJob;
+import org.sprain.ai.global.helper.ingest.IngestionProgressListener;
+import org.sprain.ai.repository.DocumentRepository;
+import org.sprain.ai.repository.IngestionJobRepository;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IngestionJobServiceTest {
+
+    @TempDir
+    Path spoolDir;
+
+    private IngestionJobRepository jobRepository;
+    private DocumentService documentService;
+    private ExecutorService executor;
+    private IngestionJobService service;
+
+    @BeforeEach
+    void setUp() {
+        jobRepository = mock(IngestionJobRepository.class);
+        documentService = mock(DocumentService.class);
+        executor = Executors.newSingleThreadExecutor();
+        IngestionConfig config = new IngestionConfig();
+        config.setSpoolDir(spoolDir.toString());
+        service = new IngestionJobService(jobRepository, mock(DocumentRepository.class), documentService,
+            config, executor);
+    }
+
+    @Test
+    void unfinishedJobResumesFromItsCheckpoint() throws Exception {
+        IngestionJob job = job(IngestionJobStatus.RUNNING, 40);
+        when(jobRepository.findByStatusInOrderByCreatedAtAsc(any())).thenReturn(List.of(job));
+        when(jobRepository.findById(job.getId())).thenReturn(Optional.of(job));
+
+        int[] resumeFrom = {-1};
+        doAnswer(invocation -> {
+            resumeFrom[0] = invocation.getArgument(5);
+            IngestionProgressListener listener = invocation.getArgument(6);
+            listener.onProgress(55, 700);
+            return DocumentEntity.builder().id(job.getDocumentId()).chunkCount(60).build();
+        }).when(documentService).ingestFile(any(), any(), any(), any(), any(), anyInt(), any());
+
+        service.resumeUnfinishedJobs();
+        awaitJobs();
+
+        // 저장된 체크포인트부터 다시 시작하고, 진행 상황은 작업 행에 바로 기록
+        assertEquals(40, resumeFrom[0]);
+        assertEquals(40, job.getResumedFrom());
+        verify(jobRepository).updateProgress(job.getId(), 55, 700);
+
+        assertEquals(IngestionJobStatus.COMPLETED, job.getStatus());
+        assertEquals(60, job.getCheckpoint());
+        assertEquals(job.getTotalBytes(), job.getBytesProcessed());
+        assertFalse(Files.exists(Path.of(job.getSpoolPath())));
+    }
+
+    @Test
+    void finishedJobIsNotRunAgain() throws Exception {
+        IngestionJob job = job(IngestionJobStatus.COMPLETED, 60);
+        when(jobRepository.findById(job.getId())).thenReturn(Optional.of(job));
+
+        service.run(job.getId());
+
+        verify(documentService, never()).ingestFile(any(), any(), any(), any(), any(), anyInt(), any());
+        assertTrue(Files.exists(Path.of(job.getSpoolPath())));
+    }
+
+    @Test
+    void failedIngestionKeepsCheckpointAndRecordsError() throws Exception {
+        IngestionJob job = job(IngestionJobStatus.PENDING, 0);
+        when(jobRepository.findById(job.getId())).thenReturn(Optional.of(job));
+        doThrow(new IOException("ollama unavailable"))
+            .when(documentService).ingestFile(any(), any(), any(), any(), any(), anyInt(), any());
+
+        service.run(job.getId());
+
+        assertEquals(IngestionJobStatus.FAILED, job.getStatus());
+        assertEquals("ollama unavailable", job.getErrorMessage());
+        assertEquals(0, job.getCheckpoint());
+        assertFalse(Files.exists(Path.of(job.getSpoolPath())));
+    }
+
+    private IngestionJob job(IngestionJobStatus status, int checkpoint) throws IOException {
+        UUID id = UUID.randomUUID();
+        Path spoolFile = Files.writeString(spoolDir.resolve(id + ".upload"), "x".repeat(1000));
+        return IngestionJob.builder()
+            .id(id)
+            .documentId(UUID.randomUUID())
+            .filename("doc.txt")
+            .contentType("text/plain")
+            .spoolPath(spoolFile.toString())
+            .status(status)
+            .totalBytes(1000L)
+            .checkpoint(checkpoint)
+            .build();
+    }
+
+    private void awaitJobs() throws InterruptedException {
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    }
+}